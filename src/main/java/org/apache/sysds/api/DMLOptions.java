@@ -60,6 +60,10 @@ public class DMLOptions {
 	public boolean              statsNGramsUseLineage = true;     // If N-Grams use lineage for data-dependent tracking
 	public boolean              fedStats      = false;            // Whether to record and print the federated statistics
 	public int                  fedStatsCount = 10;               // Default federated statistics count
+	public boolean              profile       = false;            // Whether to record and export an execution profile
+	public String               profileOutput = "systemds-profile"; // Output file prefix of the execution profile
+	public int                  metricsPort   = -1;               // Port of the metrics endpoint, -1 if disabled
+	public String               metricsHost   = null;             // Bind address of the metrics endpoint, loopback if null
 	public boolean              memStats      = false;            // max memory statistics
 	public Explain.ExplainType  explainType   = Explain.ExplainType.NONE;  // Whether to print the "Explain" and if so, what type
 	public ExecMode             execMode      = OptimizerUtils.getDefaultExecutionMode();  // Execution mode standalone, MR, Spark or a hybrid
@@ -104,6 +108,10 @@ public class DMLOptions {
 			", statsCount=" + statsCount +
 			", fedStats=" + fedStats +
 			", fedStatsCount=" + fedStatsCount +
+			", profile=" + profile +
+			", profileOutput=" + profileOutput +
+			", metricsPort=" + metricsPort +
+			", metricsHost=" + metricsHost +
 			", fedMonitoring=" + fedMonitoring +
 			", fedMonitoringAddress" + fedMonitoringAddress +
 			", memStats=" + memStats +
@@ -259,6 +267,24 @@ public class DMLOptions {
 			}
 		}
 
+		dmlOptions.profile = line.hasOption("profile");
+		if (dmlOptions.profile) {
+			String profileOutput = line.getOptionValue("profile");
+			if(profileOutput != null)
+				dmlOptions.profileOutput = profileOutput;
+		}
+
+		if (line.hasOption("metrics")) {
+			try {
+				dmlOptions.metricsPort = Integer.parseInt(line.getOptionValue("metrics"));
+			} catch (NumberFormatException e) {
+				throw new org.apache.commons.cli.ParseException("Invalid argument specified for -metrics option, must be a valid port");
+			}
+		}
+
+		if (line.hasOption("metricsHost"))
+			dmlOptions.metricsHost = line.getOptionValue("metricsHost");
+
 		dmlOptions.memStats = line.hasOption("mem");
 
 		dmlOptions.clean = line.hasOption("clean");
@@ -387,6 +413,15 @@ public class DMLOptions {
 		Option fedStatsOpt = OptionBuilder.withArgName("count")
 			.withDescription("monitors and reports summary execution statistics of federated workers; heavy hitter <count> is 10 unless overridden; default off")
 			.hasOptionalArg().create("fedStats");
+		Option profileOpt = OptionBuilder.withArgName("prefix")
+			.withDescription("records an execution profile of DML lines, function calls and threads, written to <prefix>.folded (flame graph) and <prefix>.trace.json (Chrome trace); default off")
+			.hasOptionalArg().create("profile");
+		Option metricsOpt = OptionBuilder.withArgName("port")
+			.withDescription("exposes runtime statistics in OpenMetrics text format at http://localhost:<port>/metrics (implies -stats); default off")
+			.hasArg().create("metrics");
+		Option metricsHostOpt = OptionBuilder.withArgName("host")
+			.withDescription("binds the metrics endpoint to the given host/interface (e.g., 0.0.0.0) instead of loopback; default loopback")
+			.hasArg().create("metricsHost");
 		Option memOpt = OptionBuilder.withDescription("monitors and reports max memory consumption in CP; default off")
 			.create("mem");
 		Option explainOpt = OptionBuilder.withArgName("level")
@@ -452,6 +487,9 @@ public class DMLOptions {
 		options.addOption(statsOpt);
 		options.addOption(ngramsOpt);
 		options.addOption(fedStatsOpt);
+		options.addOption(profileOpt);
+		options.addOption(metricsOpt);
+		options.addOption(metricsHostOpt);
 		options.addOption(memOpt);
 		options.addOption(explainOpt);
 		options.addOption(execOpt);
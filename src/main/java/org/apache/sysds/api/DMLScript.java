@@ -81,7 +81,9 @@ import org.apache.sysds.runtime.util.LocalFileUtils;
 import org.apache.sysds.utils.Explain;
 import org.apache.sysds.utils.Explain.ExplainCounts;
 import org.apache.sysds.utils.Explain.ExplainType;
+import org.apache.sysds.utils.stats.ExecutionProfiler;
 import org.apache.sysds.utils.stats.InfrastructureAnalyzer;
+import org.apache.sysds.utils.stats.MetricsServer;
 import org.apache.sysds.utils.NativeHelper;
 import org.apache.sysds.utils.SettingsChecker;
 import org.apache.sysds.utils.Statistics;
@@ -112,6 +114,10 @@ public class DMLScript
 	public static boolean     FED_STATISTICS             = DMLOptions.defaultOptions.fedStats;
 	// Set federated statistics maximum heavy hitter count
 	public static int         FED_STATISTICS_COUNT       = DMLOptions.defaultOptions.fedStatsCount;
+	// Enable/disable recording and export of an execution profile
+	public static boolean     PROFILE                    = DMLOptions.defaultOptions.profile;
+	// Set output file prefix of the execution profile
+	public static String      PROFILE_OUTPUT             = DMLOptions.defaultOptions.profileOutput;
 	// Enable/disable this instance is a federated worker
 	public static boolean     FED_WORKER                 = DMLOptions.defaultOptions.fedWorker;
 	// Set explain type
@@ -269,6 +275,8 @@ public class DMLScript
 			FED_STATISTICS        = dmlOptions.fedStats;
 			FED_STATISTICS_COUNT  = dmlOptions.fedStatsCount;
 			JMLC_MEM_STATISTICS   = dmlOptions.memStats;
+			PROFILE               = dmlOptions.profile;
+			PROFILE_OUTPUT        = dmlOptions.profileOutput;
 			USE_ACCELERATOR       = dmlOptions.gpu;
 			FORCE_ACCELERATOR     = dmlOptions.forceGPU;
 			USE_OOC	              = dmlOptions.ooc;
@@ -303,6 +311,9 @@ public class DMLScript
 				return true;
 			}
 			
+			if(dmlOptions.metricsPort >= 0)
+				startMetricsEndpoint(dmlOptions.metricsHost, dmlOptions.metricsPort);
+
 			if(dmlOptions.fedWorker) {
 				loadConfiguration(fnameOptConfig);
 				new FederatedWorker(dmlOptions.fedWorkerPort, dmlOptions.debug);
@@ -342,6 +353,17 @@ public class DMLScript
 		return true;
 	}
 
+	/**
+	 * Starts the metrics endpoint for long-running processes (federated workers,
+	 * Python gateway), which also enables the collection of statistics.
+	 * 
+	 * @param host bind address of the metrics endpoint, loopback if null
+	 * @param port port of the metrics endpoint
+	 */
+	public static void startMetricsEndpoint(String host, int port) {
+		MetricsServer.start(host, port);
+	}
+
 	/**
 	 * Reads the DML/PyDML script into a String
 	 * @param isFile	Whether the string argument is a path to a file or the script itself
@@ -566,6 +588,8 @@ public class DMLScript
 		Statistics.resetNoOfExecutedJobs();
 		if( STATISTICS )
 			Statistics.reset();
+		if( PROFILE )
+			ExecutionProfiler.reset();
 	}
 	
 	public static void cleanupHadoopExecution( DMLConfig config ) 
@@ -70,6 +70,8 @@ public class PythonDMLScript {
 	public static void main(String[] args) throws Exception {
 		final DMLOptions dmlOptions = DMLOptions.parseCLArguments(args);
 		DMLScript.loadConfiguration(dmlOptions.configFile);
+		if(dmlOptions.metricsPort >= 0)
+			DMLScript.startMetricsEndpoint(dmlOptions.metricsHost, dmlOptions.metricsPort);
 		GwS = new GatewayServer(new PythonDMLScript(), dmlOptions.pythonPort);
 		GwS.addListener(new DMLGateWayListener());
 		try {
@@ -288,6 +288,26 @@ public class Connection implements Closeable
 		return new PreparedScript(rtprog, inputs, outputs, _dmlconf, _cconf);
 	}
 	
+	/**
+	 * Creates a micro-batching front-end for a row-wise scoring script, which
+	 * coalesces concurrent single-row requests into one script execution.
+	 * All inputs other than the row input need to be pinned (reuse=true)
+	 * before creating the batcher.
+	 *
+	 * @param ps prepared script with pinned model inputs
+	 * @param input registered matrix input receiving the stacked rows
+	 * @param output registered matrix output with one row per input row
+	 * @param ncol number of columns of an input row
+	 * @param maxBatchSize maximum number of rows per script execution
+	 * @param maxDelayMicros maximum time a request waits for other requests
+	 * @return batcher object, which needs to be closed after use
+	 */
+	public PreparedScriptBatcher prepareBatcher(PreparedScript ps, String input, String output,
+		int ncol, int maxBatchSize, long maxDelayMicros)
+	{
+		return new PreparedScriptBatcher(ps, input, output, ncol, maxBatchSize, maxDelayMicros);
+	}
+
 	/**
 	 * Close connection to SystemDS, which clears the
 	 * thread-local DML and compiler configurations.
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.api.jmlc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Set;
+
+import org.apache.sysds.api.DMLScript;
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.hops.recompile.Recompiler;
+import org.apache.sysds.parser.StatementBlock;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.DMLScriptException;
+import org.apache.sysds.runtime.controlprogram.BasicProgramBlock;
+import org.apache.sysds.runtime.controlprogram.LocalVariableMap;
+import org.apache.sysds.runtime.controlprogram.Program;
+import org.apache.sysds.runtime.controlprogram.ProgramBlock;
+import org.apache.sysds.runtime.controlprogram.caching.CacheableData;
+import org.apache.sysds.runtime.controlprogram.context.ExecutionContext;
+import org.apache.sysds.runtime.instructions.Instruction;
+import org.apache.sysds.runtime.instructions.cp.Data;
+import org.apache.sysds.runtime.lineage.LineageCacheConfig.ReuseCacheType;
+import org.apache.sysds.runtime.meta.DataCharacteristics;
+import org.apache.sysds.utils.Statistics;
+
+/**
+ * Flattened, shape-specialized instruction plan of a prepared script without control flow. The plan is recorded
+ * during a regular execution, where every program block is recompiled once for the shapes of the bound inputs, and
+ * all resulting instructions are concatenated into a single array. Subsequent executions with inputs of the same
+ * shapes run this array directly, without program block traversal, recompilation checks, and lineage hooks.
+ */
+class FlattenedPlan {
+	private final Instruction[] _inst;
+	private final String[] _inputs;
+	private final long[] _dims;
+
+	private FlattenedPlan(Instruction[] inst, String[] inputs, long[] dims) {
+		_inst = inst;
+		_inputs = inputs;
+		_dims = dims;
+	}
+
+	/**
+	 * Indicates if the given program can be flattened, which requires a sequence of basic program blocks (function
+	 * calls are allowed) and disabled lineage tracing and reuse.
+	 * 
+	 * @param prog runtime program
+	 * @return true if supported
+	 */
+	protected static boolean isSupported(Program prog) {
+		if(DMLScript.LINEAGE || !ReuseCacheType.isNone())
+			return false;
+		for(ProgramBlock pb : prog.getProgramBlocks())
+			if(!(pb instanceof BasicProgramBlock))
+				return false;
+		return true;
+	}
+
+	/**
+	 * Executes the given program block by block, recompiling each block for the current shapes, and records the
+	 * executed instructions into a flattened plan.
+	 * 
+	 * @param prog   runtime program
+	 * @param ec     execution context with bound inputs
+	 * @param inputs registered input variable names
+	 * @return flattened plan for the shapes of the bound inputs
+	 */
+	protected static FlattenedPlan compileAndExecute(Program prog, ExecutionContext ec, Set<String> inputs) {
+		String[] names = inputs.toArray(new String[0]);
+		Arrays.sort(names);
+		long[] dims = getDims(ec.getVariables(), names);
+
+		ArrayList<Instruction> plan = new ArrayList<>();
+		try {
+			for(ProgramBlock pb : prog.getProgramBlocks()) {
+				BasicProgramBlock bpb = (BasicProgramBlock) pb;
+				StatementBlock sb = bpb.getStatementBlock();
+				ArrayList<Instruction> inst = bpb.getInstructions();
+				// recompile without literal replacement, to keep scalar inputs variable
+				if(ConfigurationManager.isDynamicRecompilation() && sb != null && sb.requiresRecompilation())
+					inst = Recompiler.recompileHopsDag(sb, sb.getHops(), ec, null, false, false, 0);
+				for(Instruction i : inst)
+					execute(i, ec);
+				plan.addAll(inst);
+			}
+		}
+		catch(DMLScriptException e) {
+			throw e;
+		}
+		catch(Exception e) {
+			throw new DMLRuntimeException(e);
+		}
+		return new FlattenedPlan(plan.toArray(new Instruction[0]), names, dims);
+	}
+
+	/**
+	 * Indicates if the bound inputs have the same shapes as during recording of this plan.
+	 * 
+	 * @param vars symbol table with bound inputs
+	 * @return true if the plan can be reused
+	 */
+	protected boolean matches(LocalVariableMap vars) {
+		return Arrays.equals(_dims, getDims(vars, _inputs));
+	}
+
+	protected void execute(ExecutionContext ec) {
+		try {
+			for(Instruction i : _inst)
+				execute(i, ec);
+		}
+		catch(DMLScriptException e) {
+			throw e;
+		}
+		catch(Exception e) {
+			throw new DMLRuntimeException(e);
+		}
+	}
+
+	protected int getNumInstructions() {
+		return _inst.length;
+	}
+
+	private static void execute(Instruction inst, ExecutionContext ec) {
+		long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
+		try {
+			Instruction tmp = inst.preprocessInstruction(ec);
+			tmp.processInstruction(ec);
+			tmp.postprocessInstruction(ec);
+			if(DMLScript.STATISTICS)
+				Statistics.maintainCPHeavyHitters(tmp.getExtendedOpcode(), System.nanoTime() - t0);
+		}
+		catch(DMLScriptException e) {
+			throw e;
+		}
+		catch(Exception e) {
+			throw new DMLRuntimeException("Error evaluating instruction: " + inst.toString(), e);
+		}
+	}
+
+	private static long[] getDims(LocalVariableMap vars, String[] names) {
+		long[] dims = new long[names.length * 2];
+		for(int i = 0; i < names.length; i++) {
+			Data dat = vars.get(names[i]);
+			if(dat instanceof CacheableData) {
+				DataCharacteristics dc = ((CacheableData<?>) dat).getDataCharacteristics();
+				dims[2 * i] = dc.getRows();
+				dims[2 * i + 1] = dc.getCols();
+			}
+			else // scalars, lists, and unbound inputs
+				dims[2 * i] = dims[2 * i + 1] = dat == null ? -2 : -1;
+		}
+		return dims;
+	}
+}
@@ -24,6 +24,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.sysds.api.ConfigurableAPI;
 import org.apache.sysds.api.DMLException;
+import org.apache.sysds.api.DMLScript;
 import org.apache.sysds.common.Types.FileFormat;
 import org.apache.sysds.common.Types.ValueType;
 import org.apache.sysds.conf.CompilerConfig;
@@ -41,6 +42,8 @@ import org.apache.sysds.runtime.controlprogram.caching.FrameObject;
 import org.apache.sysds.runtime.controlprogram.caching.MatrixObject;
 import org.apache.sysds.runtime.controlprogram.context.ExecutionContext;
 import org.apache.sysds.runtime.controlprogram.context.ExecutionContextFactory;
+import org.apache.sysds.runtime.data.DenseBlock;
+import org.apache.sysds.runtime.data.DenseBlockFP64;
 import org.apache.sysds.runtime.frame.data.FrameBlock;
 import org.apache.sysds.runtime.instructions.cp.BooleanObject;
 import org.apache.sysds.runtime.instructions.cp.Data;
@@ -54,6 +57,7 @@ import org.apache.sysds.runtime.meta.MetaDataFormat;
 import org.apache.sysds.runtime.util.DataConverter;
 import org.apache.sysds.utils.Explain;
 import org.apache.sysds.utils.Statistics;
+import org.apache.sysds.utils.stats.LatencyHistogram;
 
 import java.util.Collections;
 import java.util.HashMap;
@@ -79,6 +83,10 @@ public class PreparedScript implements ConfigurableAPI
 	private final DMLConfig _dmlconf;
 	private final CompilerConfig _cconf;
 	private HashMap<String, String> _outVarLineage;
+	private ExecutionContext _ec;
+	private LatencyHistogram _latency;
+	private boolean _flatten = false;
+	private FlattenedPlan _flatPlan;
 	
 	private PreparedScript(PreparedScript that) {
 		//shallow copy, except for a separate symbol table
@@ -93,6 +101,10 @@ public class PreparedScript implements ConfigurableAPI
 		_inVarReuse = new LocalVariableMap(that._inVarReuse);
 		_dmlconf = that._dmlconf;
 		_cconf = that._cconf;
+		_outVarLineage = new HashMap<>();
+		_latency = that._latency;
+		_flatten = that._flatten;
+		_flatPlan = that._flatPlan;
 	}
 	
 	/**
@@ -279,6 +291,41 @@ public class PreparedScript implements ConfigurableAPI
 		setMatrix(varname, DataConverter.convertToMatrixBlock(matrix), reuse);
 	}
 	
+	/**
+	 * Binds a matrix object to a registered input variable, without copying
+	 * the given row-major array. The caller must not modify the array until
+	 * the script execution completed.
+	 * 
+	 * @param varname input variable name
+	 * @param matrix row-major dense values of length rows*cols
+	 * @param rows number of rows
+	 * @param cols number of columns
+	 * @param reuse if {@code true}, preserve value over multiple {@code executeScript} calls
+	 */
+	public void setMatrix(String varname, double[] matrix, int rows, int cols, boolean reuse) {
+		if( matrix.length != (long) rows * cols )
+			throw new DMLException("Invalid input array of length "+matrix.length
+				+" for a "+rows+"x"+cols+" matrix: "+varname);
+		setMatrix(varname, new DenseBlockFP64(new int[] {rows, cols}, matrix), reuse);
+	}
+	
+	/**
+	 * Binds a matrix object to a registered input variable, as a view over the
+	 * given dense block (no copy). The caller must not modify the dense block
+	 * until the script execution completed.
+	 * 
+	 * @param varname input variable name
+	 * @param matrix two-dimensional dense block
+	 * @param reuse if {@code true}, preserve value over multiple {@code executeScript} calls
+	 */
+	public void setMatrix(String varname, DenseBlock matrix, boolean reuse) {
+		if( matrix.numDims() != 2 )
+			throw new DMLException("Invalid "+matrix.numDims()+"-dimensional input block: "+varname);
+		MatrixBlock mb = new MatrixBlock(matrix.numRows(), matrix.getDim(1), matrix);
+		mb.recomputeNonZeros();
+		setMatrix(varname, mb, reuse);
+	}
+	
 	/**
 	 * Binds a matrix object to a registered input variable. 
 	 * If reuse requested, then the input is guaranteed to be 
@@ -298,8 +345,10 @@ public class PreparedScript implements ConfigurableAPI
 		MatrixCharacteristics mc = new MatrixCharacteristics(matrix.getNumRows(), matrix.getNumColumns(), blocksize, blocksize);
 		MetaDataFormat meta = new MetaDataFormat(mc, FileFormat.BINARY);
 		MatrixObject mo = new MatrixObject(ValueType.FP64, OptimizerUtils.getUniqueTempFileName(), meta);
-		mo.acquireModify(matrix); 
-		mo.release();
+		if( !mo.setSmallData(matrix) ) { //small inputs bypass buffer pool
+			mo.acquireModify(matrix); 
+			mo.release();
+		}
 		
 		//put create matrix wrapper into symbol table
 		_vars.put(varname, mo);
@@ -431,6 +480,8 @@ public class PreparedScript implements ConfigurableAPI
 	 * @return ResultVariables object encapsulating output results
 	 */
 	public ResultVariables executeScript() {
+		long t0 = _latency != null ? System.nanoTime() : 0;
+		
 		//add reused variables
 		_vars.putAll(_inVarReuse);
 		
@@ -438,11 +489,23 @@ public class PreparedScript implements ConfigurableAPI
 		ConfigurationManager.setLocalConfig(_dmlconf);
 		ConfigurationManager.setLocalConfig(_cconf);
 		
-		//create and populate execution context
-		ExecutionContext ec = ExecutionContextFactory.createContext(_vars, _prog);
+		//create and populate execution context (reused across calls
+		//if no per-execution lineage needs to be maintained)
+		ExecutionContext ec = _ec;
+		if( ec == null || DMLScript.LINEAGE ) {
+			ec = ExecutionContextFactory.createContext(_vars, _prog);
+			_ec = DMLScript.LINEAGE ? null : ec;
+		}
 		
-		//core execute runtime program
-		_prog.execute(ec);
+		//core execute runtime program (flattened plan if enabled and shapes match)
+		if( _flatten && FlattenedPlan.isSupported(_prog) ) {
+			if( _flatPlan != null && _flatPlan.matches(_vars) )
+				_flatPlan.execute(ec);
+			else
+				_flatPlan = FlattenedPlan.compileAndExecute(_prog, ec, _inVarnames);
+		}
+		else
+			_prog.execute(ec);
 		
 		//cleanup unnecessary outputs
 		_vars.removeAllNotIn(_outVarnames);
@@ -460,10 +523,58 @@ public class PreparedScript implements ConfigurableAPI
 		
 		//clear thread-local configurations
 		ConfigurationManager.clearLocalConfigs();
+		
+		if( _latency != null )
+			_latency.recordSince(t0);
 
 		return rvars;
 	}
 	
+	/**
+	 * Enables or disables execution via a flattened, shape-specialized plan.
+	 * If enabled, the next execution recompiles the script for the shapes of
+	 * the bound inputs and records all executed instructions into a single
+	 * array, which is then executed directly by subsequent calls with inputs of
+	 * the same shapes (and re-recorded on shape changes). This is only applied
+	 * for scripts without control flow at top level and disabled lineage.
+	 * 
+	 * @param flag if {@code true}, use flattened plans
+	 */
+	public void enableFlattenedPlan(boolean flag) {
+		_flatten = flag;
+		_flatPlan = null;
+	}
+	
+	/**
+	 * Indicates if a flattened plan has been recorded and is used for
+	 * executions with inputs of the recorded shapes.
+	 * 
+	 * @return true if a flattened plan exists
+	 */
+	public boolean hasFlattenedPlan() {
+		return _flatPlan != null;
+	}
+	
+	/**
+	 * Sets a latency histogram that records the time of every
+	 * {@code executeScript} call, or disables recording if null.
+	 * Cloned scripts share the histogram of their source.
+	 * 
+	 * @param latency latency histogram, or null
+	 */
+	public void setLatencyHistogram(LatencyHistogram latency) {
+		_latency = latency;
+	}
+	
+	/**
+	 * Gets the latency histogram of {@code executeScript} calls.
+	 * 
+	 * @return latency histogram, or null if not enabled
+	 */
+	public LatencyHistogram getLatencyHistogram() {
+		return _latency;
+	}
+	
 	/**
 	 * Explain the DML/PyDML program and view result as a string.
 	 * 
@@ -0,0 +1,262 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.api.jmlc;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.sysds.api.DMLException;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.utils.stats.LatencyHistogram;
+
+/**
+ * Micro-batching front-end for row-wise scoring scripts. Concurrent single-row requests are collected for up to a
+ * given latency budget (or until the maximum batch size is reached), stacked into one input matrix, scored with a
+ * single script execution, and the rows of the output matrix are handed back to the individual callers. This turns
+ * many matrix-vector into few matrix-matrix operations.
+ * 
+ * The prepared script must compute every output row only from the corresponding input row (e.g., GLM or MLP
+ * predictions), and all other inputs (e.g., model weights) have to be pinned before creating the batcher.
+ */
+public class PreparedScriptBatcher implements Closeable {
+	private static final Log LOG = LogFactory.getLog(PreparedScriptBatcher.class.getName());
+
+	private final String _inVar;
+	private final String _outVar;
+	private final int _ncol;
+	private final int _maxBatch;
+	private final long _maxDelay;
+	private final LinkedBlockingQueue<Request> _queue;
+	private final Thread[] _workers;
+	private volatile boolean _closed = false;
+
+	private final LatencyHistogram _latency = new LatencyHistogram();
+	private final LongAdder _batches = new LongAdder();
+	private final LongAdder _rows = new LongAdder();
+
+	/**
+	 * Creates a batcher with a single worker.
+	 * 
+	 * @param ps             prepared script with pinned model inputs
+	 * @param inVar          registered matrix input receiving the stacked rows
+	 * @param outVar         registered matrix output with one row per input row
+	 * @param ncol           number of columns of an input row
+	 * @param maxBatch       maximum number of rows per script execution
+	 * @param maxDelayMicros maximum time a request waits for other requests
+	 */
+	public PreparedScriptBatcher(PreparedScript ps, String inVar, String outVar, int ncol, int maxBatch,
+		long maxDelayMicros) {
+		this(ps, inVar, outVar, ncol, maxBatch, maxDelayMicros, 1);
+	}
+
+	/**
+	 * Creates a batcher with the given number of workers, each executing its own clone of the prepared script.
+	 * 
+	 * @param ps             prepared script with pinned model inputs
+	 * @param inVar          registered matrix input receiving the stacked rows
+	 * @param outVar         registered matrix output with one row per input row
+	 * @param ncol           number of columns of an input row
+	 * @param maxBatch       maximum number of rows per script execution
+	 * @param maxDelayMicros maximum time a request waits for other requests
+	 * @param numWorkers     number of concurrently executed batches
+	 */
+	public PreparedScriptBatcher(PreparedScript ps, String inVar, String outVar, int ncol, int maxBatch,
+		long maxDelayMicros, int numWorkers) {
+		if(ncol < 1 || maxBatch < 1 || maxDelayMicros < 0 || numWorkers < 1)
+			throw new DMLException("Invalid batcher configuration: ncol=" + ncol + ", maxBatch=" + maxBatch
+				+ ", maxDelayMicros=" + maxDelayMicros + ", numWorkers=" + numWorkers);
+		_inVar = inVar;
+		_outVar = outVar;
+		_ncol = ncol;
+		_maxBatch = maxBatch;
+		_maxDelay = TimeUnit.MICROSECONDS.toNanos(maxDelayMicros);
+		_queue = new LinkedBlockingQueue<>();
+		_workers = new Thread[numWorkers];
+		for(int i = 0; i < numWorkers; i++) {
+			final PreparedScript wps = ps.clone(false);
+			_workers[i] = new Thread(() -> runWorker(wps), "JMLC-Batcher-" + i);
+			_workers[i].setDaemon(true);
+			_workers[i].start();
+		}
+	}
+
+	/**
+	 * Submits a single input row for asynchronous scoring.
+	 * 
+	 * @param row input row of length ncol (not copied, must not be modified until completion)
+	 * @return future of the corresponding output row
+	 */
+	public CompletableFuture<double[]> submit(double[] row) {
+		if(_closed)
+			throw new DMLException("Batcher is already closed.");
+		if(row.length != _ncol)
+			throw new DMLException("Invalid input row of length " + row.length + ", expected " + _ncol);
+		Request r = new Request(row);
+		_queue.add(r);
+		// a concurrent close might have stopped the workers before the request was queued,
+		// whoever removes the request from the queue first is responsible for completing it.
+		if(_closed && _queue.remove(r))
+			r.future.completeExceptionally(new DMLException("Batcher is already closed."));
+		return r.future;
+	}
+
+	/**
+	 * Scores a single input row, blocking until its batch has been executed.
+	 * 
+	 * @param row input row of length ncol
+	 * @return output row
+	 */
+	public double[] score(double[] row) {
+		try {
+			return submit(row).join();
+		}
+		catch(CompletionException e) {
+			throw e.getCause() instanceof DMLException ? (DMLException) e.getCause() : new DMLException(e.getCause());
+		}
+	}
+
+	/**
+	 * Gets the histogram of per-request latencies, including the time spent waiting for the batch.
+	 * 
+	 * @return latency histogram
+	 */
+	public LatencyHistogram getLatencyHistogram() {
+		return _latency;
+	}
+
+	public long getNumBatches() {
+		return _batches.sum();
+	}
+
+	public long getNumRows() {
+		return _rows.sum();
+	}
+
+	/**
+	 * Stops accepting new requests, scores all pending requests, and stops the workers. Requests that were not scored
+	 * by the workers are completed exceptionally.
+	 */
+	@Override
+	public void close() {
+		_closed = true;
+		try {
+			for(Thread t : _workers)
+				t.join();
+		}
+		catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		finally {
+			Request r;
+			while((r = _queue.poll()) != null)
+				r.future.completeExceptionally(new DMLException("Batcher is already closed."));
+		}
+	}
+
+	private void runWorker(PreparedScript ps) {
+		final List<Request> batch = new ArrayList<>(_maxBatch);
+		try {
+			while(!_closed || !_queue.isEmpty()) {
+				Request first = _queue.poll(10, TimeUnit.MILLISECONDS);
+				if(first == null)
+					continue;
+				batch.add(first);
+				collect(first.t0 + _maxDelay, batch);
+				execute(ps, batch);
+				batch.clear();
+			}
+		}
+		catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			for(Request r : batch)
+				r.future.completeExceptionally(e);
+		}
+	}
+
+	private void collect(long deadline, List<Request> batch) throws InterruptedException {
+		while(batch.size() < _maxBatch) {
+			// take everything already queued without waiting
+			if(_queue.drainTo(batch, _maxBatch - batch.size()) > 0)
+				continue;
+			long remaining = deadline - System.nanoTime();
+			if(remaining <= 0 || _closed)
+				return;
+			Request r = _queue.poll(remaining, TimeUnit.NANOSECONDS);
+			if(r == null)
+				return;
+			batch.add(r);
+		}
+	}
+
+	private void execute(PreparedScript ps, List<Request> batch) {
+		final int n = batch.size();
+		try {
+			// stack rows into one dense input matrix
+			double[] X = new double[n * _ncol];
+			for(int i = 0; i < n; i++)
+				System.arraycopy(batch.get(i).row, 0, X, i * _ncol, _ncol);
+			ps.setMatrix(_inVar, X, n, _ncol, false);
+			MatrixBlock Y = ps.executeScript().getMatrixBlock(_outVar);
+			if(Y.getNumRows() != n)
+				throw new DMLException("Invalid batch output with " + Y.getNumRows() + " rows for " + n + " inputs.");
+
+			// split output rows back to the callers
+			final int ncolY = Y.getNumColumns();
+			for(int i = 0; i < n; i++) {
+				double[] y = new double[ncolY];
+				for(int j = 0; j < ncolY; j++)
+					y[j] = Y.get(i, j);
+				Request r = batch.get(i);
+				_latency.recordSince(r.t0);
+				r.future.complete(y);
+			}
+			_batches.increment();
+			_rows.add(n);
+		}
+		catch(Throwable e) {
+			LOG.error("Failed to score batch of " + n + " rows.", e);
+			for(Request r : batch)
+				r.future.completeExceptionally(e);
+		}
+		finally {
+			ps.clearParameters();
+		}
+	}
+
+	private static class Request {
+		private final double[] row;
+		private final long t0;
+		private final CompletableFuture<double[]> future;
+
+		private Request(double[] row) {
+			this.row = row;
+			this.t0 = System.nanoTime();
+			this.future = new CompletableFuture<>();
+		}
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.api.jmlc;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.Consumer;
+
+import org.apache.sysds.api.DMLException;
+import org.apache.sysds.utils.stats.LatencyHistogram;
+
+/**
+ * Pool of pre-initialized, cloned instances of a prepared script for low-latency scoring with many concurrent
+ * callers. Every pooled instance keeps its own symbol table and reused execution context, while sharing the compiled
+ * program, pinned inputs (e.g., model weights), and a latency histogram with the source script.
+ * 
+ * <pre>
+ * ResultVariables rv = pool.execute(ps -&gt; ps.setMatrix("X", buff, 1, n, false));
+ * </pre>
+ */
+public class PreparedScriptPool {
+	private final PreparedScript _source;
+	private final ArrayBlockingQueue<PreparedScript> _pool;
+	private final LatencyHistogram _latency;
+
+	/**
+	 * Creates a pool of the given size with eagerly cloned script instances.
+	 * 
+	 * @param source prepared script with pinned (reused) inputs already bound
+	 * @param size   maximum number of idle pooled instances
+	 */
+	public PreparedScriptPool(PreparedScript source, int size) {
+		if(size < 1)
+			throw new DMLException("Invalid pool size: " + size);
+		_latency = source.getLatencyHistogram() != null ? source.getLatencyHistogram() : new LatencyHistogram();
+		source.setLatencyHistogram(_latency);
+		_source = source;
+		_pool = new ArrayBlockingQueue<>(size);
+		for(int i = 0; i < size; i++)
+			_pool.offer(source.clone(false));
+	}
+
+	/**
+	 * Takes an idle script instance from the pool, or creates a new clone if all instances are in use. The instance
+	 * has to be returned via {@link #release(PreparedScript)}.
+	 * 
+	 * @return prepared script instance for exclusive use by the calling thread
+	 */
+	public PreparedScript acquire() {
+		PreparedScript ps = _pool.poll();
+		return ps != null ? ps : _source.clone(false);
+	}
+
+	/**
+	 * Returns a script instance to the pool, after clearing its bound non-pinned inputs and outputs. Instances beyond
+	 * the pool size are dropped.
+	 * 
+	 * @param ps prepared script instance obtained via {@link #acquire()}
+	 */
+	public void release(PreparedScript ps) {
+		ps.clearParameters();
+		_pool.offer(ps);
+	}
+
+	/**
+	 * Binds the inputs via the given binder, executes the script, and returns the pooled instance.
+	 * 
+	 * @param binder function binding the non-pinned inputs
+	 * @return result variables of the script execution
+	 */
+	public ResultVariables execute(Consumer<PreparedScript> binder) {
+		PreparedScript ps = acquire();
+		try {
+			binder.accept(ps);
+			return ps.executeScript();
+		}
+		finally {
+			release(ps);
+		}
+	}
+
+	/**
+	 * Gets the latency histogram shared by all script instances of this pool.
+	 * 
+	 * @return latency histogram
+	 */
+	public LatencyHistogram getLatencyHistogram() {
+		return _latency;
+	}
+
+	public int getNumIdle() {
+		return _pool.size();
+	}
+}
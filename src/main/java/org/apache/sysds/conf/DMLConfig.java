@@ -81,6 +81,7 @@ public class DMLConfig
 	public static final String COMPRESSED_LINALG    = "sysds.compressed.linalg";
 	public static final String COMPRESSED_LINALG_INTERMEDIATE    = "sysds.compressed.linalg.intermediate";
 	public static final String COMPRESSED_LOSSY     = "sysds.compressed.lossy";
+	public static final String COMPRESSED_LOSSY_ERROR = "sysds.compressed.lossy.error";
 	public static final String COMPRESSED_VALID_COMPRESSIONS = "sysds.compressed.valid.compressions";
 	public static final String COMPRESSED_OVERLAPPING = "sysds.compressed.overlapping"; 
 	public static final String COMPRESSED_SAMPLING_RATIO = "sysds.compressed.sampling.ratio"; 
@@ -107,9 +108,13 @@ public class DMLConfig
 	public static final String USE_LOCAL_SPARK_CONFIG = "sysds.local.spark"; // If set to true, it forces spark execution to a local spark context.
 	public static final String LOCAL_SPARK_NUM_THREADS = "sysds.local.spark.number.threads"; // the number of threads allowed to be used in the local spark configuration, default is * to enable use of all threads.
 	public static final String LINEAGECACHESPILL    = "sysds.lineage.cachespill"; // boolean: whether to spill cache entries to disk
+	public static final String LINEAGECACHECOMPRESS = "sysds.lineage.cachecompress"; // boolean: whether to keep evicted cache entries compressed in memory
 	public static final String COMPILERASSISTED_RW  = "sysds.lineage.compilerassisted"; // boolean: whether to apply compiler assisted rewrites
+	public static final String LINEAGECACHESTORE    = "sysds.lineage.cachestore"; // local directory of the persistent lineage cache, none to disable
+	public static final String LINEAGECACHESTORE_SIZE = "sysds.lineage.cachestore.size"; // max size of the persistent lineage cache in MB
 	public static final String BUFFERPOOL_LIMIT     = "sysds.caching.bufferpoollimit"; // max buffer pool size in percentage
 	public static final String MEMORY_MANAGER       = "sysds.caching.memorymanager"; // static or unified memory manager
+	public static final String OFFHEAP_BUFFER_LIMIT = "sysds.caching.offheaplimit"; // max off-heap buffer pool size in MB, 0 to disable
 	
 	// Fraction of available memory to use. The available memory is computer when the GPUContext is created
 	// to handle the tradeoff on calling cudaMemGetInfo too often.
@@ -166,6 +171,7 @@ public class DMLConfig
 		_defaultVals.put(PARALLEL_ENCODE_NUM_THREADS, "-1");
 		_defaultVals.put(COMPRESSED_LINALG,      Compression.CompressConfig.FALSE.name() );
 		_defaultVals.put(COMPRESSED_LOSSY,       "false" );
+		_defaultVals.put(COMPRESSED_LOSSY_ERROR, "1e-4" );
 		_defaultVals.put(COMPRESSED_VALID_COMPRESSIONS, "SDC,DDC");
 		_defaultVals.put(COMPRESSED_OVERLAPPING, "true" );
 		_defaultVals.put(COMPRESSED_SAMPLING_RATIO, "0.01");
@@ -184,9 +190,13 @@ public class DMLConfig
 		_defaultVals.put(NATIVE_BLAS,            "none" );
 		_defaultVals.put(NATIVE_BLAS_DIR,        "none" );
 		_defaultVals.put(LINEAGECACHESPILL,      "true" );
+		_defaultVals.put(LINEAGECACHECOMPRESS,   "false" );
 		_defaultVals.put(COMPILERASSISTED_RW,    "true" );
+		_defaultVals.put(LINEAGECACHESTORE,      "none" );
+		_defaultVals.put(LINEAGECACHESTORE_SIZE, "4096" );
 		_defaultVals.put(BUFFERPOOL_LIMIT,       "15"); // % of total heap
 		_defaultVals.put(MEMORY_MANAGER,         "static"); // static/unified partitioning of heap
+		_defaultVals.put(OFFHEAP_BUFFER_LIMIT,   "0"); // MB of off-heap memory
 		_defaultVals.put(PRINT_GPU_MEMORY_INFO,  "false" );
 		_defaultVals.put(EVICTION_SHADOW_BUFFERSIZE,  "0.0" );
 		_defaultVals.put(STATS_MAX_WRAP_LEN,     "30" );
@@ -457,11 +467,11 @@ public class DMLConfig
 		String[] tmpConfig = new String[] { 
 			LOCAL_TMP_DIR,SCRATCH_SPACE,OPTIMIZATION_LEVEL, DEFAULT_BLOCK_SIZE,
 			CP_PARALLEL_OPS, CP_PARALLEL_IO, PARALLEL_ENCODE, NATIVE_BLAS, NATIVE_BLAS_DIR,
-			COMPRESSED_LINALG, COMPRESSED_LOSSY, COMPRESSED_VALID_COMPRESSIONS, COMPRESSED_OVERLAPPING,
+			COMPRESSED_LINALG, COMPRESSED_LOSSY, COMPRESSED_LOSSY_ERROR, COMPRESSED_VALID_COMPRESSIONS, COMPRESSED_OVERLAPPING,
 			COMPRESSED_SAMPLING_RATIO, COMPRESSED_SOFT_REFERENCE_COUNT,
 			COMPRESSED_COCODE, COMPRESSED_TRANSPOSE, COMPRESSED_TRANSFORMENCODE, DAG_LINEARIZATION,
 			CODEGEN, CODEGEN_API, CODEGEN_COMPILER, CODEGEN_OPTIMIZER, CODEGEN_PLANCACHE, CODEGEN_LITERALS,
-			STATS_MAX_WRAP_LEN, LINEAGECACHESPILL, COMPILERASSISTED_RW, BUFFERPOOL_LIMIT, MEMORY_MANAGER,
+			STATS_MAX_WRAP_LEN, LINEAGECACHESPILL, LINEAGECACHECOMPRESS, COMPILERASSISTED_RW, LINEAGECACHESTORE, LINEAGECACHESTORE_SIZE, BUFFERPOOL_LIMIT, MEMORY_MANAGER, OFFHEAP_BUFFER_LIMIT,
 			PRINT_GPU_MEMORY_INFO, AVAILABLE_GPUS, SYNCHRONIZE_GPU, EAGER_CUDA_FREE, GPU_RULE_BASED_PLACEMENT,
 			FLOATING_POINT_PRECISION, GPU_EVICTION_POLICY, LOCAL_SPARK_NUM_THREADS, EVICTION_SHADOW_BUFFERSIZE,
 			GPU_MEMORY_ALLOCATOR, GPU_MEMORY_UTILIZATION_FACTOR, USE_SSL_FEDERATED_COMMUNICATION,
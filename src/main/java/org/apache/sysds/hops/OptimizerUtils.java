@@ -550,6 +550,16 @@ public class OptimizerUtils
 		return (long)(bufferPoolFactor * maxMem);
 	}
 
+	/**
+	 * Returns the off-heap buffer pool size as set in the config
+	 *
+	 * @return off-heap buffer pool size in bytes, 0 if disabled
+	 */
+	public static long getOffHeapBufferLimit() {
+		DMLConfig conf = ConfigurationManager.getDMLConfig();
+		return (long)conf.getIntValue(DMLConfig.OFFHEAP_BUFFER_LIMIT) * 1024 * 1024;
+	}
+
 	/**
 	 * Check if unified memory manager is in effect
 	 * @return boolean
@@ -97,6 +97,9 @@ public abstract class Statement implements ParseInfo
 		public boolean isSBP() {
 			return this == SBP;
 		}
+		public boolean isSSP() {
+			return this == SSP;
+		}
 	}
 	public static final String PS_FREQUENCY = "freq";
 	public enum PSFrequency {
@@ -118,6 +121,12 @@ public abstract class Statement implements ParseInfo
 		KEEP_DATA_ON_WORKER, SHUFFLE, REPLICATE_TO_MAX, SUBSAMPLE_TO_MIN, BALANCE_TO_AVG
 	}
 	public static final String PS_HYPER_PARAMS = "hyperparams";
+	public static final String PS_OPTIMIZER = "optimizer";
+	public static final String PS_PIPELINE = "pipeline";
+	public static final String PS_STALENESS = "staleness";
+	public enum PSOptimizerType {
+		SGD, MOMENTUM, ADAM
+	}
 	public static final String PS_CHECKPOINTING = "checkpointing";
 	public enum PSCheckpointing {
 		NONE, EPOCH, EPOCH10
@@ -132,6 +141,8 @@ public abstract class Statement implements ParseInfo
 	public static final String PS_FED_GRADIENTS_FNAME = "1701-NCC-gradients_fname";
 	public static final String PS_FED_AGGREGATION_FNAME = "1701-NCC-aggregation_fname";
 	public static final String PS_FED_MODEL_VARID = "1701-NCC-model_varid";
+	public static final String PS_FED_RESIDUAL = "1701-NCC-residual";
+	public static final String PS_FED_MODEL_BASE = "1701-NCC-model_base";
 
 	public abstract boolean controlStatement();
 	
@@ -69,6 +69,7 @@ import org.apache.sysds.runtime.compress.lib.CLALibTSMM;
 import org.apache.sysds.runtime.compress.lib.CLALibTernaryOp;
 import org.apache.sysds.runtime.compress.lib.CLALibUnary;
 import org.apache.sysds.runtime.compress.lib.CLALibUtils;
+import org.apache.sysds.runtime.compress.lib.PreAggCache;
 import org.apache.sysds.runtime.controlprogram.caching.MatrixObject.UpdateType;
 import org.apache.sysds.runtime.data.DenseBlock;
 import org.apache.sysds.runtime.data.SparseBlock;
@@ -128,6 +129,11 @@ public class CompressedMatrixBlock extends MatrixBlock {
 	/** Cached Memory size */
 	protected transient long cachedMemorySize = -1;
 
+	/**
+	 * Soft reference to the prepared column groups of matrix multiplications, reused across iterations.
+	 */
+	protected transient volatile SoftReference<PreAggCache> preAggCache;
+
 	public CompressedMatrixBlock() {
 		super(true);
 		sparse = false;
@@ -217,6 +223,7 @@ public class CompressedMatrixBlock extends MatrixBlock {
 	 */
 	public void allocateColGroup(AColGroup cg) {
 		cachedMemorySize = -1;
+		preAggCache = null;
 		_colGroups = new ArrayList<>(1);
 		_colGroups.add(cg);
 	}
@@ -228,6 +235,7 @@ public class CompressedMatrixBlock extends MatrixBlock {
 	 */
 	public void allocateColGroupList(List<AColGroup> colGroups) {
 		cachedMemorySize = -1;
+		preAggCache = null;
 		_colGroups = colGroups;
 	}
 
@@ -466,6 +474,7 @@ public class CompressedMatrixBlock extends MatrixBlock {
 	@Override
 	public void readFields(DataInput in) throws IOException {
 		cachedMemorySize = -1;
+		preAggCache = null;
 		// deserialize compressed block
 		rlen = in.readInt();
 		clen = in.readInt();
@@ -1065,6 +1074,7 @@ public class CompressedMatrixBlock extends MatrixBlock {
 
 	private void copyCompressedMatrix(CompressedMatrixBlock that) {
 		cachedMemorySize = -1;
+		preAggCache = null;
 		this.rlen = that.getNumRows();
 		this.clen = that.getNumColumns();
 		this.sparseBlock = null;
@@ -1086,6 +1096,29 @@ public class CompressedMatrixBlock extends MatrixBlock {
 		decompressedVersion = null;
 	}
 
+	/**
+	 * Get the cached preparation of the column groups for matrix multiplications.
+	 * 
+	 * @return The cache or null if not cached, or garbage collected
+	 */
+	public PreAggCache getPreAggCache() {
+		final SoftReference<PreAggCache> c = preAggCache;
+		return c != null ? c.get() : null;
+	}
+
+	/**
+	 * Set the cached preparation of the column groups for matrix multiplications.
+	 * 
+	 * @param cache The cache to keep as a soft reference
+	 */
+	public void setPreAggCache(PreAggCache cache) {
+		preAggCache = cache != null ? new SoftReference<>(cache) : null;
+	}
+
+	public void clearPreAggCache() {
+		preAggCache = null;
+	}
+
 	public void clearCounts() {
 		for(AColGroup a : _colGroups)
 			a.clear();
@@ -1223,6 +1256,7 @@ public class CompressedMatrixBlock extends MatrixBlock {
 			CLALibUtils.combineConstColumns(this);
 			overlappingColGroups = false;
 			decompressedVersion = null;
+			preAggCache = null;
 		}
 	}
 
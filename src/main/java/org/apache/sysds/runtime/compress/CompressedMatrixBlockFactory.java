@@ -19,6 +19,7 @@
 
 package org.apache.sysds.runtime.compress;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -46,6 +47,7 @@ import org.apache.sysds.runtime.compress.estim.AComEst;
 import org.apache.sysds.runtime.compress.estim.ComEstFactory;
 import org.apache.sysds.runtime.compress.estim.CompressedSizeInfo;
 import org.apache.sysds.runtime.compress.estim.CompressedSizeInfoColGroup;
+import org.apache.sysds.runtime.compress.lib.CLALibLossy;
 import org.apache.sysds.runtime.compress.workload.WTreeRoot;
 import org.apache.sysds.runtime.controlprogram.caching.CacheableData;
 import org.apache.sysds.runtime.controlprogram.caching.MatrixObject;
@@ -465,6 +467,13 @@ public class CompressedMatrixBlockFactory {
 
 	private void compressPhase() {
 		List<AColGroup> c = ColGroupFactory.compressColGroups(mb, compressionGroups, compSettings, costEstimator, k);
+		if(compSettings.lossy) {
+			c = new ArrayList<>(c);
+			CLALibLossy.quantize(c, compSettings.lossyErrorBound, k, _stats);
+			// the cached uncompressed input is not equal to the lossy compressed values
+			if(_stats.lossyGroups > 0)
+				res.clearSoftReferenceToDecompressed();
+		}
 		res.allocateColGroupList(c);
 		_stats.compressedInitialSize = res.getInMemorySize();
 		logPhase();
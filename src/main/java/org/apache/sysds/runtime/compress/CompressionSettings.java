@@ -81,6 +81,13 @@ public class CompressionSettings {
 	/** True if lossy compression is enabled */
 	public final boolean lossy;
 
+	/**
+	 * The maximum relative error allowed in lossy compression, relative to the largest absolute value in each column
+	 * group (the largest absolute offset for frame-of-reference groups). Any bound above roughly 1.5e-5, including the
+	 * default, always admits 16 bit quantization.
+	 */
+	public final double lossyErrorBound;
+
 	/** The selected method for column partitioning used in CoCoding compressed columns */
 	public final PartitionerType columnPartitioner;
 
@@ -134,8 +141,9 @@ public class CompressionSettings {
 	public final double[] scaleFactors;
 
 	protected CompressionSettings(double samplingRatio, double samplePower, boolean allowSharedDictionary,
-		String transposeInput, int seed, boolean lossy, EnumSet<CompressionType> validCompressions,
-		boolean sortValuesByLength, PartitionerType columnPartitioner, int maxColGroupCoCode, double coCodePercentage,
+		String transposeInput, int seed, boolean lossy, double lossyErrorBound,
+		EnumSet<CompressionType> validCompressions, boolean sortValuesByLength, PartitionerType columnPartitioner,
+		int maxColGroupCoCode, double coCodePercentage,
 		int minimumSampleSize, int maxSampleSize, EstimationType estimationType, CostType costComputationType,
 		double minimumCompressionRatio, boolean isInSparkInstruction, SORT_TYPE sdcSortType, double[] scaleFactors) {
 		this.samplingRatio = samplingRatio;
@@ -145,6 +153,7 @@ public class CompressionSettings {
 		this.seed = seed == -1 ? (int) System.nanoTime() : seed;
 		this.validCompressions = validCompressions;
 		this.lossy = lossy;
+		this.lossyErrorBound = lossyErrorBound;
 		this.sortTuplesByFrequency = sortValuesByLength;
 		this.columnPartitioner = columnPartitioner;
 		this.maxColGroupCoCode = maxColGroupCoCode;
@@ -176,6 +185,8 @@ public class CompressionSettings {
 		sb.append("\t Share dict: " + allowSharedDictionary);
 		sb.append("\t Partitioner: " + columnPartitioner);
 		sb.append("\t Lossy: " + lossy);
+		if(lossy)
+			sb.append("\t Lossy Error Bound: " + lossyErrorBound);
 		sb.append("\t Cost Computation Type: " + costComputationType);
 		if(samplingRatio < 1.0)
 			sb.append("\t Estimation Type: " + estimationType);
@@ -40,6 +40,7 @@ public class CompressionSettingsBuilder {
 	private String transposeInput;
 	private int seed = -1;
 	private boolean lossy = false;
+	private double lossyErrorBound = 1e-4;
 	private EnumSet<CompressionType> validCompressions;
 	private boolean sortValuesByLength = true;
 	private int maxColGroupCoCode = 10000;
@@ -58,6 +59,7 @@ public class CompressionSettingsBuilder {
 
 		DMLConfig conf = ConfigurationManager.getDMLConfig();
 		this.lossy = conf.getBooleanValue(DMLConfig.COMPRESSED_LOSSY);
+		this.lossyErrorBound = conf.getDoubleValue(DMLConfig.COMPRESSED_LOSSY_ERROR);
 		this.validCompressions = EnumSet.of(CompressionType.UNCOMPRESSED, CompressionType.CONST, CompressionType.EMPTY);
 		String[] validCompressionsString = conf.getTextValue(DMLConfig.COMPRESSED_VALID_COMPRESSIONS).split(",");
 		for(String comp : validCompressionsString)
@@ -95,6 +97,7 @@ public class CompressionSettingsBuilder {
 		this.transposeInput = that.transposeInput;
 		this.seed = that.seed;
 		this.lossy = that.lossy;
+		this.lossyErrorBound = that.lossyErrorBound;
 		this.validCompressions = EnumSet.copyOf(that.validCompressions);
 		this.sortValuesByLength = that.sortTuplesByFrequency;
 		this.columnPartitioner = that.columnPartitioner;
@@ -115,6 +118,20 @@ public class CompressionSettingsBuilder {
 		return this;
 	}
 
+	/**
+	 * Set the maximum relative error allowed in lossy compression. The error of each column group is relative to the
+	 * largest absolute value in the group. Only used if lossy compression is enabled.
+	 * 
+	 * @param lossyErrorBound The maximum relative error, must be in range 0.0 - 1.0
+	 * @return The CompressionSettingsBuilder
+	 */
+	public CompressionSettingsBuilder setLossyErrorBound(double lossyErrorBound) {
+		if(lossyErrorBound < 0 || lossyErrorBound > 1)
+			throw new DMLCompressionException("Invalid lossy error bound: " + lossyErrorBound);
+		this.lossyErrorBound = lossyErrorBound;
+		return this;
+	}
+
 	/**
 	 * Set the sampling ratio in percent to sample the input matrix. Input value should be in range 0.0 - 1.0
 	 * 
@@ -343,7 +360,7 @@ public class CompressionSettingsBuilder {
 	 */
 	public CompressionSettings create() {
 		return new CompressionSettings(samplingRatio, samplePower, allowSharedDictionary, transposeInput, seed, lossy,
-			validCompressions, sortValuesByLength, columnPartitioner, maxColGroupCoCode, coCodePercentage,
+			lossyErrorBound, validCompressions, sortValuesByLength, columnPartitioner, maxColGroupCoCode, coCodePercentage,
 			minimumSampleSize, maxSampleSize, estimationType, costType, minimumCompressionRatio, isInSparkInstruction,
 			sdcSortType, scaleFactors);
 	}
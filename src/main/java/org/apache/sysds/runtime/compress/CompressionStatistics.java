@@ -57,6 +57,11 @@ public class CompressionStatistics {
 	/** Cost of the compressed representation */
 	public double compressedCost = Double.NaN;
 
+	/** Number of column groups with lossy quantized dictionaries */
+	public int lossyGroups = 0;
+	/** Maximum relative error introduced by lossy compression, relative to the largest absolute value of a group */
+	public double lossyMaxRelativeError = 0;
+
 	/** local hashmap to count the column group instances */
 	private Map<String, int[]> colGroupCounts;
 
@@ -125,6 +130,10 @@ public class CompressionStatistics {
 		sb.append("\nCompressed Size       : " + compressedSize);
 		sb.append("\nCompressionRatio      : " + getRatio());
 		sb.append("\nDenseCompressionRatio : " + getDenseRatio());
+		if(lossyGroups > 0) {
+			sb.append("\nLossyGroups           : " + lossyGroups);
+			sb.append("\nLossyMaxRelativeError : " + lossyMaxRelativeError);
+		}
 
 		if(colGroupCounts != null) {
 			sb.append("\nCompressionTypes      : " + getGroupsTypesString());
@@ -0,0 +1,366 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.compress;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.sysds.runtime.compress.colgroup.AColGroup;
+import org.apache.sysds.runtime.compress.colgroup.AColGroup.CompressionType;
+import org.apache.sysds.runtime.compress.colgroup.ColGroupDDC;
+import org.apache.sysds.runtime.compress.colgroup.ColGroupUncompressed;
+import org.apache.sysds.runtime.compress.colgroup.dictionary.IDictionary;
+import org.apache.sysds.runtime.compress.colgroup.indexes.ColIndexFactory;
+import org.apache.sysds.runtime.compress.colgroup.indexes.IColIndex;
+import org.apache.sysds.runtime.compress.colgroup.mapping.AMapToData;
+import org.apache.sysds.runtime.compress.colgroup.mapping.MapToFactory;
+import org.apache.sysds.runtime.compress.colgroup.mapping.MapToFactory.MAP_TYPE;
+import org.apache.sysds.runtime.compress.colgroup.scheme.CompressionScheme;
+import org.apache.sysds.runtime.compress.colgroup.scheme.ICLAScheme;
+import org.apache.sysds.runtime.compress.colgroup.scheme.SchemeFactory;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.matrix.data.Pair;
+
+/**
+ * Online compression of a matrix that arrives as a sequence of row blocks, e.g., while it is read from disk.
+ * 
+ * The first row blocks are buffered until a sample of at least the configured number of rows is available. The
+ * sample is compressed with the normal compression pipeline, and the compression scheme of the resulting column
+ * groups is extracted. From then on every appended row block is directly encoded with that scheme, which extends its
+ * dictionaries if unseen values appear. The uncompressed row blocks are therefore never materialized together, and
+ * the full matrix is never compressed from scratch.
+ * 
+ * All row blocks except the last must have the same number of rows.
+ */
+public class StreamingCompressor {
+	private static final Log LOG = LogFactory.getLog(StreamingCompressor.class.getName());
+
+	/** Default number of rows to buffer before the compression scheme is decided */
+	public static final int DEFAULT_SAMPLE_ROWS = 10000;
+
+	/** Number of columns of the matrix */
+	private final int _nCol;
+	/** Minimum number of rows to sample before the scheme is decided */
+	private final int _sampleRows;
+	/** Parallelization degree */
+	private final int _k;
+
+	/** Row blocks buffered until the scheme is decided */
+	private List<MatrixBlock> _buffer = new ArrayList<>();
+	/** Number of rows in the buffer */
+	private int _bufferRows = 0;
+	/** The compression scheme, null until the sample is collected */
+	private CompressionScheme _scheme = null;
+	/** The encoded column groups, one list per row block */
+	private final List<List<AColGroup>> _chunks = new ArrayList<>();
+	/** The number of rows per encoded row block */
+	private final List<Integer> _chunkRows = new ArrayList<>();
+
+	/** Number of rows in all row blocks appended so far */
+	private int _nRow = 0;
+	/** Number of non zeros in all row blocks appended so far, -1 if unknown */
+	private long _nnz = 0;
+	/** The common number of rows per row block, -1 until the first block is appended */
+	private int _blen = -1;
+	/** If a row block with fewer rows than blen was appended, no more blocks are allowed */
+	private boolean _lastAppended = false;
+
+	/**
+	 * Create a streaming compressor with the default sample size.
+	 * 
+	 * @param nCol The number of columns of the matrix
+	 * @param k    The parallelization degree
+	 */
+	public StreamingCompressor(int nCol, int k) {
+		this(nCol, DEFAULT_SAMPLE_ROWS, k);
+	}
+
+	/**
+	 * Create a streaming compressor.
+	 * 
+	 * @param nCol       The number of columns of the matrix
+	 * @param sampleRows The minimum number of rows to buffer before the compression scheme is decided
+	 * @param k          The parallelization degree
+	 */
+	public StreamingCompressor(int nCol, int sampleRows, int k) {
+		if(nCol <= 0)
+			throw new DMLCompressionException("Invalid number of columns for streaming compression: " + nCol);
+		_nCol = nCol;
+		_sampleRows = Math.max(1, sampleRows);
+		_k = Math.max(1, k);
+	}
+
+	/**
+	 * Append the next row block of the matrix.
+	 * 
+	 * @param mb The row block, the caller may reuse it after this call returns if the scheme is already decided.
+	 */
+	public void append(MatrixBlock mb) {
+		if(mb instanceof CompressedMatrixBlock)
+			mb = ((CompressedMatrixBlock) mb).getUncompressed("Streaming compression of compressed input", _k);
+		validate(mb);
+
+		final int nRow = mb.getNumRows();
+		_nRow += nRow;
+		if(_nnz >= 0)
+			_nnz = mb.getNonZeros() < 0 ? -1 : _nnz + mb.getNonZeros();
+
+		if(_scheme == null) {
+			_buffer.add(mb);
+			_bufferRows += nRow;
+			if(_bufferRows >= _sampleRows)
+				decideScheme();
+		}
+		else
+			encode(mb);
+	}
+
+	/**
+	 * Get the compression scheme used to encode the row blocks.
+	 * 
+	 * @return The scheme or null if not enough rows are appended yet to decide it
+	 */
+	public CompressionScheme getScheme() {
+		return _scheme;
+	}
+
+	/**
+	 * Get the number of rows appended so far.
+	 * 
+	 * @return The number of rows
+	 */
+	public int getNumRows() {
+		return _nRow;
+	}
+
+	/**
+	 * Finish the compression and combine all encoded row blocks into one matrix.
+	 * 
+	 * If fewer rows than the sample size were appended, the buffered rows are compressed normally.
+	 * 
+	 * @return The compressed matrix, or an uncompressed matrix if compression was not beneficial on a small input
+	 */
+	public MatrixBlock finish() {
+		if(_nRow == 0)
+			throw new DMLCompressionException("Invalid finish of streaming compression without any rows");
+		if(_scheme == null)
+			return CompressedMatrixBlockFactory.compress(rbind(_buffer), _k).getLeft();
+
+		final int nGroups = _chunks.get(0).size();
+		final List<AColGroup> groups = new ArrayList<>(nGroups);
+		for(int g = 0; g < nGroups; g++)
+			groups.add(combine(g));
+
+		final CompressedMatrixBlock ret = new CompressedMatrixBlock(_nRow, _nCol, _nnz, false, groups);
+		if(_nnz < 0)
+			ret.recomputeNonZeros();
+		return ret;
+	}
+
+	private void validate(MatrixBlock mb) {
+		if(mb.getNumColumns() != _nCol)
+			throw new DMLCompressionException(
+				"Invalid row block with " + mb.getNumColumns() + " columns, expected " + _nCol);
+		if(_lastAppended)
+			throw new DMLCompressionException(
+				"Invalid row block appended after a smaller block, all blocks except the last must have " + _blen + " rows");
+		if(_blen < 0)
+			_blen = mb.getNumRows();
+		else if(mb.getNumRows() > _blen)
+			throw new DMLCompressionException(
+				"Invalid row block with " + mb.getNumRows() + " rows, expected at most " + _blen);
+		else if(mb.getNumRows() < _blen)
+			_lastAppended = true;
+	}
+
+	private void decideScheme() {
+		final MatrixBlock sample = rbind(_buffer);
+		final MatrixBlock c = CompressedMatrixBlockFactory.compress(sample, _k).getLeft();
+		if(c instanceof CompressedMatrixBlock && !((CompressedMatrixBlock) c).isOverlapping()) {
+			final List<AColGroup> gs = ((CompressedMatrixBlock) c).getColGroups();
+			final ICLAScheme[] schemes = new ICLAScheme[gs.size()];
+			for(int i = 0; i < schemes.length; i++)
+				schemes[i] = getScheme(gs.get(i));
+			_scheme = new CompressionScheme(schemes);
+		}
+		else
+			_scheme = new CompressionScheme(new ICLAScheme[] {
+				SchemeFactory.create(ColIndexFactory.create(_nCol), CompressionType.UNCOMPRESSED)});
+
+		LOG.debug("Streaming compression scheme decided on " + sample.getNumRows() + " rows: " + _scheme);
+
+		// encode the buffered blocks individually to keep the row block structure regular
+		for(MatrixBlock mb : _buffer)
+			encode(mb);
+		_buffer = null;
+		_bufferRows = 0;
+	}
+
+	private static ICLAScheme getScheme(AColGroup g) {
+		try {
+			final ICLAScheme s = g.getCompressionScheme();
+			if(s != null)
+				return s;
+		}
+		catch(Exception e) {
+			LOG.debug("No compression scheme for " + g.getClass().getSimpleName() + ", falling back to DDC");
+		}
+		return SchemeFactory.create(g.getColIndices(), CompressionType.DDC);
+	}
+
+	private void encode(MatrixBlock mb) {
+		_chunks.add(_scheme.updateAndEncode(mb, _k).getColGroups());
+		_chunkRows.add(mb.getNumRows());
+	}
+
+	private AColGroup combine(int g) {
+		final int nChunks = _chunks.size();
+		final AColGroup[] gs = new AColGroup[nChunks];
+		for(int i = 0; i < nChunks; i++)
+			gs[i] = _chunks.get(i).get(g);
+		if(nChunks == 1)
+			return gs[0];
+
+		AColGroup ret = append(unifyDDC(gs));
+		if(ret == null)
+			ret = append(reencode(gs));
+		return ret != null ? ret : uncompressed(gs);
+	}
+
+	private AColGroup append(AColGroup[] gs) {
+		if(gs == null)
+			return null;
+		try {
+			return AColGroup.appendN(gs, _blen, _nRow);
+		}
+		catch(Exception e) {
+			LOG.debug("Failed appending streamed column groups", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Re-encodes the groups of all row blocks with one common DDC scheme of the group columns, such that the
+	 * dictionaries share ids and the groups can be appended. Only one row block is decompressed at a time.
+	 * 
+	 * @param gs The groups of the row blocks
+	 * @return The re-encoded groups, or null if the encoding is not beneficial
+	 */
+	private AColGroup[] reencode(AColGroup[] gs) {
+		final IColIndex cols = gs[0].getColIndices();
+		final IColIndex local = ColIndexFactory.create(cols.size());
+		ICLAScheme s = SchemeFactory.create(local, CompressionType.DDC);
+		final AColGroup[] ret = new AColGroup[gs.length];
+		int rows = 0;
+		try {
+			for(int i = 0; i < gs.length; i++) {
+				final Pair<ICLAScheme, AColGroup> p = s.updateAndEncode(decompress(gs[i], _chunkRows.get(i)));
+				s = p.getKey();
+				ret[i] = p.getValue().copyAndSet(cols);
+				rows += _chunkRows.get(i);
+				// abort if the common dictionary is not much smaller than the rows
+				if(ret[i].getNumValues() > rows / 2)
+					return null;
+			}
+		}
+		catch(Exception e) {
+			LOG.debug("Failed re-encoding streamed column groups", e);
+			return null;
+		}
+		return unifyDDC(ret);
+	}
+
+	/**
+	 * The DDC schemes only ever extend their dictionaries, therefore the dictionary of the row block with most
+	 * distinct tuples is a superset of all other dictionaries with the same ids. To append the groups, they are
+	 * assigned this dictionary and a mapping of a common type.
+	 */
+	private static AColGroup[] unifyDDC(AColGroup[] gs) {
+		IDictionary dict = null;
+		int nVals = 0;
+		for(AColGroup g : gs) {
+			if(!(g instanceof ColGroupDDC))
+				return gs;
+			final ColGroupDDC d = (ColGroupDDC) g;
+			final int v = d.getDictionary().getNumberOfValues(d.getNumCols());
+			if(dict == null || v > nVals) {
+				dict = d.getDictionary();
+				nVals = v;
+			}
+		}
+
+		final MAP_TYPE t = MapToFactory.create(64, nVals).getType();
+		final AColGroup[] ret = new AColGroup[gs.length];
+		for(int i = 0; i < gs.length; i++) {
+			final ColGroupDDC d = (ColGroupDDC) gs[i];
+			AMapToData m = d.getMapToData();
+			if(m.getType() != t)
+				m = MapToFactory.resizeForce(m, t);
+			m.setUnique(nVals);
+			ret[i] = ColGroupDDC.create(d.getColIndices(), dict, m, null);
+		}
+		return ret;
+	}
+
+	/**
+	 * Fallback that combines the groups of all row blocks into one uncompressed group, which is sparse if the
+	 * number of non zeros of the row blocks indicates so.
+	 */
+	private AColGroup uncompressed(AColGroup[] gs) {
+		final IColIndex cols = gs[0].getColIndices();
+		final IColIndex local = ColIndexFactory.create(cols.size());
+		long nnz = 0;
+		for(int i = 0; i < gs.length; i++)
+			nnz += gs[i].getNumberNonZeros(_chunkRows.get(i));
+		final boolean sparse = MatrixBlock.evalSparseFormatInMemory(_nRow, cols.size(), nnz);
+		final MatrixBlock mb = new MatrixBlock(_nRow, cols.size(), sparse);
+		mb.allocateBlock();
+		int off = 0;
+		for(int i = 0; i < gs.length; i++) {
+			final int rows = _chunkRows.get(i);
+			if(sparse)
+				gs[i].copyAndSet(local).decompressToSparseBlock(mb.getSparseBlock(), 0, rows, off, 0);
+			else
+				gs[i].copyAndSet(local).decompressToDenseBlock(mb.getDenseBlock(), 0, rows, off, 0);
+			off += rows;
+		}
+		mb.recomputeNonZeros();
+		return ColGroupUncompressed.create(mb, cols);
+	}
+
+	/** Decompress the group of a single row block into a block of only its columns. */
+	private static MatrixBlock decompress(AColGroup g, int rows) {
+		final MatrixBlock mb = new MatrixBlock(rows, g.getNumCols(), false);
+		mb.allocateDenseBlock();
+		g.copyAndSet(ColIndexFactory.create(g.getNumCols())).decompressToDenseBlock(mb.getDenseBlock(), 0, rows, 0, 0);
+		mb.recomputeNonZeros();
+		mb.examSparsity();
+		return mb;
+	}
+
+	private static MatrixBlock rbind(List<MatrixBlock> blocks) {
+		if(blocks.size() == 1)
+			return blocks.get(0);
+		final MatrixBlock[] rest = blocks.subList(1, blocks.size()).toArray(new MatrixBlock[0]);
+		return blocks.get(0).append(rest, null, false);
+	}
+}
@@ -52,7 +52,7 @@ public interface DictionaryFactory {
 	static final Log LOG = LogFactory.getLog(DictionaryFactory.class.getName());
 
 	public enum Type {
-		FP64_DICT, MATRIX_BLOCK_DICT, INT8_DICT, IDENTITY, IDENTITY_SLICE, PLACE_HOLDER
+		FP64_DICT, MATRIX_BLOCK_DICT, INT8_DICT, IDENTITY, IDENTITY_SLICE, PLACE_HOLDER, INT16_DICT
 	}
 
 	public static IDictionary read(DataInput in) throws IOException {
@@ -62,6 +62,8 @@ public interface DictionaryFactory {
 				return Dictionary.read(in);
 			case INT8_DICT:
 				return QDictionary.read(in);
+			case INT16_DICT:
+				return QShortDictionary.read(in);
 			case PLACE_HOLDER:
 				return PlaceHolderDict.read(in);
 			case IDENTITY:
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.compress.colgroup.dictionary;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.sysds.utils.MemoryEstimates;
+
+/**
+ * A lossy dictionary that stores the values of a column group quantized to 16 bit signed integers together with a
+ * scale, the 16 bit counterpart of QDictionary for values that need more precision than 8 bit.
+ */
+public class QShortDictionary extends AQDictionary {
+
+	private static final long serialVersionUID = 5318826419734019651L;
+
+	protected short[] _values;
+
+	protected QShortDictionary(short[] values, double scale, int nCol) {
+		super(scale, nCol);
+		_values = values;
+	}
+
+	public static QShortDictionary create(short[] values, double scale, int nCol, boolean check) {
+		if(scale == 0)
+			return null;
+		if(check) {
+			boolean containsOnlyZero = true;
+			for(int i = 0; i < values.length && containsOnlyZero; i++) {
+				if(values[i] != 0)
+					containsOnlyZero = false;
+			}
+			if(containsOnlyZero)
+				return null;
+		}
+		return new QShortDictionary(values, scale, nCol);
+	}
+
+	@Override
+	protected int size() {
+		return _values.length;
+	}
+
+	@Override
+	protected int getQ(int i) {
+		return _values[i];
+	}
+
+	@Override
+	protected void setQ(int i, int v) {
+		_values[i] = (short) v;
+	}
+
+	@Override
+	protected QShortDictionary allocate(int len, int nCol) {
+		return new QShortDictionary(new short[len], _scale, nCol);
+	}
+
+	@Override
+	public long getInMemorySize() {
+		// object + values array + double
+		return getInMemorySize(size());
+	}
+
+	public static long getInMemorySize(int valuesCount) {
+		// object + values array + double
+		return 16 + (long) MemoryEstimates.charArrayCost(valuesCount) + 8;
+	}
+
+	@Override
+	public QShortDictionary clone() {
+		return new QShortDictionary(_values.clone(), _scale, _nCol);
+	}
+
+	@Override
+	public void write(DataOutput out) throws IOException {
+		out.writeByte(DictionaryFactory.Type.INT16_DICT.ordinal());
+		out.writeDouble(_scale);
+		out.writeInt(_values.length);
+		for(int i = 0; i < _values.length; i++)
+			out.writeShort(_values[i]);
+		out.writeInt(_nCol);
+	}
+
+	public static QShortDictionary read(DataInput in) throws IOException {
+		double scale = in.readDouble();
+		int numVals = in.readInt();
+		short[] values = new short[numVals];
+		for(int i = 0; i < numVals; i++) {
+			values[i] = in.readShort();
+		}
+		int nCol = in.readInt();
+		return new QShortDictionary(values, scale, nCol);
+	}
+
+	@Override
+	public long getExactSizeOnDisk() {
+		return 1 + 8 + 4 + size() * 2L + 4;
+	}
+
+	@Override
+	public DictType getDictType() {
+		return DictType.Int16;
+	}
+}
@@ -135,7 +135,7 @@ public final class CLALibLeftMultBy {
 				return CLALibSelectionMult.leftSelection(right, left, ret, k);
 
 			ret = prepareReturnMatrix(right, left, ret, false);
-			ret = LMM(right.getColGroups(), left, ret, k, right.isOverlapping());
+			ret = LMM(right, left, ret, k);
 
 			return ret;
 		}
@@ -283,30 +283,20 @@ public final class CLALibLeftMultBy {
 		return ret;
 	}
 
-	private static MatrixBlock LMM(List<AColGroup> colGroups, MatrixBlock that, MatrixBlock ret, int k,
-		boolean overlapping) throws Exception {
+	private static MatrixBlock LMM(CompressedMatrixBlock right, MatrixBlock that, MatrixBlock ret, int k)
+		throws Exception {
+		final List<AColGroup> colGroups = right.getColGroups();
+		final boolean overlapping = right.isOverlapping();
 		final int numColumnsOut = ret.getNumColumns();
 		final int lr = that.getNumRows();
 		final boolean shouldFilter = CLALibUtils.shouldPreFilter(colGroups);
-		final List<AColGroup> noPreAggGroups = new ArrayList<>();
-		final List<APreAgg> preAggGroups = new ArrayList<>();
 
 		if(shouldFilter) {
-			// Timing t = new Timing();
-			final double[] constV;
-			// if(CLALibUtils.alreadyPreFiltered(colGroups, ret.getNumColumns())) {
-			// constV = CLALibUtils.filterGroupsAndSplitPreAggOneConst(colGroups, noPreAggGroups, preAggGroups);
-			// }
-			// else {
-			constV = new double[numColumnsOut]; // millions of columns...
-			CLALibUtils.filterGroupsAndSplitPreAgg(colGroups, constV, noPreAggGroups, preAggGroups);
-			// }
-
-			// final double filterGroupsTime = t.stop();
-
-			// Sort so that the big expensive preAgg groups are first to balance threads
-			// if(k * 2 < colGroups.size())
-			// Collections.sort(preAggGroups, Comparator.comparing(AColGroup::getNumValues).reversed());
+			// the filtered groups only depend on the compressed side, and are reused across calls.
+			final PreAggCache cache = PreAggCache.get(right);
+			final double[] constV = cache.getLeftConstV(numColumnsOut);
+			final List<AColGroup> noPreAggGroups = cache.getLeftNoPreAgg(numColumnsOut);
+			final List<APreAgg> preAggGroups = cache.getLeftPreAgg(numColumnsOut);
 
 			final double[] rowSums;
 			if(!noPreAggGroups.isEmpty() || !preAggGroups.isEmpty()) {
@@ -330,6 +320,8 @@ public final class CLALibLeftMultBy {
 			}
 		}
 		else {
+			final List<AColGroup> noPreAggGroups = new ArrayList<>();
+			final List<APreAgg> preAggGroups = new ArrayList<>();
 			CLALibUtils.splitPreAgg(colGroups, noPreAggGroups, preAggGroups);
 			// Sort so that the big expensive preAgg groups are first.
 			// Collections.sort(preAggGroups, Comparator.comparing(AColGroup::getNumValues).reversed());
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.compress.lib;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.sysds.runtime.compress.CompressionStatistics;
+import org.apache.sysds.runtime.compress.DMLCompressionException;
+import org.apache.sysds.runtime.compress.colgroup.ADictBasedColGroup;
+import org.apache.sysds.runtime.compress.colgroup.AColGroup;
+import org.apache.sysds.runtime.compress.colgroup.ColGroupDDC;
+import org.apache.sysds.runtime.compress.colgroup.dictionary.Dictionary;
+import org.apache.sysds.runtime.compress.colgroup.dictionary.IDictionary;
+import org.apache.sysds.runtime.compress.colgroup.dictionary.MatrixBlockDictionary;
+import org.apache.sysds.runtime.compress.colgroup.dictionary.QDictionary;
+import org.apache.sysds.runtime.compress.colgroup.dictionary.QShortDictionary;
+import org.apache.sysds.runtime.compress.colgroup.mapping.AMapToData;
+import org.apache.sysds.runtime.compress.colgroup.mapping.MapToFactory;
+import org.apache.sysds.runtime.compress.utils.DblArray;
+import org.apache.sysds.runtime.util.CommonThreadPool;
+
+/**
+ * Library for error-bounded lossy compression of column groups.
+ * 
+ * The dictionaries of the column groups are quantized to 8 or 16 bit integers with a scale, if the maximum absolute
+ * error introduced stays under the given bound relative to the largest absolute value of the group. For DDC groups,
+ * tuples that become identical after quantization are merged, shrinking the dictionary and potentially the mapping.
+ * 
+ * The bound is checked per group and not per value. With a scale of maxAbs / 32767 the 16 bit rounding error is at
+ * most maxAbs / 65534, so any bound of roughly 1.5e-5 or more, including the default 1e-4, always admits 16 bit
+ * quantization and only decides between 8 and 16 bit. Small values in a group with large values can therefore carry a
+ * large error relative to themselves. For frame-of-reference groups (DDCFOR, SDCFOR) the dictionary holds offsets to
+ * the reference tuple, so the bound is relative to the largest absolute offset and not to the decompressed values.
+ */
+public final class CLALibLossy {
+	private static final Log LOG = LogFactory.getLog(CLALibLossy.class.getName());
+
+	private CLALibLossy() {
+		// private constructor
+	}
+
+	/**
+	 * Quantize the dictionaries of the given column groups in place of the list, if the error bound allows it.
+	 * 
+	 * @param groups The column groups to quantize, modified to contain the quantized groups.
+	 * @param bound  The maximum error relative to the largest absolute value in each group.
+	 * @param k      The parallelization degree
+	 * @param stats  The statistics to report the number of quantized groups and maximum error in, can be null.
+	 */
+	public static void quantize(List<AColGroup> groups, double bound, int k, CompressionStatistics stats) {
+		final Quantized[] res = new Quantized[groups.size()];
+		if(k <= 1 || groups.size() <= 1)
+			for(int i = 0; i < res.length; i++)
+				res[i] = quantize(groups.get(i), bound);
+		else
+			quantizeParallel(groups, bound, k, res);
+
+		int nQuantized = 0;
+		double maxError = 0;
+		for(int i = 0; i < res.length; i++) {
+			if(res[i] != null) {
+				groups.set(i, res[i].group);
+				nQuantized++;
+				maxError = Math.max(maxError, res[i].error);
+			}
+		}
+
+		if(stats != null) {
+			stats.lossyGroups = nQuantized;
+			stats.lossyMaxRelativeError = maxError;
+		}
+		if(LOG.isDebugEnabled())
+			LOG.debug("Lossy quantized " + nQuantized + " of " + res.length + " groups, max relative error: " + maxError);
+	}
+
+	private static void quantizeParallel(List<AColGroup> groups, double bound, int k, Quantized[] res) {
+		final ExecutorService pool = CommonThreadPool.get(k);
+		try {
+			final List<Future<Quantized>> tasks = new ArrayList<>(res.length);
+			for(AColGroup g : groups)
+				tasks.add(pool.submit(() -> quantize(g, bound)));
+			for(int i = 0; i < res.length; i++)
+				res[i] = tasks.get(i).get();
+		}
+		catch(Exception e) {
+			throw new DMLCompressionException("Failed parallel lossy quantization", e);
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Quantize the dictionary of a single column group.
+	 * 
+	 * @param g     The column group
+	 * @param bound The maximum error relative to the largest absolute dictionary value in the group, for
+	 *              frame-of-reference groups the largest absolute offset
+	 * @return The quantized group and its relative error, or null if not quantized
+	 */
+	protected static Quantized quantize(AColGroup g, double bound) {
+		if(!(g instanceof ADictBasedColGroup))
+			return null;
+		final ADictBasedColGroup dg = (ADictBasedColGroup) g;
+		final IDictionary d = dg.getDictionary();
+		if(!(d instanceof Dictionary || d instanceof MatrixBlockDictionary))
+			return null;
+
+		final int nCol = g.getNumCols();
+		final int nVals = d.getNumberOfValues(nCol);
+		final double[] v = new double[nVals * nCol];
+		double maxAbs = 0;
+		for(int r = 0, off = 0; r < nVals; r++) {
+			for(int c = 0; c < nCol; c++, off++) {
+				v[off] = d.getValue(r, c, nCol);
+				maxAbs = Math.max(maxAbs, Math.abs(v[off]));
+			}
+		}
+		if(maxAbs == 0 || !Double.isFinite(maxAbs))
+			return null; // NaN propagates through max, and neither NaN nor Inf can be quantized
+
+		final double allowed = bound * maxAbs;
+		final int[] q = new int[v.length];
+		for(int bits : new int[] {8, 16}) {
+			final int qMax = bits == 8 ? Byte.MAX_VALUE : Short.MAX_VALUE;
+			final double scale = maxAbs / qMax;
+			double err = 0;
+			for(int i = 0; i < v.length && err <= allowed; i++) {
+				q[i] = (int) Math.max(-qMax, Math.min(qMax, Math.round(v[i] / scale)));
+				err = Math.max(err, Math.abs(q[i] * scale - v[i]));
+			}
+			if(err <= allowed) {
+				final AColGroup ret = create(dg, q, nVals, nCol, scale, bits);
+				if(ret == null || ret.estimateInMemorySize() >= g.estimateInMemorySize())
+					return null;
+				return new Quantized(ret, err / maxAbs);
+			}
+		}
+		return null;
+	}
+
+	private static AColGroup create(ADictBasedColGroup g, int[] q, int nVals, int nCol, double scale, int bits) {
+		if(g instanceof ColGroupDDC) {
+			// merge tuples that are identical after quantization
+			final Map<DblArray, Integer> unique = new HashMap<>();
+			final int[] remap = new int[nVals];
+			final double[] tmp = new double[nCol];
+			for(int r = 0; r < nVals; r++) {
+				for(int c = 0; c < nCol; c++)
+					tmp[c] = q[r * nCol + c];
+				final DblArray key = new DblArray(tmp.clone());
+				final Integer id = unique.get(key);
+				if(id == null) {
+					remap[r] = unique.size();
+					if(remap[r] != r)
+						System.arraycopy(q, r * nCol, q, remap[r] * nCol, nCol);
+					unique.put(key, remap[r]);
+				}
+				else
+					remap[r] = id;
+			}
+
+			if(unique.size() < nVals) {
+				final IDictionary dict = createDict(q, unique.size() * nCol, nCol, scale, bits);
+				final AMapToData m = ((ColGroupDDC) g).getMapToData();
+				final AMapToData nm = MapToFactory.create(m.size(), unique.size());
+				for(int i = 0; i < m.size(); i++)
+					nm.set(i, remap[m.getIndex(i)]);
+				return dict == null ? null : ColGroupDDC.create(g.getColIndices(), dict, nm, null);
+			}
+		}
+
+		final IDictionary dict = createDict(q, nVals * nCol, nCol, scale, bits);
+		return dict == null ? null : g.copyAndSet(dict);
+	}
+
+	private static IDictionary createDict(int[] q, int len, int nCol, double scale, int bits) {
+		if(bits == 8) {
+			final byte[] values = new byte[len];
+			for(int i = 0; i < len; i++)
+				values[i] = (byte) q[i];
+			return QDictionary.create(values, scale, nCol, true);
+		}
+		else {
+			final short[] values = new short[len];
+			for(int i = 0; i < len; i++)
+				values[i] = (short) q[i];
+			return QShortDictionary.create(values, scale, nCol, true);
+		}
+	}
+
+	protected static class Quantized {
+		protected final AColGroup group;
+		protected final double error;
+
+		protected Quantized(AColGroup group, double error) {
+			this.group = group;
+			this.error = error;
+		}
+	}
+}
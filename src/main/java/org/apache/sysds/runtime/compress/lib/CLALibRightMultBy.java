@@ -165,8 +165,9 @@ public final class CLALibRightMultBy {
 		final List<AColGroup> filteredGroups;
 
 		if(shouldFilter) {
-			constV = new double[rr];
-			filteredGroups = CLALibUtils.filterGroups(colGroups, constV);
+			final PreAggCache cache = PreAggCache.get(m1);
+			constV = cache.getRightConstV(rr);
+			filteredGroups = cache.getRightFiltered(rr);
 		}
 		else {
 			filteredGroups = colGroups;
@@ -225,8 +226,10 @@ public final class CLALibRightMultBy {
 				constV = CLALibUtils.filterGroupsAndSplitPreAggOneConst(colGroups, filteredGroups);
 			}
 			else {
-				constV = new double[rr];
-				filteredGroups = CLALibUtils.filterGroups(colGroups, constV);
+				// the filtered groups only depend on the compressed side, and are reused across calls.
+				final PreAggCache cache = PreAggCache.get(m1);
+				constV = cache.getRightConstV(rr);
+				filteredGroups = cache.getRightFiltered(rr);
 			}
 		}
 		else {
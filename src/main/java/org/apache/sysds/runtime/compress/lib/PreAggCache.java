@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.compress.lib;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.sysds.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysds.runtime.compress.colgroup.AColGroup;
+import org.apache.sysds.runtime.compress.colgroup.APreAgg;
+
+/**
+ * Cache of the column group preparation done before compressed matrix multiplications.
+ * 
+ * Before every left or right matrix multiplication, the column groups are filtered: constant groups are folded into a
+ * common vector, and morphing groups (SDC, FOR) extract their default tuple into it, allocating new dictionaries. In
+ * iterative algorithms (lmCG, L2SVM, GLM) the compressed matrix is constant across iterations while only the vector
+ * changes, so this preparation is done once here and reused by all subsequent multiplications.
+ * 
+ * The cache is bound to the exact list of column groups it was created from, and is considered invalid as soon as any
+ * column group of the matrix is replaced. Callers must treat the returned arrays and lists as read only.
+ */
+public final class PreAggCache {
+
+	/** The column groups this cache was created from */
+	private final AColGroup[] _source;
+
+	/** The common constant vector of the left multiplication */
+	private double[] _lmmConstV;
+	/** The groups of the left multiplication that do not support pre aggregation */
+	private List<AColGroup> _lmmNoPreAgg;
+	/** The groups of the left multiplication that support pre aggregation */
+	private List<APreAgg> _lmmPreAgg;
+
+	/** The common constant vector of the right multiplication */
+	private double[] _rmmConstV;
+	/** The filtered groups of the right multiplication */
+	private List<AColGroup> _rmmFiltered;
+
+	private PreAggCache(List<AColGroup> groups) {
+		_source = groups.toArray(new AColGroup[0]);
+	}
+
+	/**
+	 * Get the cache of the given compressed matrix, creating a new one if there is none or the column groups have
+	 * changed since it was created.
+	 * 
+	 * @param cmb The compressed matrix
+	 * @return The cache for the current column groups
+	 */
+	public static PreAggCache get(CompressedMatrixBlock cmb) {
+		final List<AColGroup> groups = cmb.getColGroups();
+		PreAggCache c = cmb.getPreAggCache();
+		if(c == null || !c.isValid(groups)) {
+			c = new PreAggCache(groups);
+			cmb.setPreAggCache(c);
+		}
+		return c;
+	}
+
+	/**
+	 * Get if this cache was created from the given column groups.
+	 * 
+	 * @param groups The current column groups
+	 * @return If the cache is valid
+	 */
+	public boolean isValid(List<AColGroup> groups) {
+		if(groups == null || groups.size() != _source.length)
+			return false;
+		for(int i = 0; i < _source.length; i++)
+			if(groups.get(i) != _source[i])
+				return false;
+		return true;
+	}
+
+	/**
+	 * Get the common constant vector of a left matrix multiplication, this vector is filled together with the split
+	 * groups.
+	 * 
+	 * @param nCol The number of columns of the compressed matrix
+	 * @return The common constant vector
+	 */
+	public synchronized double[] getLeftConstV(int nCol) {
+		if(_lmmConstV == null) {
+			final double[] constV = new double[nCol];
+			final List<AColGroup> noPreAgg = new ArrayList<>();
+			final List<APreAgg> preAgg = new ArrayList<>();
+			CLALibUtils.filterGroupsAndSplitPreAgg(groups(), constV, noPreAgg, preAgg);
+			_lmmNoPreAgg = Collections.unmodifiableList(noPreAgg);
+			_lmmPreAgg = Collections.unmodifiableList(preAgg);
+			_lmmConstV = constV;
+		}
+		return _lmmConstV;
+	}
+
+	/**
+	 * Get the groups of a left matrix multiplication that do not support pre aggregation.
+	 * 
+	 * @param nCol The number of columns of the compressed matrix
+	 * @return The groups without pre aggregation
+	 */
+	public synchronized List<AColGroup> getLeftNoPreAgg(int nCol) {
+		getLeftConstV(nCol);
+		return _lmmNoPreAgg;
+	}
+
+	/**
+	 * Get the groups of a left matrix multiplication that support pre aggregation.
+	 * 
+	 * @param nCol The number of columns of the compressed matrix
+	 * @return The pre aggregate groups
+	 */
+	public synchronized List<APreAgg> getLeftPreAgg(int nCol) {
+		getLeftConstV(nCol);
+		return _lmmPreAgg;
+	}
+
+	/**
+	 * Get the common constant vector of a right matrix multiplication.
+	 * 
+	 * @param nCol The number of columns of the compressed matrix
+	 * @return The common constant vector
+	 */
+	public synchronized double[] getRightConstV(int nCol) {
+		if(_rmmConstV == null) {
+			final double[] constV = new double[nCol];
+			_rmmFiltered = Collections.unmodifiableList(CLALibUtils.filterGroups(groups(), constV));
+			_rmmConstV = constV;
+		}
+		return _rmmConstV;
+	}
+
+	/**
+	 * Get the filtered groups of a right matrix multiplication.
+	 * 
+	 * @param nCol The number of columns of the compressed matrix
+	 * @return The filtered groups
+	 */
+	public synchronized List<AColGroup> getRightFiltered(int nCol) {
+		getRightConstV(nCol);
+		return _rmmFiltered;
+	}
+
+	private List<AColGroup> groups() {
+		final List<AColGroup> ret = new ArrayList<>(_source.length);
+		Collections.addAll(ret, _source);
+		return ret;
+	}
+}
@@ -50,6 +50,7 @@ import org.apache.sysds.runtime.lineage.LineageCacheConfig.ReuseCacheType;
 import org.apache.sysds.runtime.matrix.data.MatrixBlock;
 import org.apache.sysds.runtime.meta.MetaData;
 import org.apache.sysds.runtime.meta.MetaDataFormat;
+import org.apache.sysds.utils.stats.ExecutionProfiler;
 import org.apache.sysds.utils.stats.RecompileStatistics;
 import org.apache.sysds.utils.Statistics;
 
@@ -219,7 +220,7 @@ public abstract class ProgramBlock implements ParseInfo {
 	private void executeSingleInstruction(Instruction currInst, ExecutionContext ec) {
 		try {
 			// start time measurement for statistics
-			long t0 = (DMLScript.STATISTICS || DMLScript.STATISTICS_NGRAMS || LOG.isTraceEnabled())
+			long t0 = (DMLScript.STATISTICS || DMLScript.STATISTICS_NGRAMS || DMLScript.PROFILE || LOG.isTraceEnabled())
 				? System.nanoTime() : 0;
 
 			// pre-process instruction (inst patching, listeners, lineage)
@@ -245,6 +246,10 @@ public abstract class ProgramBlock implements ParseInfo {
 
 				if (DMLScript.STATISTICS_NGRAMS)
 					Statistics.maintainNGramsFromLineage(tmp, ec, t0);
+
+				// maintain execution profile (spans and line/stack aggregates)
+				if(DMLScript.PROFILE)
+					ExecutionProfiler.recordInstruction(tmp, ec, t0, System.nanoTime());
 			}
 
 			// optional trace information (instruction and runtime)
@@ -38,9 +38,9 @@ import org.apache.sysds.runtime.util.LocalFileUtils;
  */
 public class ByteBuffer
 {
-	private volatile boolean _serialized;
-	private volatile boolean _shallow;
-	private volatile boolean _matrix;
+	protected volatile boolean _serialized;
+	protected volatile boolean _shallow;
+	protected volatile boolean _matrix;
 	private final long _size;
 	
 	protected byte[]     _bdata = null; //sparse matrix
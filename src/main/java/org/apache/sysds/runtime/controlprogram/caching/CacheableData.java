@@ -722,7 +722,31 @@ public abstract class CacheableData<T extends CacheBlock<?>> extends Data
 			throw new DMLRuntimeException("acquireModify with empty cache block.");
 		return _data = newData;
 	}
-	
+
+	/**
+	 * Binds new in-memory data to an empty cacheable data object without the
+	 * pin/unpin and buffer pool bookkeeping of acquireModify and release. This
+	 * is only done for data below the caching threshold, which is never written
+	 * to the buffer pool anyway, and is used for small low-latency inputs.
+	 *
+	 * In-Status:  EMPTY;
+	 * Out-Status: EVICTABLE.
+	 *
+	 * @param newData new data
+	 * @return true if bound, false if the caller needs to fall back to acquireModify
+	 */
+	public synchronized boolean setSmallData(T newData) {
+		if( newData == null || _data != null || _cacheStatus != CacheStatus.EMPTY
+			|| OptimizerUtils.isUMMEnabled() || !isBelowCachingThreshold(newData) )
+			return false;
+		_data = newData;
+		_isAcquireFromEmpty = false;
+		setDirty(true);
+		refreshMetaData();
+		setCached();
+		return true;
+	}
+
 	/**
 	 * Releases the shared ("read-only") or exclusive ("write") lock.  Updates
 	 * size information, last-access time, metadata, etc.
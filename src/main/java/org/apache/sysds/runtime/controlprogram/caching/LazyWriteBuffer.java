@@ -20,6 +20,7 @@
 package org.apache.sysds.runtime.controlprogram.caching;
 
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.Map.Entry;
 import java.util.concurrent.ExecutorService;
 
@@ -27,7 +28,9 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.sysds.api.DMLScript;
 import org.apache.sysds.hops.OptimizerUtils;
+import org.apache.sysds.runtime.DMLRuntimeException;
 import org.apache.sysds.runtime.util.LocalFileUtils;
+import org.apache.sysds.utils.stats.InfrastructureAnalyzer;
 
 public class LazyWriteBuffer {
 	protected static final Log LOG = LogFactory.getLog(LazyWriteBuffer.class.getName());
@@ -50,9 +53,23 @@ public class LazyWriteBuffer {
 	//maintenance service for synchronous or asynchronous delete of evicted files
 	private static CacheMaintenanceService _fClean;
 	
+	//off-heap page pool (null if disabled), entries with pending asynchronous
+	//spill to local FS, and the first failure of such an asynchronous spill
+	private static OffHeapPagePool _offHeap;
+	private static HashMap<String, ByteBuffer> _spilling;
+	private static long _spillingSize; //pages in bytes
+	private static IOException _spillError;
+	
+	//fraction of the off-heap pool above which entries are spilled proactively
+	private static final double OFFHEAP_SPILL_THRESHOLD = 0.9;
+	
 	public static int writeBlock(String fname, CacheBlock<?> cb)
 		throws IOException
 	{
+		//serialize into off-heap pages if configured
+		if( _offHeap != null )
+			return writeBlockOffHeap(fname, cb);
+		
 		//obtain basic meta data of cache block
 		//(size refers to potentially compact converted shallow-serialize
 		//representation if the current in-memory size does not yet qualify)
@@ -120,12 +137,155 @@ public class LazyWriteBuffer {
 		return numEvicted;
 	}
 
+	private static int writeBlockOffHeap(String fname, CacheBlock<?> cb)
+		throws IOException
+	{
+		//off-heap buffers always hold the deep-serialized block
+		long lSize = cb.getExactSerializedSize();
+		int numEvicted = 0;
+		
+		//write directly to local FS (bypass buffer if too large)
+		if( lSize > _offHeap.getCapacity() ) {
+			LocalFileUtils.writeCacheBlockToLocal(fname, cb);
+			if( DMLScript.STATISTICS )
+				CacheStatistics.incrementFSWrites();
+			return 1;
+		}
+		
+		OffHeapByteBuffer bbuff = null;
+		synchronized(_mQueue) {
+			checkSpillError();
+			waitForSpill(fname);
+			
+			//allocate off-heap pages, spill entries (by default FIFO) only if the
+			//pending spills do not cover the deficit, and otherwise wait for them
+			int[] pages = null;
+			while( (pages = _offHeap.allocate(lSize)) == null ) {
+				long deficit = getPageSize(lSize) - _offHeap.getFreeSize();
+				if( _spillingSize < deficit && !_mQueue.isEmpty() )
+					numEvicted += spillAsync();
+				else if( !_spilling.isEmpty() )
+					waitForSpill(null);
+				else
+					break; //no pages to reclaim
+				checkSpillError();
+			}
+			if( pages == null ) {
+				//write directly to local FS (pages held by concurrent writers)
+				LocalFileUtils.writeCacheBlockToLocal(fname, cb);
+				if( DMLScript.STATISTICS )
+					CacheStatistics.incrementFSWrites();
+				return numEvicted + 1;
+			}
+			bbuff = new OffHeapByteBuffer(lSize, _offHeap, pages);
+			_mQueue.addLast(fname, bbuff);
+			_size += lSize;
+			
+			//proactively spill old entries to keep free pages for subsequent writes
+			while( _offHeap.getUsedSize() - _spillingSize > OFFHEAP_SPILL_THRESHOLD * _limit
+				&& _mQueue.size() > 1 )
+				numEvicted += spillAsync();
+		}
+		
+		//serialize matrix (outside synchronized critical path)
+		_fClean.serializeData(bbuff, cb);
+		
+		if( DMLScript.STATISTICS )
+			CacheStatistics.incrementBPoolWrites();
+		return numEvicted;
+	}
+	
+	private static int spillAsync() {
+		//remove first entry from eviction queue (caller holds the queue lock)
+		Entry<String, ByteBuffer> entry = _mQueue.removeFirst();
+		String fname = entry.getKey();
+		ByteBuffer bbuff = entry.getValue();
+		if( bbuff == null )
+			return 0;
+		
+		//keep entry accessible for reads until written
+		_spilling.put(fname, bbuff);
+		_spillingSize += getPageSize(bbuff.getSize());
+		_fClean._pool.submit(() -> spill(fname, bbuff));
+		return 1;
+	}
+	
+	private static void spill(String fname, ByteBuffer bbuff) {
+		try {
+			//wait for pending serialization, write to local FS, and release pages
+			bbuff.checkSerialized();
+			bbuff.evictBuffer(fname);
+			bbuff.freeMemory();
+			if( DMLScript.STATISTICS )
+				CacheStatistics.incrementFSWrites();
+			synchronized(_mQueue) {
+				_spilling.remove(fname);
+				_spillingSize -= getPageSize(bbuff.getSize());
+				_size -= bbuff.getSize();
+				_mQueue.notifyAll();
+			}
+		}
+		catch(IOException ex) {
+			LOG.error("Failed to spill off-heap buffer "+fname+".", ex);
+			synchronized(_mQueue) {
+				//keep the entry in memory and report on next write
+				_spilling.remove(fname);
+				_spillingSize -= getPageSize(bbuff.getSize());
+				_mQueue.addLast(fname, bbuff);
+				if( _spillError == null )
+					_spillError = ex;
+				_mQueue.notifyAll();
+			}
+		}
+	}
+	
+	private static void checkSpillError() throws IOException {
+		//propagate failures of asynchronous spills (caller holds the queue lock)
+		if( _spillError != null ) {
+			IOException tmp = _spillError;
+			_spillError = null;
+			throw tmp;
+		}
+	}
+	
+	private static long getPageSize(long size) {
+		//size in bytes of the off-heap pages of a block
+		return (long) OffHeapPagePool.getNumPages(size) * OffHeapPagePool.PAGE_SIZE;
+	}
+	
+	/**
+	 * Waits until the pending spill of the given file, or of any file
+	 * if null, completed. The caller needs to hold the queue lock.
+	 * 
+	 * @param fname file name or null
+	 */
+	private static void waitForSpill(String fname) {
+		if( _spilling == null )
+			return;
+		try {
+			if( fname == null ) {
+				if( !_spilling.isEmpty() )
+					_mQueue.wait();
+			}
+			else {
+				while( _spilling.containsKey(fname) )
+					_mQueue.wait();
+			}
+		}
+		catch(InterruptedException ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+
 	public static void deleteBlock(String fname)
 	{
 		boolean requiresDelete = true;
 		
 		synchronized( _mQueue )
 		{
+			//wait for pending off-heap spill
+			waitForSpill(fname);
+			
 			//remove queue entry 
 			ByteBuffer ldata = _mQueue.remove(fname);
 			if( ldata != null ) {
@@ -159,12 +319,19 @@ public class LazyWriteBuffer {
 				_mQueue.remove( fname );
 				_mQueue.addLast( fname, ldata );
 			}
+			
+			//probe off-heap entries with pending spill
+			if( ldata == null && _spilling != null )
+				ldata = _spilling.get(fname);
 		}
 		
 		//deserialize or read from FS if required
+		//(null if off-heap pages released by completed spill)
 		if( ldata != null )
-		{
 			cb = ldata.deserializeBlock();
+		
+		if( cb != null )
+		{
 			if( DMLScript.STATISTICS )
 				CacheStatistics.incrementFSBuffHits();
 		}
@@ -183,6 +350,22 @@ public class LazyWriteBuffer {
 		_fClean = new CacheMaintenanceService();
 		_limit = OptimizerUtils.getBufferPoolLimit();
 		_size = 0;
+		
+		//off-heap buffer pool with its own size limit, bounded by the
+		//JVM's direct memory limit (w/ headroom for other NIO buffers)
+		long offHeapLimit = OptimizerUtils.getOffHeapBufferLimit();
+		long maxDirect = (long)(OptimizerUtils.MEM_UTIL_FACTOR * InfrastructureAnalyzer.getLocalMaxDirectMemory());
+		if( offHeapLimit > maxDirect ) {
+			LOG.warn("Off-heap buffer pool limit of "+offHeapLimit/(1024*1024)+"MB exceeds the available "
+				+ "direct memory (-XX:MaxDirectMemorySize), reduced to "+maxDirect/(1024*1024)+"MB.");
+			offHeapLimit = maxDirect;
+		}
+		_offHeap = (offHeapLimit > 0) ? new OffHeapPagePool(offHeapLimit) : null;
+		_spilling = (offHeapLimit > 0) ? new HashMap<>() : null;
+		_spillingSize = 0;
+		_spillError = null;
+		if( _offHeap != null )
+			_limit = _offHeap.getCapacity();
 	}
 
 	public static void cleanup() {
@@ -190,6 +373,11 @@ public class LazyWriteBuffer {
 			_mQueue.clear();
 		if( _fClean != null )
 			_fClean.close();
+		if( _offHeap != null ) {
+			_spilling.clear();
+			_spillingSize = 0;
+			_offHeap.clear();
+		}
 	}
 
 	public static long getWriteBufferLimit() {
@@ -203,6 +391,8 @@ public class LazyWriteBuffer {
 	}
 	
 	public static long getWriteBufferSize() {
+		if( _mQueue == null ) //not initialized
+			return 0;
 		synchronized( _mQueue ) {
 			return _size; }
 	}
@@ -213,7 +403,11 @@ public class LazyWriteBuffer {
 	}
 	
 	public static int getQueueSize() {
-		return _mQueue.size();
+		return (_mQueue != null) ? _mQueue.size() : 0;
+	}
+	
+	public static boolean isOffHeap() {
+		return _offHeap != null;
 	}
 	
 	public static long getCacheBlockSize(CacheBlock<?> cb) {
@@ -260,6 +454,12 @@ public class LazyWriteBuffer {
 	public static void forceEviction()
 		throws IOException 
 	{
+		//wait for pending off-heap spills
+		synchronized( _mQueue ) {
+			while( _spilling != null && !_spilling.isEmpty() )
+				waitForSpill(null);
+		}
+		
 		//evict all matrices and frames
 		while( !_mQueue.isEmpty() )
 		{
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.controlprogram.caching;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.frame.data.FrameBlock;
+import org.apache.sysds.runtime.io.IOUtilFunctions;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Write buffer entry that keeps the serialized matrix/frame in pages of the
+ * off-heap buffer pool instead of on-heap byte arrays or strong references.
+ * Since the pages are recycled once freed, deserialization and release are
+ * mutually exclusive; deserializing a released buffer returns null, in which
+ * case the block needs to be read from its evicted file.
+ * 
+ */
+public class OffHeapByteBuffer extends ByteBuffer
+{
+	private final OffHeapPagePool _pool;
+	private int[] _pages;
+
+	public OffHeapByteBuffer(long size, OffHeapPagePool pool, int[] pages) {
+		super(size);
+		_pool = pool;
+		_pages = pages;
+	}
+
+	@Override
+	public void serializeBlock(CacheBlock<?> cb) {
+		_shallow = false;
+		_matrix = (cb instanceof MatrixBlock);
+		
+		try {
+			//deep serialize into off-heap pages (for dense and sparse)
+			OffHeapDataOutput dout = new OffHeapDataOutput(_pool, _pages);
+			cb.write(dout);
+			dout.flush();
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException("Failed to serialize cache block.", ex);
+		}
+		
+		_serialized = true;
+	}
+
+	@Override
+	public synchronized CacheBlock<?> deserializeBlock()
+		throws IOException
+	{
+		checkSerialized();
+		if( _pages == null ) //already released
+			return null;
+		
+		DataInput din = new OffHeapDataInput(_pool, _pages, getSize());
+		CacheBlock<?> ret = _matrix ? new MatrixBlock() : new FrameBlock();
+		ret.readFields(din);
+		return ret;
+	}
+
+	@Override
+	public void evictBuffer(String fname)
+		throws IOException
+	{
+		//write out serialized pages w/o copy to heap
+		//(same format as evicted byte arrays)
+		FileChannel channel = null;
+		try {
+			channel = FileChannel.open(Paths.get(fname), StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+			_pool.writeTo(_pages, getSize(), channel);
+		}
+		finally {
+			IOUtilFunctions.closeSilently(channel);
+		}
+	}
+
+	@Override
+	public synchronized void freeMemory() {
+		//wait for pending serialization into the pages
+		checkSerialized();
+		if( _pages != null ) {
+			_pool.free(_pages);
+			_pages = null;
+		}
+	}
+}
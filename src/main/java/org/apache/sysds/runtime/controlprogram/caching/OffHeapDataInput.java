@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.controlprogram.caching;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+import org.apache.sysds.runtime.data.SparseBlock;
+import org.apache.sysds.runtime.io.IOUtilFunctions;
+import org.apache.sysds.runtime.matrix.data.MatrixBlockDataInput;
+
+/**
+ * Custom DataInput to deserialize from the pages of the off-heap buffer pool,
+ * which are copied page-wise into a staging array.
+ * 
+ */
+public class OffHeapDataInput implements DataInput, MatrixBlockDataInput
+{
+	protected final OffHeapPagePool _pool;
+	protected final int[] _pages;
+	protected final long _size;
+	protected final byte[] _buff;
+	protected int _count; //read position in staging array
+	protected int _limit; //valid bytes in staging array
+	protected long _pos;  //read position in off-heap pages
+
+	public OffHeapDataInput(OffHeapPagePool pool, int[] pages, long size) {
+		_pool = pool;
+		_pages = pages;
+		_size = size;
+		_buff = new byte[OffHeapPagePool.PAGE_SIZE];
+		_count = 0;
+		_limit = 0;
+		_pos = 0;
+	}
+
+	@Override
+	public void readFully(byte[] b) throws IOException {
+		readFully(b, 0, b.length);
+	}
+
+	@Override
+	public void readFully(byte[] b, int off, int len) throws IOException {
+		while( len > 0 ) {
+			if( _count == _limit )
+				ensure(1);
+			int n = Math.min(len, _limit - _count);
+			System.arraycopy(_buff, _count, b, off, n);
+			_count += n;
+			off += n;
+			len -= n;
+		}
+	}
+
+	@Override
+	public int skipBytes(int n) throws IOException {
+		int skipped = 0;
+		while( skipped < n && (_count < _limit || _pos < _size) ) {
+			if( _count == _limit )
+				ensure(1);
+			int len = Math.min(n - skipped, _limit - _count);
+			_count += len;
+			skipped += len;
+		}
+		return skipped;
+	}
+
+	@Override
+	public boolean readBoolean() throws IOException {
+		ensure(1);
+		return ( (_buff[_count++] & 0xFF) != 0 );
+	}
+
+	@Override
+	public byte readByte() throws IOException {
+		ensure(1);
+		return _buff[_count++];
+	}
+
+	@Override
+	public int readUnsignedByte() throws IOException {
+		ensure(1);
+		return _buff[_count++] & 0xFF;
+	}
+
+	@Override
+	public short readShort() throws IOException {
+		return (short) readUnsignedShort();
+	}
+
+	@Override
+	public int readUnsignedShort() throws IOException {
+		ensure(2);
+		int ret = IOUtilFunctions.baToShort(_buff, _count);
+		_count += 2;
+		return ret;
+	}
+
+	@Override
+	public char readChar() throws IOException {
+		return (char) readUnsignedShort();
+	}
+
+	@Override
+	public int readInt() throws IOException {
+		ensure(4);
+		int ret = IOUtilFunctions.baToInt(_buff, _count);
+		_count += 4;
+		return ret;
+	}
+
+	@Override
+	public long readLong() throws IOException {
+		ensure(8);
+		long ret = IOUtilFunctions.baToLong(_buff, _count);
+		_count += 8;
+		return ret;
+	}
+
+	@Override
+	public float readFloat() throws IOException {
+		return Float.intBitsToFloat(readInt());
+	}
+
+	@Override
+	public double readDouble() throws IOException {
+		return Double.longBitsToDouble(readLong());
+	}
+
+	@Override
+	public String readLine() throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+	@Override
+	public String readUTF() throws IOException {
+		return DataInputStream.readUTF(this);
+	}
+
+	///////////////////////////////////////////////
+	// Implementation of MatrixBlockDSMDataOutput
+	///////////////////////////////////////////////
+
+	@Override
+	public long readDoubleArray(int len, double[] varr) 
+		throws IOException 
+	{
+		//counter for non-zero elements
+		long nnz = 0;
+		for( int i=0; i<len; i++ ) {
+			ensure(8);
+			varr[i] = Double.longBitsToDouble(IOUtilFunctions.baToLong(_buff, _count));
+			_count += 8;
+			nnz += (varr[i]!=0) ? 1 : 0;
+		}
+		return nnz;
+	}
+
+	@Override
+	public long readSparseRows(int rlen, long nnz, SparseBlock rows) 
+		throws IOException 
+	{
+		//counter for non-zero elements
+		long gnnz = 0;
+		
+		//read all individual sparse rows from input
+		for( int i=0; i<rlen; i++ ) {
+			int lnnz = readInt();
+			if( lnnz > 0 ) { //non-zero row
+				rows.allocate(i, lnnz);
+				for( int j=0; j<lnnz; j++ ) {
+					ensure(12);
+					int aix = IOUtilFunctions.baToInt(_buff, _count);
+					double aval = Double.longBitsToDouble(IOUtilFunctions.baToLong(_buff, _count+4));
+					rows.append(i, aix, aval);
+					_count += 12;
+				}
+				gnnz += lnnz;
+			}
+		}
+		
+		//sanity check valid number of read nnz
+		if( gnnz != nnz )
+			throw new IOException("Invalid number of read nnz: "+gnnz+" vs "+nnz);
+		
+		return nnz;
+	}
+
+	private void ensure(int len) throws IOException {
+		if( _limit - _count >= len )
+			return;
+		
+		//compact remaining bytes and refill staging array from off-heap pages
+		int rem = _limit - _count;
+		System.arraycopy(_buff, _count, _buff, 0, rem);
+		_count = 0;
+		_limit = rem;
+		while( _limit < _buff.length && _pos < _size ) {
+			int page = (int) (_pos / OffHeapPagePool.PAGE_SIZE);
+			int poff = (int) (_pos % OffHeapPagePool.PAGE_SIZE);
+			int n = (int) Math.min(Math.min(_buff.length - _limit,
+				OffHeapPagePool.PAGE_SIZE - poff), _size - _pos);
+			_pool.read(_pages[page], poff, _buff, _limit, n);
+			_limit += n;
+			_pos += n;
+		}
+		if( _limit < len )
+			throw new EOFException("Read beyond off-heap buffer of size "+_size+".");
+	}
+}
@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.controlprogram.caching;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+
+import org.apache.sysds.runtime.data.SparseBlock;
+import org.apache.sysds.runtime.io.IOUtilFunctions;
+import org.apache.sysds.runtime.matrix.data.MatrixBlockDataOutput;
+
+/**
+ * Custom DataOutput to serialize into the pages of the off-heap buffer pool.
+ * Values are encoded into a page-sized staging array, which is copied into
+ * the off-heap pages on overflow and on flush.
+ * 
+ */
+public class OffHeapDataOutput implements DataOutput, MatrixBlockDataOutput
+{
+	protected final OffHeapPagePool _pool;
+	protected final int[] _pages;
+	protected final byte[] _buff;
+	protected int _count;
+	protected long _pos;
+
+	public OffHeapDataOutput(OffHeapPagePool pool, int[] pages) {
+		_pool = pool;
+		_pages = pages;
+		_buff = new byte[OffHeapPagePool.PAGE_SIZE];
+		_count = 0;
+		_pos = 0;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		reserve(1);
+		_buff[_count++] = (byte)b;
+	}
+
+	@Override
+	public void write(byte[] b) throws IOException {
+		write(b, 0, b.length);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		while( len > 0 ) {
+			if( _count == _buff.length )
+				flush();
+			int n = Math.min(len, _buff.length - _count);
+			System.arraycopy(b, off, _buff, _count, n);
+			_count += n;
+			off += n;
+			len -= n;
+		}
+	}
+
+	@Override
+	public void writeBoolean(boolean v) throws IOException {
+		reserve(1);
+		_buff[_count++] = (byte)( v ? 1 : 0 );
+	}
+
+	@Override
+	public void writeInt(int v) throws IOException {
+		reserve(4);
+		IOUtilFunctions.intToBa(v, _buff, _count);
+		_count += 4;
+	}
+
+	@Override
+	public void writeDouble(double v) throws IOException {
+		reserve(8);
+		IOUtilFunctions.longToBa(Double.doubleToRawLongBits(v), _buff, _count);
+		_count += 8;
+	}
+
+	@Override
+	public void writeByte(int v) throws IOException {
+		reserve(1);
+		_buff[_count++] = (byte) v;
+	}
+
+	@Override
+	public void writeBytes(String s) throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+	@Override
+	public void writeChar(int v) throws IOException {
+		writeShort(v);
+	}
+
+	@Override
+	public void writeChars(String s) throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+	@Override
+	public void writeFloat(float v) throws IOException {
+		reserve(4);
+		IOUtilFunctions.intToBa(Float.floatToRawIntBits(v), _buff, _count);
+		_count += 4;
+	}
+
+	@Override
+	public void writeLong(long v) throws IOException {
+		reserve(8);
+		IOUtilFunctions.longToBa(v, _buff, _count);
+		_count += 8;
+	}
+
+	@Override
+	public void writeShort(int v) throws IOException {
+		reserve(2);
+		IOUtilFunctions.shortToBa(v, _buff, _count);
+		_count += 2;
+	}
+
+	@Override
+	public void writeUTF(String s) throws IOException {
+		int slen = s.length();
+		int utflen = IOUtilFunctions.getUTFSize(s) - 2;
+		if (utflen-2 > 65535)
+			throw new UTFDataFormatException("encoded string too long: "+utflen);
+		
+		//write utf len (2 bytes) 
+		writeShort(utflen);
+		
+		//write utf payload
+		for( int i=0; i<slen; i++ ) {
+			char c = s.charAt(i);
+			reserve(3);
+			if( c>= 0x0001 && c<=0x007F ) //1 byte range
+				_buff[_count++] = (byte) c;
+			else if( c>=0x0800 ) { //3 byte range
+				_buff[_count++] = (byte) (0xE0 | ((c >> 12) & 0x0F));
+				_buff[_count++] = (byte) (0x80 | ((c >>  6) & 0x3F));
+				_buff[_count++] = (byte) (0x80 | ((c >>  0) & 0x3F));
+			}
+			else { //2 byte range and null
+				_buff[_count++] = (byte) (0xC0 | ((c >>  6) & 0x1F));
+				_buff[_count++] = (byte) (0x80 | ((c >>  0) & 0x3F));
+			}
+		}
+	}
+
+	///////////////////////////////////////////////
+	// Implementation of MatrixBlockDSMDataOutput
+	///////////////////////////////////////////////
+
+	@Override
+	public void writeDoubleArray(int len, double[] varr) 
+		throws IOException
+	{
+		for( int i=0; i<len; i++ ) {
+			reserve(8);
+			IOUtilFunctions.longToBa(Double.doubleToRawLongBits(varr[i]), _buff, _count);
+			_count += 8;
+		}
+	}
+
+	@Override
+	public void writeSparseRows(int rlen, SparseBlock rows) 
+		throws IOException
+	{
+		int lrlen = Math.min(rows.numRows(), rlen);
+		
+		//process existing rows
+		for( int i=0; i<lrlen; i++ ) {
+			if( !rows.isEmpty(i) ) {
+				int apos = rows.pos(i);
+				int alen = rows.size(i);
+				int[] aix = rows.indexes(i);
+				double[] avals = rows.values(i);
+				writeInt( alen );
+				for( int j=apos; j<apos+alen; j++ ) {
+					reserve(12);
+					IOUtilFunctions.intToBa(aix[j], _buff, _count);
+					IOUtilFunctions.longToBa(Double.doubleToRawLongBits(avals[j]), _buff, _count+4);
+					_count += 12;
+				}
+			}
+			else 
+				writeInt( 0 );
+		}
+		
+		//process remaining empty rows
+		for( int i=lrlen; i<rlen; i++ )
+			writeInt( 0 );
+	}
+
+	/**
+	 * Copies the staged bytes into the off-heap pages. Needs to
+	 * be called once after the entire block has been written.
+	 */
+	public void flush() {
+		int off = 0;
+		while( off < _count ) {
+			int page = (int) (_pos / OffHeapPagePool.PAGE_SIZE);
+			int poff = (int) (_pos % OffHeapPagePool.PAGE_SIZE);
+			int len = Math.min(_count - off, OffHeapPagePool.PAGE_SIZE - poff);
+			_pool.write(_pages[page], poff, _buff, off, len);
+			off += len;
+			_pos += len;
+		}
+		_count = 0;
+	}
+
+	private void reserve(int len) {
+		if( _count + len > _buff.length )
+			flush();
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.controlprogram.caching;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Slab allocator for the off-heap buffer pool. Direct byte buffers are
+ * lazily allocated in slabs of fixed size and handed out as fixed-size
+ * pages, which avoids fragmentation for blocks of varying sizes and keeps
+ * evicted blocks out of the garbage-collected heap. A block occupies a
+ * list of (not necessarily contiguous) pages.
+ */
+public class OffHeapPagePool
+{
+	public static final int PAGE_SIZE = 64 * 1024; //64KB
+	public static final int SLAB_SIZE = 64 * 1024 * 1024; //64MB
+	private static final int PAGES_PER_SLAB = SLAB_SIZE / PAGE_SIZE;
+
+	private final java.nio.ByteBuffer[] _slabs;
+	private final int _maxPages;
+	private int[] _free;   //stack of released pages
+	private int _numFree;  //number of released pages
+	private int _numPages; //number of pages handed out from slabs
+
+	public OffHeapPagePool(long limit) {
+		_maxPages = (int) Math.min(Integer.MAX_VALUE, limit / PAGE_SIZE);
+		_slabs = new java.nio.ByteBuffer[(_maxPages + PAGES_PER_SLAB - 1) / PAGES_PER_SLAB];
+		_free = new int[1024];
+	}
+
+	public static int getNumPages(long size) {
+		return (int) ((size + PAGE_SIZE - 1) / PAGE_SIZE);
+	}
+
+	/**
+	 * Allocates the pages for a block of the given size.
+	 * 
+	 * @param size block size in bytes
+	 * @return page ids, or null if the pool has not enough free pages
+	 */
+	public synchronized int[] allocate(long size) {
+		int n = getNumPages(size);
+		if( n > _numFree + _maxPages - _numPages )
+			return null;
+		int[] ret = new int[n];
+		for( int i=0; i<n; i++ )
+			ret[i] = (_numFree > 0) ? _free[--_numFree] : newPage();
+		return ret;
+	}
+
+	public synchronized void free(int[] pages) {
+		if( _numFree + pages.length > _free.length )
+			_free = Arrays.copyOf(_free, Math.max(2*_free.length, _numFree+pages.length));
+		for( int page : pages )
+			_free[_numFree++] = page;
+	}
+
+	public synchronized void clear() {
+		//release slabs to the garbage collector, which frees the native memory
+		Arrays.fill(_slabs, null);
+		_numFree = 0;
+		_numPages = 0;
+	}
+
+	public long getCapacity() {
+		return (long) _maxPages * PAGE_SIZE;
+	}
+
+	public synchronized long getUsedSize() {
+		return (long) (_numPages - _numFree) * PAGE_SIZE;
+	}
+
+	public synchronized long getFreeSize() {
+		return (long) (_numFree + _maxPages - _numPages) * PAGE_SIZE;
+	}
+
+	public void write(int page, int off, byte[] src, int srcOff, int len) {
+		getSlab(page).put(getOffset(page) + off, src, srcOff, len);
+	}
+
+	public void read(int page, int off, byte[] dst, int dstOff, int len) {
+		getSlab(page).get(getOffset(page) + off, dst, dstOff, len);
+	}
+
+	/**
+	 * Writes the first size bytes of the given pages to the channel,
+	 * without copying them to the heap.
+	 * 
+	 * @param pages page ids
+	 * @param size number of bytes
+	 * @param channel output channel
+	 * @throws IOException if IOException occurs
+	 */
+	public void writeTo(int[] pages, long size, WritableByteChannel channel)
+		throws IOException
+	{
+		long remaining = size;
+		for( int i=0; i<pages.length && remaining > 0; i++ ) {
+			int len = (int) Math.min(PAGE_SIZE, remaining);
+			java.nio.ByteBuffer tmp = getSlab(pages[i]).slice(getOffset(pages[i]), len);
+			while( tmp.hasRemaining() )
+				channel.write(tmp);
+			remaining -= len;
+		}
+	}
+
+	private int newPage() {
+		int page = _numPages++;
+		int slab = page / PAGES_PER_SLAB;
+		if( _slabs[slab] == null ) {
+			int npages = Math.min(PAGES_PER_SLAB, _maxPages - slab * PAGES_PER_SLAB);
+			_slabs[slab] = java.nio.ByteBuffer.allocateDirect(npages * PAGE_SIZE);
+		}
+		return page;
+	}
+
+	private java.nio.ByteBuffer getSlab(int page) {
+		return _slabs[page / PAGES_PER_SLAB];
+	}
+
+	private static int getOffset(int page) {
+		return (page % PAGES_PER_SLAB) * PAGE_SIZE;
+	}
+}
@@ -119,6 +119,22 @@ public class FederatedStatistics {
 		fedBytesSent.add(written);
 	}
 
+	public static long getServerBytesReceived() {
+		return bytesReceived.longValue();
+	}
+
+	public static long getServerBytesSent() {
+		return bytesSent.longValue();
+	}
+
+	public static long getWorkerBytesReceived() {
+		return fedBytesReceived.longValue();
+	}
+
+	public static long getWorkerBytesSent() {
+		return fedBytesSent.longValue();
+	}
+
 	public static synchronized void incFederated(RequestType rqt, List<Object> data){
 		switch (rqt) {
 			case READ_VAR:
@@ -53,6 +53,7 @@ import org.apache.sysds.runtime.controlprogram.federated.FederatedRequest.Reques
 import org.apache.sysds.runtime.controlprogram.federated.FederatedResponse;
 import org.apache.sysds.runtime.controlprogram.federated.FederatedUDF;
 import org.apache.sysds.runtime.controlprogram.federated.FederationUtils;
+import org.apache.sysds.runtime.controlprogram.paramserv.GradientCompression.CompressedList;
 import org.apache.sysds.runtime.controlprogram.paramserv.homomorphicEncryption.PublicKey;
 import org.apache.sysds.runtime.controlprogram.paramserv.homomorphicEncryption.SEALClient;
 import org.apache.sysds.runtime.functionobjects.Multiply;
@@ -94,6 +95,10 @@ public class FederatedPSControlThread extends PSWorker implements Callable<Void>
 	private boolean _use_homomorphic_encryption = false;
 	private PublicKey _partial_public_key;
 
+	// gradient and model compression
+	private GradientCompression _compression;
+	private double[][] _modelMirror;
+
 	public FederatedPSControlThread(int workerID, String updFunc, Statement.PSFrequency freq,
 		PSRuntimeBalancing runtimeBalancing, boolean weighting, int epochs, long batchSize,
 		int numBatchesPerGlobalEpoch, ExecutionContext ec, ParamServer ps, int nbatches, boolean modelAvg, boolean use_homomorphic_encryption)
@@ -128,6 +133,12 @@ public class FederatedPSControlThread extends PSWorker implements Callable<Void>
 		// weighting factor is always set, but only used when weighting is specified
 		_weightingFactor = weightingFactor;
 
+		// compression is not applicable to encrypted models
+		if(!_use_homomorphic_encryption) {
+			GradientCompression compression = GradientCompression.create(_ec.getListObject("hyperparams"));
+			_compression = compression.isCompressGradients() || compression.isDeltaModel() ? compression : null;
+		}
+
 		// different runtime balancing calculations
 		long dataSize = _features.getNumRows();
 		// calculate scaled batch size if balancing via batch size.
@@ -375,6 +386,10 @@ public class FederatedPSControlThread extends PSWorker implements Callable<Void>
 			ec.removeVariable(Statement.PS_FED_AGGREGATION_FNAME);
 			ec.removeVariable(Statement.PS_FED_MODEL_VARID);
 			ParamservUtils.cleanupListObject(ec, Statement.PS_HYPER_PARAMS);
+			if(ec.containsVariable(Statement.PS_FED_RESIDUAL))
+				ParamservUtils.cleanupListObject(ec, Statement.PS_FED_RESIDUAL);
+			if(ec.containsVariable(Statement.PS_FED_MODEL_BASE))
+				ParamservUtils.cleanupListObject(ec, Statement.PS_FED_MODEL_BASE);
 
 			return new FederatedResponse(FederatedResponse.ResponseType.SUCCESS);
 		}
@@ -533,16 +548,29 @@ public class FederatedPSControlThread extends PSWorker implements Callable<Void>
 		int numBatchesToCompute, int localStartBatchNum, boolean localUpdate)
 	{
 		Timing tFedCommunication = DMLScript.STATISTICS ? new Timing(true) : null;
-		// put current model on federated worker
-		Future<FederatedResponse> putParamsResponse = _featuresData.executeFederatedOperation(
-			new FederatedRequest(RequestType.PUT_VAR, _modelVarID, model));
-
-		try {
-			if(!putParamsResponse.get().isSuccessful())
-				throw new DMLRuntimeException("FederatedLocalPSThread: put was not successful");
+		CompressedList modelDelta = null;
+		if(_compression != null && _compression.isDeltaModel() && _modelMirror != null) {
+			// ship only the difference to the model the worker already holds
+			modelDelta = _compression.encodeModelDelta(model, _modelMirror);
+			accFedCompression(modelDelta.getRawSize(), modelDelta.getCompressedSize());
 		}
-		catch(Exception e) {
-			throw new DMLRuntimeException("FederatedLocalPSThread: failed to execute put" + e.getMessage());
+		else {
+			// put current model on federated worker
+			Future<FederatedResponse> putParamsResponse = _featuresData.executeFederatedOperation(
+				new FederatedRequest(RequestType.PUT_VAR, _modelVarID, model));
+
+			try {
+				if(!putParamsResponse.get().isSuccessful())
+					throw new DMLRuntimeException("FederatedLocalPSThread: put was not successful");
+			}
+			catch(Exception e) {
+				throw new DMLRuntimeException("FederatedLocalPSThread: failed to execute put" + e.getMessage());
+			}
+			if(_compression != null && _compression.isDeltaModel()) {
+				_modelMirror = GradientCompression.createMirror(model);
+				long size = 8L * Arrays.stream(_modelMirror).mapToLong(m -> m.length).sum();
+				accFedCompression(size, size);
+			}
 		}
 
 		// create and execute the udf on the remote worker
@@ -551,8 +579,10 @@ public class FederatedPSControlThread extends PSWorker implements Callable<Void>
 			udf = new HEComputeGradientsForNBatches(new long[]{_featuresData.getVarID(), _labelsData.getVarID()},
 					new long[]{_modelVarID}, numBatchesToCompute, localUpdate, localStartBatchNum);
 		} else {
-			udf = new federatedComputeGradientsForNBatches(new long[]{_featuresData.getVarID(), _labelsData.getVarID(),
-					_modelVarID}, numBatchesToCompute, localUpdate, localStartBatchNum);
+			long[] inIDs = modelDelta != null ? new long[]{_featuresData.getVarID(), _labelsData.getVarID()} :
+				new long[]{_featuresData.getVarID(), _labelsData.getVarID(), _modelVarID};
+			udf = new federatedComputeGradientsForNBatches(inIDs, numBatchesToCompute, localUpdate,
+				localStartBatchNum, _compression, modelDelta);
 		}
 		Future<FederatedResponse> udfResponse = _featuresData.executeFederatedOperation(
 				new FederatedRequest(RequestType.EXEC_UDF, _featuresData.getVarID(), udf));
@@ -566,6 +596,11 @@ public class FederatedPSControlThread extends PSWorker implements Callable<Void>
 				ParamServStatistics.accFedCommunicationTime(total - workerComputing);
 				ParamServStatistics.accFedNetworkTime(total);
 			}
+			if(responseData[0] instanceof CompressedList) {
+				CompressedList gradients = (CompressedList) responseData[0];
+				accFedCompression(gradients.getRawSize(), gradients.getCompressedSize());
+				return GradientCompression.decompress(gradients);
+			}
 			return (ListObject) responseData[0];
 		}
 		catch(Exception e) {
@@ -583,12 +618,22 @@ public class FederatedPSControlThread extends PSWorker implements Callable<Void>
 		int _numBatchesToCompute;
 		boolean _localUpdate;
 		int _localStartBatchNum;
+		GradientCompression _compression;
+		CompressedList _modelDelta;
 
 		protected federatedComputeGradientsForNBatches(long[] inIDs, int numBatchesToCompute, boolean localUpdate, int localStartBatchNum) {
+			this(inIDs, numBatchesToCompute, localUpdate, localStartBatchNum, null, null);
+		}
+
+		protected federatedComputeGradientsForNBatches(long[] inIDs, int numBatchesToCompute, boolean localUpdate,
+			int localStartBatchNum, GradientCompression compression, CompressedList modelDelta)
+		{
 			super(inIDs);
 			_numBatchesToCompute = numBatchesToCompute;
 			_localUpdate = localUpdate;
 			_localStartBatchNum = localStartBatchNum;
+			_compression = compression;
+			_modelDelta = modelDelta;
 		}
 
 		@Override
@@ -597,7 +642,17 @@ public class FederatedPSControlThread extends PSWorker implements Callable<Void>
 			// read in data by varid
 			MatrixObject features = (MatrixObject) data[0];
 			MatrixObject labels = (MatrixObject) data[1];
-			ListObject model = (ListObject) data[2];
+			ListObject model;
+			if(_modelDelta != null) {
+				// reconstruct the model from the model base and the received delta
+				model = GradientCompression.applyModelDelta(ec, _modelDelta);
+				ec.setVariable(ec.getVariable(Statement.PS_FED_MODEL_VARID).toString(), model);
+			}
+			else {
+				model = (ListObject) data[2];
+				if(_compression != null && _compression.isDeltaModel())
+					GradientCompression.setModelBase(ec, model);
+			}
 
 			// get data from execution context
 			long batchSize = ((IntObject) ec.getVariable(Statement.PS_FED_BATCH_SIZE)).getLongValue();
@@ -687,11 +742,16 @@ public class FederatedPSControlThread extends PSWorker implements Callable<Void>
 			ParamservUtils.cleanupListObject(ec, ec.getVariable(Statement.PS_FED_MODEL_VARID).toString());
 			// TODO double check cleanup gradients and models
 
+			// compress gradients with error feedback
+			Object result = modelAvg ? model : accGradients;
+			if(!modelAvg && _compression != null && _compression.isCompressGradients())
+				result = _compression.compressGradients(ec, accGradients);
+
 			// stop timing
 			DoubleObject gradientsTime = new DoubleObject(tGradients.stop());
 			ParamServStatistics.accGradientComputeTime(gradientsTime.getLongValue());
 			return new FederatedResponse(FederatedResponse.ResponseType.SUCCESS,
-					new Object[]{modelAvg ? model : accGradients, gradientsTime});
+					new Object[]{result, gradientsTime});
 		}
 
 		@Override
@@ -802,6 +862,11 @@ public class FederatedPSControlThread extends PSWorker implements Callable<Void>
 			ParamServStatistics.accFedGradientWeightingTime((long) time.stop());
 	}
 
+	protected void accFedCompression(long rawBytes, long sentBytes) {
+		if (DMLScript.STATISTICS)
+			ParamServStatistics.accFedCompression(rawBytes, sentBytes);
+	}
+
 	@Override
 	public String getWorkerName() {
 		return String.format("Federated worker_%d", _workerID);
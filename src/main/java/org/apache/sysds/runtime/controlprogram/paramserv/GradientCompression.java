@@ -0,0 +1,504 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.controlprogram.paramserv;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.sysds.parser.Statement;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysds.runtime.controlprogram.context.ExecutionContext;
+import org.apache.sysds.runtime.instructions.cp.Data;
+import org.apache.sysds.runtime.instructions.cp.ListObject;
+import org.apache.sysds.runtime.instructions.cp.ScalarObject;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Lossy compression of the gradients and models exchanged between the federated parameter server and its workers.
+ * The compression is configured through the paramserv hyperparams list:
+ * <ul>
+ * <li>compression: "none" (default), "topk" (top-k sparsification by magnitude), or "quant8" (8-bit stochastic
+ * quantization)</li>
+ * <li>topk_ratio: fraction of entries per matrix kept by top-k (default 0.01)</li>
+ * <li>delta_model: if true, model pulls after the first one only ship the difference to the model last sent to the
+ * worker, encoded with the configured compression (or exact sparse if none)</li>
+ * </ul>
+ * 
+ * Gradient compression uses error feedback, i.e., the compression error of a worker is kept in its execution context
+ * and added to the next gradients before compression, such that no update is lost but only delayed. For model deltas,
+ * the coordinator mirrors the model state of the worker, such that the compression error is part of the next delta.
+ */
+public class GradientCompression implements Serializable {
+	private static final long serialVersionUID = -6192847502398475613L;
+
+	public static final String COMPRESSION = "compression";
+	public static final String TOPK_RATIO = "topk_ratio";
+	public static final String DELTA_MODEL = "delta_model";
+
+	public enum Type {
+		NONE, TOPK, QUANT8
+	}
+
+	private final Type _type;
+	private final double _ratio;
+	private final boolean _deltaModel;
+
+	public GradientCompression(Type type, double ratio, boolean deltaModel) {
+		if(ratio <= 0 || ratio > 1)
+			throw new DMLRuntimeException("Invalid paramserv " + TOPK_RATIO + " '" + ratio + "', expected (0, 1].");
+		_type = type;
+		_ratio = ratio;
+		_deltaModel = deltaModel;
+	}
+
+	/**
+	 * Create the compression configuration from the paramserv hyper parameters.
+	 * 
+	 * @param hyperparams paramserv hyper parameters, or null for no compression
+	 * @return compression configuration
+	 */
+	public static GradientCompression create(ListObject hyperparams) {
+		if(hyperparams == null || !hyperparams.isNamedList())
+			return new GradientCompression(Type.NONE, 1, false);
+		Type type = Type.NONE;
+		if(hyperparams.contains(COMPRESSION)) {
+			String name = getScalar(hyperparams, COMPRESSION).getStringValue();
+			try {
+				type = Type.valueOf(name.toUpperCase());
+			}
+			catch(IllegalArgumentException ex) {
+				throw new DMLRuntimeException("Invalid paramserv " + COMPRESSION + " '" + name
+					+ "', expected none, topk, or quant8.");
+			}
+		}
+		double ratio = hyperparams.contains(TOPK_RATIO) ? //
+			getScalar(hyperparams, TOPK_RATIO).getDoubleValue() : 0.01;
+		boolean delta = hyperparams.contains(DELTA_MODEL) && getScalar(hyperparams, DELTA_MODEL).getBooleanValue();
+		return new GradientCompression(type, ratio, delta);
+	}
+
+	public Type getType() {
+		return _type;
+	}
+
+	public boolean isCompressGradients() {
+		return _type != Type.NONE;
+	}
+
+	public boolean isDeltaModel() {
+		return _deltaModel;
+	}
+
+	/**
+	 * Compress the gradients of a federated worker, with error feedback through the residual kept in the given
+	 * execution context.
+	 * 
+	 * @param ec        execution context of the federated worker
+	 * @param gradients list of gradient matrices
+	 * @return compressed gradients
+	 */
+	public CompressedList compressGradients(ExecutionContext ec, ListObject gradients) {
+		ListObject residual = ec.containsVariable(Statement.PS_FED_RESIDUAL) ? //
+			(ListObject) ec.getVariable(Statement.PS_FED_RESIDUAL) : null;
+		List<Data> newResidual = new ArrayList<>(gradients.getLength());
+		CompressedMatrix[] ret = new CompressedMatrix[gradients.getLength()];
+		for(int i = 0; i < ret.length; i++) {
+			MatrixBlock g = getMatrixBlock(gradients.getData(i));
+			double[] vals = PSOptimizer.getDenseCopy(g);
+			if(residual != null) {
+				double[] res = PSOptimizer.getDenseCopy(getMatrixBlock(residual.getData(i)));
+				for(int j = 0; j < vals.length; j++)
+					vals[j] += res[j];
+			}
+			ret[i] = compress(vals, g.getNumRows(), g.getNumColumns(), _type, _ratio);
+			// keep the compression error for the next round
+			ret[i].subtractFrom(vals);
+			newResidual.add(toMatrixObject(vals, g.getNumRows(), g.getNumColumns(), false));
+		}
+		replaceVariable(ec, Statement.PS_FED_RESIDUAL, new ListObject(newResidual));
+		return new CompressedList(ret, gradients.getNames());
+	}
+
+	/**
+	 * Encode the difference between the given model and the model last sent to the worker, and update the mirror of
+	 * the worker model with the decoded difference.
+	 * 
+	 * @param model  current global model
+	 * @param mirror dense values of the model held by the worker, updated in place
+	 * @return compressed model delta
+	 */
+	public CompressedList encodeModelDelta(ListObject model, double[][] mirror) {
+		CompressedMatrix[] ret = new CompressedMatrix[model.getLength()];
+		for(int i = 0; i < ret.length; i++) {
+			MatrixBlock m = getMatrixBlock(model.getData(i));
+			double[] delta = PSOptimizer.getDenseCopy(m);
+			for(int j = 0; j < delta.length; j++)
+				delta[j] -= mirror[i][j];
+			ret[i] = _type == Type.NONE ? //
+				compressExact(delta, m.getNumRows(), m.getNumColumns()) : //
+				compress(delta, m.getNumRows(), m.getNumColumns(), _type, _ratio);
+			ret[i].addTo(mirror[i]);
+		}
+		return new CompressedList(ret, model.getNames());
+	}
+
+	/**
+	 * Create the dense mirror of a model that is sent uncompressed.
+	 * 
+	 * @param model model list
+	 * @return dense copies of all model matrices
+	 */
+	public static double[][] createMirror(ListObject model) {
+		double[][] ret = new double[model.getLength()][];
+		for(int i = 0; i < ret.length; i++)
+			ret[i] = PSOptimizer.getDenseCopy(getMatrixBlock(model.getData(i)));
+		return ret;
+	}
+
+	/**
+	 * Keep a private copy of the model received by a federated worker as base for subsequent model deltas.
+	 * 
+	 * @param ec    execution context of the federated worker
+	 * @param model received model
+	 */
+	public static void setModelBase(ExecutionContext ec, ListObject model) {
+		List<Data> base = new ArrayList<>(model.getLength());
+		for(int i = 0; i < model.getLength(); i++) {
+			MatrixBlock m = getMatrixBlock(model.getData(i));
+			base.add(toMatrixObject(PSOptimizer.getDenseCopy(m), m.getNumRows(), m.getNumColumns(), false));
+		}
+		replaceVariable(ec, Statement.PS_FED_MODEL_BASE, new ListObject(base));
+	}
+
+	/**
+	 * Apply a model delta to the model base of a federated worker.
+	 * 
+	 * @param ec    execution context of the federated worker
+	 * @param delta compressed model delta
+	 * @return new model list, independent of the model base
+	 */
+	public static ListObject applyModelDelta(ExecutionContext ec, CompressedList delta) {
+		if(!ec.containsVariable(Statement.PS_FED_MODEL_BASE))
+			throw new DMLRuntimeException("Federated worker received a model delta without model base.");
+		ListObject base = (ListObject) ec.getVariable(Statement.PS_FED_MODEL_BASE);
+		List<Data> newBase = new ArrayList<>(delta.getLength());
+		List<Data> model = new ArrayList<>(delta.getLength());
+		for(int i = 0; i < delta.getLength(); i++) {
+			CompressedMatrix cm = delta.get(i);
+			double[] b = PSOptimizer.getDenseCopy(getMatrixBlock(base.getData(i)));
+			cm.addTo(b);
+			newBase.add(toMatrixObject(b, cm.getNumRows(), cm.getNumColumns(), false));
+			model.add(toMatrixObject(b.clone(), cm.getNumRows(), cm.getNumColumns(), true));
+		}
+		replaceVariable(ec, Statement.PS_FED_MODEL_BASE, new ListObject(newBase));
+		return new ListObject(model, delta.getNames());
+	}
+
+	/**
+	 * Decompress a compressed list into a list of new matrix objects.
+	 * 
+	 * @param cl compressed list
+	 * @return list of dense matrices
+	 */
+	public static ListObject decompress(CompressedList cl) {
+		List<Data> data = new ArrayList<>(cl.getLength());
+		for(int i = 0; i < cl.getLength(); i++) {
+			CompressedMatrix cm = cl.get(i);
+			double[] vals = new double[cm.getNumRows() * cm.getNumColumns()];
+			cm.addTo(vals);
+			data.add(toMatrixObject(vals, cm.getNumRows(), cm.getNumColumns(), true));
+		}
+		return new ListObject(data, cl.getNames());
+	}
+
+	protected static CompressedMatrix compress(double[] vals, int rows, int cols, Type type, double ratio) {
+		switch(type) {
+			case TOPK:
+				return compressTopK(vals, rows, cols, ratio);
+			case QUANT8:
+				return compressQuant8(vals, rows, cols);
+			default:
+				throw new DMLRuntimeException("Unsupported paramserv compression: " + type);
+		}
+	}
+
+	protected static CompressedMatrix compressTopK(double[] vals, int rows, int cols, double ratio) {
+		final int n = vals.length;
+		final int k = Math.max(1, Math.min(n, (int) Math.ceil(ratio * n)));
+		// threshold is the k-th largest magnitude
+		double[] abs = new double[n];
+		for(int i = 0; i < n; i++)
+			abs[i] = Math.abs(vals[i]);
+		final double thresh = n == 0 ? 0 : select(abs, n - k);
+		int[] idx = new int[k];
+		float[] fvals = new float[k];
+		int pos = 0;
+		for(int i = 0; i < n && pos < k; i++)
+			if(Math.abs(vals[i]) > thresh) {
+				idx[pos] = i;
+				fvals[pos++] = (float) vals[i];
+			}
+		// fill up with ties, preserving the index order
+		if(pos < k) {
+			int[] idx2 = new int[k];
+			float[] fvals2 = new float[k];
+			int p1 = 0, p2 = 0;
+			for(int i = 0; i < n && p2 < k; i++) {
+				if(p1 < pos && idx[p1] == i)
+					fvals2[p2] = fvals[p1++];
+				else if(Math.abs(vals[i]) == thresh && p2 - p1 < k - pos)
+					fvals2[p2] = (float) vals[i];
+				else
+					continue;
+				idx2[p2++] = i;
+			}
+			idx = idx2;
+			fvals = fvals2;
+		}
+		return new CompressedMatrix(rows, cols, idx, fvals, null, null, 0, 0);
+	}
+
+	protected static CompressedMatrix compressQuant8(double[] vals, int rows, int cols) {
+		double min = Double.POSITIVE_INFINITY;
+		double max = Double.NEGATIVE_INFINITY;
+		for(double v : vals) {
+			min = Math.min(min, v);
+			max = Math.max(max, v);
+		}
+		if(vals.length == 0)
+			min = max = 0;
+		final double scale = (max - min) / 255;
+		final byte[] q = new byte[vals.length];
+		if(scale > 0) {
+			// stochastic rounding makes the quantization unbiased
+			ThreadLocalRandom rand = ThreadLocalRandom.current();
+			for(int i = 0; i < vals.length; i++) {
+				double x = (vals[i] - min) / scale;
+				int lo = (int) x;
+				int v = lo + (rand.nextDouble() < x - lo ? 1 : 0);
+				q[i] = (byte) Math.min(v, 255);
+			}
+		}
+		return new CompressedMatrix(rows, cols, null, null, null, q, min, scale);
+	}
+
+	protected static CompressedMatrix compressExact(double[] vals, int rows, int cols) {
+		int nnz = 0;
+		for(double v : vals)
+			nnz += v != 0 ? 1 : 0;
+		// sparse encoding only pays off below half density (4 + 8 bytes per entry)
+		if(nnz * 12L >= vals.length * 8L)
+			return new CompressedMatrix(rows, cols, null, null, vals, null, 0, 0);
+		int[] idx = new int[nnz];
+		double[] dvals = new double[nnz];
+		for(int i = 0, pos = 0; i < vals.length; i++)
+			if(vals[i] != 0) {
+				idx[pos] = i;
+				dvals[pos++] = vals[i];
+			}
+		return new CompressedMatrix(rows, cols, idx, null, dvals, null, 0, 0);
+	}
+
+	private static double select(double[] a, int k) {
+		// iterative quickselect of the k-th smallest value
+		int lo = 0, hi = a.length - 1;
+		while(lo < hi) {
+			double pivot = a[(lo + hi) >>> 1];
+			int i = lo, j = hi;
+			while(i <= j) {
+				while(a[i] < pivot)
+					i++;
+				while(a[j] > pivot)
+					j--;
+				if(i <= j) {
+					double tmp = a[i];
+					a[i++] = a[j];
+					a[j--] = tmp;
+				}
+			}
+			if(k <= j)
+				hi = j;
+			else if(k >= i)
+				lo = i;
+			else
+				return a[k];
+		}
+		return a[k];
+	}
+
+	private static MatrixBlock getMatrixBlock(Data d) {
+		if(!(d instanceof MatrixObject))
+			throw new DMLRuntimeException("Paramserv compression only supports lists of matrices, but found: " + d);
+		return ((MatrixObject) d).acquireReadAndRelease();
+	}
+
+	private static ScalarObject getScalar(ListObject hyperparams, String name) {
+		Data d = hyperparams.getData(name);
+		if(d instanceof ScalarObject)
+			return (ScalarObject) d;
+		throw new DMLRuntimeException("Invalid paramserv hyper parameter '" + name + "': " + d);
+	}
+
+	private static MatrixObject toMatrixObject(double[] vals, int rows, int cols, boolean cleanup) {
+		MatrixBlock mb = new MatrixBlock(rows, cols, vals);
+		mb.recomputeNonZeros();
+		return ParamservUtils.newMatrixObject(mb, cleanup);
+	}
+
+	private static void replaceVariable(ExecutionContext ec, String name, ListObject lo) {
+		if(ec.containsVariable(name))
+			ParamservUtils.cleanupListObject(ec, (ListObject) ec.getVariable(name));
+		ec.setVariable(name, lo);
+	}
+
+	/**
+	 * Compressed list of matrices as shipped between coordinator and federated workers.
+	 */
+	public static class CompressedList implements Serializable {
+		private static final long serialVersionUID = 2093572947198456231L;
+
+		private final CompressedMatrix[] _data;
+		private final ArrayList<String> _names;
+
+		public CompressedList(CompressedMatrix[] data, List<String> names) {
+			_data = data;
+			_names = names != null ? new ArrayList<>(names) : null;
+		}
+
+		public int getLength() {
+			return _data.length;
+		}
+
+		public CompressedMatrix get(int i) {
+			return _data[i];
+		}
+
+		public List<String> getNames() {
+			return _names;
+		}
+
+		/**
+		 * @return size of the uncompressed dense matrices in bytes
+		 */
+		public long getRawSize() {
+			long ret = 0;
+			for(CompressedMatrix cm : _data)
+				ret += 8L * cm.getNumRows() * cm.getNumColumns();
+			return ret;
+		}
+
+		/**
+		 * @return payload size of the compressed matrices in bytes
+		 */
+		public long getCompressedSize() {
+			long ret = 0;
+			for(CompressedMatrix cm : _data)
+				ret += cm.getCompressedSize();
+			return ret;
+		}
+	}
+
+	/**
+	 * A single compressed matrix, either sparse (indexes with fp32 or fp64 values), dense fp64, or dense 8-bit
+	 * quantized with per-matrix offset and scale.
+	 */
+	public static class CompressedMatrix implements Serializable {
+		private static final long serialVersionUID = -4012875934871246103L;
+
+		private final int _rows;
+		private final int _cols;
+		private final int[] _idx;
+		private final float[] _fvals;
+		private final double[] _dvals;
+		private final byte[] _qvals;
+		private final double _min;
+		private final double _scale;
+
+		protected CompressedMatrix(int rows, int cols, int[] idx, float[] fvals, double[] dvals, byte[] qvals,
+			double min, double scale)
+		{
+			_rows = rows;
+			_cols = cols;
+			_idx = idx;
+			_fvals = fvals;
+			_dvals = dvals;
+			_qvals = qvals;
+			_min = min;
+			_scale = scale;
+		}
+
+		public int getNumRows() {
+			return _rows;
+		}
+
+		public int getNumColumns() {
+			return _cols;
+		}
+
+		public long getCompressedSize() {
+			long ret = 24; // dims, offset and scale
+			ret += _idx != null ? 4L * _idx.length : 0;
+			ret += _fvals != null ? 4L * _fvals.length : 0;
+			ret += _dvals != null ? 8L * _dvals.length : 0;
+			ret += _qvals != null ? _qvals.length : 0;
+			return ret;
+		}
+
+		/**
+		 * Add the decoded values to the given dense array.
+		 * 
+		 * @param out dense row-major values of size rows x cols
+		 */
+		public void addTo(double[] out) {
+			apply(out, 1);
+		}
+
+		/**
+		 * Subtract the decoded values from the given dense array.
+		 * 
+		 * @param out dense row-major values of size rows x cols
+		 */
+		public void subtractFrom(double[] out) {
+			apply(out, -1);
+		}
+
+		private void apply(double[] out, double sign) {
+			if(_qvals != null) {
+				for(int i = 0; i < _qvals.length; i++)
+					out[i] += sign * ((_qvals[i] & 0xFF) * _scale + _min);
+			}
+			else if(_idx == null) {
+				for(int i = 0; i < _dvals.length; i++)
+					out[i] += sign * _dvals[i];
+			}
+			else if(_fvals != null) {
+				for(int i = 0; i < _idx.length; i++)
+					out[_idx[i]] += sign * _fvals[i];
+			}
+			else {
+				for(int i = 0; i < _idx.length; i++)
+					out[_idx[i]] += sign * _dvals[i];
+			}
+		}
+	}
+}
@@ -22,8 +22,10 @@ package org.apache.sysds.runtime.controlprogram.paramserv;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.commons.lang3.concurrent.ConcurrentUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -42,6 +44,8 @@ public class LocalPSWorker extends PSWorker implements Callable<Void> {
 	protected static final Log LOG = LogFactory.getLog(LocalPSWorker.class.getName());
 	private static final long serialVersionUID = 5195390748495357295L;
 
+	private boolean _pipelined = false;
+
 	protected LocalPSWorker() {}
 
 	public LocalPSWorker(int workerID, String updFunc, Statement.PSFrequency freq,
@@ -55,6 +59,17 @@ public class LocalPSWorker extends PSWorker implements Callable<Void> {
 		return String.format("Local worker_%d", _workerID);
 	}
 
+	/**
+	 * Enables the pipelined execution of per-batch updates, where the push of the gradients and the pull of the
+	 * new model run concurrently to the slicing and gradient computation of the next batch. Accordingly, the
+	 * gradients of a batch are computed on a model that lacks the worker's own previous update.
+	 *
+	 * @param pipelined true to overlap communication and computation
+	 */
+	public void setPipelined(boolean pipelined) {
+		_pipelined = pipelined;
+	}
+
 	@Override
 	public Void call() throws Exception {
 		incWorkerNumber();
@@ -64,7 +79,10 @@ public class LocalPSWorker extends PSWorker implements Callable<Void> {
 
 			switch (_freq) {
 				case BATCH:
-					computeBatch(dataSize, batchIter);
+					if(_pipelined)
+						computeBatchPipelined(dataSize, batchIter);
+					else
+						computeBatch(dataSize, batchIter);
 					break;
 				case EPOCH:
 					computeEpoch(dataSize, batchIter);
@@ -81,6 +99,9 @@ public class LocalPSWorker extends PSWorker implements Callable<Void> {
 			}
 		} catch (Exception e) {
 			throw new DMLRuntimeException(String.format("%s failed", getWorkerName()), e);
+		} finally {
+			// release workers waiting for this one under bounded staleness
+			_ps.finishWorker(_workerID);
 		}
 		return null;
 	}
@@ -218,6 +239,63 @@ public class LocalPSWorker extends PSWorker implements Callable<Void> {
 		}
 	}
 
+	private void computeBatchPipelined(long dataSize, int totalIter) {
+		ExecutorService comm = Executors.newSingleThreadExecutor(new BasicThreadFactory.Builder()
+			.namingPattern("ps-comm-thread-" + _workerID).build());
+		ExecutorService pool = CommonThreadPool.get();
+		Future<MatrixObject[]> nextBatch = null;
+		try {
+			ListObject globalParams = pullModel();
+			Future<ListObject> nextParams = null;
+			nextBatch = pool.submit(() -> sliceBatch(dataSize, 0));
+			for(int i = 0; i < _epochs; i++) {
+				for(int j = 0; j < totalIter; j++) {
+					// prefetch the next batch (of the next epoch at the end of an epoch)
+					MatrixObject[] batch = nextBatch.get();
+					final int nj = (j + 1) % totalIter;
+					final boolean last = i == _epochs - 1 && j == totalIter - 1;
+					nextBatch = last ? null : pool.submit(() -> sliceBatch(dataSize, nj));
+
+					// compute the gradients while the previous push and pull are in flight
+					ListObject gradients = computeGradients(globalParams, batch, dataSize, totalIter, i, j);
+					// unbind the gradients, they are handed over to the ps by the comm thread
+					_ec.removeVariable(_output.getName());
+
+					if(nextParams != null) {
+						ListObject params = nextParams.get();
+						ParamservUtils.cleanupListObject(_ec, Statement.PS_MODEL);
+						globalParams = params;
+					}
+					nextParams = comm.submit(() -> {
+						pushGradients(gradients);
+						return last ? null : pullModel();
+					});
+					accNumBatches(1);
+				}
+
+				accNumEpochs(1);
+				if (LOG.isDebugEnabled()) {
+					LOG.debug(String.format("%s: finished %d epoch.", getWorkerName(), i + 1));
+				}
+			}
+			if(nextParams != null)
+				nextParams.get();
+			// the last pulled model is not bound to the execution context anymore
+			_ec.removeVariable(Statement.PS_MODEL);
+			ParamservUtils.cleanupListObject(_ec, globalParams);
+		}
+		catch(ExecutionException | InterruptedException ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		finally {
+			// cancel the outstanding prefetch if a batch computation failed
+			if(nextBatch != null)
+				nextBatch.cancel(true);
+			comm.shutdownNow();
+			pool.shutdown();
+		}
+	}
+
 	private ListObject pullModel() {
 		// Pull the global parameters from ps
 		ListObject globalParams = _ps.pull(_workerID);
@@ -238,7 +316,10 @@ public class LocalPSWorker extends PSWorker implements Callable<Void> {
 	}
 
 	private ListObject computeGradients(ListObject params, long dataSize, int batchIter, int i, int j) {
-		_ec.setVariable(Statement.PS_MODEL, params);
+		return computeGradients(params, sliceBatch(dataSize, j), dataSize, batchIter, i, j);
+	}
+
+	private MatrixObject[] sliceBatch(long dataSize, int j) {
 		long begin = j * _batchSize + 1;
 		long end = Math.min((j + 1) * _batchSize, dataSize);
 
@@ -247,6 +328,17 @@ public class LocalPSWorker extends PSWorker implements Callable<Void> {
 		MatrixObject bFeatures = ParamservUtils.sliceMatrix(_features, begin, end);
 		MatrixObject bLabels = ParamservUtils.sliceMatrix(_labels, begin, end);
 		accBatchIndexingTime(tSlic);
+		return new MatrixObject[] {bFeatures, bLabels};
+	}
+
+	private ListObject computeGradients(ListObject params, MatrixObject[] batch, long dataSize, int batchIter,
+		int i, int j)
+	{
+		_ec.setVariable(Statement.PS_MODEL, params);
+		long begin = j * _batchSize + 1;
+		long end = Math.min((j + 1) * _batchSize, dataSize);
+		MatrixObject bFeatures = batch[0];
+		MatrixObject bLabels = batch[1];
 
 		_ec.setVariable(Statement.PS_FEATURES, bFeatures);
 		_ec.setVariable(Statement.PS_LABELS, bLabels);
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.controlprogram.paramserv;
+
+import org.apache.sysds.parser.Statement.PSOptimizerType;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysds.runtime.data.SparseBlock;
+import org.apache.sysds.runtime.instructions.cp.Data;
+import org.apache.sysds.runtime.instructions.cp.ListObject;
+import org.apache.sysds.runtime.instructions.cp.ScalarObject;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Native optimizer kernels for the parameter server, which replace the interpreted DML aggregation function. An
+ * optimizer instance is owned by a single layer (shard) and holds the optimizer state (e.g., velocity or moments) of
+ * this layer. The state is updated in place, while the new weights are written into a new dense block such that
+ * model copies already handed out to workers remain unchanged.
+ * 
+ * The semantics follow the nn optimizers sgd::update, sgd_momentum::update, and adam::update, where the hyper
+ * parameters are taken from the paramserv hyperparams list (lr, mu, beta1, beta2, epsilon).
+ */
+public abstract class PSOptimizer {
+	public static final String LR = "lr";
+	public static final String MU = "mu";
+	public static final String BETA1 = "beta1";
+	public static final String BETA2 = "beta2";
+	public static final String EPSILON = "epsilon";
+
+	protected final double _lr;
+
+	protected PSOptimizer(double lr) {
+		_lr = lr;
+	}
+
+	/**
+	 * Create a new optimizer for a layer.
+	 * 
+	 * @param type        optimizer type
+	 * @param hyperparams paramserv hyper parameters, or null for defaults
+	 * @return optimizer instance with empty state
+	 */
+	public static PSOptimizer create(PSOptimizerType type, ListObject hyperparams) {
+		double lr = getParam(hyperparams, LR, 0.01);
+		switch(type) {
+			case SGD:
+				return new SGD(lr);
+			case MOMENTUM:
+				return new Momentum(lr, getParam(hyperparams, MU, 0.9));
+			case ADAM:
+				return new Adam(lr, getParam(hyperparams, BETA1, 0.9), getParam(hyperparams, BETA2, 0.999),
+					getParam(hyperparams, EPSILON, 1e-8));
+			default:
+				throw new DMLRuntimeException("Unsupported paramserv optimizer: " + type);
+		}
+	}
+
+	/**
+	 * Apply the gradients to the given weights.
+	 * 
+	 * @param W  current weights (not modified)
+	 * @param dW gradients of the same shape
+	 * @return new dense weights
+	 */
+	public MatrixBlock update(MatrixBlock W, MatrixBlock dW) {
+		final int rl = W.getNumRows();
+		final int cl = W.getNumColumns();
+		if(dW.getNumRows() != rl || dW.getNumColumns() != cl)
+			throw new DMLRuntimeException("Invalid gradient shape " + dW.getNumRows() + "x" + dW.getNumColumns()
+				+ " for weights of shape " + rl + "x" + cl);
+		final double[] w = getDenseCopy(W);
+		final double[] g = dW.isEmptyBlock(false) ? null : //
+			(!dW.isInSparseFormat() ? dW.getDenseBlockValues() : getDenseCopy(dW));
+		update(w, g);
+		MatrixBlock ret = new MatrixBlock(rl, cl, w);
+		ret.recomputeNonZeros();
+		return ret;
+	}
+
+	/**
+	 * Update the weights in place.
+	 * 
+	 * @param w dense weights
+	 * @param g dense gradients, or null if all zero
+	 */
+	protected abstract void update(double[] w, double[] g);
+
+	static double[] getDenseCopy(MatrixBlock mb) {
+		final int rl = mb.getNumRows();
+		final int cl = mb.getNumColumns();
+		final double[] ret = new double[rl * cl];
+		if(mb.isEmptyBlock(false))
+			return ret;
+		if(!mb.isInSparseFormat()) {
+			System.arraycopy(mb.getDenseBlockValues(), 0, ret, 0, ret.length);
+			return ret;
+		}
+		final SparseBlock sb = mb.getSparseBlock();
+		for(int i = 0; i < rl; i++) {
+			if(sb.isEmpty(i))
+				continue;
+			final int apos = sb.pos(i);
+			final int alen = sb.size(i) + apos;
+			final int[] aix = sb.indexes(i);
+			final double[] avals = sb.values(i);
+			for(int j = apos; j < alen; j++)
+				ret[i * cl + aix[j]] = avals[j];
+		}
+		return ret;
+	}
+
+	private static double getParam(ListObject hyperparams, String name, double defaultValue) {
+		if(hyperparams == null || !hyperparams.isNamedList() || !hyperparams.contains(name))
+			return defaultValue;
+		Data d = hyperparams.getData(name);
+		if(d instanceof ScalarObject)
+			return ((ScalarObject) d).getDoubleValue();
+		if(d instanceof MatrixObject)
+			return ((MatrixObject) d).acquireReadAndRelease().get(0, 0);
+		throw new DMLRuntimeException("Invalid paramserv hyper parameter '" + name + "': " + d);
+	}
+
+	private static class SGD extends PSOptimizer {
+		private SGD(double lr) {
+			super(lr);
+		}
+
+		@Override
+		protected void update(double[] w, double[] g) {
+			if(g == null)
+				return;
+			for(int i = 0; i < w.length; i++)
+				w[i] -= _lr * g[i];
+		}
+	}
+
+	private static class Momentum extends PSOptimizer {
+		private final double _mu;
+		private double[] _v;
+
+		private Momentum(double lr, double mu) {
+			super(lr);
+			_mu = mu;
+		}
+
+		@Override
+		protected void update(double[] w, double[] g) {
+			if(_v == null)
+				_v = new double[w.length];
+			final double[] v = _v;
+			for(int i = 0; i < w.length; i++) {
+				v[i] = _mu * v[i] - _lr * (g != null ? g[i] : 0);
+				w[i] += v[i];
+			}
+		}
+	}
+
+	private static class Adam extends PSOptimizer {
+		private final double _beta1;
+		private final double _beta2;
+		private final double _eps;
+		private double[] _m;
+		private double[] _v;
+		private int _t = 0;
+
+		private Adam(double lr, double beta1, double beta2, double eps) {
+			super(lr);
+			_beta1 = beta1;
+			_beta2 = beta2;
+			_eps = eps;
+		}
+
+		@Override
+		protected void update(double[] w, double[] g) {
+			if(_m == null) {
+				_m = new double[w.length];
+				_v = new double[w.length];
+			}
+			final double[] m = _m;
+			final double[] v = _v;
+			_t++;
+			final double lrt = _lr * Math.sqrt(1 - Math.pow(_beta2, _t)) / (1 - Math.pow(_beta1, _t));
+			for(int i = 0; i < w.length; i++) {
+				final double gi = g != null ? g[i] : 0;
+				m[i] = _beta1 * m[i] + (1 - _beta1) * gi;
+				v[i] = _beta2 * v[i] + (1 - _beta2) * gi * gi;
+				w[i] -= lrt * m[i] / (Math.sqrt(v[i]) + _eps);
+			}
+		}
+	}
+}
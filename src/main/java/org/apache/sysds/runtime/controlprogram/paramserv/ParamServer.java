@@ -86,6 +86,11 @@ public abstract class ParamServer
 	private boolean _modelAvg;
 	private ListObject _accModels = null;
 
+	// bounded staleness (SSP): number of pushes per worker and finished workers
+	private int _staleness = 1;
+	private long[] _clocks;
+	private boolean[] _doneStates;
+
 	protected ParamServer() {}
 
 	protected ParamServer(ListObject model, String aggFunc, Statement.PSUpdateType updateType,
@@ -115,6 +120,8 @@ public abstract class ParamServer
 		_numBackupWorkers = numBackupWorkers;
 		_numUpdatesStraggling = new int[workerNum];
 		_modelAvg = modelAvg;
+		_clocks = new long[workerNum];
+		_doneStates = new boolean[workerNum];
 
 		// broadcast initial model
 		broadcastModel(true);
@@ -222,7 +229,8 @@ public abstract class ParamServer
 						performGlobalGradientUpdate();
 					break;
 				}
-				case ASP: {
+				case ASP:
+				case SSP: {
 					updateGlobalModel(gradients);
 					// This works similarly to the one for BSP, but divides the sync counter by
 					// the number of workers, creating "Pseudo Epochs"
@@ -242,6 +250,8 @@ public abstract class ParamServer
 						_syncCounter = 0;
 					}
 
+					if(_updateType.isSSP())
+						waitForStragglers(workerID);
 					broadcastModel(workerID);
 					break;
 				}
@@ -275,6 +285,50 @@ public abstract class ParamServer
 		}
 	}
 
+	/**
+	 * Set the maximum number of updates a worker may run ahead of the slowest unfinished worker (SSP).
+	 *
+	 * @param staleness staleness bound, at least 0
+	 */
+	public void setStaleness(int staleness) {
+		if(staleness < 0)
+			throw new DMLRuntimeException("Paramserv func: invalid staleness " + staleness + ", expected >= 0.");
+		_staleness = staleness;
+	}
+
+	public int getStaleness() {
+		return _staleness;
+	}
+
+	/**
+	 * Marks a worker as finished, such that it no longer holds back faster workers under SSP.
+	 *
+	 * @param workerID the worker id
+	 */
+	public synchronized void finishWorker(int workerID) {
+		if(_doneStates == null)
+			return; // remote proxy
+		_doneStates[workerID] = true;
+		notifyAll();
+	}
+
+	private void waitForStragglers(int workerID) throws InterruptedException {
+		// advance the clock of the pushing worker and block it (w/o holding the
+		// server lock) as long as it is too far ahead of the slowest worker
+		_clocks[workerID]++;
+		notifyAll();
+		while(_clocks[workerID] - getMinClock(workerID) > _staleness)
+			wait();
+	}
+
+	private long getMinClock(int workerID) {
+		long min = _clocks[workerID];
+		for(int i = 0; i < _clocks.length; i++)
+			if(!_doneStates[i])
+				min = Math.min(min, _clocks[i]);
+		return min;
+	}
+
 	private void performGlobalGradientUpdate() {
 		// Update the global model with accrued gradients
 		if(ACCRUE_BSP_GRADIENTS) {
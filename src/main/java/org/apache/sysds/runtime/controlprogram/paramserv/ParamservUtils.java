@@ -28,6 +28,7 @@ import java.util.stream.IntStream;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.sysds.api.DMLScript;
 import org.apache.sysds.common.Types.ExecType;
 import org.apache.sysds.common.Types.FileFormat;
 import org.apache.sysds.common.Types.ValueType;
@@ -176,13 +177,19 @@ public class ParamservUtils {
 	 * Slice the matrix block and return a matrix block
 	 * (used in spark)
 	 *
+	 * Batches and partitions are only read, so the slice is a row range view that shares
+	 * the data of the input where possible (see {@link MatrixBlock#sliceRowsView(int, int)}),
+	 * except for GPU execution which requires self-contained sparse blocks.
+	 *
 	 * @param mb input matrix
 	 * @param rl low boundary
 	 * @param rh high boundary
 	 * @return new sliced matrix block
 	 */
 	public static MatrixBlock sliceMatrixBlock(MatrixBlock mb, long rl, long rh) {
-		return mb.slice((int) rl - 1, (int) rh - 1);
+		return DMLScript.USE_ACCELERATOR ?
+			mb.slice((int) rl - 1, (int) rh - 1) :
+			mb.sliceRowsView((int) rl - 1, (int) rh - 1);
 	}
 
 	/**
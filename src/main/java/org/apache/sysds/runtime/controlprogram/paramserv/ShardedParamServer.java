@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.controlprogram.paramserv;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+import org.apache.sysds.api.DMLScript;
+import org.apache.sysds.parser.Statement;
+import org.apache.sysds.parser.Statement.PSOptimizerType;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysds.runtime.controlprogram.context.ExecutionContext;
+import org.apache.sysds.runtime.instructions.cp.Data;
+import org.apache.sysds.runtime.instructions.cp.ListObject;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.utils.stats.ParamServStatistics;
+import org.apache.sysds.utils.stats.Timing;
+
+/**
+ * Local parameter server that shards the model by layer and applies gradients with native optimizer kernels
+ * ({@link PSOptimizer}) instead of the DML aggregation function. Every layer is owned by a shard with its own lock
+ * and optimizer state, which serializes the updates per layer only. For ASP without validation, pushes of different
+ * workers are applied concurrently (in rotated layer order to reduce contention) without the global server lock,
+ * while BSP/SBP keep the synchronized aggregation of the base server and only replace the final model update.
+ */
+public class ShardedParamServer extends LocalParamServer {
+	private final Shard[] _shards;
+	private final List<String> _names;
+	private final ListObject _initModel;
+	private final boolean _lockFree;
+
+	public static ShardedParamServer create(ListObject model, String aggFunc, Statement.PSUpdateType updateType,
+		Statement.PSFrequency freq, ExecutionContext ec, int workerNum, String valFunc, int numBatchesPerEpoch,
+		MatrixObject valFeatures, MatrixObject valLabels, int nbatches, int numBackupWorkers,
+		PSOptimizerType optimizer, ListObject hyperparams)
+	{
+		return new ShardedParamServer(model, aggFunc, updateType, freq, ec, workerNum, valFunc, numBatchesPerEpoch,
+			valFeatures, valLabels, nbatches, numBackupWorkers, optimizer, hyperparams);
+	}
+
+	protected ShardedParamServer(ListObject model, String aggFunc, Statement.PSUpdateType updateType,
+		Statement.PSFrequency freq, ExecutionContext ec, int workerNum, String valFunc, int numBatchesPerEpoch,
+		MatrixObject valFeatures, MatrixObject valLabels, int nbatches, int numBackupWorkers,
+		PSOptimizerType optimizer, ListObject hyperparams)
+	{
+		super(model, aggFunc, updateType, freq, ec, workerNum, valFunc, numBatchesPerEpoch, valFeatures, valLabels,
+			nbatches, false, numBackupWorkers);
+		_shards = new Shard[model.getLength()];
+		for(int i = 0; i < _shards.length; i++) {
+			Data d = model.getData(i);
+			if(!(d instanceof MatrixObject))
+				throw new DMLRuntimeException("Sharded paramserv requires a model list of matrices, but found: " + d);
+			MatrixBlock W = ((MatrixObject) d).acquireReadAndRelease();
+			_shards[i] = new Shard(W, PSOptimizer.create(optimizer, hyperparams));
+		}
+		_names = model.isNamedList() ? new ArrayList<>(model.getNames()) : null;
+		_initModel = model;
+		_lockFree = updateType.isASP() && (valFunc == null || numBatchesPerEpoch <= 0);
+	}
+
+	@Override
+	public void push(int workerID, ListObject gradients) {
+		if(!_lockFree) {
+			super.push(workerID, gradients);
+			return;
+		}
+		try {
+			Timing tAgg = DMLScript.STATISTICS ? new Timing(true) : null;
+			applyGradients(gradients, workerID);
+			ParamservUtils.cleanupListObject(gradients);
+			if(DMLScript.STATISTICS && tAgg != null)
+				ParamServStatistics.accAggregationTime((long) tAgg.stop());
+
+			// broadcast the current model to the pushing worker (new objects, cleaned up by worker)
+			Timing tBroad = DMLScript.STATISTICS ? new Timing(true) : null;
+			_modelMap.get(workerID).put(getModel());
+			if(DMLScript.STATISTICS && tBroad != null)
+				ParamServStatistics.accModelBroadcastTime((long) tBroad.stop());
+		}
+		catch(Exception e) {
+			throw new DMLRuntimeException("Aggregation service failed: ", e);
+		}
+	}
+
+	@Override
+	protected ListObject updateLocalModel(ExecutionContext ec, ListObject gradients, ListObject model) {
+		// called by the synchronized BSP/SBP/ASP aggregation of the base server, so we
+		// update all layers in parallel instead of serializing over the workers
+		final List<Data> grads = gradients.getData();
+		IntStream.range(0, Math.min(grads.size(), _shards.length)).parallel()
+			.forEach(i -> _shards[i].update((MatrixObject) grads.get(i)));
+		ParamservUtils.cleanupListObject(gradients);
+		// the previous model is only referenced by the base server (workers got copies)
+		if(model != _initModel)
+			ParamservUtils.cleanupListObject(model);
+		return getModel();
+	}
+
+	@Override
+	public ListObject getResult() {
+		return getModel();
+	}
+
+	private void applyGradients(ListObject gradients, int workerID) {
+		final List<Data> grads = gradients.getData();
+		final int n = Math.min(grads.size(), _shards.length);
+		for(int j = 0; j < n; j++) {
+			final int i = (j + workerID) % n;
+			_shards[i].update((MatrixObject) grads.get(i));
+		}
+	}
+
+	private ListObject getModel() {
+		List<Data> data = new ArrayList<>(_shards.length);
+		for(Shard s : _shards)
+			data.add(ParamservUtils.newMatrixObject(s.get(), false));
+		return new ListObject(data, _names);
+	}
+
+	private static class Shard {
+		private final ReentrantLock _lock = new ReentrantLock();
+		private final PSOptimizer _opt;
+		// weights are never modified in place, only replaced
+		private volatile MatrixBlock _weights;
+
+		private Shard(MatrixBlock weights, PSOptimizer opt) {
+			_weights = weights;
+			_opt = opt;
+		}
+
+		private MatrixBlock get() {
+			return _weights;
+		}
+
+		private void update(MatrixObject gradient) {
+			final MatrixBlock dW = gradient.acquireReadAndRelease();
+			_lock.lock();
+			try {
+				_weights = _opt.update(_weights, dW);
+			}
+			finally {
+				_lock.unlock();
+			}
+		}
+	}
+}
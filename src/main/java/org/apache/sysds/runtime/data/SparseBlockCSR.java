@@ -78,6 +78,32 @@ public class SparseBlockCSR extends SparseBlock
 		_size = nnz;
 	}
 
+	/**
+	 * Creates a read-only view of the rows rl (inclusive) to ru (exclusive) of the given CSR block. The window of row
+	 * pointers is copied and rebased to start at 0, which retains the invariant pos(0)==0 that whole-array consumers
+	 * of CSR blocks rely on. The column index and value arrays are shared if the range starts at the first non-zero
+	 * (e.g., rl==0), and otherwise copied with a single bulk copy of the contiguous range. Views must not be modified.
+	 * 
+	 * @param sblock base sparse block
+	 * @param rl     row lower index (inclusive)
+	 * @param ru     row upper index (exclusive)
+	 */
+	public SparseBlockCSR(SparseBlockCSR sblock, int rl, int ru) {
+		final int off = sblock._ptr[rl];
+		_ptr = Arrays.copyOfRange(sblock._ptr, rl, ru + 1);
+		if( off == 0 ) {
+			_indexes = sblock._indexes;
+			_values = sblock._values;
+		}
+		else {
+			for( int i=0; i<_ptr.length; i++ )
+				_ptr[i] -= off;
+			_indexes = Arrays.copyOfRange(sblock._indexes, off, sblock._ptr[ru]);
+			_values = Arrays.copyOfRange(sblock._values, off, sblock._ptr[ru]);
+		}
+		_size = _ptr[ru - rl];
+	}
+
 	/**
 	 * Copy constructor sparse block abstraction. 
 	 * 
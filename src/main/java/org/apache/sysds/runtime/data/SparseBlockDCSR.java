@@ -114,8 +114,9 @@ public class SparseBlockDCSR extends SparseBlock
 			SparseBlockCSR ocsr = (SparseBlockCSR)sblock;
 			_rowidx = range(0, rlen).filter(rowIdx -> !sblock.isEmpty(rowIdx)).toArray();
 			_rowptr = new int[_rowidx.length + 1];
-			_colidx = Arrays.copyOf(ocsr.indexes(), (int)ocsr.size());
-			_values = Arrays.copyOf(ocsr.values(), (int)ocsr.size());
+			final int apos = ocsr.pos(0);
+			_colidx = Arrays.copyOfRange(ocsr.indexes(), apos, apos + (int)ocsr.size());
+			_values = Arrays.copyOfRange(ocsr.values(), apos, apos + (int)ocsr.size());
 			_rlen = rlen;
 			_nnzr = _rowidx.length;
 			_size = (int)ocsr.size();
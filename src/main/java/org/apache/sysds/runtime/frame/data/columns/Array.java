@@ -186,7 +186,7 @@ public abstract class Array<T> implements Writable {
 			tasks.add(pool.submit(() -> createRecodeMap(estimate, start, end)));
 		}
 		// make the initial map thread local allocation.
-		final HashMapToInt<T> map = new HashMapToInt<T>((int) (estimate * 1.3));
+		final HashMapToInt<T> map = allocRecodeMap((int) (estimate * 1.3));
 		createRecodeMap(map, 0, blk);
 		for(int i = 0; i < tasks.size(); i++) { // merge with other threads work.
 			final HashMapToInt<T> map2 = tasks.get(i).get();
@@ -219,10 +219,20 @@ public abstract class Array<T> implements Writable {
 
 	protected HashMapToInt<T> createRecodeMap(final int estimate, final int s, final int e) {
 		// * 1.3 because we hashMap has a load factor of 1.75
-		final HashMapToInt<T> map = new HashMapToInt<>((int) (Math.min((long) estimate, (e - s)) * 1.3));
+		final HashMapToInt<T> map = allocRecodeMap((int) (Math.min((long) estimate, (e - s)) * 1.3));
 		return createRecodeMap(map, s, e);
 	}
 
+	/**
+	 * Allocate an empty recode map for this array, which allows specialized maps for the value type.
+	 * 
+	 * @param capacity The initial capacity
+	 * @return An empty recode map
+	 */
+	protected HashMapToInt<T> allocRecodeMap(int capacity) {
+		return new HashMapToInt<>(capacity);
+	}
+
 	protected HashMapToInt<T> createRecodeMap(HashMapToInt<T> map, final int s, final int e) {
 		int id = 1;
 		for(int i = s; i < e; i++)
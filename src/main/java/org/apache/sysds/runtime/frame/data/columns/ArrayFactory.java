@@ -297,6 +297,15 @@ public interface ArrayFactory {
 		Array<C> ac = (Array<C>) (ta != tc ? a.changeType(tc) : a);
 		Array<C> bc = (Array<C>) (tb != tc ? b.changeType(tc) : b);
 
+		if(bc instanceof DDCArray && !(ac instanceof DDCArray)) {
+			// keep the result compressed if the first side compresses (gated by a sample of its distinct values),
+			// otherwise decompress the second.
+			final Array<C> acc = DDCArray.tryCompressToDDC(ac);
+			if(acc instanceof DDCArray)
+				return acc.append(bc);
+			bc = ((DDCArray<C>) bc).decompress();
+		}
+
 		return ac.append(bc);
 	}
 
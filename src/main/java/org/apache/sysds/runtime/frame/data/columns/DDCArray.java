@@ -22,6 +22,9 @@ package org.apache.sysds.runtime.frame.data.columns;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 
@@ -224,9 +227,97 @@ public class DDCArray<T> extends ACompressedArray<T> {
 	}
 
 	@Override
+	@SuppressWarnings("unchecked")
 	public Array<T> append(Array<T> other) {
-		// TODO add append compressed to each other.
-		throw new DMLCompressionException("Currently not supported to append compressed but could be cool");
+		if(dict == null)
+			throw new DMLCompressionException("Invalid to append to DDCArray without a dictionary");
+		// try to bring the other side into DDC to keep the result compressed.
+		final Array<T> oc = other instanceof DDCArray ? other : tryCompressToDDC(other);
+		if(oc instanceof DDCArray && ((DDCArray<T>) oc).dict != null)
+			return appendDDC((DDCArray<T>) oc);
+		return decompress().append(other);
+	}
+
+	/**
+	 * Compress the given array to DDC only if a sample of its first values suggests that it has few enough distinct
+	 * values, to avoid a full pass with a hash map over arrays that are not going to compress.
+	 * 
+	 * @param arr The array to try to compress
+	 * @return Either a compressed version or the original
+	 */
+	protected static <T> Array<T> tryCompressToDDC(Array<T> arr) {
+		final int s = arr.size();
+		if(s <= 10 || arr instanceof RaggedArray)
+			return arr;
+		final int estDistinct = arr.estimateDistinct(Math.min(s, 1000));
+		if(estDistinct > s / 2)
+			return arr;
+		return compressToDDC(arr);
+	}
+
+	/**
+	 * Append another DDC array by taking the union of the two dictionaries, the dictionary entries of this array keep
+	 * their ids, and the entries of the other only seen there are added at the end.
+	 * 
+	 * @param other The other DDC array
+	 * @return The combined DDC array
+	 */
+	private Array<T> appendDDC(DDCArray<T> other) {
+		final Array<T> od = other.dict;
+		final int nThis = dict.size();
+		final Map<T, Integer> ids = new HashMap<>(nThis + od.size());
+		for(int i = 0; i < nThis; i++)
+			ids.putIfAbsent(dict.get(i), i);
+
+		// map the ids of the other dictionary into the union
+		final int[] remap = new int[od.size()];
+		final int[] extra = new int[od.size()];
+		int nExtra = 0;
+		for(int i = 0; i < od.size(); i++) {
+			final T v = od.get(i);
+			final Integer id = ids.get(v);
+			if(id == null) {
+				remap[i] = nThis + nExtra;
+				ids.put(v, remap[i]);
+				extra[nExtra++] = i;
+			}
+			else
+				remap[i] = id;
+		}
+
+		final Array<T> union;
+		if(nExtra == 0)
+			union = dict;
+		else {
+			final Array<T> ext = od.select(Arrays.copyOf(extra, nExtra));
+			final Array<T> base = ext instanceof OptionalArray && !(dict instanceof OptionalArray) ? //
+				new OptionalArray<>(dict, false) : dict;
+			union = base.append(ext);
+		}
+
+		final int nRowThis = size();
+		final int nRowOther = other.size();
+		final AMapToData om = other.map;
+		final AMapToData ret = MapToFactory.create(nRowThis + nRowOther, union.size());
+		for(int i = 0; i < nRowThis; i++)
+			ret.set(i, map.getIndex(i));
+		for(int i = 0; i < nRowOther; i++)
+			ret.set(nRowThis + i, remap[om.getIndex(i)]);
+		return new DDCArray<>(union, ret);
+	}
+
+	/**
+	 * Decompress this array into an uncompressed array of the dictionary type.
+	 * 
+	 * @return The decompressed array
+	 */
+	public Array<T> decompress() {
+		if(dict == null)
+			throw new DMLCompressionException("Invalid to decompress DDCArray without a dictionary");
+		final int[] idx = new int[size()];
+		for(int i = 0; i < idx.length; i++)
+			idx[i] = map.getIndex(i);
+		return dict.select(idx);
 	}
 
 	@Override
@@ -306,10 +397,10 @@ public class DDCArray<T> extends ACompressedArray<T> {
 
 	@Override
 	public Array<T> select(int[] indices) {
-		final int[] newSelect = new int[indices.length];
-		for(int i = 0; i < newSelect.length; i++)
-			newSelect[i] = map.getIndex(indices[i]);
-		return dict.select(newSelect);
+		final AMapToData map2 = MapToFactory.create(indices.length, map.getUnique());
+		for(int i = 0; i < indices.length; i++)
+			map2.set(i, map.getIndex(indices[i]));
+		return new DDCArray<>(dict, map2);
 	}
 
 	@Override
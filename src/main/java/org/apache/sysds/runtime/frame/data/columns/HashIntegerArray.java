@@ -432,24 +432,35 @@ public class HashIntegerArray extends Array<Object> implements IHashArray {
 		return false;
 	}
 
+	@Override
+	protected HashMapToInt<Object> allocRecodeMap(int capacity) {
+		return new HashMapLongToInt(capacity, true);
+	}
+
 	@Override
 	protected int addValRecodeMap(HashMapToInt<Object> map, int id, int i) {
-		Integer val = Integer.valueOf(getInt(i));
-		Integer v = map.putIfAbsent(val, id);
-		if(v == null)
+		final int v = (map instanceof HashMapLongToInt) ? //
+			((HashMapLongToInt) map).putIfAbsentI(_data[i], id) : //
+			map.putIfAbsentI(Integer.valueOf(_data[i]), id);
+		if(v == -1)
 			id++;
 		return id;
 	}
 
 	@Override
 	public void setM(HashMapToInt<Object> map, AMapToData m, int i) {
-		m.set(i, map.get(Integer.valueOf(getInt(i))).intValue() - 1);
+		m.set(i, getCode(map, i) - 1);
 	}
 
 	@Override
 	public void setM(HashMapToInt<Object> map, int si, AMapToData m, int i) {
-		final Integer v = Integer.valueOf(getInt(i));
-		m.set(i, map.get(v).intValue() - 1);
+		m.set(i, getCode(map, i) - 1);
+	}
+
+	private int getCode(HashMapToInt<Object> map, int i) {
+		return (map instanceof HashMapLongToInt) ? //
+			((HashMapLongToInt) map).getI(_data[i]) : //
+			map.getI(Integer.valueOf(_data[i]));
 	}
 
 	@Override
@@ -428,14 +428,35 @@ public class HashLongArray extends Array<Object> implements IHashArray {
 		return false;
 	}
 
+	@Override
+	protected HashMapToInt<Object> allocRecodeMap(int capacity) {
+		return new HashMapLongToInt(capacity, false);
+	}
+
+	@Override
+	protected int addValRecodeMap(HashMapToInt<Object> map, int id, int i) {
+		final int v = (map instanceof HashMapLongToInt) ? //
+			((HashMapLongToInt) map).putIfAbsentI(_data[i], id) : //
+			map.putIfAbsentI(Long.valueOf(_data[i]), id);
+		if(v == -1)
+			id++;
+		return id;
+	}
+
 	@Override
 	public void setM(HashMapToInt<Object> map, AMapToData m, int i) {
-		m.set(i, map.get(Long.valueOf(getLong(i))) - 1);
+		m.set(i, getCode(map, i) - 1);
 	}
 
 	@Override
 	public void setM(HashMapToInt<Object> map, int si, AMapToData m, int i) {
-		m.set(i, map.get(Long.valueOf(getLong(i))) - 1);
+		m.set(i, getCode(map, i) - 1);
+	}
+
+	private int getCode(HashMapToInt<Object> map, int i) {
+		return (map instanceof HashMapLongToInt) ? //
+			((HashMapLongToInt) map).getI(_data[i]) : //
+			map.getI(Long.valueOf(_data[i]));
 	}
 
 	@Override
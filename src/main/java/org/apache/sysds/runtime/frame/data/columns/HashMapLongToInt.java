@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.frame.data.columns;
+
+/**
+ * Specialization of the open-addressing HashMapToInt for integer and long keys, which are stored in a primitive array
+ * without boxing. Boxed keys are still supported through the generic map interface (e.g., for merging maps and
+ * iteration), and are returned as Integer or Long depending on the key type the map is created for.
+ */
+public class HashMapLongToInt extends HashMapToInt<Object> {
+
+	private static final long serialVersionUID = -3174512907654322135L;
+
+	private final boolean intKeys;
+	private long[] lkeys;
+
+	public HashMapLongToInt(int capacity, boolean intKeys) {
+		super(capacity);
+		this.intKeys = intKeys;
+	}
+
+	@Override
+	protected void alloc(int size) {
+		lkeys = new long[size];
+		values = allocEmpty(size);
+	}
+
+	@Override
+	public int getI(Object key) {
+		if(key == null)
+			return nullV;
+		else if(!(key instanceof Number))
+			return -1; // e.g., string probes of recode maps
+		return getI(((Number) key).longValue());
+	}
+
+	public int getI(long key) {
+		final int mask = lkeys.length - 1;
+		int ix = hash(key) & mask;
+		while(values[ix] != -1) {
+			if(lkeys[ix] == key)
+				return values[ix];
+			ix = (ix + 1) & mask;
+		}
+		return -1;
+	}
+
+	@Override
+	public int putIfAbsentI(Object key, int value) {
+		if(key == null)
+			return putIfAbsentNull(value, -1);
+		return putIfAbsentI(((Number) key).longValue(), value);
+	}
+
+	public int putIfAbsentI(long key, int value) {
+		final int ix = findSlot(key);
+		if(values[ix] != -1)
+			return values[ix];
+		insert(ix, key, value);
+		return -1;
+	}
+
+	@Override
+	public int putIfAbsentReturnVal(Object key, int value) {
+		if(key == null)
+			return putIfAbsentNull(value, value);
+		final long lkey = ((Number) key).longValue();
+		final int ix = findSlot(lkey);
+		if(values[ix] != -1)
+			return values[ix];
+		insert(ix, lkey, value);
+		return value;
+	}
+
+	@Override
+	public int putI(Object key, int value) {
+		if(key == null) {
+			int tmp = nullV;
+			nullV = value;
+			if(tmp == -1)
+				size++;
+			return tmp;
+		}
+		final long lkey = ((Number) key).longValue();
+		final int ix = findSlot(lkey);
+		if(values[ix] != -1) {
+			int tmp = values[ix];
+			values[ix] = value;
+			return tmp;
+		}
+		insert(ix, lkey, value);
+		return -1;
+	}
+
+	private int findSlot(long key) {
+		final int mask = lkeys.length - 1;
+		int ix = hash(key) & mask;
+		while(values[ix] != -1 && lkeys[ix] != key)
+			ix = (ix + 1) & mask;
+		return ix;
+	}
+
+	private void insert(int ix, long key, int value) {
+		lkeys[ix] = key;
+		values[ix] = value;
+		size++;
+		if(size > lkeys.length * DEFAULT_LOAD_FACTOR)
+			resize();
+	}
+
+	private void resize() {
+		final long[] oldKeys = lkeys;
+		final int[] oldValues = values;
+		alloc(oldKeys.length * 2);
+		final int mask = lkeys.length - 1;
+		for(int i = 0; i < oldKeys.length; i++) {
+			if(oldValues[i] != -1) {
+				int ix = hash(oldKeys[i]) & mask;
+				while(values[ix] != -1)
+					ix = (ix + 1) & mask;
+				lkeys[ix] = oldKeys[i];
+				values[ix] = oldValues[i];
+			}
+		}
+	}
+
+	private static int hash(long key) {
+		return spread(Long.hashCode(key * 0x9E3779B97F4A7C15L));
+	}
+
+	@Override
+	protected int capacity() {
+		return lkeys.length;
+	}
+
+	@Override
+	protected boolean isUsed(int slot) {
+		return values[slot] != -1;
+	}
+
+	@Override
+	protected Object keyAt(int slot) {
+		return intKeys ? Integer.valueOf((int) lkeys[slot]) : Long.valueOf(lkeys[slot]);
+	}
+}
@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.frame.data.columns;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Specialization of the open-addressing HashMapToInt for string keys, which are interned as UTF-8 byte slices into
+ * large shared byte chunks instead of individual String objects. Together with the cached String hashes, this reduces
+ * the memory per entry to the UTF-8 key bytes plus 20 bytes per slot, which matters for high-cardinality recode maps.
+ * Probes compare the given String directly against the stored bytes (with a fast path for ASCII), and keys are only
+ * materialized as Strings on iteration. Non-String keys are interned by their string representation.
+ */
+public class HashMapStringToInt extends HashMapToInt<Object> {
+
+	private static final long serialVersionUID = 4318829306123645923L;
+	private static final int CHUNK_SIZE = 1 << 24; // 16MB (max)
+
+	private long[] addrs; // chunk index (upper 32 bit) and offset (lower 32 bit)
+	private int[] lens; // UTF-8 length, -1 for empty slots
+	private List<byte[]> chunks;
+	private int chunkPos;
+	private int chunkSize; // size of the last regular chunk (doubled per chunk)
+
+	public HashMapStringToInt(int capacity) {
+		super(capacity);
+	}
+
+	@Override
+	protected void alloc(int size) {
+		addrs = new long[size];
+		lens = allocEmpty(size);
+		values = new int[size];
+		hashes = new int[size];
+	}
+
+	@Override
+	public int getI(Object key) {
+		if(key == null)
+			return nullV;
+		final String s = key.toString();
+		final int h = s.hashCode();
+		final int mask = addrs.length - 1;
+		int ix = spread(h) & mask;
+		while(lens[ix] != -1) {
+			if(hashes[ix] == h && equalsAt(ix, s))
+				return values[ix];
+			ix = (ix + 1) & mask;
+		}
+		return -1;
+	}
+
+	@Override
+	public int putIfAbsentI(Object key, int value) {
+		if(key == null)
+			return putIfAbsentNull(value, -1);
+		final String s = key.toString();
+		final int ix = findSlot(s);
+		if(lens[ix] != -1)
+			return values[ix];
+		insert(ix, s, value);
+		return -1;
+	}
+
+	@Override
+	public int putIfAbsentReturnVal(Object key, int value) {
+		if(key == null)
+			return putIfAbsentNull(value, value);
+		final String s = key.toString();
+		final int ix = findSlot(s);
+		if(lens[ix] != -1)
+			return values[ix];
+		insert(ix, s, value);
+		return value;
+	}
+
+	@Override
+	public int putI(Object key, int value) {
+		if(key == null) {
+			int tmp = nullV;
+			nullV = value;
+			if(tmp == -1)
+				size++;
+			return tmp;
+		}
+		final String s = key.toString();
+		final int ix = findSlot(s);
+		if(lens[ix] != -1) {
+			int tmp = values[ix];
+			values[ix] = value;
+			return tmp;
+		}
+		insert(ix, s, value);
+		return -1;
+	}
+
+	@Override
+	public void clear() {
+		super.clear();
+		chunks = null;
+		chunkPos = 0;
+		chunkSize = 0;
+	}
+
+	private int findSlot(String s) {
+		final int h = s.hashCode();
+		final int mask = addrs.length - 1;
+		int ix = spread(h) & mask;
+		while(lens[ix] != -1 && !(hashes[ix] == h && equalsAt(ix, s)))
+			ix = (ix + 1) & mask;
+		return ix;
+	}
+
+	private void insert(int ix, String s, int value) {
+		final byte[] b = s.getBytes(StandardCharsets.UTF_8);
+		addrs[ix] = intern(b);
+		lens[ix] = b.length;
+		hashes[ix] = s.hashCode();
+		values[ix] = value;
+		size++;
+		if(size > addrs.length * DEFAULT_LOAD_FACTOR)
+			resize();
+	}
+
+	private long intern(byte[] b) {
+		if(chunks == null)
+			chunks = new ArrayList<>();
+		if(chunks.isEmpty() || chunkPos + b.length > chunks.get(chunks.size() - 1).length) {
+			// allocate new chunk with geometrically growing size, in order to
+			// keep small maps small (incl. dedicated chunks for very large keys)
+			chunkSize = chunks.isEmpty() ? //
+				Math.min(CHUNK_SIZE, Math.max(1024, size * 16)) : Math.min(CHUNK_SIZE, chunkSize * 2);
+			chunks.add(new byte[Math.max(chunkSize, b.length)]);
+			chunkPos = 0;
+		}
+		final int chunk = chunks.size() - 1;
+		System.arraycopy(b, 0, chunks.get(chunk), chunkPos, b.length);
+		final long addr = ((long) chunk << 32) | chunkPos;
+		chunkPos += b.length;
+		return addr;
+	}
+
+	private boolean equalsAt(int ix, String s) {
+		final byte[] chunk = chunks.get((int) (addrs[ix] >>> 32));
+		final int off = (int) addrs[ix];
+		final int len = lens[ix];
+		final int n = s.length();
+		if(n > len) // UTF-8 requires at least one byte per char
+			return false;
+		for(int i = 0; i < n; i++) {
+			final char c = s.charAt(i);
+			if(c >= 0x80) { // non-ASCII, compare the encoded bytes
+				final byte[] b = s.getBytes(StandardCharsets.UTF_8);
+				return Arrays.equals(b, 0, b.length, chunk, off, off + len);
+			}
+			if(chunk[off + i] != (byte) c)
+				return false;
+		}
+		return n == len;
+	}
+
+	private void resize() {
+		final long[] oldAddrs = addrs;
+		final int[] oldLens = lens;
+		final int[] oldValues = values;
+		final int[] oldHashes = hashes;
+		alloc(oldAddrs.length * 2);
+		final int mask = addrs.length - 1;
+		for(int i = 0; i < oldAddrs.length; i++) {
+			if(oldLens[i] != -1) {
+				// reuse cached hashes, no key access required
+				int ix = spread(oldHashes[i]) & mask;
+				while(lens[ix] != -1)
+					ix = (ix + 1) & mask;
+				addrs[ix] = oldAddrs[i];
+				lens[ix] = oldLens[i];
+				values[ix] = oldValues[i];
+				hashes[ix] = oldHashes[i];
+			}
+		}
+	}
+
+	/**
+	 * Get the allocated size of the byte chunks that hold the interned keys.
+	 * 
+	 * @return allocated key bytes
+	 */
+	public long getAllocatedKeyBytes() {
+		long ret = 0;
+		if(chunks != null)
+			for(byte[] chunk : chunks)
+				ret += chunk.length;
+		return ret;
+	}
+
+	@Override
+	protected int capacity() {
+		return addrs.length;
+	}
+
+	@Override
+	protected boolean isUsed(int slot) {
+		return lens[slot] != -1;
+	}
+
+	@Override
+	protected Object keyAt(int slot) {
+		final byte[] chunk = chunks.get((int) (addrs[slot] >>> 32));
+		return new String(chunk, (int) addrs[slot], lens[slot], StandardCharsets.UTF_8);
+	}
+}
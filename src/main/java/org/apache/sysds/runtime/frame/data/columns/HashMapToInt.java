@@ -20,34 +20,48 @@
 package org.apache.sysds.runtime.frame.data.columns;
 
 import java.io.Serializable;
+import java.util.AbstractMap;
 import java.util.AbstractSet;
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.function.BiConsumer;
 
 import org.apache.sysds.common.Types.ValueType;
 
-public class HashMapToInt<K> implements Map<K, Integer>, Serializable, Cloneable {
+/**
+ * Map from keys to primitive int values, implemented as open-addressing hash table with linear probing and cached key
+ * hashes. Compared to a chained hash map, this avoids an entry object per key and the rehashing of keys on resize. The
+ * value -1 is reserved to indicate absent keys.
+ * 
+ * Subclasses can specialize the key storage (e.g., primitive or serialized keys) by overriding the key-based
+ * operations and the slot accessors used for iteration.
+ */
+public class HashMapToInt<K> extends AbstractMap<K, Integer> implements Serializable, Cloneable {
 
 	private static final long serialVersionUID = 3624988207265L;
 	static final int DEFAULT_INITIAL_CAPACITY = 1 << 4;
 	static final float DEFAULT_LOAD_FACTOR = 0.75f;
+	static final int MAXIMUM_CAPACITY = 1 << 30;
 
-	protected Node<K>[] buckets;
+	protected K[] keys;
+	protected int[] values;
+	protected int[] hashes;
 
 	protected int nullV = -1;
 	protected int size;
 
 	public HashMapToInt(int capacity) {
-		alloc(Math.max(capacity, DEFAULT_INITIAL_CAPACITY));
+		alloc(tableSizeFor(capacity));
 	}
 
 	@SuppressWarnings({"unchecked"})
 	protected void alloc(int size) {
-		Node<K>[] tmp = (Node<K>[]) new Node[size];
-		buckets = tmp;
+		keys = (K[]) new Object[size];
+		values = new int[size];
+		hashes = new int[size];
 	}
 
 	@Override
@@ -71,13 +85,14 @@ public class HashMapToInt<K> implements Map<K, Integer>, Serializable, Cloneable
 	@Override
 	public boolean containsValue(Object value) {
 		if(value instanceof Integer) {
-			for(Entry<K, Integer> v : this.entrySet()) {
-				if(v.getValue().equals(value))
+			final int v = (Integer) value;
+			if(nullV != -1 && nullV == v)
+				return true;
+			for(int i = 0; i < capacity(); i++)
+				if(isUsed(i) && valueAt(i) == v)
 					return true;
-			}
 		}
 		return false;
-
 	}
 
 	@Override
@@ -91,25 +106,22 @@ public class HashMapToInt<K> implements Map<K, Integer>, Serializable, Cloneable
 	}
 
 	public int getI(K key) {
-		if(key == null) {
+		if(key == null)
 			return nullV;
+		final int h = key.hashCode();
+		final int mask = keys.length - 1;
+		int ix = spread(h) & mask;
+		K k;
+		while((k = keys[ix]) != null) {
+			if(hashes[ix] == h && k.equals(key))
+				return values[ix];
+			ix = (ix + 1) & mask;
 		}
-		else {
-			final int ix = hash(key);
-			Node<K> b = buckets[ix];
-			if(b != null) {
-				do {
-					if(b.key.equals(key))
-						return b.value;
-				}
-				while((b = b.next) != null);
-			}
-			return -1;
-		}
+		return -1;
 	}
 
 	public int hash(K key) {
-		return Math.abs(key.hashCode()) % buckets.length;
+		return spread(key.hashCode()) & (capacity() - 1);
 	}
 
 	@Override
@@ -130,170 +142,137 @@ public class HashMapToInt<K> implements Map<K, Integer>, Serializable, Cloneable
 			return null;
 	}
 
+	/**
+	 * Put the value if the key is not contained yet.
+	 * 
+	 * @param key   The key
+	 * @param value The value
+	 * @return The existing value, or -1 if the key was inserted
+	 */
 	public int putIfAbsentI(K key, int value) {
-
-		if(key == null) {
-			if(nullV == -1) {
-				size++;
-				nullV = value;
-				return -1;
-			}
-			else
-				return nullV;
-		}
-		else {
-			final int ix = hash(key);
-			Node<K> b = buckets[ix];
-			if(b == null)
-				return createBucket(ix, key, value);
-			else
-				return putIfAbsentBucket(ix, key, value);
-		}
-
+		if(key == null)
+			return putIfAbsentNull(value, -1);
+		final int ix = findSlot(key);
+		if(keys[ix] != null)
+			return values[ix];
+		insert(ix, key, value);
+		return -1;
 	}
 
+	/**
+	 * Put the value if the key is not contained yet.
+	 * 
+	 * @param key   The key
+	 * @param value The value
+	 * @return The existing value, or the given value if the key was inserted
+	 */
 	public int putIfAbsentReturnVal(K key, int value) {
-
-		if(key == null) {
-			if(nullV == -1) {
-				size++;
-				nullV = value;
-				return -1;
-			}
-			else
-				return nullV;
-		}
-		else {
-			final int ix = hash(key);
-			Node<K> b = buckets[ix];
-			if(b == null)
-				return createBucketReturnVal(ix, key, value);
-			else
-				return putIfAbsentBucketReturnval(ix, key, value);
-		}
-
-	}
-
-	private int putIfAbsentBucket(int ix, K key, int value) {
-		Node<K> b = buckets[ix];
-		while(true) {
-			if(b.key.equals(key))
-				return b.value;
-			if(b.next == null) {
-				b.setNext(new Node<>(key, value, null));
-				size++;
-				resize();
-				return -1;
-			}
-			b = b.next;
-		}
-	}
-
-	private int putIfAbsentBucketReturnval(int ix, K key, int value) {
-		Node<K> b = buckets[ix];
-		while(true) {
-			if(b.key.equals(key))
-				return b.value;
-			if(b.next == null) {
-				b.setNext(new Node<>(key, value, null));
-				size++;
-				resize();
-				return value;
-			}
-			b = b.next;
-		}
+		if(key == null)
+			return putIfAbsentNull(value, value);
+		final int ix = findSlot(key);
+		if(keys[ix] != null)
+			return values[ix];
+		insert(ix, key, value);
+		return value;
 	}
 
 	public int putI(K key, int value) {
 		if(key == null) {
 			int tmp = nullV;
 			nullV = value;
-			if(tmp != -1)
+			if(tmp == -1)
 				size++;
 			return tmp;
 		}
-		else {
-			final int ix = hash(key);
-			Node<K> b = buckets[ix];
-			if(b == null)
-				return createBucket(ix, key, value);
-			else
-				return addToBucket(ix, key, value);
+		final int ix = findSlot(key);
+		if(keys[ix] != null) {
+			int tmp = values[ix];
+			values[ix] = value;
+			return tmp;
 		}
+		insert(ix, key, value);
+		return -1;
 	}
 
-	private int createBucket(int ix, K key, int value) {
-		buckets[ix] = new Node<K>(key, value, null);
-		size++;
-		return -1;
+	protected int putIfAbsentNull(int value, int ret) {
+		if(nullV == -1) {
+			size++;
+			nullV = value;
+			return ret;
+		}
+		else
+			return nullV;
 	}
 
-	private int createBucketReturnVal(int ix, K key, int value) {
-		buckets[ix] = new Node<K>(key, value, null);
-		size++;
-		return value;
+	private int findSlot(K key) {
+		final int h = key.hashCode();
+		final int mask = keys.length - 1;
+		int ix = spread(h) & mask;
+		K k;
+		while((k = keys[ix]) != null && !(hashes[ix] == h && k.equals(key)))
+			ix = (ix + 1) & mask;
+		return ix;
 	}
 
-	private int addToBucket(int ix, K key, int value) {
-		Node<K> b = buckets[ix];
-		while(true) {
-			if(b.key.equals(key)) {
-				int tmp = b.getValue();
-				b.setValue(value);
-				return tmp;
-			}
-			if(b.next == null) {
-				b.setNext(new Node<>(key, value, null));
-				size++;
-				resize();
-				return -1;
-			}
-			b = b.next;
-		}
+	private void insert(int ix, K key, int value) {
+		keys[ix] = key;
+		values[ix] = value;
+		hashes[ix] = key.hashCode();
+		size++;
+		if(size > keys.length * DEFAULT_LOAD_FACTOR)
+			resize();
 	}
 
-	@SuppressWarnings({"unchecked"})
 	private void resize() {
-		if(size > buckets.length * DEFAULT_LOAD_FACTOR) {
-
-			Node<K>[] tmp = (Node<K>[]) new Node[buckets.length * 2];
-			Node<K>[] oldBuckets = buckets;
-			buckets = tmp;
-			size = (nullV == -1) ? 0 : 1;
-			for(Node<K> n : oldBuckets) {
-				if(n != null)
-					do {
-						put(n.key, n.value);
-					}
-					while((n = n.next) != null);
+		final K[] oldKeys = keys;
+		final int[] oldValues = values;
+		final int[] oldHashes = hashes;
+		alloc(oldKeys.length * 2);
+		final int mask = keys.length - 1;
+		for(int i = 0; i < oldKeys.length; i++) {
+			if(oldKeys[i] != null) {
+				// reuse cached hashes, no key access required
+				int ix = spread(oldHashes[i]) & mask;
+				while(keys[ix] != null)
+					ix = (ix + 1) & mask;
+				keys[ix] = oldKeys[i];
+				values[ix] = oldValues[i];
+				hashes[ix] = oldHashes[i];
 			}
-
 		}
 	}
 
-	@Override
-	public Integer remove(Object key) {
-		throw new UnsupportedOperationException("Unimplemented method 'remove'");
+	/**
+	 * Get the number of slots of the hash table.
+	 * 
+	 * @return The number of slots
+	 */
+	protected int capacity() {
+		return keys.length;
 	}
 
-	@Override
-	public void putAll(Map<? extends K, ? extends Integer> m) {
-		throw new UnsupportedOperationException("Unimplemented method 'putAll'");
+	protected boolean isUsed(int slot) {
+		return keys[slot] != null;
 	}
 
-	@Override
-	public void clear() {
-		throw new UnsupportedOperationException("Unimplemented method 'clear'");
+	protected K keyAt(int slot) {
+		return keys[slot];
+	}
+
+	protected int valueAt(int slot) {
+		return values[slot];
 	}
 
 	@Override
-	public Set<K> keySet() {
-		throw new UnsupportedOperationException("Unimplemented method 'keySet'");
+	public Integer remove(Object key) {
+		throw new UnsupportedOperationException("Unimplemented method 'remove'");
 	}
 
 	@Override
-	public Collection<Integer> values() {
-		throw new UnsupportedOperationException("Unimplemented method 'values'");
+	public void clear() {
+		alloc(DEFAULT_INITIAL_CAPACITY);
+		nullV = -1;
+		size = 0;
 	}
 
 	@Override
@@ -305,18 +284,13 @@ public class HashMapToInt<K> implements Map<K, Integer>, Serializable, Cloneable
 	public void forEach(BiConsumer<? super K, ? super Integer> action) {
 		if(nullV != -1)
 			action.accept(null, nullV);
-		for(Node<K> n : buckets) {
-			if(n != null) {
-				do {
-					action.accept(n.key, n.value);
-				}
-				while((n = n.next) != null);
-			}
-		}
+		for(int i = 0; i < capacity(); i++)
+			if(isUsed(i))
+				action.accept(keyAt(i), valueAt(i));
 	}
 
 	@SuppressWarnings({"unchecked"})
-	public Array<K> inverse(ValueType t ) {
+	public Array<K> inverse(ValueType t) {
 		final Array<K> ar;
 
 		if(containsKey(null))
@@ -339,35 +313,19 @@ public class HashMapToInt<K> implements Map<K, Integer>, Serializable, Cloneable
 		return sb.toString();
 	}
 
-	private static class Node<K> implements Entry<K, Integer> {
-		final K key;
-		int value;
-		Node<K> next;
-
-		Node(K key, int value, Node<K> next) {
-			this.key = key;
-			this.value = value;
-			this.next = next;
-		}
-
-		public final void setNext(Node<K> n) {
-			next = n;
-		}
-
-		@Override
-		public K getKey() {
-			return key;
-		}
+	protected static int spread(int h) {
+		return h ^ (h >>> 16);
+	}
 
-		@Override
-		public Integer getValue() {
-			return value;
-		}
+	protected static int tableSizeFor(int capacity) {
+		final int c = Math.min(Math.max(capacity, DEFAULT_INITIAL_CAPACITY), MAXIMUM_CAPACITY);
+		return Integer.highestOneBit(c - 1) << 1;
+	}
 
-		@Override
-		public Integer setValue(Integer value) {
-			return this.value = value;
-		}
+	protected static int[] allocEmpty(int size) {
+		int[] ret = new int[size];
+		Arrays.fill(ret, -1);
+		return ret;
 	}
 
 	private final class EntrySet extends AbstractSet<Map.Entry<K, Integer>> {
@@ -385,50 +343,30 @@ public class HashMapToInt<K> implements Map<K, Integer>, Serializable, Cloneable
 	}
 
 	private final class EntryIterator implements Iterator<Entry<K, Integer>> {
-		Node<K> next;
-		int bucketId = 0;
-
-		protected EntryIterator() {
+		boolean nullPending = nullV != -1;
+		int slot = nextSlot(-1);
 
-			if(nullV != -1) {
-				next = new Node<>(null, nullV, null);
-			}
-			else {
-				for(; bucketId < buckets.length; bucketId++) {
-					if(buckets[bucketId] != null) {
-						next = buckets[bucketId];
-						break;
-					}
-				}
-			}
+		private int nextSlot(int i) {
+			while(++i < capacity() && !isUsed(i));
+			return i;
 		}
 
 		@Override
 		public boolean hasNext() {
-			return next != null;
+			return nullPending || slot < capacity();
 		}
 
 		@Override
 		public Entry<K, Integer> next() {
-
-			Node<K> e = next;
-
-			if(e.next != null)
-				next = e.next;
-			else {
-				for(; ++bucketId < buckets.length; bucketId++) {
-					if(buckets[bucketId] != null) {
-						next = buckets[bucketId];
-						break;
-					}
-				}
-				if(bucketId >= buckets.length)
-					next = null;
+			if(nullPending) {
+				nullPending = false;
+				return new SimpleImmutableEntry<>(null, nullV);
 			}
-
+			if(slot >= capacity())
+				throw new NoSuchElementException();
+			Entry<K, Integer> e = new SimpleImmutableEntry<>(keyAt(slot), valueAt(slot));
+			slot = nextSlot(slot);
 			return e;
 		}
-
 	}
-
 }
@@ -480,6 +480,11 @@ public class OptionalArray<T> extends Array<T> {
 			m.set(i, si);
 	}
 
+	@Override
+	protected HashMapToInt<T> allocRecodeMap(int capacity) {
+		return _a.allocRecodeMap(capacity);
+	}
+
 	@Override
 	protected int addValRecodeMap(HashMapToInt<T> map, int id, int i) {
 		if(_n.get(i))
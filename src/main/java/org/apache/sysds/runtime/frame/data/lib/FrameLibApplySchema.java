@@ -130,7 +130,7 @@ public class FrameLibApplySchema {
 	private FrameBlock apply() {
 
 		try {
-			if(k <= 1 || nCol == 1 || containsCompressed())
+			if(k <= 1 || nCol == 1 || allCompressed())
 				applySingleThread();
 			else
 				applyMultiThread();
@@ -162,12 +162,12 @@ public class FrameLibApplySchema {
 		return out;
 	}
 
-	private boolean containsCompressed() {
+	private boolean allCompressed() {
 		for(Array<?> col : fb.getColumns())
-			if(col instanceof ACompressedArray)
-				return true;
+			if(!(col instanceof ACompressedArray))
+				return false;
 
-		return false;
+		return true;
 	}
 
 	private void applySingleThread() {
@@ -216,6 +216,10 @@ public class FrameLibApplySchema {
 					// no change and not changing to null support type.
 					columnsOut[i] = columnsIn[i];
 				}
+				else if(columnsIn[i] instanceof ACompressedArray) {
+					// compressed columns change type on their dictionary only, and can not be split in row ranges.
+					apply(i);
+				}
 				else {
 					columnsOut[j] = ArrayFactory.allocate(schema[j], nRow, nulls != null && nulls[j]);
 					for(int r = 0; r < nRow; r += block) {
@@ -50,6 +50,7 @@ import org.apache.sysds.runtime.lineage.LineageCacheStatistics;
 import org.apache.sysds.runtime.lineage.LineageItem;
 import org.apache.sysds.runtime.lineage.LineageItemUtils;
 import org.apache.sysds.utils.Statistics;
+import org.apache.sysds.utils.stats.ExecutionProfiler;
 
 public class FunctionCallCPInstruction extends CPInstruction {
 	private static final Log LOG = LogFactory.getLog(FunctionCallCPInstruction.class.getName());
@@ -203,6 +204,8 @@ public class FunctionCallCPInstruction extends CPInstruction {
 		fn_ec.setLineage(lineage);
 		// execute the function block
 		long t0 = !ReuseCacheType.isNone()||DMLScript.LINEAGE_ESTIMATE ? System.nanoTime() : 0;
+		if(DMLScript.PROFILE)
+			ExecutionProfiler.enterFunction(DMLProgram.constructFunctionKey(_namespace, _functionName));
 		try {
 			fpb._functionName = this._functionName;
 			fpb._namespace = this._namespace;
@@ -215,6 +218,10 @@ public class FunctionCallCPInstruction extends CPInstruction {
 			String fname = DMLProgram.constructFunctionKey(_namespace, _functionName);
 			throw new DMLRuntimeException("error executing function " + fname, e);
 		}
+		finally {
+			if(DMLScript.PROFILE)
+				ExecutionProfiler.exitFunction();
+		}
 		long t1 = !ReuseCacheType.isNone()||DMLScript.LINEAGE_ESTIMATE ? System.nanoTime() : 0;
 		
 		// cleanup all returned variables w/o binding 
@@ -34,9 +34,12 @@ import static org.apache.sysds.parser.Statement.PS_MODEL;
 import static org.apache.sysds.parser.Statement.PS_MODELAVG;
 import static org.apache.sysds.parser.Statement.PS_NBATCHES;
 import static org.apache.sysds.parser.Statement.PS_NUM_BACKUP_WORKERS;
+import static org.apache.sysds.parser.Statement.PS_OPTIMIZER;
 import static org.apache.sysds.parser.Statement.PS_PARALLELISM;
+import static org.apache.sysds.parser.Statement.PS_PIPELINE;
 import static org.apache.sysds.parser.Statement.PS_SCHEME;
 import static org.apache.sysds.parser.Statement.PS_SEED;
+import static org.apache.sysds.parser.Statement.PS_STALENESS;
 import static org.apache.sysds.parser.Statement.PS_UPDATE_FUN;
 import static org.apache.sysds.parser.Statement.PS_UPDATE_TYPE;
 import static org.apache.sysds.parser.Statement.PS_VAL_FEATURES;
@@ -67,6 +70,7 @@ import org.apache.sysds.hops.recompile.Recompiler;
 import org.apache.sysds.parser.Statement.FederatedPSScheme;
 import org.apache.sysds.parser.Statement.PSFrequency;
 import org.apache.sysds.parser.Statement.PSModeType;
+import org.apache.sysds.parser.Statement.PSOptimizerType;
 import org.apache.sysds.parser.Statement.PSRuntimeBalancing;
 import org.apache.sysds.parser.Statement.PSScheme;
 import org.apache.sysds.parser.Statement.PSUpdateType;
@@ -83,6 +87,7 @@ import org.apache.sysds.runtime.controlprogram.paramserv.ParamServer;
 import org.apache.sysds.runtime.controlprogram.paramserv.ParamservUtils;
 import org.apache.sysds.runtime.controlprogram.paramserv.SparkPSBody;
 import org.apache.sysds.runtime.controlprogram.paramserv.SparkPSWorker;
+import org.apache.sysds.runtime.controlprogram.paramserv.ShardedParamServer;
 import org.apache.sysds.runtime.controlprogram.paramserv.SparkParamservUtils;
 import org.apache.sysds.runtime.controlprogram.paramserv.dp.DataPartitionFederatedScheme;
 import org.apache.sysds.runtime.controlprogram.paramserv.dp.DataPartitionLocalScheme;
@@ -110,6 +115,8 @@ public class ParamservBuiltinCPInstruction extends ParameterizedBuiltinCPInstruc
 	private static final Boolean DEFAULT_MODELAVG = false;
 	private static final Boolean DEFAULT_HE = false;
 	public static final int DEFAULT_NUM_BACKUP_WORKERS = 1;
+	public static final int DEFAULT_STALENESS = 1;
+	private static final Boolean DEFAULT_PIPELINE = false;
 
 	public ParamservBuiltinCPInstruction(Operator op, LinkedHashMap<String, String> paramsMap, CPOperand out, String opcode, String istr) {
 		super(op, paramsMap, out, opcode, istr);
@@ -119,8 +126,12 @@ public class ParamservBuiltinCPInstruction extends ParameterizedBuiltinCPInstruc
 	public void processInstruction(ExecutionContext ec) {
 		// check if the input is federated
 		// FIXME: does not work if features are federated, but labels are not
-		if(ec.getMatrixObject(getParam(PS_FEATURES)).isFederated() ||
-			ec.getMatrixObject(getParam(PS_LABELS)).isFederated()) {
+		boolean federated = ec.getMatrixObject(getParam(PS_FEATURES)).isFederated() ||
+			ec.getMatrixObject(getParam(PS_LABELS)).isFederated();
+		// bounded staleness relies on the local workers reporting their completion
+		if(getUpdateType().isSSP() && (federated || getPSMode() != PSModeType.LOCAL))
+			throw new DMLRuntimeException("Paramserv function: update type SSP is only supported in local mode.");
+		if(federated) {
 			runFederated(ec);
 		}
 		// if not federated check mode
@@ -398,14 +409,25 @@ public class ParamservBuiltinCPInstruction extends ParameterizedBuiltinCPInstruc
 		MatrixObject val_features = (getParam(PS_VAL_FEATURES) != null) ? ec.getMatrixObject(getParam(PS_VAL_FEATURES)) : null;
 		MatrixObject val_labels = (getParam(PS_VAL_LABELS) != null) ? ec.getMatrixObject(getParam(PS_VAL_LABELS)) : null;
 		boolean modelAvg = getModelAvg();
-		ParamServer ps = createPS(mode, aggFunc, updateType, freq, workerNum, model, aggServiceEC, getValFunction(),
-			num_batches_per_epoch, val_features, val_labels, nbatches, modelAvg, numBackupWorkers);
+		PSOptimizerType optimizer = getOptimizer();
+		boolean pipeline = getPipeline();
+		if(pipeline && (freq != PSFrequency.BATCH || modelAvg || !(updateType.isASP() || updateType.isSSP())))
+			throw new DMLRuntimeException("Paramserv function: pipelined workers require update frequency BATCH, "
+				+ "update type ASP or SSP, and no model averaging.");
+		ParamServer ps = (optimizer != null && !modelAvg) ?
+			ShardedParamServer.create(model, aggFunc, updateType, freq, aggServiceEC, workerNum, getValFunction(),
+				num_batches_per_epoch, val_features, val_labels, nbatches, numBackupWorkers, optimizer, getHyperParams(ec)) :
+			createPS(mode, aggFunc, updateType, freq, workerNum, model, aggServiceEC, getValFunction(),
+				num_batches_per_epoch, val_features, val_labels, nbatches, modelAvg, numBackupWorkers);
+		if(updateType.isSSP())
+			ps.setStaleness(getStaleness());
 
 		// Create the local workers
 		List<LocalPSWorker> workers = IntStream.range(0, workerNum)
 			.mapToObj(i -> new LocalPSWorker(i, updFunc, freq,
 				getEpochs(), getBatchSize(), workerECs.get(i), ps, nbatches, modelAvg))
 			.collect(Collectors.toList());
+		workers.forEach(w -> w.setPipelined(pipeline));
 
 		// Do data partition
 		PSScheme scheme = getScheme();
@@ -482,8 +504,6 @@ public class ParamservBuiltinCPInstruction extends ParameterizedBuiltinCPInstruc
 		} catch (IllegalArgumentException e) {
 			throw new DMLRuntimeException(String.format("Paramserv function: not support update type '%s'.", getParam(PS_UPDATE_TYPE)));
 		}
-		if (updType == PSUpdateType.SSP)
-			throw new DMLRuntimeException("Paramserv function: Not support update type SSP.");
 		return updType;
 	}
 
@@ -714,6 +734,33 @@ public class ParamservBuiltinCPInstruction extends ParameterizedBuiltinCPInstruc
 		return Integer.parseInt(getParam(PS_NUM_BACKUP_WORKERS));
 	}
 
+	private PSOptimizerType getOptimizer() {
+		if(!getParameterMap().containsKey(PS_OPTIMIZER))
+			return null;
+		try {
+			return PSOptimizerType.valueOf(getParam(PS_OPTIMIZER).toUpperCase());
+		}
+		catch(IllegalArgumentException e) {
+			throw new DMLRuntimeException(String.format("Paramserv function: not support optimizer '%s'.", getParam(PS_OPTIMIZER)));
+		}
+	}
+
+	private boolean getPipeline() {
+		if(!getParameterMap().containsKey(PS_PIPELINE))
+			return DEFAULT_PIPELINE;
+		return Boolean.parseBoolean(getParam(PS_PIPELINE));
+	}
+
+	private int getStaleness() {
+		if(!getParameterMap().containsKey(PS_STALENESS))
+			return DEFAULT_STALENESS;
+		int staleness = Integer.parseInt(getParam(PS_STALENESS));
+		if(staleness < 0)
+			throw new DMLRuntimeException(String.format("Paramserv function: "
+				+ "The argument '%s' could not be less than 0.", PS_STALENESS));
+		return staleness;
+	}
+
 	private boolean getHe() {
 		if(!getParameterMap().containsKey(PS_HE))
 			return DEFAULT_HE;
@@ -22,6 +22,7 @@ package org.apache.sysds.runtime.instructions.spark.utils;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
@@ -459,9 +460,17 @@ public class RDDConverterUtils {
 	private static Vector createVector(MatrixBlock row) {
 		if( row.isEmptyBlock(false) ) //EMPTY SPARSE ROW
 			return Vectors.sparse(row.getNumColumns(), new int[0], new double[0]);
-		else if( row.isInSparseFormat() ) //SPARSE ROW
+		else if( row.isInSparseFormat() ) { //SPARSE ROW
+			SparseBlock sb = row.getSparseBlock();
+			int apos = sb.pos(0);
+			int alen = sb.size(0);
+			int[] aix = sb.indexes(0);
+			double[] avals = sb.values(0);
+			if( apos == 0 && aix.length == alen && avals.length == alen )
+				return Vectors.sparse(row.getNumColumns(), aix, avals);
 			return Vectors.sparse(row.getNumColumns(),
-					row.getSparseBlock().indexes(0), row.getSparseBlock().values(0));
+				Arrays.copyOfRange(aix, apos, apos + alen), Arrays.copyOfRange(avals, apos, apos + alen));
+		}
 		else // DENSE ROW
 			return Vectors.dense(row.getDenseBlockValues());
 	}
@@ -22,6 +22,7 @@ package org.apache.sysds.runtime.io;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.function.Consumer;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -72,6 +73,28 @@ public abstract class FrameReader {
 		return readFrameFromInputStream(is, getDefSchema(clen), getDefColNames(clen), rlen, clen);
 	}
 
+	/**
+	 * Reads the frame as a sequence of row chunks of at most blen rows, passed to the consumer in row order. This
+	 * allows single-pass processing of inputs that do not fit into memory (e.g., streaming transformencode). The default
+	 * implementation reads the entire frame and slices it; readers that are able to stream should override it.
+	 * 
+	 * @param fname    file name
+	 * @param schema   schema as array of ValueTypes
+	 * @param names    column names
+	 * @param rlen     number of rows, or -1 if unknown
+	 * @param clen     number of columns, or -1 if unknown
+	 * @param blen     maximum number of rows per chunk
+	 * @param consumer consumer of the frame chunks
+	 * @throws IOException          if IOException occurs
+	 * @throws DMLRuntimeException if DMLRuntimeException occurs
+	 */
+	public void readFrameChunksFromHDFS(String fname, ValueType[] schema, String[] names, long rlen, long clen,
+		int blen, Consumer<FrameBlock> consumer) throws IOException, DMLRuntimeException {
+		FrameBlock in = readFrameFromHDFS(fname, schema, names, rlen, clen);
+		for(int i = 0; i < in.getNumRows(); i += blen)
+			consumer.accept(in.slice(i, Math.min(i + blen, in.getNumRows()) - 1));
+	}
+
 	public ValueType[] getDefSchema(long clen) throws DMLRuntimeException {
 		int lclen = Math.max((int) clen, 1);
 		return UtilFunctions.nCopies(lclen, ValueType.STRING);
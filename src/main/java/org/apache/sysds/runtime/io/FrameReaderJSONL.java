@@ -26,6 +26,7 @@ package org.apache.sysds.runtime.io;
 
 import java.io.IOException;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -75,6 +76,58 @@ public class FrameReaderJSONL {
 	}
 
 
+	/**
+	 * Reads the JSONL file as a sequence of row chunks of at most blen rows, passed to the consumer in row order
+	 * (see FrameReader.readFrameChunksFromHDFS).
+	 */
+	public void readFrameChunksFromHDFS(String fname, Types.ValueType[] schema, Map<String, Integer> schemaMap,
+		long clen, int blen, Consumer<FrameBlock> consumer) throws IOException, DMLRuntimeException, JSONException
+	{
+		//prepare file access
+		JobConf jobConf = new JobConf(ConfigurationManager.getCachedJobConf());
+		Path path = new Path(fname);
+		FileSystem fileSystem = IOUtilFunctions.getFileSystem(path, jobConf);
+		FileInputFormat.addInputPath(jobConf, path);
+
+		//check existence and non-empty file
+		FrameReader.checkValidInputFile(fileSystem, path);
+
+		Types.ValueType[] lschema = FrameReader.createOutputSchema(schema, clen);
+		String[] lnames = createOutputNamesFromSchemaMap(schemaMap);
+
+		TextInputFormat inputFormat = new TextInputFormat();
+		inputFormat.configure(jobConf);
+		InputSplit[] splits = IOUtilFunctions.sortInputSplits(inputFormat.getSplits(jobConf, 1));
+
+		FrameBlock chunk = FrameReader.createOutputFrameBlock(lschema, lnames, blen);
+		int row = 0;
+		for (InputSplit split : splits) {
+			RecordReader<LongWritable, Text> reader = inputFormat.getRecordReader(split, jobConf, Reporter.NULL);
+			LongWritable key = new LongWritable();
+			Text value = new Text();
+			try {
+				while (reader.next(key, value)) {
+					if (row == blen) {
+						consumer.accept(chunk);
+						chunk = FrameReader.createOutputFrameBlock(lschema, lnames, blen);
+						row = 0;
+					}
+					JSONObject jsonObject = new JSONObject(value.toString());
+					for (Map.Entry<String, Integer> entry : schemaMap.entrySet()) {
+						String strCellValue = getStringFromJSONPath(jsonObject, entry.getKey());
+						chunk.set(row, entry.getValue(), UtilFunctions.stringToObject(schema[entry.getValue()], strCellValue));
+					}
+					row++;
+				}
+			}
+			finally {
+				IOUtilFunctions.closeSilently(reader);
+			}
+		}
+		if (row > 0)
+			consumer.accept(row < blen ? chunk.slice(0, row - 1) : chunk);
+	}
+
 	protected void readJSONLFrameFromHDFS(Path path, JobConf jobConf, FileSystem fileSystem, FrameBlock dest,
 		Types.ValueType[] schema, Map<String, Integer> schemaMap) throws IOException, JSONException
 	{
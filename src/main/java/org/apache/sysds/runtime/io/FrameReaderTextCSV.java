@@ -22,6 +22,7 @@ package org.apache.sysds.runtime.io;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
@@ -128,13 +129,7 @@ public class FrameReaderTextCSV extends FrameReader {
 		final String sfillValue = String.valueOf(_props.getFillValue());
 		final Set<String> naValues = _props.getNAStrings();
 		final String delim = _props.getDelim();
-		final CellAssigner f;
-		if(naValues != null )
-			f = FrameReaderTextCSV::assignCellGeneric;
-		else if(isFill && dfillValue != 0)
-			f = FrameReaderTextCSV::assignCellFill;
-		else 
-			f = FrameReaderTextCSV::assignCellNoFill;
+		final CellAssigner f = getCellAssigner();
 		
 		final RecordReader<LongWritable, Text> reader = informat.getRecordReader(split, job, Reporter.NULL);
 		final LongWritable key = new LongWritable();
@@ -173,6 +168,88 @@ public class FrameReaderTextCSV extends FrameReader {
 		return row;
 	}
 
+	@Override
+	public void readFrameChunksFromHDFS(String fname, ValueType[] schema, String[] names, long rlen, long clen,
+		int blen, Consumer<FrameBlock> consumer) throws IOException, DMLRuntimeException {
+		// prepare file access
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		Path path = new Path(fname);
+		FileSystem fs = IOUtilFunctions.getFileSystem(path, job);
+		FileInputFormat.addInputPath(job, path);
+
+		// check existence and non-empty file
+		checkValidInputFile(fs, path);
+
+		TextInputFormat informat = new TextInputFormat();
+		informat.configure(job);
+		InputSplit[] splits = IOUtilFunctions.sortInputSplits(informat.getSplits(job, 1));
+
+		// number of columns from the first line, but no pass over the data to count rows
+		if(clen <= 0)
+			clen = IOUtilFunctions.countNumColumnsCSV(splits, informat, job, _props.getDelim());
+
+		final ValueType[] lschema = createOutputSchema(schema, clen);
+		String[] lnames = createOutputNames(names, clen);
+		final boolean hasHeader = _props.hasHeader();
+		final boolean isFill = _props.isFill();
+		final double dfillValue = _props.getFillValue();
+		final String sfillValue = String.valueOf(_props.getFillValue());
+		final Set<String> naValues = _props.getNAStrings();
+		final String delim = _props.getDelim();
+		final CellAssigner f = getCellAssigner();
+
+		FrameBlock chunk = createOutputFrameBlock(lschema, lnames, blen);
+		int row = 0;
+		for(int i = 0; i < splits.length; i++) {
+			final RecordReader<LongWritable, Text> reader = informat.getRecordReader(splits[i], job, Reporter.NULL);
+			final LongWritable key = new LongWritable();
+			final Text value = new Text();
+			try {
+				// handle header if existing
+				if(i == 0 && hasHeader && reader.next(key, value)) {
+					lnames = value.toString().split(delim);
+					chunk.setColumnNames(lnames);
+				}
+				while(reader.next(key, value)) { // foreach line
+					String line = value.toString();
+					if(isMetaStart(line)) {
+						parseMeta(line, delim, chunk);
+						continue;
+					}
+					if(row == blen) {
+						// hand over full chunk, and carry column metadata into the next
+						FrameBlock next = createOutputFrameBlock(lschema, lnames, blen);
+						next.setColumnMetadata(chunk.getColumnMetadata());
+						consumer.accept(chunk);
+						chunk = next;
+						row = 0;
+					}
+					try {
+						parseLine(line, delim, chunk.getColumns(), row++, (int) clen, dfillValue, sfillValue, isFill,
+							naValues, f);
+					}
+					catch(Exception e) {
+						throw new DMLRuntimeException("Failed parsing string: \"" + line + "\"", e);
+					}
+				}
+			}
+			finally {
+				IOUtilFunctions.closeSilently(reader);
+			}
+		}
+		if(row > 0)
+			consumer.accept(row < blen ? chunk.slice(0, row - 1) : chunk);
+	}
+
+	private CellAssigner getCellAssigner() {
+		if(_props.getNAStrings() != null)
+			return FrameReaderTextCSV::assignCellGeneric;
+		else if(_props.isFill() && _props.getFillValue() != 0)
+			return FrameReaderTextCSV::assignCellFill;
+		else
+			return FrameReaderTextCSV::assignCellNoFill;
+	}
+
 	private static boolean isMetaStart(String s){
 		return s.charAt(0) == '#' && s.substring(0, 5).equals("#Meta");
 
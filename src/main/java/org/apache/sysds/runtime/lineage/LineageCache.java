@@ -70,10 +70,11 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class LineageCache
 {
-	private static final Map<LineageItem, LineageCacheEntry> _cache = new HashMap<>();
+	private static final Map<LineageItem, LineageCacheEntry> _cache = new ConcurrentHashMap<>();
 	protected static final boolean DEBUG = false;
 
 	static {
@@ -89,6 +90,12 @@ public class LineageCache
 	//   entry objects which reduces contention and prevents deadlocks in case of
 	//   function/statement block placeholders which computation itself might be
 	//   a complex workflow of operations that accesses the cache as well.
+	//   The cache itself is a concurrent (internally lock-striped) map, which allows
+	//   probing single-instruction outputs and atomically creating placeholders
+	//   without the global monitor. Cache hits on this path are buffered and applied
+	//   to the eviction queue lazily. The global monitor is only required for
+	//   modifications of the cache size (putting values, eviction, spilling),
+	//   partial reuse rewrites, and multi-level and multi-backend reuse.
 	
 	
 	//--------------- PUBLIC CACHE API (keep it narrow) ----------------//
@@ -106,30 +113,60 @@ public class LineageCache
 			//obtaining value to avoid blocking in critical section
 			LineageCacheEntry e = null;
 			boolean reuseAll = true;
-			synchronized( _cache ) {
-				//try to reuse full or partial intermediates (CPU and FED only)
+			if (isConcurrentProbe(inst)) {
+				//lock-free probing and per-key atomic placeholder creation
 				for (MutablePair<LineageItem,LineageCacheEntry> item : liList) {
-					if (LineageCacheConfig.getCacheType().isFullReuse())
-						//e = LineageCache.probe(item.getKey()) ? getIntern(item.getKey()) : null;
-						e = getIntern(item.getKey()); //avoid double probing (containsKey + get)
-					//TODO need to also move execution of compensation plan out of here
-					//(create lazily evaluated entry)
-					if (e == null && LineageCacheConfig.getCacheType().isPartialReuse()
-						&& !(inst instanceof ComputationSPInstruction)
-						&& !(DMLScript.USE_ACCELERATOR))
-						if( LineageRewriteReuse.executeRewrites(inst, ec) )
-							e = getIntern(item.getKey());
+					e = probeConcurrent(inst, ec, item.getKey());
 					reuseAll &= (e != null);
 					item.setValue(e);
+				}
+			}
+			else {
+				//read candidates from the persistent store outside the critical section
+				Map<LineageItem, MatrixBlock> stored = readFromStore(inst, liList);
+				//collect live inputs of incremental rewrites outside the critical section
+				Map<LineageItem, MatrixObject> live = (LineageCacheConfig.getCacheType().isPartialReuse()
+					&& !(inst instanceof ComputationSPInstruction) && !(DMLScript.USE_ACCELERATOR)) ?
+					LineageRewriteReuse.getLiveAppendInputs(inst, ec) : null;
+				long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
+				synchronized( _cache ) {
+					if (DMLScript.STATISTICS)
+						LineageCacheStatistics.incrementLockedProbes(System.nanoTime()-t0);
+					//try to reuse full or partial intermediates (CPU and FED only)
+					for (MutablePair<LineageItem,LineageCacheEntry> item : liList) {
+						if (LineageCacheConfig.getCacheType().isFullReuse())
+							//e = LineageCache.probe(item.getKey()) ? getIntern(item.getKey()) : null;
+							e = getIntern(item.getKey()); //avoid double probing (containsKey + get)
+						//TODO need to also move execution of compensation plan out of here
+						//(create lazily evaluated entry)
+						if (e == null && LineageCacheConfig.getCacheType().isPartialReuse()
+							&& !(inst instanceof ComputationSPInstruction)
+							&& !(DMLScript.USE_ACCELERATOR))
+							if( LineageRewriteReuse.executeRewrites(inst, ec, live) )
+								e = getIntern(item.getKey());
+						//reuse from the persistent cross-session store (CPU and FED only)
+						if (e == null && stored != null && stored.containsKey(item.getKey()))
+							e = getInternFromStore(item.getKey(), stored.get(item.getKey()));
+						reuseAll &= (e != null);
+						item.setValue(e);
 					
-					//create a placeholder if no reuse to avoid redundancy
-					//(e.g., concurrent threads that try to start the computation)
-					if(e == null && isMarkedForCaching(inst, ec))
-						putInternPlaceholder(inst, item.getKey());
+						//create a placeholder if no reuse to avoid redundancy
+						//(e.g., concurrent threads that try to start the computation)
+						if(e == null && isMarkedForCaching(inst, ec))
+							putInternPlaceholder(inst, item.getKey());
+					}
 				}
+				//compress entries evicted to the compressed tier outside the critical section
+				LineageCacheEviction.compressPending(_cache);
 			}
 			reuse = reuseAll;
 			
+			//restore reused entries from the compressed tier outside the critical section
+			if(reuse)
+				for (MutablePair<LineageItem, LineageCacheEntry> entry : liList)
+					if (entry.getValue().isCompressedTier())
+						LineageCacheEviction.decompressEntry(_cache, entry.getValue());
+			
 			if(reuse) { //reuse
 				//put reused value into symbol table (w/ blocking on placeholders)
 				for (MutablePair<LineageItem, LineageCacheEntry> entry : liList) {
@@ -138,8 +175,9 @@ public class LineageCache
 
 					if (e.isMatrixValue() && !e.isGPUObject()) {
 						MatrixBlock mb = e.getMBValue(); //wait if another thread is executing the same inst.
-						if (mb == null && e.getCacheStatus() == LineageCacheStatus.NOTCACHED)
-							return false;  //the executing thread removed this entry from cache
+						if (mb == null && (e.getCacheStatus() == LineageCacheStatus.NOTCACHED
+							|| e.getCacheStatus() == LineageCacheStatus.SPILLED))
+							return false;  //the executing thread removed (or concurrently spilled) this entry
 						if (e.getCacheStatus() == LineageCacheStatus.TOCACHE) { //not cached yet
 							ec.replaceLineageItem(outName, e._key); //reuse the lineage trace
 							return false;
@@ -528,7 +566,7 @@ public class LineageCache
 
 	public static boolean probe(LineageItem key) {
 		//TODO problematic as after probe the matrix might be kicked out of cache
-		return _cache.containsKey(key);
+		return key != null && _cache.containsKey(key);
 	}
 
 	private static boolean probeRDDDistributed(LineageItem key) {
@@ -608,6 +646,7 @@ public class LineageCache
 			synchronized( _cache ) {
 				putIntern(item, DataType.MATRIX, mo.acquireReadAndRelease(), null, computetime);
 			}
+			LineageCacheEviction.compressPending(_cache);
 		}
 	}
 	
@@ -695,6 +734,7 @@ public class LineageCache
 	
 	private static void putValueCPU(Instruction inst, List<Pair<LineageItem, Data>> liData, long computetime)
 	{
+		List<Pair<LineageItem, MatrixBlock>> toStore = null;
 		synchronized( _cache ) {
 			for (Pair<LineageItem, Data> entry : liData) {
 				LineageItem item = entry.getKey();
@@ -770,8 +810,20 @@ public class LineageCache
 
 				//maintain order for eviction
 				LineageCacheEviction.addEntry(centry);
+
+				//collect matrices for the persistent store (written outside the critical section)
+				if (mb != null) {
+					if (toStore == null)
+						toStore = new ArrayList<>();
+					toStore.add(Pair.of(item, mb));
+				}
 			}
 		}
+		LineageCacheEviction.compressPending(_cache);
+		
+		if (toStore != null)
+			for (Pair<LineageItem, MatrixBlock> entry : toStore)
+				LineageCacheStore.put(entry.getKey(), entry.getValue(), computetime);
 	}
 	
 	private static void putValueGPU(GPUObject gpuObj, LineageItem instLI, long computetime) {
@@ -1062,20 +1114,77 @@ public class LineageCache
 	//----------------- INTERNAL CACHE LOGIC IMPLEMENTATION --------------//
 
 	private static void putInternPlaceholder(Instruction inst, LineageItem key) {
+		DataType dt = getOutputDataType(inst);
+		if (dt != null)
+			putIntern(key, dt, null, null,  0);
+	}
+
+	private static DataType getOutputDataType(Instruction inst) {
 		ComputationCPInstruction cinst = inst instanceof ComputationCPInstruction ? (ComputationCPInstruction)inst : null;
 		ComputationFEDInstruction cfinst = inst instanceof ComputationFEDInstruction ? (ComputationFEDInstruction)inst : null;
 		ComputationSPInstruction cspinst = inst instanceof ComputationSPInstruction ? (ComputationSPInstruction)inst : null;
 		GPUInstruction gpuinst = inst instanceof GPUInstruction ? (GPUInstruction)inst : null;
 
 		if (cinst != null)
-			putIntern(key, cinst.output.getDataType(), null, null,  0);
+			return cinst.output.getDataType();
 		else if (cfinst != null)
-			putIntern(key, cfinst.output.getDataType(), null, null,  0);
+			return cfinst.output.getDataType();
 		else if (cspinst != null)
-			putIntern(key, cspinst.output.getDataType(), null, null,  0);
+			return cspinst.output.getDataType();
 		else if (gpuinst != null)
-			putIntern(key, gpuinst._output.getDataType(), null, null,  0);
+			return gpuinst._output.getDataType();
 		//FIXME: different o/p datatypes for MultiReturnBuiltins.
+		return null;
+	}
+
+	private static boolean isConcurrentProbe(Instruction inst) {
+		// Partial rewrites and the persistent store require the global monitor
+		// as they put values; Spark and GPU entries need backend-specific
+		// maintenance of their eviction structures.
+		return LineageCacheConfig.getCacheType().isFullReuse()
+			&& !LineageCacheConfig.getCacheType().isPartialReuse()
+			&& !(inst instanceof ComputationSPInstruction)
+			&& !(inst instanceof GPUInstruction)
+			&& !LineageCacheStore.isEnabled();
+	}
+
+	private static LineageCacheEntry probeConcurrent(Instruction inst, ExecutionContext ec, LineageItem key) {
+		LineageCacheEntry e = _cache.get(key);
+		if (e == null) {
+			if (DMLScript.STATISTICS && LineageCacheEviction._removelist.containsKey(key))
+				// The sought entry was in cache but removed later
+				LineageCacheStatistics.incrementDelHits();
+			if (!isMarkedForCaching(inst, ec))
+				return null;
+			//atomically create a placeholder, if another thread won the race
+			//we use its entry (and later wait for its value)
+			DataType dt = getOutputDataType(inst);
+			if (dt == null)
+				return null;
+			e = _cache.putIfAbsent(key, new LineageCacheEntry(key, dt, null, null, 0));
+			if (e == null)
+				return null;
+		}
+		if (e.getCacheStatus() == LineageCacheStatus.SPILLED || e.isRDDPersist() || e.isGPUObject()) {
+			//fallback to the global monitor for reading spilled entries and
+			//maintaining the backend-specific eviction structures
+			long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
+			synchronized( _cache ) {
+				if (DMLScript.STATISTICS)
+					LineageCacheStatistics.incrementLockedProbes(System.nanoTime()-t0);
+				return getIntern(key);
+			}
+		}
+		if (DMLScript.STATISTICS) {
+			LineageCacheStatistics.incrementMemHits();
+			LineageCacheStatistics.incrementConcurrentProbes();
+		}
+		// Restore entries from the compressed tier (w/o the global monitor)
+		if (e.isCompressedTier())
+			LineageCacheEviction.decompressEntry(_cache, e);
+		// Maintain order for eviction (applied lazily under the monitor)
+		LineageCacheEviction.recordAccess(e);
+		return e;
 	}
 
 	private static void putIntern(LineageItem key, DataType dt, MatrixBlock Mval, ScalarObject Sval, long computetime) {
@@ -1085,12 +1194,16 @@ public class LineageCache
 		
 		// Create a new entry.
 		LineageCacheEntry newItem = new LineageCacheEntry(key, dt, Mval, Sval, computetime);
+		long size = newItem.getSize();
+		if( (Mval != null || Sval != null) && size > LineageCacheEviction.getCacheLimit())
+			return; //not applicable
+		
+		// Atomically place the entry (w.r.t. placeholders created by concurrent probes)
+		if (_cache.putIfAbsent(key, newItem) != null)
+			return;
 		
 		// Make space by removing or spilling entries.
 		if( Mval != null || Sval != null ) {
-			long size = newItem.getSize();
-			if( size > LineageCacheEviction.getCacheLimit())
-				return; //not applicable
 			if( !LineageCacheEviction.isBelowThreshold(size) )
 				LineageCacheEviction.makeSpace(_cache, size);
 			LineageCacheEviction.updateSize(size, true);
@@ -1098,8 +1211,6 @@ public class LineageCache
 		
 		// Place the entry in the weighted queue.
 		LineageCacheEviction.addEntry(newItem);
-		
-		_cache.put(key, newItem);
 	}
 	
 	private static LineageCacheEntry getIntern(LineageItem key) {
@@ -1116,6 +1227,9 @@ public class LineageCache
 				// Increment hit count.
 				LineageCacheStatistics.incrementMemHits();
 
+			// Note: entries of the compressed tier are returned compressed, and
+			// restored by the callers after releasing the monitor if needed
+
 			// Maintain order for eviction
 			if (e.isRDDPersist())
 				LineageSparkCacheEviction.maintainOrder(e);
@@ -1127,6 +1241,34 @@ public class LineageCache
 			return LineageCacheEviction.readFromLocalFS(_cache, key);
 	}
 	
+	private static Map<LineageItem, MatrixBlock> readFromStore(Instruction inst,
+		List<MutablePair<LineageItem, LineageCacheEntry>> liList)
+	{
+		//Caller should not hold the monitor on _cache (disk I/O)
+		if (!LineageCacheConfig.getCacheType().isFullReuse() || !LineageCacheStore.isEnabled()
+			|| inst instanceof ComputationSPInstruction || inst instanceof GPUInstruction)
+			return null;
+		Map<LineageItem, MatrixBlock> ret = null;
+		for (MutablePair<LineageItem, LineageCacheEntry> item : liList) {
+			if (_cache.containsKey(item.getKey()))
+				continue;
+			MatrixBlock mb = LineageCacheStore.get(item.getKey());
+			if (mb != null) {
+				if (ret == null)
+					ret = new HashMap<>();
+				ret.put(item.getKey(), mb);
+			}
+		}
+		return ret;
+	}
+	
+	private static LineageCacheEntry getInternFromStore(LineageItem key, MatrixBlock mb) {
+		//Caller should hold the monitor on _cache
+		// Place the reloaded value as a regular cache entry
+		putIntern(key, DataType.MATRIX, mb, null, LineageCacheStore.getComputeTime(key));
+		return _cache.get(key);
+	}
+	
 	private static void mvIntern(LineageItem item, LineageItem probeItem, long computetime) {
 		if (ReuseCacheType.isNone())
 			return;
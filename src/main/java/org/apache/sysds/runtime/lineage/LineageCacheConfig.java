@@ -58,7 +58,7 @@ public class LineageCacheConfig
 		Opcodes.POW2.toString(), Opcodes.MULT2.toString(), Opcodes.UACKP.toString(), Opcodes.TAKPM.toString(), Opcodes.UACSQKP.toString(), Opcodes.UARKP.toString(), Opcodes.NP.toString(), Opcodes.UARIMAX.toString(), Opcodes.QSORT.toString(),
 		Opcodes.QPICK.toString(), Opcodes.TRANSFORMAPPLY.toString(), Opcodes.UARMAX.toString(), Opcodes.NP.toString(), Opcodes.MINUSMULT.toString(), Opcodes.CASTDTM.toString(), Opcodes.LOWERTRI.toString(), Opcodes.MINUS1_MULT.toString(),
 		Opcodes.PREFETCH.toString(), Opcodes.MAPMM.toString(), Opcodes.CONTAINS.toString(), Opcodes.MMCHAIN.toString(), Opcodes.MAPMMCHAIN.toString(), Opcodes.PM.toString(), Opcodes.EQUAL.toString(), Opcodes.RMEMPTY.toString(),
-		Opcodes.CONV2D_BIAS_ADD.toString(), Opcodes.RELU_MAXPOOLING.toString(), Opcodes.MAXPOOLING.toString(), Opcodes.BATCH_NORM2D.toString(), Opcodes.AVGPOOLING.toString(),
+		Opcodes.UACMIN.toString(), Opcodes.UACMAX.toString(), Opcodes.CONV2D_BIAS_ADD.toString(), Opcodes.RELU_MAXPOOLING.toString(), Opcodes.MAXPOOLING.toString(), Opcodes.BATCH_NORM2D.toString(), Opcodes.AVGPOOLING.toString(),
 		"softmax"
 		//TODO: Reuse everything.
 	};
@@ -145,6 +145,15 @@ public class LineageCacheConfig
 	public static double FSWRITE_SPARSE = 225;
 	public static double D2HCOPYBANDWIDTH = 1500; //MB/sec
 	public static double D2HMAXBANDWIDTH = 8192;
+
+	//-------------COMPRESSED TIER RELATED CONFIGURATIONS--------------//
+
+	// Minimum ratio of uncompressed to compressed size for keeping an 
+	// evicted entry compressed in memory.
+	public static final double MIN_COMPRESSION_RATIO = 2;
+	// Default decompression bandwidth in MB per second. This will be 
+	// adjusted as per the observed decompression times.
+	public static double DECOMPRESS_BANDWIDTH = 2048;
 	
 	private enum CachedItemHead {
 		TSMM,
@@ -187,7 +196,31 @@ public class LineageCacheConfig
 	public enum LineageCachePolicy {
 		LRU,
 		COSTNSIZE,
-		DAGHEIGHT,
+		DAGHEIGHT;
+		
+		/**
+		 * Cost model hook of the compressed tier, which decides if an entry 
+		 * selected for eviction is kept compressed in memory instead of being
+		 * spilled or deleted. All times are in milliseconds.
+		 * 
+		 * @param exectime   time to recompute the entry
+		 * @param decomptime estimated time to decompress the entry on reuse
+		 * @param spilltime  estimated time to write and read the entry from disk
+		 *                   (infinite if disk spilling is disabled)
+		 * @return true if the entry should be compressed
+		 */
+		public boolean preferCompression(double exectime, double decomptime, double spilltime) {
+			switch(this) {
+				case LRU:
+					// Recency-based, keep everything that is cheaper to decompress than to recompute
+					return decomptime < exectime;
+				case COSTNSIZE:
+				case DAGHEIGHT:
+				default:
+					// Decompression needs to beat both recompute and disk roundtrip
+					return decomptime < Math.min(exectime, spilltime);
+			}
+		}
 	}
 	
 	protected static Comparator<LineageCacheEntry> LineageCacheComparator = (e1, e2) -> {
@@ -471,6 +504,12 @@ public class LineageCacheConfig
 		// no control over eviction order of cached items.
 	}*/
 	
+	public static boolean isSetCompress() {
+		// Check if cachecompress set in SystemDS-config (default false)
+		DMLConfig conf = ConfigurationManager.getDMLConfig();
+		return conf.getBooleanValue(DMLConfig.LINEAGECACHECOMPRESS);
+	}
+	
 	public static boolean isSetSpill() {
 		// Check if cachespill set in SystemDS-config (default true)
 		DMLConfig conf = ConfigurationManager.getDMLConfig();
@@ -49,6 +49,10 @@ public class LineageCacheEntry {
 	protected GPUPointer _gpuPointer;
 
 	protected RDDObject _rddObject;
+	// value compressed by the eviction (not by the producing instruction)
+	private boolean _compressedTier = false;
+	// compression into the compressed tier was not effective
+	protected boolean _compressFailed = false;
 	
 	public LineageCacheEntry(LineageItem key, DataType dt, MatrixBlock Mval, ScalarObject Sval, long computetime) {
 		_key = key;
@@ -65,15 +69,16 @@ public class LineageCacheEntry {
 	
 	protected synchronized void setCacheStatus(LineageCacheStatus st) {
 		_status = st;
+		//resume threads that probed this entry concurrently to eviction
+		if (st != LineageCacheStatus.EMPTY)
+			notifyAll();
 	}
 
 	public synchronized MatrixBlock getMBValue() {
 		try {
 			//wait until other thread completes operation
 			//in order to avoid redundant computation
-			while(_status == LineageCacheStatus.EMPTY) {
-				wait();
-			}
+			waitForValue();
 			//comes here if data is placed or the entry is removed by the running thread
 			return _MBval;
 		}
@@ -86,9 +91,7 @@ public class LineageCacheEntry {
 		try {
 			//wait until other thread completes operation
 			//in order to avoid redundant computation
-			while(_status == LineageCacheStatus.EMPTY) {
-				wait();
-			}
+			waitForValue();
 			//comes here if data is placed or the entry is removed by the running thread
 			return _SOval;
 		}
@@ -101,9 +104,7 @@ public class LineageCacheEntry {
 		try {
 			//wait until other thread completes operation
 			//in order to avoid redundant computation
-			while(_status == LineageCacheStatus.EMPTY) {
-				wait();
-			}
+			waitForValue();
 			//comes here if data is placed or the entry is removed by the running thread
 			return _rddObject;
 		}
@@ -116,9 +117,7 @@ public class LineageCacheEntry {
 		try {
 			// wait until other thread completes operation
 			// in order to avoid redundant computation
-			while(_status == LineageCacheStatus.EMPTY) {
-				wait();
-			}
+			waitForValue();
 			// comes here if data is placed or the entry is removed by the running thread
 			return _serialBytes;
 		}
@@ -131,9 +130,7 @@ public class LineageCacheEntry {
 		try {
 			//wait until other thread completes operation
 			//in order to avoid redundant computation
-			while(_status == LineageCacheStatus.EMPTY) {
-				wait();
-			}
+			waitForValue();
 			//comes here if data is placed or the entry is removed by the running thread
 			return _gpuPointer.getPointer();
 		}
@@ -142,6 +139,17 @@ public class LineageCacheEntry {
 		}
 	}
 
+	private void waitForValue() throws InterruptedException {
+		//Caller should hold the monitor on this entry
+		if (_status != LineageCacheStatus.EMPTY)
+			return;
+		long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
+		while(_status == LineageCacheStatus.EMPTY)
+			wait();
+		if (DMLScript.STATISTICS)
+			LineageCacheStatistics.incrementPlaceholderWaits(System.nanoTime()-t0);
+	}
+
 	public synchronized LineageCacheStatus getCacheStatus() {
 		return _status;
 	}
@@ -172,6 +180,10 @@ public class LineageCacheEntry {
 		return(_MBval == null && _SOval == null && _gpuPointer == null && _serialBytes == null && _rddObject == null);
 	}
 	
+	public synchronized boolean isCompressedTier() {
+		return _compressedTier;
+	}
+	
 	public boolean isMatrixValue() {
 		return _dt.isMatrix() && _rddObject == null && _gpuPointer == null;
 	}
@@ -204,6 +216,7 @@ public class LineageCacheEntry {
 
 	public synchronized void setValue(MatrixBlock val, long computetime) {
 		_MBval = val;
+		_compressedTier = false;
 		_gpuPointer = null;  //Matrix block and gpu object cannot coexist
 		_computeTime = computetime;
 		_status = isNullVal() ? LineageCacheStatus.EMPTY : LineageCacheStatus.CACHED;
@@ -217,6 +230,14 @@ public class LineageCacheEntry {
 		setValue(val, _computeTime);
 	}
 
+	protected synchronized void setCompressedValue(MatrixBlock val, boolean compressedTier) {
+		// Swap the in-memory representation (compressed or uncompressed) of a
+		// cached value w/o changing the status, and adjust the score to the new size
+		_MBval = val;
+		_compressedTier = compressedTier;
+		recomputeScore();
+	}
+
 	public synchronized void setValue(ScalarObject val, long computetime) {
 		_SOval = val;
 		_gpuPointer = null;  //scalar and gpu object cannot coexist
@@ -287,6 +308,7 @@ public class LineageCacheEntry {
 		_MBval = null;
 		_SOval = null;
 		_serialBytes = null;
+		_compressedTier = false;
 		_status = LineageCacheStatus.EMPTY;
 	}
 	
@@ -20,13 +20,20 @@
 package org.apache.sysds.runtime.lineage;
 
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.sysds.api.DMLScript;
 import org.apache.sysds.hops.OptimizerUtils;
 import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysds.runtime.compress.CompressedMatrixBlockFactory;
 import org.apache.sysds.runtime.lineage.LineageCacheConfig.LineageCacheStatus;
 import org.apache.sysds.runtime.matrix.data.MatrixBlock;
 import org.apache.sysds.runtime.util.LocalFileUtils;
@@ -37,9 +44,19 @@ public class LineageCacheEviction
 	private static long _cachesize = 0;
 	private static long CACHE_LIMIT; //limit in bytes
 	private static long _startTimestamp = 0;
-	protected static final Map<LineageItem, Integer> _removelist = new HashMap<>();
+	protected static final Map<LineageItem, Integer> _removelist = new ConcurrentHashMap<>();
 	private static String _outdir = null;
 	private static TreeSet<LineageCacheEntry> weightedQueue = new TreeSet<>(LineageCacheConfig.LineageCacheComparator);
+	// Lock-free buffer of cache hits from concurrent probes, which is applied to
+	// the weighted queue under the cache monitor before the next eviction. Accesses
+	// are dropped if the buffer is full, which only affects the eviction order.
+	private static final Queue<LineageCacheEntry> _accessBuffer = new ConcurrentLinkedQueue<>();
+	private static final AtomicInteger _accessBufferSize = new AtomicInteger(0);
+	private static final int ACCESS_BUFFER_LIMIT = 4096;
+	// Entries selected for the compressed tier during eviction, which are compressed
+	// after releasing the cache monitor (see compressPending). These entries are not
+	// part of the weighted queue, and their expected savings are already released.
+	private static final List<LineageCacheEntry> _toCompress = new ArrayList<>();
 	
 	protected static void resetEviction() {
 		// reset cache size, otherwise the cache clear leads to unusable 
@@ -48,6 +65,9 @@ public class LineageCacheEviction
 		weightedQueue.clear();
 		_outdir = null;
 		_removelist.clear();
+		_accessBuffer.clear();
+		_accessBufferSize.set(0);
+		_toCompress.clear();
 	}
 
 	//--------------- CACHE MAINTENANCE & LOOKUP FUNCTIONS --------------//
@@ -96,6 +116,26 @@ public class LineageCacheEviction
 		}
 	}
 
+	protected static void recordAccess(LineageCacheEntry entry) {
+		// Called without the cache monitor (see LineageCache.probeConcurrent)
+		if (!LineageCacheConfig.isTimeBased() && !LineageCacheConfig.isCostNsize())
+			return;
+		if (_accessBufferSize.incrementAndGet() > ACCESS_BUFFER_LIMIT) {
+			_accessBufferSize.decrementAndGet();
+			return;
+		}
+		_accessBuffer.offer(entry);
+	}
+
+	private static void drainAccessBuffer() {
+		// Caller should hold the monitor on the cache
+		LineageCacheEntry e = null;
+		while ((e = _accessBuffer.poll()) != null) {
+			_accessBufferSize.decrementAndGet();
+			getEntry(e);
+		}
+	}
+
 	private static void removeEntry(Map<LineageItem, LineageCacheEntry> cache, LineageCacheEntry e, boolean updateSpace) {
 		if (cache.remove(e._key) != null) {
 			if (updateSpace)
@@ -211,6 +251,7 @@ public class LineageCacheEviction
 	}
 
 	public static void removeAll(Map<LineageItem, LineageCacheEntry> cache) {
+		drainAccessBuffer();
 		while (!weightedQueue.isEmpty()) {
 			LineageCacheEntry e = weightedQueue.pollFirst();
 			if (e == null)
@@ -224,6 +265,8 @@ public class LineageCacheEviction
 	}
 
 	protected static void makeSpace(Map<LineageItem, LineageCacheEntry> cache, long spaceNeeded) {
+		//Apply pending hits to the eviction order
+		drainAccessBuffer();
 		//Cost based eviction
 		while ((spaceNeeded + _cachesize) > CACHE_LIMIT)
 		{
@@ -232,6 +275,11 @@ public class LineageCacheEviction
 				// Nothing to evict.
 				break;
 
+			if (LineageCacheConfig.isSetCompress() && markForCompression(e))
+				// Kept in memory and compressed outside the cache monitor (back
+				// in the queue with the new size), spilled or deleted if evicted again.
+				continue;
+
 			if (!LineageCacheConfig.isSetSpill()) {
 				// If eviction is disabled, just delete the entries.
 				removeOrSpillEntry(cache, e, false);
@@ -279,6 +327,114 @@ public class LineageCacheEviction
 		}
 	}
 
+	//---------------- COMPRESSED TIER METHODS -----------------
+
+	private static boolean markForCompression(LineageCacheEntry e) {
+		// Caller should hold the monitor on the cache
+		// Only single, uncompressed matrix entries of reasonable size
+		if (!e.isMatrixValue() || e.isNullVal() || e.isCompressedTier() || e._compressFailed
+			|| e._origItem != null || e.getMBValue() instanceof CompressedMatrixBlock
+			|| !e.getCacheStatus().canEvict() || getDiskSizeEstimate(e) < LineageCacheConfig.MIN_SPILL_DATA)
+			return false;
+
+		// Weigh the decompression cost against recompute and spilling
+		double exectime = ((double) e._computeTime) / 1000000; // in milliseconds
+		double decomptime = getDecompressEstimate(e) * 1000; // in milliseconds
+		double spilltime = LineageCacheConfig.isSetSpill() ? 
+			getDiskSpillEstimate(e) * 1000 : Double.POSITIVE_INFINITY;
+		if (!LineageCacheConfig.getCachePolicy().preferCompression(exectime, decomptime, spilltime))
+			return false;
+
+		// Release the minimum savings, which are corrected after compression
+		updateSize(getCompressionSavings(e.getSize()), false);
+		_toCompress.add(e);
+		return true;
+	}
+
+	protected static void compressPending(Map<LineageItem, LineageCacheEntry> cache) {
+		// Caller should not hold the monitor on the cache
+		while (true) {
+			LineageCacheEntry e = null;
+			synchronized (cache) {
+				if (_toCompress.isEmpty())
+					return;
+				e = _toCompress.remove(_toCompress.size()-1);
+			}
+			MatrixBlock mb = e.getMBValue();
+			long size = e.getSize();
+			long t0 = System.nanoTime();
+			MatrixBlock cmb = CompressedMatrixBlockFactory
+				.compress(mb, OptimizerUtils.getConstrainedNumThreads(-1)).getLeft();
+			long t1 = System.nanoTime();
+			boolean success = cmb instanceof CompressedMatrixBlock
+				&& size >= LineageCacheConfig.MIN_COMPRESSION_RATIO * cmb.getInMemorySize();
+
+			synchronized (cache) {
+				if (cache.get(e._key) != e || e.getMBValue() != mb)
+					continue; //removed by a cache reset in the meantime
+				// Undo the reservation, and reinsert the entry with the new score
+				updateSize(getCompressionSavings(size), true);
+				if (success) {
+					updateSize(size, false);
+					e.setCompressedValue(cmb, true);
+					updateSize(e.getSize(), true);
+				}
+				else // Not compressible enough, spill or delete if evicted again
+					e._compressFailed = true;
+				weightedQueue.add(e);
+				if (!isBelowThreshold(0))
+					makeSpace(cache, 0);
+			}
+			if (DMLScript.STATISTICS) {
+				if (success)
+					LineageCacheStatistics.incrementCompress(t1-t0);
+				else
+					LineageCacheStatistics.incrementCompressFail(t1-t0);
+			}
+		}
+	}
+
+	protected static void decompressEntry(Map<LineageItem, LineageCacheEntry> cache, LineageCacheEntry e) {
+		// Caller should not hold the monitor on the cache
+		MatrixBlock cmb = e.getMBValue();
+		if (!e.isCompressedTier() || !(cmb instanceof CompressedMatrixBlock))
+			return;
+		long t0 = System.nanoTime();
+		MatrixBlock mb = ((CompressedMatrixBlock) cmb)
+			.decompress(OptimizerUtils.getConstrainedNumThreads(-1));
+		long t1 = System.nanoTime();
+
+		synchronized (cache) {
+			if (cache.get(e._key) != e || e.getMBValue() != cmb)
+				return; //decompressed by another thread, spilled, or removed
+			// Remove from the queue before the score changes
+			boolean queued = weightedQueue.remove(e);
+			updateSize(e.getSize(), false);
+			e.setCompressedValue(mb, false);
+			// Note: no eviction here, the next put makes space if needed
+			updateSize(e.getSize(), true);
+			if (queued)
+				weightedQueue.add(e);
+		}
+
+		// Adjust decompression speed (exponential smoothing, alpha = 0.5)
+		double mbsize = getDiskSizeEstimate(e);
+		if (mbsize >= LineageCacheConfig.MIN_SPILL_DATA)
+			LineageCacheConfig.DECOMPRESS_BANDWIDTH = (LineageCacheConfig.DECOMPRESS_BANDWIDTH 
+				+ mbsize / (((double)(t1-t0))/1000000000)) / 2;
+		if (DMLScript.STATISTICS)
+			LineageCacheStatistics.incrementDecompress(t1-t0);
+	}
+
+	private static long getCompressionSavings(long size) {
+		return size - (long) (size / LineageCacheConfig.MIN_COMPRESSION_RATIO);
+	}
+
+	private static double getDecompressEstimate(LineageCacheEntry e) {
+		// in seconds, based on the uncompressed size
+		return getDiskSizeEstimate(e) / LineageCacheConfig.DECOMPRESS_BANDWIDTH;
+	}
+
 	//---------------- COSTING RELATED METHODS -----------------
 
 	protected static void setStartTimestamp() {
@@ -365,7 +521,10 @@ public class LineageCacheEviction
 		}
 		String outfile = _outdir+"/"+entry._key.getId();
 		try {
-			LocalFileUtils.writeMatrixBlockToLocal(outfile, entry.getMBValue());
+			// Compressed entries are spilled uncompressed to allow plain reads
+			MatrixBlock mb = entry.isCompressedTier() ? 
+				((CompressedMatrixBlock) entry.getMBValue()).decompress() : entry.getMBValue();
+			LocalFileUtils.writeMatrixBlockToLocal(outfile, mb);
 		} catch (IOException e) {
 			throw new DMLRuntimeException ("Write to " + outfile + " failed.", e);
 		}
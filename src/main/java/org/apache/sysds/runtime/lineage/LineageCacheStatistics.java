@@ -57,6 +57,22 @@ public class LineageCacheStatistics {
 	private static final LongAdder _numRddPersist   = new LongAdder();
 	private static final LongAdder _numRddUnpersist   = new LongAdder();
 	private static final LongAdder _numHitsDelRdd   = new LongAdder();
+	// Below entries are specific to the persistent lineage cache store
+	private static final LongAdder _numHitsStore    = new LongAdder();
+	private static final LongAdder _numWritesStore  = new LongAdder();
+	private static final LongAdder _numDelStore     = new LongAdder();
+	// Below entries are specific to cache contention (concurrent probing)
+	private static final LongAdder _numProbesLockFree = new LongAdder();
+	private static final LongAdder _numProbesLocked   = new LongAdder();
+	private static final LongAdder _numWaitsPH        = new LongAdder();
+	private static final LongAdder _ctimeLockWait     = new LongAdder();
+	private static final LongAdder _ctimeWaitPH       = new LongAdder();
+	// Below entries are specific to the compressed in-memory tier
+	private static final LongAdder _numCompress     = new LongAdder();
+	private static final LongAdder _numDecompress   = new LongAdder();
+	private static final LongAdder _numCompressFail = new LongAdder();
+	private static final LongAdder _ctimeCompress   = new LongAdder();
+	private static final LongAdder _ctimeDecompress = new LongAdder();
 
 	public static void reset() {
 		_numHitsMem.reset();
@@ -87,6 +103,19 @@ public class LineageCacheStatistics {
 		_numRddPersist.reset();
 		_numRddUnpersist.reset();
 		_numHitsDelRdd.reset();
+		_numHitsStore.reset();
+		_numWritesStore.reset();
+		_numDelStore.reset();
+		_numProbesLockFree.reset();
+		_numProbesLocked.reset();
+		_numWaitsPH.reset();
+		_ctimeLockWait.reset();
+		_ctimeWaitPH.reset();
+		_numCompress.reset();
+		_numDecompress.reset();
+		_numCompressFail.reset();
+		_ctimeCompress.reset();
+		_ctimeDecompress.reset();
 	}
 	
 	public static void incrementMemHits() {
@@ -275,6 +304,80 @@ public class LineageCacheStatistics {
 		_numHitsDelRdd.increment();
 	}
 
+	public static void incrementStoreHits() {
+		// Number of times found in the persistent (cross-session) store.
+		_numHitsStore.increment();
+	}
+
+	public static long getStoreHits() {
+		return _numHitsStore.longValue();
+	}
+
+	public static void incrementStoreWrites() {
+		// Number of entries written to the persistent store.
+		_numWritesStore.increment();
+	}
+
+	public static long getStoreWrites() {
+		return _numWritesStore.longValue();
+	}
+
+	public static void incrementStoreDeletes() {
+		// Number of entries evicted or invalidated in the persistent store.
+		_numDelStore.increment();
+	}
+
+	public static void incrementConcurrentProbes() {
+		// Number of probes served without the global cache monitor.
+		_numProbesLockFree.increment();
+	}
+
+	public static long getConcurrentProbes() {
+		return _numProbesLockFree.longValue();
+	}
+
+	public static void incrementLockedProbes(long delta) {
+		// Number of probes under the global cache monitor and time waiting for it.
+		_numProbesLocked.increment();
+		_ctimeLockWait.add(delta);
+	}
+
+	public static long getLockedProbes() {
+		return _numProbesLocked.longValue();
+	}
+
+	public static void incrementPlaceholderWaits(long delta) {
+		// Number of times and time blocked on placeholders computed by other threads.
+		_numWaitsPH.increment();
+		_ctimeWaitPH.add(delta);
+	}
+
+	public static void incrementCompress(long delta) {
+		// Number of evicted entries kept compressed in memory, and compression time.
+		_numCompress.increment();
+		_ctimeCompress.add(delta);
+	}
+
+	public static long getCompress() {
+		return _numCompress.longValue();
+	}
+
+	public static void incrementCompressFail(long delta) {
+		// Number of compression attempts that didn't pay off.
+		_numCompressFail.increment();
+		_ctimeCompress.add(delta);
+	}
+
+	public static void incrementDecompress(long delta) {
+		// Number of hits on compressed entries, and decompression time.
+		_numDecompress.increment();
+		_ctimeDecompress.add(delta);
+	}
+
+	public static long getDecompress() {
+		return _numDecompress.longValue();
+	}
+
 	public static String displayHits() {
 		StringBuilder sb = new StringBuilder();
 		sb.append(_numHitsMem.longValue());
@@ -382,4 +485,60 @@ public class LineageCacheStatistics {
 		return (_numHitsSparkActions.longValue() + _numHitsRdd.longValue()
 		+ _numHitsRddPersist.longValue() + _numRddPersist.longValue()) != 0;
 	}
+
+	public static String displayStoreStats() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(_numHitsStore.longValue());
+		sb.append("/");
+		sb.append(_numWritesStore.longValue());
+		sb.append("/");
+		sb.append(_numDelStore.longValue());
+		return sb.toString();
+	}
+
+	public static boolean ifStoreStats() {
+		return (_numHitsStore.longValue() + _numWritesStore.longValue()
+			+ _numDelStore.longValue()) != 0;
+	}
+
+	public static String displayContention() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(_numProbesLockFree.longValue());
+		sb.append("/");
+		sb.append(_numProbesLocked.longValue());
+		sb.append("/");
+		sb.append(_numWaitsPH.longValue());
+		return sb.toString();
+	}
+
+	public static String displayContentionTime() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%.3f", ((double)_ctimeLockWait.longValue())/1000000000)); //in sec
+		sb.append("/");
+		sb.append(String.format("%.3f", ((double)_ctimeWaitPH.longValue())/1000000000)); //in sec
+		return sb.toString();
+	}
+
+	public static String displayCompressStats() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(_numCompress.longValue());
+		sb.append("/");
+		sb.append(_numDecompress.longValue());
+		sb.append("/");
+		sb.append(_numCompressFail.longValue());
+		return sb.toString();
+	}
+
+	public static String displayCompressTime() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%.3f", ((double)_ctimeCompress.longValue())/1000000000)); //in sec
+		sb.append("/");
+		sb.append(String.format("%.3f", ((double)_ctimeDecompress.longValue())/1000000000)); //in sec
+		return sb.toString();
+	}
+
+	public static boolean ifCompressStats() {
+		return (_numCompress.longValue() + _numDecompress.longValue()
+			+ _numCompressFail.longValue()) != 0;
+	}
 }
@@ -0,0 +1,635 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.lineage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.sysds.api.DMLScript;
+import org.apache.sysds.common.Types.DataType;
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.conf.DMLConfig;
+import org.apache.sysds.lops.Lop;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.util.HDFSTool;
+import org.apache.sysds.runtime.util.LocalFileUtils;
+
+/**
+ * Persistent, cross-session lineage cache store. Cached matrix intermediates
+ * are written to a configured local directory keyed by a stable SHA-256 digest
+ * of their lineage trace, which allows reuse across independent DMLScript or
+ * JMLC sessions (e.g., nightly jobs that recompute the same preprocessing over
+ * unchanged inputs). A compact, append-only binary index log keeps per-entry
+ * digests, sizes, access timestamps, compute times, and the modification times
+ * of all input files the trace was read from. Entries are invalidated on lookup if any input
+ * changed, and the store is kept below its size limit by evicting the least
+ * recently used entries.
+ *
+ * The store is only probed on in-memory cache misses and only populated with
+ * entries whose lineage trace is fully reproducible, i.e., all leaves are
+ * file reads or scalar literals.
+ */
+public class LineageCacheStore
+{
+	private static final Log LOG = LogFactory.getLog(LineageCacheStore.class.getName());
+
+	private static final String INDEX_FILE = "lineage.idx";
+	private static final int INDEX_VERSION = 2;
+	private static final String NONE = "none";
+	private static final byte[] NO_DIGEST = new byte[0];
+	private static final int DIGEST_LENGTH = 32; //SHA-256
+
+	//index log records
+	private static final byte LOG_PUT = 1;
+	private static final byte LOG_ACCESS = 2;
+	private static final byte LOG_REMOVE = 3;
+
+	private static volatile String _confDir = null; //last opened config value
+	private static volatile String _dir = null;
+	private static long _limit = 0; //limit in bytes
+	private static long _size = 0;
+	private static long _logRecords = 0;
+	private static final Map<Long, StoreEntry> _index = new HashMap<>();
+	private static final Set<Long> _pending = new HashSet<>();
+
+	private static final ThreadLocal<MessageDigest> _sha = ThreadLocal.withInitial(() -> {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch(NoSuchAlgorithmException ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	});
+
+	private static class StoreEntry {
+		private final long _key;
+		private final byte[] _digest;
+		private final long _size;
+		private final long _computeTime;
+		private final String[] _inputs;
+		private final long[] _mtimes;
+		private long _lastAccess;
+
+		private StoreEntry(byte[] digest, long size, long computeTime, String[] inputs, long[] mtimes, long lastAccess) {
+			_key = toKey(digest);
+			_digest = digest;
+			_size = size;
+			_computeTime = computeTime;
+			_inputs = inputs;
+			_mtimes = mtimes;
+			_lastAccess = lastAccess;
+		}
+	}
+
+	//--------------- PUBLIC STORE API ----------------//
+
+	/**
+	 * Indicates if the persistent store is configured, i.e., if
+	 * sysds.lineage.cachestore points to a local directory.
+	 *
+	 * @return true if the persistent store is enabled
+	 */
+	public static boolean isEnabled() {
+		//note: unsynchronized check as probed for every reusable instruction,
+		//the store is only (re)opened on first use or changed configuration
+		DMLConfig conf = ConfigurationManager.getDMLConfig();
+		String dir = conf.getTextValue(DMLConfig.LINEAGECACHESTORE);
+		if( dir == null || dir.isEmpty() || dir.equalsIgnoreCase(NONE) )
+			return false;
+		if( !dir.equals(_confDir) ) {
+			synchronized( LineageCacheStore.class ) {
+				if( !dir.equals(_confDir) ) {
+					open(dir, (long) conf.getDoubleValue(DMLConfig.LINEAGECACHESTORE_SIZE) * 1024 * 1024);
+					_confDir = dir;
+				}
+			}
+		}
+		return _dir != null;
+	}
+
+	/**
+	 * Probes the persistent store for the given lineage item and returns the
+	 * stored matrix block if the entry exists, its lineage trace digest matches,
+	 * and all its inputs are unchanged. The block is read outside the critical
+	 * section of the store, and callers should not hold the lineage cache monitor.
+	 *
+	 * @param key lineage item
+	 * @return matrix block or null if not available
+	 */
+	public static MatrixBlock get(LineageItem key) {
+		StoreEntry e = getEntry(key);
+		if( e == null )
+			return null;
+
+		//validate input modification times
+		for( int i=0; i<e._inputs.length; i++ ) {
+			if( HDFSTool.getModificationTime(e._inputs[i]) != e._mtimes[i] ) {
+				if( LOG.isDebugEnabled() )
+					LOG.debug("Invalidated lineage store entry "+e._key+" due to modified input "+e._inputs[i]);
+				removeEntry(e);
+				return null;
+			}
+		}
+
+		long t0 = System.nanoTime();
+		MatrixBlock mb = null;
+		try {
+			mb = LocalFileUtils.readMatrixBlockFromLocal(getFileName(e._key));
+		}
+		catch(IOException ex) {
+			//robustness for externally deleted or corrupted files
+			LOG.warn("Failed to read lineage store entry "+e._key+", removing it.", ex);
+			removeEntry(e);
+			return null;
+		}
+		synchronized( LineageCacheStore.class ) {
+			//append access record (the index is only rewritten on compaction)
+			if( _index.get(e._key) == e ) {
+				e._lastAccess = System.currentTimeMillis();
+				appendLog(LOG_ACCESS, e);
+			}
+		}
+
+		if( DMLScript.STATISTICS ) {
+			LineageCacheStatistics.incrementStoreHits();
+			LineageCacheStatistics.incrementFSReadTime(System.nanoTime()-t0);
+		}
+		return mb;
+	}
+
+	/**
+	 * Returns the compute time of a stored entry, which is used to initialize
+	 * the in-memory cache entry on reuse from the persistent store.
+	 *
+	 * @param key lineage item
+	 * @return compute time in nanoseconds, or 0 if unknown
+	 */
+	public static long getComputeTime(LineageItem key) {
+		StoreEntry e = getEntry(key);
+		return (e != null) ? e._computeTime : 0;
+	}
+
+	/**
+	 * Writes the given matrix block to the persistent store if its lineage
+	 * trace is reproducible and its compute time justifies the I/O. Space is
+	 * reserved in a short critical section, while the block itself is written
+	 * outside of it.
+	 *
+	 * @param key         lineage item
+	 * @param mb          matrix block
+	 * @param computetime compute time in nanoseconds
+	 */
+	public static void put(LineageItem key, MatrixBlock mb, long computetime) {
+		if( mb == null || !isEnabled() )
+			return;
+		//only persist expensive intermediates (same threshold as spilling)
+		if( ((double)computetime)/1000000 < LineageCacheConfig.MIN_SPILL_TIME_ESTIMATE )
+			return;
+		byte[] digest = computeDigest(key);
+		if( digest == null )
+			return;
+		long hkey = toKey(digest);
+		List<String> inputs = getInputFiles(key);
+		if( inputs == null )
+			return; //non-reproducible trace
+		long size = mb.getExactSizeOnDisk();
+
+		//reserve space by evicting least recently used entries
+		synchronized( LineageCacheStore.class ) {
+			if( _dir == null || size > _limit || _index.containsKey(hkey) || !_pending.add(hkey) )
+				return;
+			makeSpace(size);
+			_size += size;
+		}
+
+		long t0 = System.nanoTime();
+		String fname = getFileName(hkey);
+		boolean success = true;
+		try {
+			LocalFileUtils.writeMatrixBlockToLocal(fname, mb);
+		}
+		catch(IOException ex) {
+			LOG.warn("Failed to write lineage store entry "+hkey+".", ex);
+			LocalFileUtils.deleteFileIfExists(fname, true);
+			success = false;
+		}
+		long[] mtimes = new long[inputs.size()];
+		for( int i=0; success && i<mtimes.length; i++ )
+			mtimes[i] = HDFSTool.getModificationTime(inputs.get(i));
+
+		synchronized( LineageCacheStore.class ) {
+			_pending.remove(hkey);
+			if( !success ) {
+				_size -= size;
+				//reopen on next probe (e.g., externally removed directory)
+				_confDir = null;
+				return;
+			}
+			StoreEntry e = new StoreEntry(digest, size, computetime,
+				inputs.toArray(new String[0]), mtimes, System.currentTimeMillis());
+			_index.put(hkey, e);
+			appendLog(LOG_PUT, e);
+		}
+
+		if( DMLScript.STATISTICS ) {
+			LineageCacheStatistics.incrementStoreWrites();
+			LineageCacheStatistics.incrementFSWriteTime(System.nanoTime()-t0);
+		}
+	}
+
+	/**
+	 * Removes all entries from the persistent store and resets its index.
+	 */
+	public static synchronized void clear() {
+		if( !isEnabled() )
+			return;
+		for( StoreEntry e : new ArrayList<>(_index.values()) )
+			removeEntry(e);
+		writeIndex();
+	}
+
+	public static synchronized long getSize() {
+		return _size;
+	}
+
+	public static synchronized int getNumEntries() {
+		return _index.size();
+	}
+
+	//--------------- INTERNAL STORE MAINTENANCE ----------------//
+
+	private static StoreEntry getEntry(LineageItem key) {
+		if( !isEnabled() )
+			return null;
+		byte[] digest = computeDigest(key);
+		if( digest == null )
+			return null;
+		StoreEntry e;
+		synchronized( LineageCacheStore.class ) {
+			e = _index.get(toKey(digest));
+		}
+		//verify the full trace digest to guard against 64-bit key collisions
+		if( e != null && !Arrays.equals(e._digest, digest) ) {
+			if( LOG.isDebugEnabled() )
+				LOG.debug("Lineage store key collision on entry "+e._key+".");
+			return null;
+		}
+		return e;
+	}
+
+	private static void open(String dir, long limit) {
+		_index.clear();
+		_size = 0;
+		_logRecords = 0;
+		_limit = limit;
+		if( !LocalFileUtils.createLocalFileIfNotExist(dir) ) {
+			LOG.warn("Failed to create lineage cache store directory "+dir+", store disabled.");
+			_dir = null;
+			return;
+		}
+		_dir = dir;
+		readIndex();
+		//shrink store if the limit was reduced since the last session
+		makeSpace(0);
+	}
+
+	private static void makeSpace(long spaceNeeded) {
+		if( _size + spaceNeeded <= _limit )
+			return;
+		List<StoreEntry> lru = new ArrayList<>(_index.values());
+		lru.sort(Comparator.comparingLong(e -> e._lastAccess));
+		for( int i=0; i<lru.size() && _size + spaceNeeded > _limit; i++ )
+			removeEntry(lru.get(i));
+	}
+
+	private static synchronized void removeEntry(StoreEntry e) {
+		if( _index.get(e._key) != e )
+			return; //already removed by another thread
+		_index.remove(e._key);
+		_size -= e._size;
+		LocalFileUtils.deleteFileIfExists(getFileName(e._key), true);
+		appendLog(LOG_REMOVE, e);
+		if( DMLScript.STATISTICS )
+			LineageCacheStatistics.incrementStoreDeletes();
+	}
+
+	private static String getFileName(long key) {
+		return _dir + "/" + Long.toHexString(key);
+	}
+
+	private static void readIndex() {
+		//the index is an append-only log of put, access, and remove records,
+		//which is replayed on open and compacted once dominated by stale records
+		File f = new File(_dir, INDEX_FILE);
+		if( !f.exists() ) {
+			writeIndex();
+			return;
+		}
+		try( DataInputStream in = new DataInputStream(
+			new BufferedInputStream(new FileInputStream(f))) )
+		{
+			boolean valid = (in.readInt() == INDEX_VERSION);
+			if( !valid )
+				LOG.warn("Unsupported lineage cache store index version, ignoring existing entries.");
+			while( valid ) {
+				int type = in.read();
+				if( type < 0 )
+					break; //end of log
+				try {
+					replayRecord((byte)type, in);
+				}
+				catch(EOFException ex) {
+					break; //truncated last record, e.g., killed process
+				}
+				_logRecords++;
+			}
+		}
+		catch(IOException ex) {
+			LOG.warn("Failed to read lineage cache store index, starting with an empty store.", ex);
+			_index.clear();
+			_size = 0;
+		}
+		//drop index entries without data file (e.g., manual cleanup)
+		for( StoreEntry e : new ArrayList<>(_index.values()) )
+			if( !new File(getFileName(e._key)).exists() ) {
+				_index.remove(e._key);
+				_size -= e._size;
+			}
+		writeIndex();
+	}
+
+	private static void replayRecord(byte type, DataInputStream in) throws IOException {
+		switch( type ) {
+			case LOG_PUT: {
+				byte[] digest = new byte[DIGEST_LENGTH];
+				in.readFully(digest);
+				long size = in.readLong();
+				long ctime = in.readLong();
+				long atime = in.readLong();
+				int nin = in.readInt();
+				String[] inputs = new String[nin];
+				long[] mtimes = new long[nin];
+				for( int j=0; j<nin; j++ ) {
+					inputs[j] = in.readUTF();
+					mtimes[j] = in.readLong();
+				}
+				StoreEntry e = new StoreEntry(digest, size, ctime, inputs, mtimes, atime);
+				StoreEntry old = _index.put(e._key, e);
+				_size += size - ((old != null) ? old._size : 0);
+				break;
+			}
+			case LOG_ACCESS: {
+				StoreEntry e = _index.get(in.readLong());
+				long atime = in.readLong();
+				if( e != null )
+					e._lastAccess = atime;
+				break;
+			}
+			case LOG_REMOVE: {
+				StoreEntry e = _index.remove(in.readLong());
+				if( e != null )
+					_size -= e._size;
+				break;
+			}
+			default:
+				throw new IOException("Invalid lineage cache store index record: "+type);
+		}
+	}
+
+	private static void appendLog(byte type, StoreEntry e) {
+		//compact the log if dominated by access and remove records
+		//(the in-memory index already reflects the given record)
+		if( _logRecords > 2L * _index.size() + 1024 ) {
+			writeIndex();
+			return;
+		}
+		try( DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+			new FileOutputStream(new File(_dir, INDEX_FILE), true))) )
+		{
+			writeRecord(out, type, e);
+			_logRecords++;
+		}
+		catch(IOException ex) {
+			LOG.warn("Failed to append to lineage cache store index.", ex);
+		}
+	}
+
+	private static void writeRecord(DataOutputStream out, byte type, StoreEntry e) throws IOException {
+		out.writeByte(type);
+		if( type == LOG_PUT ) {
+			out.write(e._digest);
+			out.writeLong(e._size);
+			out.writeLong(e._computeTime);
+			out.writeLong(e._lastAccess);
+			out.writeInt(e._inputs.length);
+			for( int j=0; j<e._inputs.length; j++ ) {
+				out.writeUTF(e._inputs[j]);
+				out.writeLong(e._mtimes[j]);
+			}
+		}
+		else {
+			out.writeLong(e._key);
+			if( type == LOG_ACCESS )
+				out.writeLong(e._lastAccess);
+		}
+	}
+
+	private static void writeIndex() {
+		//write compacted log to temporary file and rename to avoid
+		//corrupted indexes if the process is terminated during the write
+		File tmp = new File(_dir, INDEX_FILE+".tmp");
+		try( DataOutputStream out = new DataOutputStream(
+			new BufferedOutputStream(new FileOutputStream(tmp))) )
+		{
+			out.writeInt(INDEX_VERSION);
+			for( StoreEntry e : _index.values() )
+				writeRecord(out, LOG_PUT, e);
+		}
+		catch(IOException ex) {
+			LOG.warn("Failed to write lineage cache store index.", ex);
+			return;
+		}
+		File f = new File(_dir, INDEX_FILE);
+		if( !tmp.renameTo(f) ) {
+			f.delete();
+			tmp.renameTo(f);
+		}
+		_logRecords = _index.size();
+	}
+
+	//--------------- LINEAGE KEY COMPUTATION ----------------//
+
+	/**
+	 * Computes a session-independent 64-bit key over the lineage DAG, i.e.,
+	 * over opcodes, data, and the structure of inputs but not item IDs.
+	 *
+	 * @param root lineage item
+	 * @return key or null if the trace contains placeholders or dedup items
+	 */
+	protected static Long computeKey(LineageItem root) {
+		byte[] digest = computeDigest(root);
+		return (digest != null) ? toKey(digest) : null;
+	}
+
+	/**
+	 * Computes a session-independent SHA-256 digest over the lineage DAG in
+	 * a Merkle-tree manner, i.e., each item digests its opcode, data, and the
+	 * digests of its inputs. Digests are memoized at the lineage items, which
+	 * makes repeated probes of growing traces incremental.
+	 *
+	 * @param root lineage item
+	 * @return digest or null if the trace contains placeholders or dedup items
+	 */
+	protected static byte[] computeDigest(LineageItem root) {
+		byte[] ret = root.getStoreDigest();
+		if( ret != null )
+			return (ret != NO_DIGEST) ? ret : null;
+		MessageDigest md = _sha.get();
+		Deque<LineageItem> stack = new ArrayDeque<>();
+		stack.push(root);
+		while( !stack.isEmpty() ) {
+			LineageItem li = stack.peek();
+			if( li.getStoreDigest() != null ) {
+				stack.pop();
+				continue;
+			}
+			if( li.isPlaceholder() || li.getType() == LineageItem.LineageItemType.Dedup ) {
+				li.setStoreDigest(NO_DIGEST);
+				stack.pop();
+				continue;
+			}
+			boolean ready = true;
+			if( li.getInputs() != null )
+				for( LineageItem in : li.getInputs() )
+					if( in.getStoreDigest() == null ) {
+						stack.push(in);
+						ready = false;
+					}
+			if( !ready )
+				continue;
+			byte[] digest = NO_DIGEST;
+			if( !hasInvalidInput(li) ) {
+				update(md, li.getOpcode());
+				update(md, li.getData());
+				if( li.getInputs() != null )
+					for( LineageItem in : li.getInputs() )
+						md.update(in.getStoreDigest());
+				digest = md.digest();
+			}
+			li.setStoreDigest(digest);
+			stack.pop();
+		}
+		ret = root.getStoreDigest();
+		return (ret != NO_DIGEST) ? ret : null;
+	}
+
+	private static boolean hasInvalidInput(LineageItem li) {
+		if( li.getInputs() != null )
+			for( LineageItem in : li.getInputs() )
+				if( in.getStoreDigest() == NO_DIGEST )
+					return true;
+		return false;
+	}
+
+	private static void update(MessageDigest md, String s) {
+		md.update(s.getBytes(StandardCharsets.UTF_8));
+		md.update((byte) 0); //delimiter
+	}
+
+	private static long toKey(byte[] digest) {
+		long h = 0;
+		for( int i=0; i<8; i++ )
+			h = (h << 8) | (digest[i] & 0xFF);
+		return h;
+	}
+
+	/**
+	 * Collects the input files of all read leaves of the given lineage trace.
+	 *
+	 * @param root lineage item
+	 * @return sorted list of input files, or null if the trace depends on
+	 *         data that cannot be validated across sessions
+	 */
+	protected static List<String> getInputFiles(LineageItem root) {
+		Map<LineageItem, Boolean> visited = new IdentityHashMap<>();
+		TreeMap<String, Boolean> files = new TreeMap<>();
+		Deque<LineageItem> stack = new ArrayDeque<>();
+		stack.push(root);
+		while( !stack.isEmpty() ) {
+			LineageItem li = stack.pop();
+			if( visited.put(li, Boolean.TRUE) != null )
+				continue;
+			if( !li.isLeaf() ) {
+				for( LineageItem in : li.getInputs() )
+					stack.push(in);
+				continue;
+			}
+			if( li.getType() == LineageItem.LineageItemType.Literal ) {
+				//matrix/frame variables without trace (e.g., JMLC inputs) are not
+				//reproducible, scalar literals are part of the key
+				String[] parts = li.getData().split(Lop.VALUETYPE_PREFIX);
+				if( parts.length < 2 || !parts[1].equals(DataType.SCALAR.name())
+					|| parts[0].startsWith(Lop.SCALAR_VAR_NAME_PREFIX) )
+					return null;
+			}
+			else if( li.getOpcode().equals("createvar") || li.getOpcode().equals("read") ) {
+				String fname = getReadFileName(li);
+				if( fname == null || HDFSTool.getModificationTime(fname) < 0 )
+					return null;
+				files.put(fname, Boolean.TRUE);
+			}
+		}
+		return new ArrayList<>(files.keySet());
+	}
+
+	private static String getReadFileName(LineageItem li) {
+		//data: CP, createvar, pREADxxx, fname, ... (operand delimited)
+		String[] parts = li.getData().split(Lop.OPERAND_DELIMITOR);
+		for( int i=0; i<parts.length-2; i++ )
+			if( parts[i].equals(li.getOpcode()) )
+				return parts[i+2].split(Lop.VALUETYPE_PREFIX)[0];
+		return null;
+	}
+}
@@ -32,6 +32,9 @@ import org.apache.sysds.runtime.util.UtilFunctions;
 
 public class LineageItem {
 	private static IDSequence _idSeq = new IDSequence();
+	//version of all memoized store digests, incremented whenever the inputs of an item
+	//change (items keep no parent pointers, so this invalidates all dependent digests)
+	private static volatile long _digestEpoch = 0;
 	
 	private final long _id;
 	private final String _opcode;
@@ -40,6 +43,8 @@ public class LineageItem {
 	private long _height = 0; //distance leaf to node
 	private int _hash = 0;
 	private LineageItem _dedupPatch;
+	private volatile byte[] _storeDigest; //memoized persistent store key
+	private volatile long _storeDigestEpoch = -1;
 	private final BooleanArray32 _specialValueBits;  // TODO: Move this to a new subclass
 	// map from thread id to visited flag to allow concurrent checks through the lineage trace
 	
@@ -126,6 +131,8 @@ public class LineageItem {
 	public void setInput(int i, LineageItem item) {
 		_inputs[i] = item;
 		_hash = 0; //reset hash
+		_storeDigest = null;
+		_digestEpoch++; //invalidate digests of all dependent items
 	}
 	
 	public String getData() {
@@ -145,6 +152,16 @@ public class LineageItem {
 		_hash = hashCode();
 	}
 
+	protected byte[] getStoreDigest() {
+		byte[] ret = _storeDigest;
+		return (_storeDigestEpoch == _digestEpoch) ? ret : null;
+	}
+	
+	protected void setStoreDigest(byte[] digest) {
+		_storeDigest = digest;
+		_storeDigestEpoch = _digestEpoch;
+	}
+
 	public boolean isVisited() {
 		// default value (e.g., not set value) is true to ensure visited items are
 		// not hidden when used as inputs to new items
@@ -21,8 +21,10 @@ package org.apache.sysds.runtime.lineage;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -46,6 +48,7 @@ import org.apache.sysds.hops.ParameterizedBuiltinOp;
 import org.apache.sysds.hops.ReorgOp;
 import org.apache.sysds.hops.recompile.Recompiler;
 import org.apache.sysds.hops.rewrite.HopRewriteUtils;
+import org.apache.sysds.lops.MMTSJ.MMTSJType;
 import org.apache.sysds.parser.Statement;
 import org.apache.sysds.runtime.DMLRuntimeException;
 import org.apache.sysds.runtime.controlprogram.BasicProgramBlock;
@@ -57,7 +60,9 @@ import org.apache.sysds.runtime.instructions.Instruction;
 import org.apache.sysds.runtime.instructions.InstructionParser;
 import org.apache.sysds.runtime.instructions.InstructionUtils;
 import org.apache.sysds.runtime.instructions.cp.ComputationCPInstruction;
+import org.apache.sysds.runtime.instructions.cp.Data;
 import org.apache.sysds.runtime.instructions.cp.DataGenCPInstruction;
+import org.apache.sysds.runtime.instructions.cp.MMTSJCPInstruction;
 import org.apache.sysds.runtime.instructions.cp.ParameterizedBuiltinCPInstruction;
 import org.apache.sysds.runtime.instructions.cp.VariableCPInstruction;
 import org.apache.sysds.runtime.lineage.LineageCacheConfig.ReuseCacheType;
@@ -74,9 +79,67 @@ public class LineageRewriteReuse
 	private static ExecutionContext _lrEC = null;
 	private static boolean _disableReuse = true;
 	private static long _computeTime = 0;
+	private static Map<LineageItem, MatrixObject> _liveInputs = null;
+	private static Map<LineageItem, MatrixBlock> _liveBlocks = null;
 	private static final Log LOG = LogFactory.getLog(LineageRewriteReuse.class.getName());
 	
-	public static boolean executeRewrites (Instruction curr, ExecutionContext ec)
+	/**
+	 * Collects the live variables that hold inputs of row appends (rbind) in the
+	 * lineage of the given instruction, which the incremental rewrites use as
+	 * deltas if not available in the cache. This requires a single pass over
+	 * the live variables, and thus should be called before obtaining the monitor
+	 * of the lineage cache. The data of the live variables is only pinned once
+	 * a rewrite actually uses it.
+	 * 
+	 * @param curr instruction
+	 * @param ec execution context
+	 * @return map of lineage items to live matrix objects, or null if none
+	 */
+	public static Map<LineageItem, MatrixObject> getLiveAppendInputs(Instruction curr, ExecutionContext ec) {
+		if (!(curr instanceof ComputationCPInstruction) || !LineageCacheConfig.isReusable(curr, ec))
+			return null;
+		// candidates: rbind and its direct inputs, up to t(rbind(X, deltaX)) %*% rbind(Y, deltaY)
+		Set<LineageItem> candidates = new HashSet<>();
+		collectAppendInputs(((ComputationCPInstruction) curr).getLineageItem(ec).getValue(), 2, candidates);
+		if (candidates.isEmpty())
+			return null;
+		Map<LineageItem, MatrixObject> ret = new HashMap<>();
+		for (Map.Entry<String, LineageItem> trace : ec.getLineage().getLineageMap().getTraces().entrySet()) {
+			LineageItem li = trace.getValue();
+			if (ret.containsKey(li) || !candidates.contains(li)) //hash lookup
+				continue;
+			Data dat = ec.getVariable(trace.getKey());
+			if (dat instanceof MatrixObject)
+				ret.put(li, (MatrixObject)dat);
+		}
+		return ret.isEmpty() ? null : ret;
+	}
+	
+	private static void collectAppendInputs(LineageItem li, int depth, Set<LineageItem> candidates) {
+		if (li.getInputs() == null || depth < 0)
+			return;
+		if (li.getOpcode().equalsIgnoreCase(Opcodes.RBIND.toString()) && li.getInputs().length == 2) {
+			candidates.add(li);
+			candidates.add(li.getInputs()[0]);
+			candidates.add(li.getInputs()[1]);
+		}
+		for (LineageItem in : li.getInputs())
+			collectAppendInputs(in, depth-1, candidates);
+	}
+	
+	public static boolean executeRewrites (Instruction curr, ExecutionContext ec, Map<LineageItem, MatrixObject> liveInputs)
+	{
+		_liveInputs = liveInputs;
+		try {
+			return executeRewrites(curr, ec);
+		}
+		finally {
+			_liveInputs = null;
+			_liveBlocks = null;
+		}
+	}
+	
+	private static boolean executeRewrites (Instruction curr, ExecutionContext ec)
 	{
 		ExecutionContext lrwec = getExecutionContext();
 		ExplainType et = DMLScript.EXPLAIN;
@@ -109,6 +172,12 @@ public class LineageRewriteReuse
 		newInst = (newInst == null) ? rewriteAggregateCbind(curr, ec, lrwec) : newInst;
 		//A %*% B[,1:k] = (A %*% B)[,1:k];
 		newInst = (newInst == null) ? rewriteIndexingMatMul(curr, ec, lrwec) : newInst;
+		//colAgg(rbind(X, deltaX)) -> combine(colAgg(X), colAgg(deltaX)) for colSums, colMins, colMaxs
+		newInst = (newInst == null) ? rewriteColAggRbind(curr, ec, lrwec) : newInst;
+		//t(rbind(X, deltaX)) %*% rbind(Y, deltaY) -> t(X) %*% Y + t(deltaX) %*% deltaY
+		newInst = (newInst == null) ? rewriteTMatMulRbind(curr, ec, lrwec) : newInst;
+		//agg(X[rl:ru,]) -> agg(X[rl-1:ru-1,]) - agg(X[rl-1,]) + agg(X[ru,]) for growing and sliding windows
+		newInst = (newInst == null) ? rewriteAggRowSlice(curr, ec, lrwec) : newInst;
 		//PCA --> lmDS pipeline
 		newInst = (newInst == null) ? rewritePcaTsmm(curr, ec, lrwec) : newInst;
 		
@@ -754,6 +823,136 @@ public class LineageRewriteReuse
 		return inst;
 	}
 
+	private static ArrayList<Instruction> rewriteColAggRbind (Instruction curr, ExecutionContext ec, ExecutionContext lrwec)
+	{
+		// Check the applicability of this rewrite.
+		Map<String, MatrixBlock> inCache = new HashMap<>();
+		if (!isColAggRbind(curr, ec, inCache))
+			return null;
+		
+		// Create a transient read op over the last aggregate result
+		MatrixBlock cachedEntry = inCache.get("lastMatrix");
+		lrwec.setVariable("cachedEntry", toMatrixObject(cachedEntry));
+		DataOp lastRes = HopRewriteUtils.createTransientRead("cachedEntry", cachedEntry);
+		// Use deltaX from cache, or slice the appended rows
+		Hop deltaX = setupAppendedRows("X", inCache, lrwec);
+		// colAgg(rbind(X, deltaX)) = combine(colAgg(X), colAgg(deltaX))
+		AggOp aggOp = getDecomposableColAgg(curr.getOpcode());
+		AggUnaryOp deltaAgg = HopRewriteUtils.createAggUnaryOp(deltaX, aggOp, Direction.Col);
+		BinaryOp lrwHop = HopRewriteUtils.createBinary(lastRes, deltaAgg, getCombiner(aggOp));
+		DataOp lrwWrite = HopRewriteUtils.createTransientWrite(LR_VAR, lrwHop);
+
+		// generate runtime instructions
+		if (LOG.isDebugEnabled())
+			LOG.debug("LINEAGE REWRITE rewriteColAggRbind APPLIED");
+		ArrayList<Instruction> inst = genInst(lrwWrite, lrwec);
+		_disableReuse = true;
+
+		// cleanup buffer pool
+		addRmvarInstructions(inst, lrwec, "cachedEntry", "deltaX", "fullX");
+		
+		if (DMLScript.STATISTICS)
+			LineageCacheStatistics.incrementPRewrites();
+		return inst;
+	}
+
+	private static ArrayList<Instruction> rewriteTMatMulRbind (Instruction curr, ExecutionContext ec, ExecutionContext lrwec)
+	{
+		// Check the applicability of this rewrite.
+		Map<String, MatrixBlock> inCache = new HashMap<>();
+		if (!isTMatMulRbind(curr, ec, inCache))
+			return null;
+		
+		// Create a transient read op over the last ba+* result
+		MatrixBlock cachedEntry = inCache.get("lastMatrix");
+		lrwec.setVariable("cachedEntry", toMatrixObject(cachedEntry));
+		DataOp lastRes = HopRewriteUtils.createTransientRead("cachedEntry", cachedEntry);
+		// Use deltaX and deltaY from cache, or slice the appended rows
+		Hop deltaX = setupAppendedRows("X", inCache, lrwec);
+		Hop deltaY = setupAppendedRows("Y", inCache, lrwec);
+		// t(rbind(X, deltaX)) %*% rbind(Y, deltaY) = t(X) %*% Y + t(deltaX) %*% deltaY
+		ReorgOp tdeltaX = HopRewriteUtils.createTranspose(deltaX);
+		AggBinaryOp deltaRes = HopRewriteUtils.createMatrixMultiply(tdeltaX, deltaY);
+		BinaryOp lrwHop = HopRewriteUtils.createBinary(lastRes, deltaRes, OpOp2.PLUS);
+		DataOp lrwWrite = HopRewriteUtils.createTransientWrite(LR_VAR, lrwHop);
+
+		// generate runtime instructions
+		if (LOG.isDebugEnabled())
+			LOG.debug("LINEAGE REWRITE rewriteTMatMulRbind APPLIED");
+		ArrayList<Instruction> inst = genInst(lrwWrite, lrwec);
+		_disableReuse = true;
+
+		// cleanup buffer pool
+		addRmvarInstructions(inst, lrwec, "cachedEntry", "deltaX", "fullX", "deltaY", "fullY");
+		
+		if (DMLScript.STATISTICS)
+			LineageCacheStatistics.incrementPRewrites();
+		return inst;
+	}
+
+	private static ArrayList<Instruction> rewriteAggRowSlice (Instruction curr, ExecutionContext ec, ExecutionContext lrwec)
+	{
+		/* This rewrite handles growing (X[rl:ru,] after X[rl:ru-1,]) and sliding
+		 * (X[rl:ru,] after X[rl-1:ru-1,]) row windows over a base matrix. The 
+		 * newly added row is the last row of the current slice, the evicted
+		 * row (sliding windows only) the first row of the previous slice.
+		 */
+		// Check the applicability of this rewrite.
+		Map<String, MatrixBlock> inCache = new HashMap<>();
+		if (!isAggRowSlice(curr, ec, inCache))
+			return null;
+		
+		// Create a transient read op over the last aggregate result
+		MatrixBlock cachedEntry = inCache.get("lastMatrix");
+		lrwec.setVariable("cachedEntry", toMatrixObject(cachedEntry));
+		DataOp lastRes = HopRewriteUtils.createTransientRead("cachedEntry", cachedEntry);
+		// Create a transient read op over the current slice
+		MatrixObject mo = ec.getMatrixObject(((ComputationCPInstruction)curr).input1);
+		lrwec.setVariable("newMatrix", mo);
+		DataOp newMatrix = HopRewriteUtils.createTransientRead("newMatrix", mo);
+		Hop newRow = HopRewriteUtils.createIndexingOp(newMatrix, mo.getNumRows(), mo.getNumRows(), 1, mo.getNumColumns());
+		Hop oldRow = null;
+		if (inCache.containsKey("prevSlice")) {
+			DataOp prevSlice = setupTReadCachedInput("prevSlice", inCache, lrwec);
+			oldRow = HopRewriteUtils.createIndexingOp(prevSlice, 1, 1, 1, mo.getNumColumns());
+		}
+		
+		Hop lrwHop;
+		if (curr.getOpcode().equalsIgnoreCase(Opcodes.TSMM.toString())) {
+			// tsmm(X[rl:ru,]) = tsmm(X[rl-1:ru-1,]) - tsmm(oldRow) + tsmm(newRow)
+			ReorgOp tnewRow = HopRewriteUtils.createTranspose(newRow);
+			lrwHop = HopRewriteUtils.createBinary(lastRes, 
+				HopRewriteUtils.createMatrixMultiply(tnewRow, newRow), OpOp2.PLUS);
+			if (oldRow != null) {
+				ReorgOp toldRow = HopRewriteUtils.createTranspose(oldRow);
+				lrwHop = HopRewriteUtils.createBinary(lrwHop, 
+					HopRewriteUtils.createMatrixMultiply(toldRow, oldRow), OpOp2.MINUS);
+			}
+		}
+		else {
+			// colAgg(X[rl:ru,]) = combine(colAgg(X[rl:ru-1,]), newRow)
+			// colSums(X[rl:ru,]) = colSums(X[rl-1:ru-1,]) - oldRow + newRow
+			AggOp aggOp = getDecomposableColAgg(curr.getOpcode());
+			lrwHop = HopRewriteUtils.createBinary(lastRes, newRow, getCombiner(aggOp));
+			if (oldRow != null)
+				lrwHop = HopRewriteUtils.createBinary(lrwHop, oldRow, OpOp2.MINUS);
+		}
+		DataOp lrwWrite = HopRewriteUtils.createTransientWrite(LR_VAR, lrwHop);
+
+		// generate runtime instructions
+		if (LOG.isDebugEnabled())
+			LOG.debug("LINEAGE REWRITE rewriteAggRowSlice APPLIED");
+		ArrayList<Instruction> inst = genInst(lrwWrite, lrwec);
+		_disableReuse = true;
+
+		// cleanup buffer pool
+		addRmvarInstructions(inst, lrwec, "cachedEntry", "prevSlice");
+		
+		if (DMLScript.STATISTICS)
+			LineageCacheStatistics.incrementPRewrites();
+		return inst;
+	}
+
 	private static ArrayList<Instruction> rewritePcaTsmm(Instruction curr, ExecutionContext ec, ExecutionContext lrwec)
 	{
 		Map<String, MatrixBlock> inCache = new HashMap<>();
@@ -1147,6 +1346,120 @@ public class LineageRewriteReuse
 		return inCache.containsKey("lastMatrix") ? true : false;
 	}
 	
+	private static boolean isColAggRbind(Instruction curr, ExecutionContext ec, Map<String, MatrixBlock> inCache)
+	{
+		if (!LineageCacheConfig.isReusable(curr, ec) || getDecomposableColAgg(curr.getOpcode()) == null)
+			return false;
+
+		// If the input to the column aggregate came from rbind, look for the last result in cache.
+		LineageItem item = ((ComputationCPInstruction) curr).getLineageItem(ec).getValue();
+		LineageItem source = item.getInputs()[0];
+		if (source.getOpcode().equalsIgnoreCase(Opcodes.RBIND.toString()) && source.getInputs().length == 2) {
+			// create aggregate lineage on top of the input of last append
+			LineageItem tmp = new LineageItem(curr.getOpcode(), new LineageItem[] {source.getInputs()[0]});
+			if (LineageCache.probe(tmp) && isAppendedRows(source)) {
+				putAppendedRows(source, "X", ec, inCache);
+				inCache.put("lastMatrix", LineageCache.getMatrix(tmp));
+				_computeTime = LineageCache.getEntry(tmp)._computeTime;
+			}
+		}
+		// return true only if the last aggregate is found
+		return inCache.containsKey("lastMatrix");
+	}
+
+	private static boolean isTMatMulRbind(Instruction curr, ExecutionContext ec, Map<String, MatrixBlock> inCache)
+	{
+		if (!LineageCacheConfig.isReusable(curr, ec))
+			return false;
+
+		// If the inputs to ba+* are t(rbind(X, deltaX)) and rbind(Y, deltaY), look for t(X) %*% Y in cache.
+		LineageItem item = ((ComputationCPInstruction) curr).getLineageItem(ec).getValue();
+		if (curr.getOpcode().equalsIgnoreCase(Opcodes.MMULT.toString())) {
+			LineageItem left = item.getInputs()[0];
+			LineageItem right = item.getInputs()[1];
+			if (!left.getOpcode().equalsIgnoreCase(Opcodes.TRANSPOSE.toString()))
+				return false;
+			LineageItem leftSource = left.getInputs()[0];
+			if (leftSource.getOpcode().equalsIgnoreCase(Opcodes.RBIND.toString()) && leftSource.getInputs().length == 2
+				&& right.getOpcode().equalsIgnoreCase(Opcodes.RBIND.toString()) && right.getInputs().length == 2) {
+				// create ba+* lineage on top of the inputs of the last appends
+				LineageItem tleft = new LineageItem(left.getOpcode(), new LineageItem[] {leftSource.getInputs()[0]});
+				LineageItem tmp = new LineageItem(curr.getOpcode(), new LineageItem[] {tleft, right.getInputs()[0]});
+				if (LineageCache.probe(tmp) && isAppendedRows(leftSource) && isAppendedRows(right)) {
+					putAppendedRows(leftSource, "X", ec, inCache);
+					putAppendedRows(right, "Y", ec, inCache);
+					inCache.put("lastMatrix", LineageCache.getMatrix(tmp));
+					_computeTime = LineageCache.getEntry(tmp)._computeTime;
+				}
+			}
+		}
+		// return true only if the last ba+* is found
+		return inCache.containsKey("lastMatrix");
+	}
+
+	private static boolean isAggRowSlice(Instruction curr, ExecutionContext ec, Map<String, MatrixBlock> inCache)
+	{
+		if (!LineageCacheConfig.isReusable(curr, ec))
+			return false;
+		boolean tsmm = curr instanceof MMTSJCPInstruction 
+			&& ((MMTSJCPInstruction)curr).getMMTSJType() == MMTSJType.LEFT;
+		AggOp aggOp = getDecomposableColAgg(curr.getOpcode());
+		if (!tsmm && aggOp == null)
+			return false;
+
+		// If the input came from a row range of a base matrix, look for the result 
+		// over the previous range in cache.
+		LineageItem item = ((ComputationCPInstruction) curr).getLineageItem(ec).getValue();
+		LineageItem source = item.getInputs()[0];
+		if (!source.getOpcode().equalsIgnoreCase("rightIndex") || source.getInputs().length != 5)
+			return false;
+		LineageItem[] ix = source.getInputs();
+		LineageItem old_ru = reduceByOne(ix[2]);
+		if (old_ru == null)
+			return false;
+		
+		// growing window: X[rl:ru-1,] -> X[rl:ru,]
+		LineageItem prevSlice = new LineageItem(source.getOpcode(), new LineageItem[] {ix[0], ix[1], old_ru, ix[3], ix[4]});
+		LineageItem tmp = new LineageItem(curr.getOpcode(), new LineageItem[] {prevSlice});
+		if (LineageCache.probe(tmp)) {
+			inCache.put("lastMatrix", LineageCache.getMatrix(tmp));
+			_computeTime = LineageCache.getEntry(tmp)._computeTime;
+			return true;
+		}
+		
+		// sliding window: X[rl-1:ru-1,] -> X[rl:ru,], requires an invertible 
+		// aggregate and the previous slice to obtain the evicted row
+		LineageItem old_rl = reduceByOne(ix[1]);
+		if (old_rl == null || !(tsmm || aggOp == AggOp.SUM))
+			return false;
+		prevSlice = new LineageItem(source.getOpcode(), new LineageItem[] {ix[0], old_rl, old_ru, ix[3], ix[4]});
+		tmp = new LineageItem(curr.getOpcode(), new LineageItem[] {prevSlice});
+		if (LineageCache.probe(tmp) && isCachedOrLive(prevSlice)) {
+			inCache.put("prevSlice", getCachedOrLiveMatrix(prevSlice, ec));
+			inCache.put("lastMatrix", LineageCache.getMatrix(tmp));
+			_computeTime = LineageCache.getEntry(tmp)._computeTime;
+		}
+		// return true only if the last aggregate is found
+		return inCache.containsKey("lastMatrix");
+	}
+
+	private static boolean isAppendedRows(LineageItem rbind) {
+		// look for the appended rows in cache or in the live variables, or otherwise
+		// for the old and full matrix to slice the appended rows (w/o pinning)
+		return isCachedOrLive(rbind.getInputs()[1])
+			|| (isCachedOrLive(rbind.getInputs()[0]) && isCachedOrLive(rbind));
+	}
+
+	private static void putAppendedRows(LineageItem rbind, String name, ExecutionContext ec, Map<String, MatrixBlock> inCache) {
+		MatrixBlock delta = getCachedOrLiveMatrix(rbind.getInputs()[1], ec);
+		if (delta != null)
+			inCache.put("delta"+name, delta);
+		else {
+			inCache.put("old"+name, getCachedOrLiveMatrix(rbind.getInputs()[0], ec));
+			inCache.put("full"+name, getCachedOrLiveMatrix(rbind, ec));
+		}
+	}
+
 	private static boolean isIndexingMatMul(Instruction curr, ExecutionContext ec, Map<String, MatrixBlock> inCache) {
 		if (!LineageCacheConfig.isReusable(curr, ec)) {
 			return false;
@@ -1274,6 +1587,99 @@ public class LineageRewriteReuse
 		inst.add(VariableCPInstruction.prepareRemoveInstruction(tmp.toArray(new String[0])));
 	}
 	
+	private static Hop setupAppendedRows(String name, Map<String, MatrixBlock> inCache, ExecutionContext ec) {
+		if (inCache.containsKey("delta"+name))
+			return setupTReadCachedInput("delta"+name, inCache, ec);
+		MatrixBlock full = inCache.get("full"+name);
+		DataOp fullMatrix = setupTReadCachedInput("full"+name, inCache, ec);
+		return HopRewriteUtils.createIndexingOp(fullMatrix, inCache.get("old"+name).getNumRows()+1,
+			full.getNumRows(), 1, full.getNumColumns());
+	}
+
+	private static boolean isCachedOrLive(LineageItem li) {
+		return getCachedMatrixEntry(li) != null
+			|| (_liveInputs != null && _liveInputs.containsKey(li));
+	}
+
+	private static LineageCacheEntry getCachedMatrixEntry(LineageItem li) {
+		// look for the intermediate in cache (w/o waiting for placeholders)
+		if (LineageCache.probe(li)) {
+			LineageCacheEntry e = LineageCache.getEntry(li);
+			if (e != null && !e.isNullVal() && e.isMatrixValue() && !e.isGPUObject())
+				return e;
+		}
+		return null;
+	}
+
+	private static MatrixBlock getCachedOrLiveMatrix(LineageItem li, ExecutionContext ec) {
+		LineageCacheEntry e = getCachedMatrixEntry(li);
+		if (e != null)
+			return e.getMBValue();
+		// look for a live variable with the same lineage (collected before the monitor),
+		// and pin its data only on a hit (at most once per probe)
+		MatrixObject mo = (_liveInputs != null) ? _liveInputs.get(li) : null;
+		if (mo == null)
+			return null;
+		if (_liveBlocks == null)
+			_liveBlocks = new HashMap<>();
+		MatrixBlock mb = _liveBlocks.get(li);
+		if (mb == null) {
+			mb = mo.acquireRead();
+			mo.release();
+			_liveBlocks.put(li, mb);
+		}
+		return mb;
+	}
+
+	private static AggOp getDecomposableColAgg(String opcode) {
+		if (opcode.equalsIgnoreCase(Opcodes.UACKP.toString()))
+			return AggOp.SUM;
+		else if (opcode.equalsIgnoreCase(Opcodes.UACMIN.toString()))
+			return AggOp.MIN;
+		else if (opcode.equalsIgnoreCase(Opcodes.UACMAX.toString()))
+			return AggOp.MAX;
+		return null;
+	}
+
+	private static OpOp2 getCombiner(AggOp aggOp) {
+		switch (aggOp) {
+			case SUM: return OpOp2.PLUS;
+			case MIN: return OpOp2.MIN;
+			case MAX: return OpOp2.MAX;
+			default:
+				throw new DMLRuntimeException("Unsupported aggregate for incremental reuse: " + aggOp);
+		}
+	}
+
+	private static LineageItem reduceByOne(LineageItem li) {
+		// literal index (e.g., loop variable)
+		if (li.getType() == LineageItemType.Literal) {
+			String[] parts = li.getData().split(Instruction.VALUETYPE_PREFIX);
+			try {
+				double val = Double.parseDouble(parts[0]) - 1;
+				parts[0] = parts[0].contains(".") ? String.valueOf(val) : String.valueOf((long)val);
+			}
+			catch (NumberFormatException ex) {
+				return null;
+			}
+			return new LineageItem(InstructionUtils.concatOperandParts(parts));
+		}
+		// scalar index expression over a literal (e.g., i+w-1)
+		if (li.getType() == LineageItemType.Instruction && li.getInputs().length == 2) {
+			LineageItem[] inputs = li.getInputs();
+			boolean plus = li.getOpcode().equals(Opcodes.PLUS.toString());
+			if (!plus && !li.getOpcode().equals(Opcodes.MINUS.toString()))
+				return null;
+			LineageItem in1 = reduceByOne(inputs[0]);
+			if (in1 != null)
+				return new LineageItem(li.getData(), li.getOpcode(), new LineageItem[] {in1, inputs[1]});
+			LineageItem in2 = plus ? reduceByOne(inputs[1]) : null;
+			if (in2 != null)
+				return new LineageItem(li.getData(), li.getOpcode(), new LineageItem[] {inputs[0], in2});
+		}
+		return null;
+	}
+
 	private static LineageItem reduceColByOne(LineageItem cu) {
 		String old_data = null;
 		try {
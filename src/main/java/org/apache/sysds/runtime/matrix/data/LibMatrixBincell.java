@@ -1438,12 +1438,13 @@ public class LibMatrixBincell {
 				SparseBlock b = m2.sparseBlock;
 				SparseBlock c = ret.sparseBlock;
 				if( b.isEmpty(0) ) return 0; 
-				int blen = b.size(0); //always pos 0
+				int bpos = b.pos(0);
+				int blen = b.size(0);
 				int[] bix = b.indexes(0);
 				double[] bvals = b.values(0);
 				for( int i=rl; i<ru; i++ ) {
 					c.allocate(i, blen);
-					for( int j=0; j<blen; j++ )
+					for( int j=bpos; j<bpos+blen; j++ )
 						c.append(i, bix[j], m1.get(i, bix[j]) * bvals[j]);
 				}
 				ret.setNonZeros(c.size());
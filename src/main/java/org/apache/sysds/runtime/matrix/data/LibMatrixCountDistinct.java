@@ -152,13 +152,13 @@ public interface LibMatrixCountDistinct {
 				if(blkIn.getSparseBlock().isContiguous()) {
 					// COO, CSR
 					data = sb.values(0);
-					distinctCount = countDistinctValuesNaive(data, distinct);
+					distinctCount = countDistinctValuesNaive(data, sb.pos(0), (int) sb.size(), distinct);
 				} else {
 					// MCSR
 					for(int i = 0; i < blkIn.getNumRows(); i++) {
 						if(!sb.isEmpty(i)) {
 							data = blkIn.getSparseBlock().values(i);
-							distinctCount = countDistinctValuesNaive(data, distinct);
+							distinctCount = countDistinctValuesNaive(data, sb.pos(i), sb.size(i), distinct);
 						}
 					}
 				}
@@ -353,8 +353,12 @@ public interface LibMatrixCountDistinct {
 	}
 
 	private static long countDistinctValuesNaive(double[] valuesPart, Set<Double> distinct) {
-		for(double v : valuesPart)
-			distinct.add(v);
+		return countDistinctValuesNaive(valuesPart, 0, valuesPart.length, distinct);
+	}
+
+	private static long countDistinctValuesNaive(double[] valuesPart, int pos, int len, Set<Double> distinct) {
+		for(int i = pos; i < pos + len; i++)
+			distinct.add(valuesPart[i]);
 
 		return distinct.size();
 	}
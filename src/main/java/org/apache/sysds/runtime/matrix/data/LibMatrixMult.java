@@ -1497,12 +1497,13 @@ public class LibMatrixMult
 			return;
 		
 		//parallelization over rows in rhs matrix
-		int alen = a.size(0);
+		int apos = a.pos(0);
+		int alen = apos + a.size(0);
 		int[] aix = a.indexes(0);
 		double[] avals = a.values(0);
 		double[] cvals = c.valuesAt(0);
 		int rlix = (rl==0) ? 0 : a.posFIndexGTE(0,rl);
-		rlix = (rlix>=0) ? rlix : alen;
+		rlix = (rlix>=0) ? apos + rlix : alen;
 		
 		if( b.isContiguous() ) {
 			double[] bvals = b.valuesAt(0);
@@ -1652,12 +1653,13 @@ public class LibMatrixMult
 		if( a.isEmpty(0) )
 			return;
 		
-		int alen = a.size(0);
+		int apos = a.pos(0);
+		int alen = apos + a.size(0);
 		int[] aix = a.indexes(0);
 		double[] avals = a.values(0);
 		double[] cvals = c.valuesAt(0);
 		int rlix = (rl==0) ? 0 : a.posFIndexGTE(0,rl);
-		rlix = (rlix>=0) ? rlix : alen;
+		rlix = (rlix>=0) ? apos + rlix : alen;
 		
 		for( int k=rlix; k<alen && aix[k]<ru; k++ )
 			if( !b.isEmpty(aix[k]) ) {
@@ -2498,9 +2500,10 @@ public class LibMatrixMult
 			if( m==1 ) //VECTOR 
 			{
 				if( !m1.sparseBlock.isEmpty(0) ) {
-					int alen = m1.sparseBlock.size(0); //pos always 0
+					int apos = a.pos(0);
+					int alen = a.size(0);
 					double[] avals = a.values(0);
-					c.set(0, 0, dotProduct(avals, avals, alen));
+					c.set(0, 0, dotProduct(avals, avals, apos, apos, alen));
 				}
 			}
 			else //MATRIX
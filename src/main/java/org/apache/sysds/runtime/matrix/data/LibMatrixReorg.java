@@ -1786,11 +1786,12 @@ public class LibMatrixReorg {
 		if( m==1 ) //ROW VECTOR TRANSPOSE
 		{
 			//NOTE: called only in sequential execution
-			int alen = a.size(0); //always pos 0
+			int apos = a.pos(0);
+			int alen = a.size(0);
 			int[] aix = a.indexes(0);
 			double[] avals = a.values(0);
 			double[] cvals = c.valuesAt(0);
-			for( int j=0; j<alen; j++ )
+			for( int j=apos; j<apos+alen; j++ )
 				cvals[aix[j]] = avals[j];
 		}
 		else //MATRIX TRANSPOSE
@@ -2841,10 +2842,11 @@ public class LibMatrixReorg {
 			{
 				//note: cache-friendly on a but not c; append-only
 				if( !a.isEmpty(0) ){
-					int alen = a.size(0); //always pos 0
+					int apos = a.pos(0);
+					int alen = a.size(0);
 					int[] aix = a.indexes(0);
 					double[] avals = a.values(0);
-					for( int j=0; j<alen; j++ ) {
+					for( int j=apos; j<apos+alen; j++ ) {
 						int ci = aix[j]%rows;
 						int cj = aix[j]/rows;
 						c.allocate(ci, estnnz, cols);
@@ -3041,8 +3043,9 @@ public class LibMatrixReorg {
 			}
 			rptr[ci + 1] = pos;
 		}
-		// shallow copy of CSR values
-		values = ((SparseBlockCSR) a).values();
+		// shallow copy of CSR values (if the values start at position 0)
+		values = (a.pos(0) == 0) ? ((SparseBlockCSR) a).values() :
+			Arrays.copyOfRange(((SparseBlockCSR) a).values(), a.pos(0), a.pos(0) + pos);
 
 		// create CSR block from constructed or shallow-copy arrays
 		out.sparseBlock = new SparseBlockCSR(rptr, indexes, values, pos);
@@ -3446,7 +3449,7 @@ public class LibMatrixReorg {
 		if( SHALLOW_COPY_REORG && SPARSE_OUTPUTS_IN_CSR
 			&& in.sparse && !in.isEmptyBlock(false)
 			&& select==null && in.sparseBlock instanceof SparseBlockCSR
-			&& in.nonZeros < Integer.MAX_VALUE )
+			&& in.sparseBlock.pos(0) == 0 && in.nonZeros < Integer.MAX_VALUE )
 		{
 			//create the output in csr format with a shallow copy of arrays for column 
 			//indexes and values (heuristic: shallow copy better than copy to dense)
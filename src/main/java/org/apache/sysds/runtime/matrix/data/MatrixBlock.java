@@ -4196,6 +4196,45 @@ public class MatrixBlock extends MatrixValue implements CacheBlock<MatrixBlock>,
 		return result;
 	}
 
+	/**
+	 * Slice a contiguous range of rows as a read-only view that shares the data of this block where possible. Sparse
+	 * MCSR blocks share the row objects. Sparse CSR and dense single-block inputs share their arrays if the range
+	 * starts at row 0; since kernels access these arrays from offset 0, other ranges are extracted with a single bulk
+	 * copy of the contiguous rows (and rebased row pointers for CSR). The returned block must not be modified.
+	 * 
+	 * @param rl row lower index (inclusive, 0-based)
+	 * @param ru row upper index (inclusive, 0-based)
+	 * @return row range view or sliced copy
+	 */
+	public MatrixBlock sliceRowsView(int rl, int ru) {
+		validateSliceArgument(rl, ru, 0, clen - 1);
+		if(rl == 0 && ru == rlen - 1)
+			return this;
+		final int nrow = ru - rl + 1;
+		if(sparse && sparseBlock instanceof SparseBlockMCSR) {
+			SparseRow[] rows = ((SparseBlockMCSR) sparseBlock).getRows();
+			MatrixBlock ret = new MatrixBlock(nrow, clen, true);
+			ret.sparseBlock = new SparseBlockMCSR(Arrays.copyOfRange(rows, rl, ru + 1), false);
+			ret.nonZeros = ret.sparseBlock.size();
+			return ret;
+		}
+		else if(sparse && sparseBlock instanceof SparseBlockCSR) {
+			MatrixBlock ret = new MatrixBlock(nrow, clen, true);
+			ret.sparseBlock = new SparseBlockCSR((SparseBlockCSR) sparseBlock, rl, ru + 1);
+			ret.nonZeros = ret.sparseBlock.size();
+			return ret;
+		}
+		else if(!sparse && denseBlock instanceof DenseBlockFP64 && denseBlock.numBlocks() == 1) {
+			final double[] vals = denseBlock.valuesAt(0);
+			MatrixBlock ret = new MatrixBlock(nrow, clen, false);
+			ret.denseBlock = DenseBlockFactory.createDenseBlock(rl == 0 ? vals :
+				Arrays.copyOfRange(vals, rl * clen, (ru + 1) * clen), nrow, clen);
+			ret.nonZeros = (nonZeros == getLength()) ? (long) nrow * clen : ret.recomputeNonZeros();
+			return ret;
+		}
+		return slice(rl, ru);
+	}
+
 	protected void validateSliceArgument(int rl, int ru, int cl, int cu){
 		// check the validity of bounds
 		if ( rl < 0 || rl >= getNumRows() || ru < rl || ru >= getNumRows()
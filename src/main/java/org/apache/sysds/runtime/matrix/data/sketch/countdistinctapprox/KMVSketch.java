@@ -154,15 +154,17 @@ public class KMVSketch extends CountDistinctSketch {
 			throw new NotImplementedException("Cannot approximate distinct count for compressed matrices");
 		else if(in.getSparseBlock() != null) {
 			SparseBlock sb = in.getSparseBlock();
+			if(sb.size() < (long) in.getNumRows() * in.getNumColumns())
+				countDistinctValuesKMV(new double[] {0}, hashType, k, spq, m); // zeros not stored
 			if(sb.isContiguous()) {
 				data = sb.values(0);
-				countDistinctValuesKMV(data, hashType, k, spq, m);
+				countDistinctValuesKMV(data, sb.pos(0), (int) sb.size(), hashType, spq, m);
 			}
 			else {
 				for(int i = 0; i < in.getNumRows(); i++) {
 					if(!sb.isEmpty(i)) {
 						data = sb.values(i);
-						countDistinctValuesKMV(data, hashType, k, spq, m);
+						countDistinctValuesKMV(data, sb.pos(i), sb.size(i), hashType, spq, m);
 					}
 				}
 			}
@@ -179,8 +181,13 @@ public class KMVSketch extends CountDistinctSketch {
 	}
 
 	private void countDistinctValuesKMV(double[] data, Hash.HashType hashType, int k, SmallestPriorityQueue spq, int m) {
-		for(double fullValue : data) {
-			int hash = Hash.hash(fullValue, hashType);
+		countDistinctValuesKMV(data, 0, data.length, hashType, spq, m);
+	}
+
+	private void countDistinctValuesKMV(double[] data, int pos, int len, Hash.HashType hashType,
+		SmallestPriorityQueue spq, int m) {
+		for(int i = pos; i < pos + len; i++) {
+			int hash = Hash.hash(data[i], hashType);
 			int v = (Math.abs(hash)) % (m - 1) + 1;
 			spq.add(v);
 		}
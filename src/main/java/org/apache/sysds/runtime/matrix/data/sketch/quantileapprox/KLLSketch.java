@@ -0,0 +1,304 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.matrix.data.sketch.quantileapprox;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.sysds.runtime.DMLRuntimeException;
+
+/**
+ * KLL quantile sketch, a mergeable summary of a stream of doubles that answers rank and quantile queries with a
+ * bounded normalized rank error, independent of the stream length.
+ *
+ * Zohar S. Karnin, Kevin J. Lang, Edo Liberty: Optimal Quantile Approximation in Streams. FOCS 2016
+ *
+ * The sketch holds a hierarchy of compactors, where items at level h carry a weight of 2^h. Once the sketch exceeds its
+ * capacity, the lowest full level is sorted and every other item (random offset) is promoted to the next level. Sketches
+ * built over disjoint partitions (e.g., row blocks) can be merged into a sketch over the union.
+ */
+public class KLLSketch {
+	/** Minimum capacity of any level */
+	private static final int MIN_K = 8;
+	/** Capacity decay factor towards lower levels */
+	private static final double C = 2.0 / 3.0;
+
+	private final int _k;
+	private final Random _rand;
+
+	/** Items per level, only the first _sizes[h] items of a level are valid */
+	private double[][] _levels;
+	private int[] _sizes;
+	private int _numLevels;
+	/** Capacities per level and in total, dependent on the number of levels */
+	private int[] _caps;
+	private int _totalCap;
+
+	private long _n = 0;
+	private double _min = Double.POSITIVE_INFINITY;
+	private double _max = Double.NEGATIVE_INFINITY;
+
+	/**
+	 * Creates an empty sketch with capacity parameter k, where the normalized rank error is approximately
+	 * 2.3/k^0.97 (e.g., 1.3% for k=200).
+	 * 
+	 * @param k    capacity of the top level
+	 * @param seed seed for the random offsets of the compactions
+	 */
+	public KLLSketch(int k, long seed) {
+		if(k < MIN_K)
+			throw new DMLRuntimeException("Invalid KLL sketch parameter k=" + k + ", must be >= " + MIN_K);
+		_k = k;
+		_rand = new Random(seed);
+		_levels = new double[][] {new double[k]};
+		_sizes = new int[1];
+		_numLevels = 1;
+		updateCapacities();
+	}
+
+	/**
+	 * Creates an empty sketch with the smallest k that satisfies the given normalized rank error.
+	 * 
+	 * @param eps  maximum normalized rank error in (0, 1)
+	 * @param seed seed for the random offsets of the compactions
+	 * @return empty sketch
+	 */
+	public static KLLSketch create(double eps, long seed) {
+		return new KLLSketch(getK(eps), seed);
+	}
+
+	/**
+	 * Gets the capacity parameter k for a given normalized rank error, based on the empirical error bound of KLL
+	 * sketches eps = 2.296 / k^0.9723 (two-sided, 99% confidence).
+	 * 
+	 * @param eps maximum normalized rank error in (0, 1)
+	 * @return capacity parameter k
+	 */
+	public static int getK(double eps) {
+		if(!(eps > 0 && eps < 1))
+			throw new DMLRuntimeException("Invalid quantile sketch error bound: " + eps);
+		double k = Math.ceil(Math.pow(2.296 / eps, 1 / 0.9723));
+		return (int) Math.max(MIN_K, Math.min(k, 1 << 20));
+	}
+
+	/**
+	 * Gets the approximate normalized rank error of this sketch.
+	 * 
+	 * @return normalized rank error
+	 */
+	public double getNormalizedRankError() {
+		return 2.296 / Math.pow(_k, 0.9723);
+	}
+
+	/**
+	 * Adds a value to the sketch, NaN values are ignored.
+	 * 
+	 * @param v value
+	 */
+	public void update(double v) {
+		if(Double.isNaN(v))
+			return;
+		_min = Math.min(_min, v);
+		_max = Math.max(_max, v);
+		_n++;
+		if(size() >= _totalCap)
+			compress();
+		append(0, v);
+	}
+
+	/**
+	 * Merges another sketch into this sketch, the other sketch is not modified.
+	 * 
+	 * @param that sketch over a disjoint set of values
+	 * @return this sketch
+	 */
+	public KLLSketch merge(KLLSketch that) {
+		if(that == null || that._n == 0)
+			return this;
+		while(_numLevels < that._numLevels)
+			addLevel();
+		for(int h = 0; h < that._numLevels; h++)
+			for(int i = 0; i < that._sizes[h]; i++)
+				append(h, that._levels[h][i]);
+		_n += that._n;
+		_min = Math.min(_min, that._min);
+		_max = Math.max(_max, that._max);
+		while(size() > _totalCap)
+			compress();
+		return this;
+	}
+
+	public long getN() {
+		return _n;
+	}
+
+	public boolean isEmpty() {
+		return _n == 0;
+	}
+
+	public double getMin() {
+		return isEmpty() ? Double.NaN : _min;
+	}
+
+	public double getMax() {
+		return isEmpty() ? Double.NaN : _max;
+	}
+
+	/**
+	 * Gets the approximate q-quantile, i.e., the smallest retained value whose estimated rank is at least q*n.
+	 * 
+	 * @param q fraction in [0, 1]
+	 * @return approximate quantile, or NaN if the sketch is empty
+	 */
+	public double getQuantile(double q) {
+		return getQuantiles(new double[] {q})[0];
+	}
+
+	/**
+	 * Gets the approximate quantiles for a sorted (ascending) list of fractions in a single pass over the retained items.
+	 * 
+	 * @param qs sorted fractions in [0, 1]
+	 * @return approximate quantiles, or NaNs if the sketch is empty
+	 */
+	public double[] getQuantiles(double[] qs) {
+		final double[] ret = new double[qs.length];
+		if(isEmpty()) {
+			Arrays.fill(ret, Double.NaN);
+			return ret;
+		}
+
+		// sort all levels, and merge them by value with weights 2^h
+		final int[] pos = new int[_numLevels];
+		for(int h = 0; h < _numLevels; h++)
+			Arrays.sort(_levels[h], 0, _sizes[h]);
+		long cum = 0;
+		int j = 0;
+		while(j < qs.length) {
+			if(qs[j] <= 0) {
+				ret[j++] = _min;
+				continue;
+			}
+			int minH = -1;
+			for(int h = 0; h < _numLevels; h++)
+				if(pos[h] < _sizes[h] && (minH < 0 || _levels[h][pos[h]] < _levels[minH][pos[minH]]))
+					minH = h;
+			if(minH < 0) // all items consumed
+				break;
+			final double v = _levels[minH][pos[minH]++];
+			cum += 1L << minH;
+			for(; j < qs.length && cum >= qs[j] * _n; j++)
+				ret[j] = qs[j] >= 1 ? _max : v;
+		}
+		while(j < qs.length)
+			ret[j++] = _max;
+		return ret;
+	}
+
+	/**
+	 * Gets the approximate normalized rank of a value, i.e., the fraction of items less than or equal to v.
+	 * 
+	 * @param v value
+	 * @return approximate rank in [0, 1], or NaN if the sketch is empty
+	 */
+	public double getRank(double v) {
+		if(isEmpty())
+			return Double.NaN;
+		long w = 0;
+		for(int h = 0; h < _numLevels; h++)
+			for(int i = 0; i < _sizes[h]; i++)
+				if(_levels[h][i] <= v)
+					w += 1L << h;
+		return (double) w / _n;
+	}
+
+	/**
+	 * Gets the number of retained items.
+	 * 
+	 * @return number of retained items
+	 */
+	public int size() {
+		int s = 0;
+		for(int h = 0; h < _numLevels; h++)
+			s += _sizes[h];
+		return s;
+	}
+
+	public long getInMemorySize() {
+		long s = 64 + 16L * _numLevels;
+		for(int h = 0; h < _numLevels; h++)
+			s += 8L * _levels[h].length;
+		return s;
+	}
+
+	private void compress() {
+		// compact the lowest level that reached its capacity
+		for(int h = 0; h < _numLevels; h++) {
+			if(_sizes[h] < _caps[h])
+				continue;
+			if(h + 1 == _numLevels)
+				addLevel();
+			final double[] lvl = _levels[h];
+			final int sz = _sizes[h];
+			final int even = sz - (sz & 1);
+			Arrays.sort(lvl, 0, sz);
+			// promote every other item of the sorted pairs, with random offset
+			for(int i = _rand.nextBoolean() ? 1 : 0; i < even; i += 2)
+				append(h + 1, lvl[i]);
+			// an odd item remains on this level
+			if(even < sz)
+				lvl[0] = lvl[sz - 1];
+			_sizes[h] = sz - even;
+			return;
+		}
+	}
+
+	private void append(int h, double v) {
+		if(_sizes[h] == _levels[h].length)
+			_levels[h] = Arrays.copyOf(_levels[h], Math.max(MIN_K, _levels[h].length * 2));
+		_levels[h][_sizes[h]++] = v;
+	}
+
+	private void addLevel() {
+		_levels = Arrays.copyOf(_levels, _numLevels + 1);
+		_sizes = Arrays.copyOf(_sizes, _numLevels + 1);
+		_levels[_numLevels] = new double[MIN_K];
+		_numLevels++;
+		updateCapacities();
+	}
+
+	private void updateCapacities() {
+		_caps = new int[_numLevels];
+		_totalCap = 0;
+		for(int h = 0; h < _numLevels; h++) {
+			final int depth = _numLevels - h - 1;
+			_caps[h] = Math.max(MIN_K, (int) Math.ceil(_k * Math.pow(C, depth)));
+			_totalCap += _caps[h];
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(getClass().getSimpleName());
+		sb.append(" k=" + _k + " n=" + _n + " retained=" + size() + " levels=" + _numLevels);
+		sb.append(" min=" + _min + " max=" + _max);
+		return sb.toString();
+	}
+}
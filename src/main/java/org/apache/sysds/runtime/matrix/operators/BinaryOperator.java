@@ -20,6 +20,8 @@
 
 package org.apache.sysds.runtime.matrix.operators;
 
+import java.util.Arrays;
+
 import org.apache.sysds.common.Types.OpOp2;
 import org.apache.sysds.runtime.data.SparseBlock;
 import org.apache.sysds.runtime.functionobjects.And;
@@ -162,7 +164,7 @@ public class BinaryOperator extends MultiThreadedOperator {
 			SparseBlock sb = row.getSparseBlock();
 			if(sb.isEmpty(0))
 				return true;
-			return isRowSafeLeft(sb.values(0));
+			return isRowSafeLeft(getRowValues(sb));
 		}
 		else
 			return isRowSafeLeft(row.getDenseBlockValues());
@@ -183,12 +185,20 @@ public class BinaryOperator extends MultiThreadedOperator {
 			SparseBlock sb = row.getSparseBlock();
 			if(sb.isEmpty(0))
 				return false;
-			return isIntroducingZerosLeft(sb.values(0));
+			return isIntroducingZerosLeft(getRowValues(sb));
 		}
 		else
 			return isIntroducingZerosLeft(row.getDenseBlockValues());
 	}
 
+	private static double[] getRowValues(SparseBlock sb) {
+		// the values array of a sparse row can be larger than the row (capacity)
+		final double[] vals = sb.values(0);
+		final int apos = sb.pos(0);
+		final int alen = sb.size(0);
+		return (apos == 0 && vals.length == alen) ? vals : Arrays.copyOfRange(vals, apos, apos + alen);
+	}
+
 	/**
 	 * Check if the operation returns zeros if the input is contained in row.
 	 * 
@@ -241,7 +251,7 @@ public class BinaryOperator extends MultiThreadedOperator {
 			SparseBlock sb = row.getSparseBlock();
 			if(sb.isEmpty(0))
 				return true;
-			return isRowSafeRight(sb.values(0));
+			return isRowSafeRight(getRowValues(sb));
 		}
 		else
 			return isRowSafeRight(row.getDenseBlockValues());
@@ -262,7 +272,7 @@ public class BinaryOperator extends MultiThreadedOperator {
 			SparseBlock sb = row.getSparseBlock();
 			if(sb.isEmpty(0))
 				return false;
-			return isIntroducingZerosRight(sb.values(0));	
+			return isIntroducingZerosRight(getRowValues(sb));	
 		}
 		else 
 			return isIntroducingZerosRight(row.getDenseBlockValues());
@@ -39,6 +39,7 @@ import org.apache.sysds.api.DMLScript;
 import org.apache.sysds.runtime.DMLRuntimeException;
 import org.apache.sysds.runtime.controlprogram.caching.CacheBlock;
 import org.apache.sysds.runtime.data.DenseBlock;
+import org.apache.sysds.runtime.data.SparseBlock;
 import org.apache.sysds.runtime.data.SparseBlockCSR;
 import org.apache.sysds.runtime.data.SparseBlockMCSR;
 import org.apache.sysds.runtime.data.SparseRowVector;
@@ -103,37 +104,44 @@ public abstract class ColumnEncoder implements Encoder, Comparable<ColumnEncoder
 		else
 			applyDense(in, out, outputCol, rowStart, blk);
 
-		if (DMLScript.STATISTICS){
-			long t = System.nanoTime()-t0;
-			switch (this.getTransformType()){
-				case RECODE:
-					TransformStatistics.incRecodeApplyTime(t);
-					break;
-				case BIN:
-					TransformStatistics.incBinningApplyTime(t);
-					break;
-				case DUMMYCODE:
-					TransformStatistics.incDummyCodeApplyTime(t);
-					break;
-				case WORD_EMBEDDING:
-					TransformStatistics.incWordEmbeddingApplyTime(t);
-					break;
-				case BAG_OF_WORDS:
-					TransformStatistics.incBagOfWordsApplyTime(t);
-					break;
-				case FEATURE_HASH:
-					TransformStatistics.incFeatureHashingApplyTime(t);
-					break;
-				case PASS_THROUGH:
-					TransformStatistics.incPassThroughApplyTime(t);
-					break;
-				default:
-					break;
-			}
-		}
+		if(DMLScript.STATISTICS)
+			incApplyTime(System.nanoTime()-t0);
 		return out;
 	}
 
+	/**
+	 * Adds the given apply time to the transform statistics of this encoder type.
+	 *
+	 * @param t The elapsed apply time in nanoseconds
+	 */
+	protected void incApplyTime(long t) {
+		switch (this.getTransformType()){
+			case RECODE:
+				TransformStatistics.incRecodeApplyTime(t);
+				break;
+			case BIN:
+				TransformStatistics.incBinningApplyTime(t);
+				break;
+			case DUMMYCODE:
+				TransformStatistics.incDummyCodeApplyTime(t);
+				break;
+			case WORD_EMBEDDING:
+				TransformStatistics.incWordEmbeddingApplyTime(t);
+				break;
+			case BAG_OF_WORDS:
+				TransformStatistics.incBagOfWordsApplyTime(t);
+				break;
+			case FEATURE_HASH:
+				TransformStatistics.incFeatureHashingApplyTime(t);
+				break;
+			case PASS_THROUGH:
+				TransformStatistics.incPassThroughApplyTime(t);
+				break;
+			default:
+				break;
+		}
+	}
+
 	protected abstract double getCode(CacheBlock<?>in, int row);
 
 	/**
@@ -148,29 +156,30 @@ public abstract class ColumnEncoder implements Encoder, Comparable<ColumnEncoder
 	protected abstract double[] getCodeCol(CacheBlock<?> in, int startInd, int rowEnd, double[] tmp);
 
 	protected void applySparse(CacheBlock<?> in, MatrixBlock out, int outputCol, int rowStart, int blk){
-		boolean mcsr = out.getSparseBlock() instanceof SparseBlockMCSR;
-		int index = _colID - 1;
+		final SparseBlock sb = out.getSparseBlock();
+		final boolean mcsr = sb instanceof SparseBlockMCSR;
+		final int index = _colID - 1;
 		// Apply loop tiling to exploit CPU caches
-		int rowEnd = getEndIndex(in.getNumRows(), rowStart, blk);
-		double[] codes = getCodeCol(in, rowStart, rowEnd, null);
-		int B = 32; //tile size
-		for(int i = rowStart; i < rowEnd; i+=B) {
-			int lim = Math.min(i+B, rowEnd);
-			for (int ii=i; ii<lim; ii++) {
-				int indexWithOffset = sparseRowPointerOffset != null ? sparseRowPointerOffset[ii] - 1 + index : index;
-				if (mcsr) {
-					SparseRowVector row = (SparseRowVector) out.getSparseBlock().get(ii);
-					row.values()[index] = codes[ii-rowStart];
-					row.indexes()[index] = outputCol;
-				}
-				else { //csr
-					// Manually fill the column-indexes and values array
-					SparseBlockCSR csrblock = (SparseBlockCSR)out.getSparseBlock();
-					int rptr[] = csrblock.rowPointers();
-					csrblock.indexes()[rptr[ii]+indexWithOffset] = outputCol;
-					csrblock.values()[rptr[ii]+indexWithOffset] = codes[ii-rowStart];
-				}
+		final int rowEnd = getEndIndex(in.getNumRows(), rowStart, blk);
+		final double[] codes = getCodeCol(in, rowStart, rowEnd, null);
+		if(mcsr) {
+			for(int ii = rowStart; ii < rowEnd; ii++) {
+				SparseRowVector row = (SparseRowVector) sb.get(ii);
+				row.values()[index] = codes[ii-rowStart];
+				row.indexes()[index] = outputCol;
 			}
+			return;
+		}
+		// csr: manually fill the column-indexes and values array of the preallocated rows
+		final SparseBlockCSR csrblock = (SparseBlockCSR) sb;
+		final int[] rptr = csrblock.rowPointers();
+		final int[] indexes = csrblock.indexes();
+		final double[] values = csrblock.values();
+		final int[] offsets = sparseRowPointerOffset;
+		for(int ii = rowStart; ii < rowEnd; ii++) {
+			final int pos = rptr[ii] + (offsets != null ? offsets[ii] - 1 + index : index);
+			indexes[pos] = outputCol;
+			values[pos] = codes[ii-rowStart];
 		}
 	}
 
@@ -248,6 +257,24 @@ public abstract class ColumnEncoder implements Encoder, Comparable<ColumnEncoder
 		// do nothing
 	}
 
+	/**
+	 * Incremental build of internal data structures from one chunk of a larger input that is consumed in row order
+	 * (e.g., in streaming transformencode). In contrast to build, the state of previously consumed chunks is retained.
+	 * By default this delegates to build, which is correct for all encoders whose build only accumulates.
+	 *
+	 * @param in input chunk
+	 */
+	public void buildIncremental(CacheBlock<?> in) {
+		build(in);
+	}
+
+	/**
+	 * Finalizes the internal data structures after the last chunk was passed to buildIncremental.
+	 */
+	public void finalizeBuildIncremental() {
+		// do nothing
+	}
+
 	public void build(CacheBlock<?> in, double[] equiHeightMaxs) {
 		// do nothing
 	}
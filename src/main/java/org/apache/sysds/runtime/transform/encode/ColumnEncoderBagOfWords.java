@@ -27,6 +27,7 @@ import org.apache.sysds.runtime.data.SparseBlock;
 import org.apache.sysds.runtime.data.SparseBlockCSR;
 import org.apache.sysds.runtime.frame.data.FrameBlock;
 import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.transform.tokenize.HashingTokenizer;
 import org.apache.sysds.utils.stats.TransformStatistics;
 
 import java.io.IOException;
@@ -50,13 +51,18 @@ public class ColumnEncoderBagOfWords extends ColumnEncoder {
 	public static int NUM_SAMPLES_MAP_ESTIMATION = 16000;
 	private Map<Object, Integer> _tokenDictionary; // switched from int to long to reuse code from RecodeEncoder
 	private HashSet<Object> _tokenDictionaryPart = null;
-	protected String _seperatorRegex = "\\s+"; // whitespace
+	private static final String DEFAULT_SEPARATOR = "\\s+"; // whitespace
+	protected String _seperatorRegex = DEFAULT_SEPARATOR;
 	protected boolean _caseSensitive = false;
 	protected int[] _nnzPerRow;
 	protected long _nnz = 0;
 	protected long[] _nnzPartials;
 	protected int _defaultNnzCapacity = 64;
 	protected double _avgNnzPerRow = 1.0;
+	// letter tokenizer and token index of the dictionary for the default separator, created on first apply
+	private HashingTokenizer _tokenizer;
+	private HashingTokenizer.TokenIndex _tokenIndex;
+	private Map<Object, Integer> _tokenIndexDict;
 
 	protected ColumnEncoderBagOfWords(int colID) {
 		super(colID);
@@ -166,6 +172,8 @@ public class ColumnEncoderBagOfWords extends ColumnEncoder {
 	}
 
 	public static String[] tokenize(String current, boolean caseSensitive, String seperatorRegex) {
+		if(DEFAULT_SEPARATOR.equals(seperatorRegex))
+			return tokenizeLetters(current, caseSensitive);
 		// string builder is faster than regex
 		StringBuilder finalString = new StringBuilder();
 		for (char c : current.toCharArray()) {
@@ -177,11 +185,44 @@ public class ColumnEncoderBagOfWords extends ColumnEncoder {
 		return finalString.toString().split(seperatorRegex);
 	}
 
+	/**
+	 * Single pass equivalent of {@link #tokenize(String, boolean, String)} for the default whitespace separator, where
+	 * the tokens are exactly the maximal runs of letters. Avoids the intermediate string and the regex split.
+	 */
+	private static String[] tokenizeLetters(String current, boolean caseSensitive) {
+		final int len = current.length();
+		List<String> tokens = new ArrayList<>();
+		int i = 0;
+		while(i < len) {
+			while(i < len && !Character.isLetter(current.charAt(i)))
+				i++;
+			final int start = i;
+			boolean lower = true;
+			for(; i < len && Character.isLetter(current.charAt(i)); i++)
+				lower &= caseSensitive || Character.toLowerCase(current.charAt(i)) == current.charAt(i);
+			if(start == i)
+				break;
+			if(lower)
+				tokens.add(current.substring(start, i));
+			else {
+				char[] token = new char[i - start];
+				for(int j = 0; j < token.length; j++)
+					token[j] = Character.toLowerCase(current.charAt(start + j));
+				tokens.add(new String(token));
+			}
+		}
+		return tokens.toArray(new String[0]);
+	}
+
 	@Override
 	public int getDomainSize(){
 		return _tokenDictionary.size();
 	}
 
+	public int getNnzInRow(int r) {
+		return _nnzPerRow[r];
+	}
+
 	@Override
 	protected double getCode(CacheBlock<?> in, int row) {
 		throw new NotImplementedException();
@@ -227,6 +268,12 @@ public class ColumnEncoderBagOfWords extends ColumnEncoder {
 			TransformStatistics.incBagOfWordsBuildTime(System.nanoTime()-t0);
 	}
 
+	@Override
+	public void buildIncremental(CacheBlock<?> in) {
+		// the token dictionary and per-row nnz are rebuilt per input and not mergeable across chunks
+		throw new NotImplementedException("Bag-of-words is not supported in streaming transformencode");
+	}
+
 	@Override
 	public Callable<Object> getPartialBuildTask(CacheBlock<?> in, 
 		int startRow, int blockSize, HashMap<Integer, Object> ret, int pos) {
@@ -280,11 +327,27 @@ public class ColumnEncoderBagOfWords extends ColumnEncoder {
 	protected void applySparse(CacheBlock<?> in, MatrixBlock out, int outputCol, int rowStart, int blk) {
 		boolean mcsr = MatrixBlock.DEFAULT_SPARSEBLOCK == SparseBlock.Type.MCSR;
 		mcsr = false; // force CSR for transformencode FIXME
+		final HashingTokenizer.TokenIndex index = getTokenIndex();
+		int[] ids = null;
 		List<Integer> sparseRowsWZeros = new ArrayList<>();
 		for(int r = rowStart; r < getEndIndex(in.getNumRows(), rowStart, blk); r++) {
 			if(mcsr) {
 				throw new NotImplementedException();
 			}
+			else if(index != null) { // csr, dictionary lookup of the scanned tokens
+				String current = in.getString(r, _colID - 1);
+				int nnz = 0;
+				if(current != null) {
+					SparseBlockCSR csrblock = (SparseBlockCSR) out.getSparseBlock();
+					int pos = csrblock.rowPointers()[r] + _colID - 1 +
+						(sparseRowPointerOffset != null ? sparseRowPointerOffset[r] - 1 : 0);
+					ids = _tokenizer.ensureCapacity(ids, current.length());
+					int n = _tokenizer.getTokenIds(current, index, ids);
+					nnz = applyRow(ids, n, outputCol, csrblock.indexes(), csrblock.values(), pos);
+				}
+				if(nnz == 0)
+					sparseRowsWZeros.add(r);
+			}
 			else { // csr
 				HashMap<String, Integer> counter = countTokenAppearances(in, r);
 				if(counter.isEmpty())
@@ -292,27 +355,8 @@ public class ColumnEncoderBagOfWords extends ColumnEncoder {
 				else {
 					SparseBlockCSR csrblock = (SparseBlockCSR) out.getSparseBlock();
 					int[] rptr = csrblock.rowPointers();
-					// assert that nnz from build is equal to nnz from apply
-					Pair[] columnValuePairs = new Pair[_nnzPerRow[r]];
-					int i = 0;
-					for (Map.Entry<String, Integer> entry : counter.entrySet()) {
-						String token = entry.getKey();
-						columnValuePairs[i] = new Pair((int) (outputCol + _tokenDictionary.getOrDefault(token, 0) - 1), entry.getValue());
-						// if token is not included columnValuePairs[i] is overwritten in the next iteration
-						i += _tokenDictionary.containsKey(token) ? 1 : 0;
-					}
-					// insertion sorts performs better on small arrays
-					if(columnValuePairs.length >= 128)
-						Arrays.sort(columnValuePairs, Comparator.comparingInt(pair -> pair.key));
-					else
-						insertionSort(columnValuePairs);
-					// Manually fill the column-indexes and values array
-					for (i = 0; i < columnValuePairs.length; i++) {
-						int index = sparseRowPointerOffset != null ? sparseRowPointerOffset[r] - 1 + i : i;
-						index += rptr[r] + _colID -1;
-						csrblock.indexes()[index] = columnValuePairs[i].key;
-						csrblock.values()[index] = columnValuePairs[i].value;
-					}
+					int pos = rptr[r] + _colID - 1 + (sparseRowPointerOffset != null ? sparseRowPointerOffset[r] - 1 : 0);
+					applyRow(counter, r, outputCol, csrblock.indexes(), csrblock.values(), pos);
 				}
 			}
 		}
@@ -321,6 +365,86 @@ public class ColumnEncoderBagOfWords extends ColumnEncoder {
 		}
 	}
 
+	/**
+	 * Writes the token counts of a single row as column-sorted (index, value) entries into the given arrays.
+	 *
+	 * @param in        Input block
+	 * @param r         Row index
+	 * @param outputCol The first output column of this encoder
+	 * @param indexes   Column indexes to write into
+	 * @param values    Values to write into
+	 * @param pos       Start position in the index and value arrays
+	 * @return the number of written entries
+	 */
+	protected int applyRow(CacheBlock<?> in, int r, int outputCol, int[] indexes, double[] values, int pos) {
+		final HashingTokenizer.TokenIndex index = getTokenIndex();
+		if(index != null) {
+			String current = in.getString(r, _colID - 1);
+			if(current == null)
+				return 0;
+			int[] ids = _tokenizer.ensureCapacity(null, current.length());
+			return applyRow(ids, _tokenizer.getTokenIds(current, index, ids), outputCol, indexes, values, pos);
+		}
+		HashMap<String, Integer> counter = countTokenAppearances(in, r);
+		return counter.isEmpty() ? 0 : applyRow(counter, r, outputCol, indexes, values, pos);
+	}
+
+	/** Run-length counts the sorted token ids of a row into column-sorted (index, value) entries. */
+	private static int applyRow(int[] ids, int n, int outputCol, int[] indexes, double[] values, int pos) {
+		int nnz = 0;
+		for(int i = 0; i < n; i++) {
+			final int col = outputCol + ids[i] - 1;
+			if(nnz > 0 && indexes[pos + nnz - 1] == col)
+				values[pos + nnz - 1]++;
+			else {
+				indexes[pos + nnz] = col;
+				values[pos + nnz++] = 1;
+			}
+		}
+		return nnz;
+	}
+
+	/**
+	 * Returns the index of the token dictionary for the single pass lookup of the letter tokens of the default
+	 * separator, which is (re)created if the dictionary changed.
+	 *
+	 * @return the token index, or null for custom separators
+	 */
+	private synchronized HashingTokenizer.TokenIndex getTokenIndex() {
+		if(!DEFAULT_SEPARATOR.equals(_seperatorRegex) || _tokenDictionary == null)
+			return null;
+		if(_tokenIndex == null || _tokenIndexDict != _tokenDictionary) {
+			_tokenizer = new HashingTokenizer(1, 1, 1, _caseSensitive, true);
+			_tokenIndex = _tokenizer.createIndex(_tokenDictionary);
+			_tokenIndexDict = _tokenDictionary;
+		}
+		return _tokenIndex;
+	}
+
+	private int applyRow(HashMap<String, Integer> counter, int r, int outputCol, int[] indexes, double[] values,
+		int pos) {
+		// assert that nnz from build is equal to nnz from apply
+		Pair[] columnValuePairs = new Pair[_nnzPerRow[r]];
+		int i = 0;
+		for (Map.Entry<String, Integer> entry : counter.entrySet()) {
+			String token = entry.getKey();
+			columnValuePairs[i] = new Pair((int) (outputCol + _tokenDictionary.getOrDefault(token, 0) - 1), entry.getValue());
+			// if token is not included columnValuePairs[i] is overwritten in the next iteration
+			i += _tokenDictionary.containsKey(token) ? 1 : 0;
+		}
+		// insertion sorts performs better on small arrays
+		if(columnValuePairs.length >= 128)
+			Arrays.sort(columnValuePairs, Comparator.comparingInt(pair -> pair.key));
+		else
+			insertionSort(columnValuePairs);
+		// Manually fill the column-indexes and values array
+		for (i = 0; i < columnValuePairs.length; i++) {
+			indexes[pos + i] = columnValuePairs[i].key;
+			values[pos + i] = columnValuePairs[i].value;
+		}
+		return columnValuePairs.length;
+	}
+
 	private static void insertionSort(Pair [] arr) {
 		for (int i = 1; i < arr.length; i++) {
 			Pair current = arr[i];
@@ -335,7 +459,22 @@ public class ColumnEncoderBagOfWords extends ColumnEncoder {
 
 	@Override
 	protected void applyDense(CacheBlock<?> in, MatrixBlock out, int outputCol, int rowStart, int blk){
+		final HashingTokenizer.TokenIndex index = getTokenIndex();
+		int[] ids = null;
 		for (int r = rowStart; r < Math.max(in.getNumRows(), rowStart + blk); r++) {
+			if(index != null) {
+				String current = in.getString(r, _colID - 1);
+				if(current == null)
+					continue;
+				ids = _tokenizer.ensureCapacity(ids, current.length());
+				int n = _tokenizer.getTokenIds(current, index, ids);
+				for(int i = 0, j = 0; i < n; i = j) {
+					while(j < n && ids[j] == ids[i])
+						j++;
+					out.set(r, outputCol + ids[i] - 1, j - i);
+				}
+				continue;
+			}
 			HashMap<String, Integer> counter = countTokenAppearances(in, r);
 			for (Map.Entry<String, Integer> entry : counter.entrySet())
 				out.set(r, (int) (outputCol + _tokenDictionary.get(entry.getKey()) - 1), entry.getValue());
@@ -27,7 +27,6 @@ import java.io.ObjectOutput;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.PriorityQueue;
-import java.util.Random;
 import java.util.concurrent.Callable;
 
 import org.apache.commons.lang3.tuple.MutableTriple;
@@ -38,6 +37,7 @@ import org.apache.sysds.runtime.controlprogram.caching.CacheBlock;
 import org.apache.sysds.runtime.frame.data.FrameBlock;
 import org.apache.sysds.runtime.frame.data.columns.Array;
 import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.matrix.data.sketch.quantileapprox.KLLSketch;
 import org.apache.sysds.utils.stats.TransformStatistics;
 
 public class ColumnEncoderBin extends ColumnEncoder {
@@ -46,8 +46,8 @@ public class ColumnEncoderBin extends ColumnEncoder {
 	public static final String NBINS_PREFIX = "nbins";
 	private static final long serialVersionUID = 1917445005206076078L;
 
-	public static final double SAMPLE_FRACTION = 0.1;
-	public static final int MINIMUM_SAMPLE_SIZE = 1000;
+	/** Default normalized rank error of the quantile sketch for approximate equi-height binning */
+	public static final double DEFAULT_APPROX_ERROR = 0.001;
 
 	protected int _numBin = -1;
 	private BinMethod _binMethod = BinMethod.EQUI_WIDTH;
@@ -59,6 +59,11 @@ public class ColumnEncoderBin extends ColumnEncoder {
 	// b) column min/max (for partial build)
 	private double _colMins = -1f;
 	private double _colMaxs = -1f;
+	// c) whether the min/max hold a running aggregate (for incremental build)
+	private boolean _incBuilt = false;
+	// d) quantile sketch and its error bound (for approximate equi-height)
+	private double _approxError = DEFAULT_APPROX_ERROR;
+	private KLLSketch _sketch = null;
 
 	protected boolean containsNull = false;
 
@@ -105,6 +110,15 @@ public class ColumnEncoderBin extends ColumnEncoder {
 		return _binMethod;
 	}
 
+	public double getApproxError() {
+		return _approxError;
+	}
+
+	public void setApproxError(double eps) {
+		KLLSketch.getK(eps); // validate error bound
+		_approxError = eps;
+	}
+
 	public void setBinMethod(String method) {
 		if(method.equalsIgnoreCase(BinMethod.EQUI_WIDTH.toString()))
 			_binMethod = BinMethod.EQUI_WIDTH;
@@ -130,9 +144,8 @@ public class ColumnEncoderBin extends ColumnEncoder {
 			computeEqualHeightBins(sortedCol, false);
 		}
 		else if(_binMethod == BinMethod.EQUI_HEIGHT_APPROX){
-			double[] vals = sampleDoubleColumn(in, _colID, SAMPLE_FRACTION, MINIMUM_SAMPLE_SIZE);
-			Arrays.sort(vals);
-			computeEqualHeightBins(vals, false);
+			KLLSketch sketch = updateSketch(createSketch(0), in, _colID, 0, -1);
+			computeEqualHeightBins(sketch);
 		}
 
 		if(in instanceof FrameBlock){
@@ -324,19 +337,23 @@ public class ColumnEncoderBin extends ColumnEncoder {
 		return vals;
 	}
 
-	private static double[] sampleDoubleColumn(CacheBlock<?> in, int colID, double sampleFraction, int minimum_sample_size){
-		final int nRow = in.getNumRows();
-		int elm =(int) Math.min( nRow, Math.max(minimum_sample_size, Math.ceil(nRow * sampleFraction)));
-		double[] vals = new double[elm];
-		Array<?> a = ((FrameBlock) in).getColumn(colID - 1);
-		int s = DMLScript.SEED;
-		Random r = s == -1 ? new Random() : new Random(s);
-		for(int i = 0; i < elm; i++) {
-			double inVal = a.getAsNaNDouble(r.nextInt(nRow));
-			vals[i] = inVal;
-		}
-		return vals;
+	private KLLSketch createSketch(int startRow) {
+		// deterministic per column and row partition
+		return KLLSketch.create(_approxError, 31L * _colID + startRow);
+	}
 
+	private static KLLSketch updateSketch(KLLSketch sketch, CacheBlock<?> in, int colID, int startRow, int blockSize) {
+		final int endRow = getEndIndex(in.getNumRows(), startRow, blockSize);
+		if(in instanceof FrameBlock) {
+			final Array<?> a = ((FrameBlock) in).getColumn(colID - 1);
+			for(int i = startRow; i < endRow; i++)
+				sketch.update(a.getAsNaNDouble(i));
+		}
+		else {
+			for(int i = startRow; i < endRow; i++)
+				sketch.update(in.getDoubleNaN(i, colID - 1));
+		}
+		return sketch;
 	}
 
 	@Override
@@ -347,7 +364,7 @@ public class ColumnEncoderBin extends ColumnEncoder {
 	@Override
 	public Callable<Object> getPartialBuildTask(CacheBlock<?> in, int startRow, int blockSize,
 			HashMap<Integer, Object> ret, int p) {
-		return new BinPartialBuildTask(in, _colID, startRow, blockSize, _binMethod, ret);
+		return new BinPartialBuildTask(this, in, startRow, blockSize, ret);
 	}
 
 	@Override
@@ -392,6 +409,14 @@ public class ColumnEncoderBin extends ColumnEncoder {
 		System.arraycopy(_binMaxs, 0, _binMins, 1, _numBin - 1);
 	}
 
+	private void computeEqualHeightBins(KLLSketch sketch) {
+		// bin boundaries [min, q(1/n), ..., q((n-1)/n), max] from the quantile sketch
+		double[] qs = new double[_numBin + 1];
+		for(int i = 0; i <= _numBin; i++)
+			qs[i] = (double) i / _numBin;
+		computeEqualHeightBins(sketch.getQuantiles(qs), true);
+	}
+
 	public void prepareBuildPartial() {
 		// ensure allocated min/max arrays
 		_colMins = -1f;
@@ -407,6 +432,43 @@ public class ColumnEncoderBin extends ColumnEncoder {
 		_colMaxs = pairMinMax[1];
 	}
 
+	@Override
+	public void buildIncremental(CacheBlock<?> in) {
+		if(!isApplicable())
+			return;
+		if(_binMethod == BinMethod.EQUI_HEIGHT)
+			throw new DMLRuntimeException("Streaming transformencode does not support exact equi-height binning, "
+				+ "use " + BinMethod.EQUI_HEIGHT_APPROX);
+		long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
+		// running min/max or quantile sketch over all chunks, bins are computed on finalize
+		if(_binMethod == BinMethod.EQUI_HEIGHT_APPROX) {
+			_sketch = updateSketch(_sketch != null ? _sketch : createSketch(0), in, _colID, 0, -1);
+		}
+		else {
+			double[] pairMinMax = getMinMaxOfCol(in, _colID, 0, -1);
+			_colMins = _incBuilt ? Math.min(_colMins, pairMinMax[0]) : pairMinMax[0];
+			_colMaxs = _incBuilt ? Math.max(_colMaxs, pairMinMax[1]) : pairMinMax[1];
+		}
+		_incBuilt = true;
+
+		if(in instanceof FrameBlock)
+			containsNull |= ((FrameBlock) in).getColumn(_colID - 1).containsNull();
+		checkedForNull = true;
+
+		if(DMLScript.STATISTICS)
+			TransformStatistics.incBinningBuildTime(System.nanoTime()-t0);
+	}
+
+	@Override
+	public void finalizeBuildIncremental() {
+		if(_incBuilt && _binMethod == BinMethod.EQUI_HEIGHT_APPROX)
+			computeEqualHeightBins(_sketch);
+		else if(_incBuilt)
+			computeBins(_colMins, _colMaxs);
+		_incBuilt = false;
+		_sketch = null;
+	}
+
 	@Override
 	protected ColumnApplyTask<? extends ColumnEncoder> 
 		getSparseTask(CacheBlock<?> in, MatrixBlock out, int outputCol, int startRow, int blk) {
@@ -481,6 +543,7 @@ public class ColumnEncoderBin extends ColumnEncoder {
 
 		out.writeInt(_numBin);
 		out.writeUTF(_binMethod.toString());
+		out.writeDouble(_approxError);
 		out.writeBoolean(_binMaxs != null);
 		if(_binMaxs != null) {
 			for(int j = 0; j < _binMaxs.length; j++) {
@@ -495,6 +558,7 @@ public class ColumnEncoderBin extends ColumnEncoder {
 		super.readExternal(in);
 		_numBin = in.readInt();
 		setBinMethod(in.readUTF());
+		_approxError = in.readDouble();
 		boolean minmax = in.readBoolean();
 		_binMaxs = minmax ? new double[_numBin] : null;
 		_binMins = minmax ? new double[_numBin] : null;
@@ -561,6 +625,7 @@ public class ColumnEncoderBin extends ColumnEncoder {
 
 	private static class BinPartialBuildTask implements Callable<Object> {
 
+		private final ColumnEncoderBin _encoder;
 		private final CacheBlock<?> _input;
 		private final int _blockSize;
 		private final int _startRow;
@@ -569,13 +634,14 @@ public class ColumnEncoderBin extends ColumnEncoder {
 		private final HashMap<Integer, Object> _partialData;
 
 		// if a pool is passed the task may be split up into multiple smaller tasks.
-		protected BinPartialBuildTask(CacheBlock<?> input, int colID, int startRow, 
-				int blocksize, BinMethod method, HashMap<Integer, Object> partialData) {
+		protected BinPartialBuildTask(ColumnEncoderBin encoder, CacheBlock<?> input, int startRow, 
+				int blocksize, HashMap<Integer, Object> partialData) {
+			_encoder = encoder;
 			_input = input;
 			_blockSize = blocksize;
-			_colID = colID;
+			_colID = encoder._colID;
 			_startRow = startRow;
-			_method = method;
+			_method = encoder._binMethod;
 			_partialData = partialData;
 		}
 
@@ -588,7 +654,14 @@ public class ColumnEncoderBin extends ColumnEncoder {
 					_partialData.put(_startRow, minMax);
 				}
 			}
-			else if (_method == BinMethod.EQUI_HEIGHT || _method == BinMethod.EQUI_HEIGHT_APPROX) {
+			else if (_method == BinMethod.EQUI_HEIGHT_APPROX) {
+				// mergeable per-block sketch instead of sorted values
+				KLLSketch sketch = updateSketch(_encoder.createSketch(_startRow), _input, _colID, _startRow, _blockSize);
+				synchronized(_partialData) {
+					_partialData.put(_startRow, sketch);
+				}
+			}
+			else if (_method == BinMethod.EQUI_HEIGHT) {
 				double[] sortedVals = prepareDataForEqualHeightBins(_input, _colID, _startRow, _blockSize);
 				synchronized(_partialData) {
 					_partialData.put(_startRow, sortedVals);
@@ -665,6 +738,12 @@ public class ColumnEncoderBin extends ColumnEncoder {
 				double[] sortedRes = mergeKSortedArrays(allParts);
 				_encoder.computeEqualHeightBins(sortedRes, false);
 			}
+			else if (_encoder.getBinMethod() == BinMethod.EQUI_HEIGHT_APPROX) {
+				KLLSketch sketch = null;
+				for (Object s : _partialMaps.values())
+					sketch = sketch == null ? (KLLSketch) s : sketch.merge((KLLSketch) s);
+				_encoder.computeEqualHeightBins(sketch);
+			}
 
 			if(DMLScript.STATISTICS)
 				TransformStatistics.incBinningBuildTime(System.nanoTime()-t0);
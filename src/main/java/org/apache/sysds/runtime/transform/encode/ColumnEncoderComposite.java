@@ -125,6 +125,9 @@ public class ColumnEncoderComposite extends ColumnEncoder {
 
 	@Override
 	public List<DependencyTask<?>> getApplyTasks(CacheBlock<?> in, MatrixBlock out, int outputCol, int[] sparseRowPointerOffsets) {
+		ColumnEncoderDummycode fusedDC = getFusedDummycoder();
+		if(fusedDC != null)
+			return fusedDC.getFusedApplyTasks(_columnEncoders.get(0), in, out, outputCol, sparseRowPointerOffsets);
 		List<DependencyTask<?>> tasks = new ArrayList<>();
 		List<Integer> sizes = new ArrayList<>();
 		for(int i = 0; i < _columnEncoders.size(); i++) {
@@ -207,9 +210,28 @@ public class ColumnEncoderComposite extends ColumnEncoder {
 			columnEncoder.buildPartial(in);
 	}
 
+	@Override
+	public void buildIncremental(CacheBlock<?> in) {
+		for(ColumnEncoder columnEncoder : _columnEncoders)
+			columnEncoder.buildIncremental(in);
+	}
+
+	@Override
+	public void finalizeBuildIncremental() {
+		for(ColumnEncoder columnEncoder : _columnEncoders)
+			columnEncoder.finalizeBuildIncremental();
+		updateAllDCEncoders();
+	}
+
 	@Override
 	public MatrixBlock apply(CacheBlock<?> in, MatrixBlock out, int outputCol, int rowStart, int blk) {
 		try {
+			ColumnEncoderDummycode fusedDC = getFusedDummycoder();
+			if(fusedDC != null) {
+				fusedDC.sparseRowPointerOffset = this.sparseRowPointerOffset;
+				fusedDC.applyFused(_columnEncoders.get(0), in, out, outputCol, rowStart, blk);
+				return out;
+			}
 			for(int i = 0; i < _columnEncoders.size(); i++) {
 				// set sparseRowPointerOffset in the encoder
 				_columnEncoders.get(i).sparseRowPointerOffset = this.sparseRowPointerOffset;
@@ -228,6 +250,20 @@ public class ColumnEncoderComposite extends ColumnEncoder {
 		return out;
 	}
 
+	/**
+	 * Returns the dummycoder of this composite if its codes are produced by a single recode, bin, or feature hash
+	 * encoder, in which case both are applied in one fused pass over the rows.
+	 *
+	 * @return the dummycoder or null if the apply cannot be fused
+	 */
+	private ColumnEncoderDummycode getFusedDummycoder() {
+		if(_columnEncoders.size() != 2 || !(_columnEncoders.get(1) instanceof ColumnEncoderDummycode))
+			return null;
+		ColumnEncoder first = _columnEncoders.get(0);
+		return (first instanceof ColumnEncoderRecode || first instanceof ColumnEncoderBin ||
+			first instanceof ColumnEncoderFeatureHash) ? (ColumnEncoderDummycode) _columnEncoders.get(1) : null;
+	}
+
 	@Override
 	protected double getCode(CacheBlock<?> in, int row) {
 		throw new DMLRuntimeException("CompositeEncoder does not have a Code");
@@ -475,6 +511,11 @@ public class ColumnEncoderComposite extends ColumnEncoder {
 			&& _columnEncoders.get(1) instanceof ColumnEncoderDummycode;
 	}
 
+	public boolean isBagOfWords() {
+		return _columnEncoders.size() == 1//
+			&& _columnEncoders.get(0) instanceof ColumnEncoderBagOfWords;
+	}
+
 	private static class ColumnCompositeUpdateDCTask implements Callable<Object> {
 
 		private final ColumnEncoderComposite _encoder;
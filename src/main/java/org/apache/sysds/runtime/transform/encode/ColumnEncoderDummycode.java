@@ -19,26 +19,36 @@
 
 package org.apache.sysds.runtime.transform.encode;
 
+import static org.apache.sysds.runtime.util.UtilFunctions.getBlockSizes;
 import static org.apache.sysds.runtime.util.UtilFunctions.getEndIndex;
 
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Callable;
 
 import org.apache.sysds.api.DMLScript;
 import org.apache.sysds.runtime.DMLRuntimeException;
 import org.apache.sysds.runtime.controlprogram.caching.CacheBlock;
+import org.apache.sysds.runtime.data.DenseBlock;
+import org.apache.sysds.runtime.data.DenseBlockFP64DEDUP;
+import org.apache.sysds.runtime.data.SparseBlock;
 import org.apache.sysds.runtime.data.SparseBlockCSR;
 import org.apache.sysds.runtime.data.SparseBlockMCSR;
 import org.apache.sysds.runtime.frame.data.FrameBlock;
 import org.apache.sysds.runtime.matrix.data.MatrixBlock;
 import org.apache.sysds.runtime.util.DependencyTask;
+import org.apache.sysds.runtime.util.DependencyThreadPool;
 import org.apache.sysds.utils.stats.TransformStatistics;
 
 public class ColumnEncoderDummycode extends ColumnEncoder {
 	private static final long serialVersionUID = 5832130477659116489L;
+	/** Number of rows whose codes are computed at once in the fused apply. */
+	private static final int FUSED_TILE = 64;
 
 	/** The number of columns outputted from this column group. */ 
 	public int _domainSize = -1; 
@@ -114,36 +124,40 @@ public class ColumnEncoderDummycode extends ColumnEncoder {
 			throw new DMLRuntimeException(
 				"ColumnEncoderDummycode called with: " + in.getClass().getSimpleName() + " and not MatrixBlock");
 		}
-		boolean mcsr = out.getSparseBlock() instanceof SparseBlockMCSR;
-		// ArrayList<Integer> sparseRowsWZeros = null;
-		int index = _colID - 1;
-		for(int r = rowStart; r < getEndIndex(in.getNumRows(), rowStart, blk); r++) {
-			int indexWithOffset = sparseRowPointerOffset != null ? sparseRowPointerOffset[r] - 1 + index : index;
-			if(mcsr) {
-				double val = out.getSparseBlock().get(r).values()[indexWithOffset];
+		final SparseBlock sb = out.getSparseBlock();
+		final int index = _colID - 1;
+		final int rowEnd = getEndIndex(in.getNumRows(), rowStart, blk);
+		final int[] offsets = sparseRowPointerOffset;
+		if(sb instanceof SparseBlockMCSR) {
+			for(int r = rowStart; r < rowEnd; r++) {
+				int indexWithOffset = offsets != null ? offsets[r] - 1 + index : index;
+				double[] vals = sb.get(r).values();
+				double val = vals[indexWithOffset];
 				if(Double.isNaN(val)) {
 					containsZeroOut = true;
-					out.getSparseBlock().get(r).values()[indexWithOffset] = 0;
+					vals[indexWithOffset] = 0;
 					continue;
 				}
-				int nCol = outputCol + (int) val - 1;
-				out.getSparseBlock().get(r).indexes()[indexWithOffset] = nCol;
-				out.getSparseBlock().get(r).values()[indexWithOffset] = 1;
+				sb.get(r).indexes()[indexWithOffset] = outputCol + (int) val - 1;
+				vals[indexWithOffset] = 1;
 			}
-			else { // csr
-				SparseBlockCSR csrblock = (SparseBlockCSR) out.getSparseBlock();
-				int rptr[] = csrblock.rowPointers();
-				double val = csrblock.values()[rptr[r] + indexWithOffset];
-				if(Double.isNaN(val)) {
-					containsZeroOut = true;
-					csrblock.values()[rptr[r] + indexWithOffset] = 0; // test
-					continue;
-				}
-				// Manually fill the column-indexes and values array
-				int nCol = outputCol + (int) val - 1;
-				csrblock.indexes()[rptr[r] + indexWithOffset] = nCol;
-				csrblock.values()[rptr[r] + indexWithOffset] = 1;
+			return;
+		}
+		// csr: manually fill the column-indexes and values array
+		final SparseBlockCSR csrblock = (SparseBlockCSR) sb;
+		final int[] rptr = csrblock.rowPointers();
+		final int[] indexes = csrblock.indexes();
+		final double[] values = csrblock.values();
+		for(int r = rowStart; r < rowEnd; r++) {
+			final int pos = rptr[r] + (offsets != null ? offsets[r] - 1 + index : index);
+			final double val = values[pos];
+			if(Double.isNaN(val)) {
+				containsZeroOut = true;
+				values[pos] = 0;
+				continue;
 			}
+			indexes[pos] = outputCol + (int) val - 1;
+			values[pos] = 1;
 		}
 	}
 
@@ -177,6 +191,139 @@ public class ColumnEncoderDummycode extends ColumnEncoder {
 		}
 	}
 
+	/**
+	 * Fused apply of the code-producing encoder of this column (recode, bin, or feature hash) and this dummycoder.
+	 * Instead of writing the codes into the output and re-reading them for the one-hot conversion, the codes of a
+	 * small tile of rows are computed into a reused buffer and the one-hot entries are written directly into the
+	 * preallocated CSR arrays or dense rows of the output. For DDC compressed recode inputs, the codes of the
+	 * dictionary are looked up once per row partition and shared by all tiles. The time spent computing the codes
+	 * is attributed to the code-producing encoder.
+	 *
+	 * @param codeEnc   The encoder producing the codes of this column
+	 * @param in        Input block to apply to
+	 * @param out       Output matrix
+	 * @param outputCol The first output column of this column
+	 * @param rowStart  Row start
+	 * @param blk       block size.
+	 */
+	protected void applyFused(ColumnEncoder codeEnc, CacheBlock<?> in, MatrixBlock out, int outputCol, int rowStart,
+		int blk) {
+		final boolean sparse = out.isInSparseFormat();
+		if(sparse ? !(out.getSparseBlock() instanceof SparseBlockCSR) //
+			: out.getDenseBlock() instanceof DenseBlockFP64DEDUP) {
+			// no direct access to the output rows, fall back to the two-pass apply
+			codeEnc.sparseRowPointerOffset = sparseRowPointerOffset;
+			codeEnc.apply(in, out, outputCol, rowStart, blk);
+			apply(out, out, outputCol, rowStart, blk);
+			return;
+		}
+		long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
+		final int rowEnd = getEndIndex(in.getNumRows(), rowStart, blk);
+		final double[] dictCodes = codeEnc instanceof ColumnEncoderRecode ? //
+			((ColumnEncoderRecode) codeEnc).getDictCodes(in, rowEnd - rowStart) : null;
+		long tCodes = DMLScript.STATISTICS ? System.nanoTime() - t0 : 0;
+		final double[] tmp = new double[FUSED_TILE];
+		if(sparse)
+			tCodes += applyFusedSparse(codeEnc, dictCodes, in, (SparseBlockCSR) out.getSparseBlock(), outputCol,
+				rowStart, rowEnd, tmp);
+		else
+			tCodes += applyFusedDense(codeEnc, dictCodes, in, out.getDenseBlock(), outputCol, rowStart, rowEnd, tmp);
+		if(DMLScript.STATISTICS) {
+			codeEnc.incApplyTime(tCodes);
+			TransformStatistics.incDummyCodeApplyTime(System.nanoTime() - t0 - tCodes);
+		}
+	}
+
+	private long applyFusedSparse(ColumnEncoder codeEnc, double[] dictCodes, CacheBlock<?> in,
+		SparseBlockCSR csrblock, int outputCol, int rowStart, int rowEnd, double[] tmp) {
+		final int[] rptr = csrblock.rowPointers();
+		final int[] indexes = csrblock.indexes();
+		final double[] values = csrblock.values();
+		final int[] offsets = sparseRowPointerOffset;
+		final int index = _colID - 1;
+		boolean zeroOut = false;
+		long tCodes = 0;
+		for(int s = rowStart; s < rowEnd; s += FUSED_TILE) {
+			final int e = Math.min(s + FUSED_TILE, rowEnd);
+			long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
+			final double[] codes = getTileCodes(codeEnc, dictCodes, in, s, e, tmp);
+			if(DMLScript.STATISTICS)
+				tCodes += System.nanoTime() - t0;
+			for(int r = s; r < e; r++) {
+				final int pos = rptr[r] + (offsets != null ? offsets[r] - 1 + index : index);
+				final double code = codes[r - s];
+				if(Double.isNaN(code)) {
+					// keep the column index sorted, the zero is removed on output compaction
+					indexes[pos] = outputCol;
+					values[pos] = 0;
+					zeroOut = true;
+				}
+				else {
+					indexes[pos] = outputCol + (int) code - 1;
+					values[pos] = 1;
+				}
+			}
+		}
+		if(zeroOut)
+			containsZeroOut = true;
+		return tCodes;
+	}
+
+	private static long applyFusedDense(ColumnEncoder codeEnc, double[] dictCodes, CacheBlock<?> in, DenseBlock db,
+		int outputCol, int rowStart, int rowEnd, double[] tmp) {
+		long tCodes = 0;
+		for(int s = rowStart; s < rowEnd; s += FUSED_TILE) {
+			final int e = Math.min(s + FUSED_TILE, rowEnd);
+			long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
+			final double[] codes = getTileCodes(codeEnc, dictCodes, in, s, e, tmp);
+			if(DMLScript.STATISTICS)
+				tCodes += System.nanoTime() - t0;
+			for(int r = s; r < e; r++) {
+				final double[] vals = db.values(r);
+				final int off = db.pos(r) + outputCol;
+				final double code = codes[r - s];
+				vals[off] = 0;
+				if(!Double.isNaN(code))
+					vals[off + (int) code - 1] = 1;
+			}
+		}
+		return tCodes;
+	}
+
+	private static double[] getTileCodes(ColumnEncoder codeEnc, double[] dictCodes, CacheBlock<?> in, int s, int e,
+		double[] tmp) {
+		return dictCodes != null ? //
+			((ColumnEncoderRecode) codeEnc).getCodeColDDC(in, dictCodes, s, e, tmp) : //
+			codeEnc.getCodeCol(in, s, e, tmp);
+	}
+
+	/**
+	 * Creates the row-partitioned tasks of the fused code and dummycode apply, see
+	 * {@link #applyFused(ColumnEncoder, CacheBlock, MatrixBlock, int, int, int)}.
+	 *
+	 * @param codeEnc                 The encoder producing the codes of this column
+	 * @param in                      Input block to apply to
+	 * @param out                     Output matrix
+	 * @param outputCol               The first output column of this column
+	 * @param sparseRowPointerOffsets Row offsets created by bag of words encoders, or null
+	 * @return list of dependency tasks
+	 */
+	protected List<DependencyTask<?>> getFusedApplyTasks(ColumnEncoder codeEnc, CacheBlock<?> in, MatrixBlock out,
+		int outputCol, int[] sparseRowPointerOffsets) {
+		List<Callable<Object>> tasks = new ArrayList<>();
+		List<List<? extends Callable<?>>> dep = null;
+		int[] blockSizes = getBlockSizes(in.getNumRows(), codeEnc._nApplyPartitions);
+		sparseRowPointerOffset = out.isInSparseFormat() ? sparseRowPointerOffsets : null;
+		for(int startRow = 0, i = 0; i < blockSizes.length; startRow += blockSizes[i], i++)
+			tasks.add(new DummycodeFusedApplyTask(this, codeEnc, in, out, outputCol, startRow, blockSizes[i]));
+		if(tasks.size() > 1) {
+			dep = new ArrayList<>(Collections.nCopies(tasks.size(), null));
+			tasks.add(() -> null); // Empty task as barrier
+			dep.add(tasks.subList(0, tasks.size() - 1));
+		}
+		return DependencyThreadPool.createDependencyTasks(tasks, dep);
+	}
+
 	@Override
 	protected ColumnApplyTask<? extends ColumnEncoder> 
 		getSparseTask(CacheBlock<?> in, MatrixBlock out, int outputCol, int startRow, int blk) {
@@ -314,4 +461,26 @@ public class ColumnEncoderDummycode extends ColumnEncoder {
 			return getClass().getSimpleName() + "<ColId: " + _encoder._colID + ">";
 		}
 	}
+
+	private static class DummycodeFusedApplyTask extends ColumnApplyTask<ColumnEncoderDummycode> {
+		private final ColumnEncoder _codeEncoder;
+
+		protected DummycodeFusedApplyTask(ColumnEncoderDummycode encoder, ColumnEncoder codeEncoder,
+			CacheBlock<?> input, MatrixBlock out, int outputCol, int startRow, int blk) {
+			super(encoder, input, out, outputCol, startRow, blk);
+			_codeEncoder = codeEncoder;
+		}
+
+		@Override
+		public Object call() throws Exception {
+			_encoder.applyFused(_codeEncoder, _input, _out, _outputCol, _startRow, _blk);
+			return null;
+		}
+
+		@Override
+		public String toString() {
+			return getClass().getSimpleName() + "<Encoder: " + _codeEncoder.getClass().getSimpleName() + "; ColId: "
+				+ _encoder._colID + ">";
+		}
+	}
 }
@@ -33,9 +33,14 @@ import java.util.concurrent.Callable;
 
 import org.apache.sysds.api.DMLScript;
 import org.apache.sysds.lops.Lop;
+import org.apache.sysds.runtime.compress.colgroup.mapping.AMapToData;
 import org.apache.sysds.runtime.compress.estim.sample.SampleEstimatorFactory;
 import org.apache.sysds.runtime.controlprogram.caching.CacheBlock;
 import org.apache.sysds.runtime.frame.data.FrameBlock;
+import org.apache.sysds.runtime.frame.data.columns.Array;
+import org.apache.sysds.runtime.frame.data.columns.DDCArray;
+import org.apache.sysds.runtime.frame.data.columns.HashMapStringToInt;
+import org.apache.sysds.runtime.frame.data.columns.HashMapToInt;
 import org.apache.sysds.runtime.matrix.data.MatrixBlock;
 import org.apache.sysds.utils.stats.TransformStatistics;
 
@@ -51,7 +56,7 @@ public class ColumnEncoderRecode extends ColumnEncoder {
 
 	public ColumnEncoderRecode(int colID) {
 		super(colID);
-		_rcdMap = new HashMap<>();
+		_rcdMap = new HashMapStringToInt(16);
 	}
 
 	public ColumnEncoderRecode() {
@@ -113,18 +118,50 @@ public class ColumnEncoderRecode extends ColumnEncoder {
 			putCode(map, key);
 	}
 
+	@SuppressWarnings("unchecked")
 	private static void makeRcdMap(CacheBlock<?> in, Map<Object, Integer> map, int colID, int startRow, int blk) {
-		for(int row = startRow; row < getEndIndex(in.getNumRows(), startRow, blk); row++){
-			String key = in.getString(row, colID - 1);
-			if(key != null && !key.isEmpty() && !map.containsKey(key))
-				putCode(map, key);
+		final int endRow = getEndIndex(in.getNumRows(), startRow, blk);
+		final DDCArray<?> ddc = getDDCColumn(in, colID);
+		if(ddc != null) {
+			// probe each distinct value once, in order of first occurrence
+			final Array<?> dict = ddc.getDict();
+			final AMapToData m = ddc.getMap();
+			final boolean[] seen = new boolean[dict.size()];
+			for(int row = startRow; row < endRow; row++) {
+				final int id = m.getIndex(row);
+				if(!seen[id]) {
+					seen[id] = true;
+					final String key = getKey(dict.get(id));
+					if(key != null && !map.containsKey(key))
+						putCode(map, key);
+				}
+			}
+		}
+		else if(map instanceof HashMapToInt) {
+			// single probe per row w/o boxing of codes
+			final HashMapToInt<Object> hmap = (HashMapToInt<Object>) map;
+			for(int row = startRow; row < endRow; row++) {
+				String key = in.getString(row, colID - 1);
+				if(key != null && !key.isEmpty())
+					hmap.putIfAbsentI(key, hmap.size() + 1);
+			}
+		}
+		else {
+			for(int row = startRow; row < endRow; row++) {
+				String key = in.getString(row, colID - 1);
+				if(key != null && !key.isEmpty() && !map.containsKey(key))
+					putCode(map, key);
+			}
 		}
 		if(SORT_RECODE_MAP) {
 			sortCPRecodeMaps(map);
 		}
 	}
 
+	@SuppressWarnings("unchecked")
 	private long lookupRCDMap(Object key) {
+		if(_rcdMap instanceof HashMapToInt)
+			return ((HashMapToInt<Object>) _rcdMap).getI(key);
 		return _rcdMap.getOrDefault(key, -1);
 	}
 
@@ -145,7 +182,7 @@ public class ColumnEncoderRecode extends ColumnEncoder {
 			else {
 				distinctFreq.put(key, 1);
 				// Maintain total size of the keys
-				totSize += (key.length() * 2L + 16); //sizeof(String) = len(chars) + header
+				totSize += key.length(); //interned UTF-8 bytes (mostly ASCII)
 			}
 		}
 
@@ -158,7 +195,7 @@ public class ColumnEncoderRecode extends ColumnEncoder {
 		// Compute total size estimates for each partial recode map
 		// We assume each partial map contains all distinct values and have the same size
 		long avgKeySize = totSize / distinctFreq.size();
-		long valSize = 16L; //sizeof(Long) = 8 + header
+		long valSize = 27L; //hash table slot (address, length, hash, code) at 0.75 load
 		this._avgEntrySize = avgKeySize + valSize;
 		long estMapSize = estDistCount * _avgEntrySize;
 		setEstMetaSize(estMapSize);
@@ -220,6 +257,9 @@ public class ColumnEncoderRecode extends ColumnEncoder {
 	protected double[] getCodeCol(CacheBlock<?> in, int startInd, int endInd, double[] tmp) {
 		final int endLength = endInd - startInd;
 		final double[] codes = tmp != null && tmp.length == endLength ? tmp : new double[endLength];
+		final double[] dictCodes = getDictCodes(in, endLength);
+		if(dictCodes != null)
+			return getCodeColDDC(in, dictCodes, startInd, endInd, codes);
 		for (int i=startInd; i<endInd; i++) {
 			String key = in.getString(i, _colID-1);
 			if(key == null || key.isEmpty()) {
@@ -232,6 +272,64 @@ public class ColumnEncoderRecode extends ColumnEncoder {
 		return codes;
 	}
 
+	/**
+	 * Get the codes of the dictionary entries if the input column is DDC compressed and its dictionary is not larger
+	 * than the number of rows to encode. The codes can be reused for all row ranges of the column, see
+	 * {@link #getCodeColDDC(CacheBlock, double[], int, int, double[])}.
+	 *
+	 * @param in      The input block
+	 * @param numRows The number of rows to encode
+	 * @return The codes of the dictionary entries, or null if the column is not DDC compressed or the dictionary
+	 *         lookups would exceed the row lookups
+	 */
+	protected double[] getDictCodes(CacheBlock<?> in, int numRows) {
+		final DDCArray<?> ddc = getDDCColumn(in, _colID);
+		if(ddc == null || ddc.getDict().size() > numRows)
+			return null;
+		// lookup the codes of the dictionary once, and map the rows through the compressed column
+		final Array<?> dict = ddc.getDict();
+		final double[] dictCodes = new double[dict.size()];
+		for(int i = 0; i < dictCodes.length; i++) {
+			final String key = getKey(dict.get(i));
+			final long code = key == null ? -1 : lookupRCDMap(key);
+			dictCodes[i] = (code < 0) ? Double.NaN : code;
+		}
+		return dictCodes;
+	}
+
+	/**
+	 * Get the codes of a row range of a DDC compressed input column by mapping the rows to the codes of the
+	 * dictionary entries.
+	 *
+	 * @param in        The input block with a DDC compressed column
+	 * @param dictCodes The codes of the dictionary entries, see {@link #getDictCodes(CacheBlock, int)}
+	 * @param startInd  The start index
+	 * @param endInd    The end index
+	 * @param codes     The output array of at least endInd - startInd length
+	 * @return The codes
+	 */
+	protected double[] getCodeColDDC(CacheBlock<?> in, double[] dictCodes, int startInd, int endInd,
+		double[] codes) {
+		final AMapToData m = getDDCColumn(in, _colID).getMap();
+		for(int i = startInd; i < endInd; i++)
+			codes[i - startInd] = dictCodes[m.getIndex(i)];
+		return codes;
+	}
+
+	private static DDCArray<?> getDDCColumn(CacheBlock<?> in, int colID) {
+		if(in instanceof FrameBlock) {
+			final Array<?> a = ((FrameBlock) in).getColumn(colID - 1);
+			if(a instanceof DDCArray && ((DDCArray<?>) a).getDict() != null)
+				return (DDCArray<?>) a;
+		}
+		return null;
+	}
+
+	private static String getKey(Object o) {
+		final String key = o == null ? null : o.toString();
+		return key == null || key.isEmpty() ? null : key;
+	}
+
 	@Override
 	public void prepareBuildPartial() {
 		// ensure allocated partial recode map
@@ -445,7 +543,7 @@ public class ColumnEncoderRecode extends ColumnEncoder {
 		@Override
 		public Object call() throws Exception {
 			long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
-			HashMap<Object, Integer> partialMap = new HashMap<>();
+			HashMapStringToInt partialMap = new HashMapStringToInt(16);
 			makeRcdMap(_input, partialMap, _colID, _startRow, _blockSize);
 			synchronized(_partialMaps) {
 				_partialMaps.put(_startRow, partialMap);
@@ -477,7 +575,7 @@ public class ColumnEncoderRecode extends ColumnEncoder {
 			long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
 			Map<Object, Integer> rcdMap = _encoder.getRcdMap();
 			_partialMaps.forEach((start_row, map) -> {
-				((HashMap<?, ?>) map).forEach((k, v) -> {
+				((Map<?, ?>) map).forEach((k, v) -> {
 					if(!rcdMap.containsKey(k))
 						putCode(rcdMap, k);
 				});
@@ -28,11 +28,12 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicLong;
 
-import org.apache.commons.lang3.NotImplementedException;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.runtime.DMLRuntimeException;
 import org.apache.sysds.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysds.runtime.compress.CompressedMatrixBlockFactory;
 import org.apache.sysds.runtime.compress.colgroup.AColGroup;
 import org.apache.sysds.runtime.compress.colgroup.ColGroupConst;
 import org.apache.sysds.runtime.compress.colgroup.ColGroupDDC;
@@ -52,6 +53,7 @@ import org.apache.sysds.runtime.compress.estim.sample.SampleEstimatorFactory;
 import org.apache.sysds.runtime.compress.utils.IntArrayList;
 import org.apache.sysds.runtime.compress.utils.Util;
 import org.apache.sysds.runtime.data.DenseBlock;
+import org.apache.sysds.runtime.data.SparseBlockCSR;
 import org.apache.sysds.runtime.frame.data.FrameBlock;
 import org.apache.sysds.runtime.frame.data.columns.ACompressedArray;
 import org.apache.sysds.runtime.frame.data.columns.Array;
@@ -226,8 +228,10 @@ public class CompressedEncode {
 			return hash(c);
 		else if(c.isHashToDummy())
 			return hashToDummy(c);
+		else if(c.isBagOfWords())
+			return bagOfWords(c);
 		else
-			throw new NotImplementedException("Not supporting : " + c);
+			return buildAndApply(c);
 	}
 
 	@SuppressWarnings("unchecked")
@@ -413,6 +417,96 @@ public class CompressedEncode {
 		return ret;
 	}
 
+	private AColGroup bagOfWords(ColumnEncoderComposite c) throws InterruptedException, ExecutionException {
+		final ColumnEncoderBagOfWords b = (ColumnEncoderBagOfWords) c.getEncoders().get(0);
+		b.build(in);
+		final int domain = b.getDomainSize();
+		if(domain == 0)
+			return new ColGroupEmpty(SINGLE_COL_TMP_INDEX);
+
+		// the token counts per row are known from the build, so we directly fill a CSR block of the column
+		final int nRow = in.getNumRows();
+		final int[] rptr = new int[nRow + 1];
+		for(int i = 0; i < nRow; i++)
+			rptr[i + 1] = rptr[i] + b.getNnzInRow(i);
+		final int[] indexes = new int[rptr[nRow]];
+		final double[] values = new double[rptr[nRow]];
+
+		final int tk = k / in.getNumColumns();
+		if(isParallel() && tk > 1 && nRow > ROW_PARALLELIZATION_THRESHOLD) {
+			final int blkz = Math.max(ROW_PARALLELIZATION_THRESHOLD / 2, (nRow + tk) / tk);
+			List<Future<?>> tasks = new ArrayList<>();
+			for(int i = 0; i < nRow; i += blkz) {
+				final int start = i;
+				final int end = Math.min(nRow, i + blkz);
+				tasks.add(pool.submit(() -> bagOfWordsRows(b, rptr, indexes, values, start, end)));
+			}
+			for(Future<?> t : tasks)
+				t.get();
+		}
+		else
+			bagOfWordsRows(b, rptr, indexes, values, 0, nRow);
+
+		final int bnnz = rptr[nRow];
+		MatrixBlock mb = new MatrixBlock(nRow, domain, bnnz, new SparseBlockCSR(rptr, indexes, values, bnnz));
+		nnz.addAndGet(bnnz);
+		return ColGroupUncompressed.create(mb, ColIndexFactory.create(domain));
+	}
+
+	private void bagOfWordsRows(ColumnEncoderBagOfWords b, int[] rptr, int[] indexes, double[] values, int rl,
+		int ru) {
+		for(int i = rl; i < ru; i++)
+			b.applyRow(in, i, 0, indexes, values, rptr[i]);
+	}
+
+	/**
+	 * Fallback for encoder combinations without a dedicated column group mapping (e.g., user-defined functions). The
+	 * composite is built and applied on an output of only its own columns, which is then compressed on its own.
+	 * 
+	 * @param c The column encoder to build and apply
+	 * @return The column group of the encoded column(s)
+	 */
+	private AColGroup buildAndApply(ColumnEncoderComposite c) {
+		if(!isSupportedSequence(c.getEncoders()))
+			throw new DMLRuntimeException("Unsupported encoder sequence in compressed transformencode: " + c);
+		c.build(in);
+		c.updateAllDCEncoders();
+		final int nRow = in.getNumRows();
+		final int domain = Math.max(1, c.getDomainSize());
+		MatrixBlock col = new MatrixBlock(nRow, domain, false);
+		col.allocateDenseBlock();
+		c.apply(in, col, 0);
+		col.recomputeNonZeros();
+		nnz.addAndGet(col.getNonZeros());
+
+		final IColIndex colIndexes = ColIndexFactory.create(domain);
+		MatrixBlock cmb = CompressedMatrixBlockFactory.compress(col, isParallel() ? 1 : k).getLeft();
+		if(cmb instanceof CompressedMatrixBlock && ((CompressedMatrixBlock) cmb).getColGroups().size() == 1)
+			return ((CompressedMatrixBlock) cmb).getColGroups().get(0);
+		return ColGroupUncompressed.create(col, colIndexes);
+	}
+
+	/**
+	 * Checks that a dummycoder only appears as the last encoder of a sequence, directly after the encoder producing
+	 * its codes, since any other position leaves the dummycoder without valid codes.
+	 * 
+	 * @param encoders The encoder sequence of a composite
+	 * @return true if the sequence can be built and applied
+	 */
+	private static boolean isSupportedSequence(List<ColumnEncoder> encoders) {
+		for(int i = 0; i < encoders.size(); i++) {
+			if(encoders.get(i) instanceof ColumnEncoderDummycode) {
+				if(i == 0 || i != encoders.size() - 1)
+					return false;
+				final ColumnEncoder prev = encoders.get(i - 1);
+				if(!(prev instanceof ColumnEncoderRecode || prev instanceof ColumnEncoderBin ||
+					prev instanceof ColumnEncoderFeatureHash || prev instanceof ColumnEncoderUDF))
+					return false;
+			}
+		}
+		return true;
+	}
+
 	private ADictionary createRecodeDictionary(boolean containsNull, int domain) {
 		MatrixBlock incrementing = new MatrixBlock(domain + (containsNull ? 1 : 0), 1, false);
 		for(int i = 0; i < domain; i++)
@@ -179,6 +179,8 @@ public interface EncoderFactory {
 					else
 						throw new DMLRuntimeException("Unsupported binning method: " + method);
 					ColumnEncoderBin bin = new ColumnEncoderBin(id, numBins, binMethod);
+					if(colspec.containsKey("eps"))
+						bin.setApproxError(colspec.getDouble("eps"));
 					addEncoderToMap(bin, colEncoders);
 				}
 			if(!dcIDs.isEmpty())
@@ -193,7 +193,7 @@ public class EncoderMVImpute extends LegacyEncoder {
 							off + i + 1);
 					}
 					_replacementList[j] = String.valueOf(_meanList[j]._sum);
-					_countList[j] += in.getNumRows();
+					_countList[j] = off + in.getNumRows();
 				}
 				else if(_mvMethodList[j] == MVMethod.GLOBAL_MODE) {
 					// compute global column mode (categorical), i.e., most frequent category
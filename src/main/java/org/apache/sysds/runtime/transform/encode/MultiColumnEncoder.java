@@ -348,6 +348,30 @@ public class MultiColumnEncoder implements Encoder {
 			_legacyMVImpute.build(in);
 	}
 
+	/**
+	 * Incrementally builds the encoder metadata from one chunk of a larger input that is consumed in row order,
+	 * retaining the metadata of all previously consumed chunks (see StreamingEncode). After the last chunk,
+	 * finalizeBuildIncremental must be called before apply or getMetaData.
+	 *
+	 * @param in input chunk
+	 */
+	public void buildIncremental(FrameBlock in) {
+		for(ColumnEncoderComposite columnEncoder : _columnEncoders)
+			columnEncoder.buildIncremental(in);
+		if(hasLegacyEncoder())
+			legacyBuild(in);
+	}
+
+	public void finalizeBuildIncremental() {
+		for(ColumnEncoderComposite columnEncoder : _columnEncoders)
+			columnEncoder.finalizeBuildIncremental();
+		if(_legacyMVImpute != null) {
+			// see encode, recode the imputed replacement values
+			_meta = getMetaData(new FrameBlock(_columnEncoders.size(), Types.ValueType.STRING));
+			initMetaData(_meta);
+		}
+	}
+
 
 	public MatrixBlock apply(CacheBlock<?> in) {
 		return apply(in, 1);
@@ -1271,7 +1295,7 @@ public class MultiColumnEncoder implements Encoder {
 
 	public boolean isCompressedTransformEncode(CacheBlock<?> in, boolean enabled){
 		return (enabled || ConfigurationManager.getDMLConfig().getBooleanValue(DMLConfig.COMPRESSED_TRANSFORMENCODE)) &&
-			in instanceof FrameBlock && _colOffset == 0;
+			in instanceof FrameBlock && _colOffset == 0 && !hasLegacyEncoder();
 	}
 
 	public <T extends LegacyEncoder> boolean hasLegacyEncoder(Class<T> type) {
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.runtime.transform.encode;
+
+import java.util.function.Consumer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.frame.data.FrameBlock;
+import org.apache.sysds.runtime.instructions.ooc.OOCStream;
+import org.apache.sysds.runtime.instructions.spark.data.IndexedMatrixValue;
+import org.apache.sysds.runtime.io.FrameReader;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.matrix.data.MatrixIndexes;
+
+/**
+ * Streaming transformencode for frame inputs that do not fit into memory. The input is consumed as a sequence of row
+ * chunks in two passes: the first pass incrementally builds the recode, bin, and impute metadata, the second pass
+ * applies the encoders chunk by chunk and emits blen x blen matrix blocks into an OOC stream. At any time, only a single
+ * input chunk and one row strip of the output are held in memory.
+ */
+public class StreamingEncode {
+	protected static final Log LOG = LogFactory.getLog(StreamingEncode.class.getName());
+
+	/** Source of frame chunks in row order, which is read once per pass. */
+	@FunctionalInterface
+	public interface ChunkSource {
+		void read(Consumer<FrameBlock> consumer) throws Exception;
+	}
+
+	/** The encoding scheme plan */
+	private final MultiColumnEncoder enc;
+	/** The source of input chunks */
+	private final ChunkSource src;
+	/** The block size of the output stream */
+	private final int blen;
+
+	/** Remaining output rows that do not yet fill a row strip */
+	private MatrixBlock pending;
+	/** Next output row block index (0-based) */
+	private long rowBlk = 0;
+	private long nrow = 0;
+	private long nnz = 0;
+
+	private StreamingEncode(MultiColumnEncoder enc, ChunkSource src, int blen) {
+		this.enc = enc;
+		this.src = src;
+		this.blen = blen;
+	}
+
+	/**
+	 * Creates a chunk source that reads the given file with a chunk size of blen rows.
+	 * 
+	 * @param reader frame reader of the input format
+	 * @param fname  file name
+	 * @param schema schema as array of ValueTypes
+	 * @param names  column names
+	 * @param rlen   number of rows, or -1 if unknown
+	 * @param clen   number of columns, or -1 if unknown
+	 * @param blen   number of rows per chunk
+	 * @return chunk source
+	 */
+	public static ChunkSource fromReader(FrameReader reader, String fname, ValueType[] schema, String[] names,
+		long rlen, long clen, int blen) {
+		return c -> reader.readFrameChunksFromHDFS(fname, schema, names, rlen, clen, blen, c);
+	}
+
+	/**
+	 * First pass, builds the encoder metadata over all chunks of the source.
+	 * 
+	 * @param enc encoder
+	 * @param src source of input chunks
+	 * @return metadata frame of the built encoder
+	 */
+	public static FrameBlock build(MultiColumnEncoder enc, ChunkSource src) {
+		return new StreamingEncode(enc, src, -1).build();
+	}
+
+	/**
+	 * Second pass, applies the built encoder to all chunks of the source and emits the encoded matrix blocks into the
+	 * output stream, which is closed afterwards.
+	 * 
+	 * @param enc  encoder, already built
+	 * @param src  source of input chunks
+	 * @param blen block size of the output blocks
+	 * @param out  output stream of encoded blocks
+	 * @return number of encoded output rows
+	 */
+	public static long apply(MultiColumnEncoder enc, ChunkSource src, int blen, OOCStream<IndexedMatrixValue> out) {
+		return new StreamingEncode(enc, src, blen).apply(out);
+	}
+
+	/**
+	 * Builds the encoder over all chunks of the source, and applies it into the output stream.
+	 * 
+	 * @param enc  encoder
+	 * @param src  source of input chunks
+	 * @param blen block size of the output blocks
+	 * @param out  output stream of encoded blocks
+	 * @return metadata frame of the built encoder
+	 */
+	public static FrameBlock encode(MultiColumnEncoder enc, ChunkSource src, int blen,
+		OOCStream<IndexedMatrixValue> out) {
+		FrameBlock meta = build(enc, src);
+		apply(enc, src, blen, out);
+		return meta;
+	}
+
+	private FrameBlock build() {
+		long t0 = System.nanoTime();
+		int[] ncol = new int[] {-1};
+		read(chunk -> {
+			enc.buildIncremental(chunk);
+			ncol[0] = chunk.getNumColumns();
+			nrow += chunk.getNumRows();
+		});
+		if(ncol[0] < 0)
+			throw new DMLRuntimeException("Streaming transformencode on empty input");
+		enc.finalizeBuildIncremental();
+		FrameBlock meta = enc.getMetaData(new FrameBlock(ncol[0], ValueType.STRING));
+		if(LOG.isDebugEnabled())
+			LOG.debug("Streaming build over " + nrow + " rows: " + (System.nanoTime() - t0) / 1000000 + " ms");
+		return meta;
+	}
+
+	private long apply(OOCStream<IndexedMatrixValue> out) {
+		long t0 = System.nanoTime();
+		try {
+			read(chunk -> append(enc.apply(chunk, 1), out));
+			if(pending != null)
+				emit(pending, out);
+		}
+		finally {
+			out.closeInput();
+		}
+		if(LOG.isDebugEnabled())
+			LOG.debug("Streaming apply into " + nrow + " rows with " + nnz + " nnz: " + (System.nanoTime() - t0) / 1000000
+				+ " ms");
+		return nrow;
+	}
+
+	private void read(Consumer<FrameBlock> consumer) {
+		try {
+			src.read(consumer);
+		}
+		catch(Exception ex) {
+			throw ex instanceof DMLRuntimeException ? (DMLRuntimeException) ex : //
+				new DMLRuntimeException("Failed streaming transformencode", ex);
+		}
+	}
+
+	private void append(MatrixBlock mb, OOCStream<IndexedMatrixValue> out) {
+		// reblock into row strips of blen rows (chunks might be smaller, e.g., with omit)
+		MatrixBlock cur = pending == null ? mb : pending.append(mb, null, false);
+		final int rows = cur.getNumRows();
+		int off = 0;
+		if(rows == blen) {
+			emit(cur, out);
+			off = rows;
+		}
+		for(; rows - off >= blen; off += blen)
+			emit(cur.slice(off, off + blen - 1), out);
+		pending = off < rows ? cur.slice(off, rows - 1) : null;
+	}
+
+	private void emit(MatrixBlock strip, OOCStream<IndexedMatrixValue> out) {
+		final int ncol = strip.getNumColumns();
+		for(int cb = 0; cb * blen < ncol; cb++) {
+			final int cl = cb * blen;
+			final int cu = Math.min(cl + blen, ncol) - 1;
+			MatrixBlock blk = (cl == 0 && cu == ncol - 1) ? strip : //
+				strip.slice(0, strip.getNumRows() - 1, cl, cu, new MatrixBlock());
+			blk.examSparsity();
+			out.enqueue(new IndexedMatrixValue(new MatrixIndexes(rowBlk + 1, cb + 1), blk));
+		}
+		rowBlk++;
+		nrow += strip.getNumRows();
+		nnz += strip.getNonZeros();
+	}
+}
@@ -0,0 +1,385 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.transform.tokenize;
+
+import static org.apache.sysds.runtime.util.UtilFunctions.getBlockSizes;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.data.SparseBlockCSR;
+import org.apache.sysds.runtime.frame.data.FrameBlock;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.util.CommonThreadPool;
+
+/**
+ * Tokenizer that maps the whitespace separated word n-grams of a text column directly to hashed term counts in a
+ * sparse (CSR) matrix, i.e., a bag of n-grams with feature hashing.
+ * <p>
+ * In contrast to the {@link Tokenizer}, no Token objects or n-gram Strings are materialized. The characters of each
+ * document are scanned once, every word is hashed on the fly, and the hashes of all n-grams ending at a word are
+ * derived in constant time from a rolling polynomial hash over the word hashes. The feature indexes of a document are
+ * sorted and run-length counted into the CSR arrays, without a per-document hash map. Documents are processed in
+ * parallel over the row ranges given by {@link Tokenizer#TOKENIZE_NUM_BLOCKS}.
+ * <p>
+ * With letter tokenization, words are the maximal runs of letters, which matches the tokens of the bag-of-words
+ * encoder. There, the same scan maps the words of a document to their dictionary ids via a {@link TokenIndex}.
+ */
+public class HashingTokenizer implements Serializable {
+	private static final long serialVersionUID = -2395413592874321457L;
+
+	/** Odd multiplier of the rolling hash over the word hashes */
+	private static final long BASE = 0x9E3779B97F4A7C15L;
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private final int _minGram;
+	private final int _maxGram;
+	private final int _numFeatures;
+	private final boolean _caseSensitive;
+	/** Words are maximal runs of letters (as in the bag-of-words encoder) instead of whitespace separated */
+	private final boolean _letters;
+	/** BASE^n for n in [0, maxGram] */
+	private final long[] _pow;
+
+	public HashingTokenizer(int minGram, int maxGram, int numFeatures, boolean caseSensitive) {
+		this(minGram, maxGram, numFeatures, caseSensitive, false);
+	}
+
+	public HashingTokenizer(int minGram, int maxGram, int numFeatures, boolean caseSensitive, boolean letters) {
+		if(minGram < 1 || maxGram < minGram)
+			throw new DMLRuntimeException("Invalid n-gram range [" + minGram + ", " + maxGram + "]");
+		if(numFeatures < 1)
+			throw new DMLRuntimeException("Invalid number of hash features: " + numFeatures);
+		_minGram = minGram;
+		_maxGram = maxGram;
+		_numFeatures = numFeatures;
+		_caseSensitive = caseSensitive;
+		_letters = letters;
+		_pow = new long[maxGram + 1];
+		_pow[0] = 1;
+		for(int i = 1; i <= maxGram; i++)
+			_pow[i] = _pow[i - 1] * BASE;
+	}
+
+	public int getNumFeatures() {
+		return _numFeatures;
+	}
+
+	public MatrixBlock tokenize(FrameBlock in, int tokenizeCol) {
+		return tokenize(in, tokenizeCol, 1);
+	}
+
+	/**
+	 * Tokenizes the given text column into a matrix of hashed n-gram counts with one row per document and
+	 * numFeatures columns.
+	 * 
+	 * @param in          Input frame
+	 * @param tokenizeCol The 1-based index of the text column
+	 * @param k           The parallelization degree
+	 * @return The sparse matrix of term counts
+	 */
+	public MatrixBlock tokenize(FrameBlock in, int tokenizeCol, int k) {
+		final int nRow = in.getNumRows();
+		final int[] blockSizes = getBlockSizes(nRow, Math.max(1, Math.min(nRow, Tokenizer.TOKENIZE_NUM_BLOCKS)));
+		final Block[] blocks = new Block[blockSizes.length];
+		if(k > 1 && blocks.length > 1) {
+			final ExecutorService pool = CommonThreadPool.get(k);
+			try {
+				List<Future<Block>> tasks = new ArrayList<>(blocks.length);
+				for(int i = 0, rl = 0; i < blocks.length; rl += blockSizes[i], i++) {
+					final int s = rl, e = rl + blockSizes[i];
+					tasks.add(pool.submit(() -> tokenize(in, tokenizeCol - 1, s, e)));
+				}
+				for(int i = 0; i < blocks.length; i++)
+					blocks[i] = tasks.get(i).get();
+			}
+			catch(Exception ex) {
+				throw new DMLRuntimeException("Failed parallel hashing tokenize", ex);
+			}
+			finally {
+				pool.shutdown();
+			}
+		}
+		else {
+			for(int i = 0, rl = 0; i < blocks.length; rl += blockSizes[i], i++)
+				blocks[i] = tokenize(in, tokenizeCol - 1, rl, rl + blockSizes[i]);
+		}
+		return combine(blocks, nRow);
+	}
+
+	private MatrixBlock combine(Block[] blocks, int nRow) {
+		long lnnz = 0;
+		for(Block b : blocks)
+			lnnz += b.size;
+		if(lnnz > Integer.MAX_VALUE)
+			throw new DMLRuntimeException("Too many non-zeros for CSR output of tokenize: " + lnnz);
+		if(lnnz == 0)
+			return new MatrixBlock(nRow, _numFeatures, true);
+		final int nnz = (int) lnnz;
+		final int[] rptr = new int[nRow + 1];
+		final int[] indexes = new int[nnz];
+		final double[] values = new double[nnz];
+		int r = 0;
+		for(Block b : blocks) {
+			final int off = rptr[r];
+			System.arraycopy(b.indexes, 0, indexes, off, b.size);
+			System.arraycopy(b.values, 0, values, off, b.size);
+			for(int i = 0; i < b.rowNnz.length; i++, r++)
+				rptr[r + 1] = rptr[r] + b.rowNnz[i];
+		}
+		return new MatrixBlock(nRow, _numFeatures, nnz, new SparseBlockCSR(rptr, indexes, values, nnz));
+	}
+
+	private Block tokenize(FrameBlock in, int col, int rl, int ru) {
+		final Block out = new Block(ru - rl);
+		final long[] prefix = new long[_maxGram + 1];
+		int[] feats = new int[64];
+		for(int r = rl; r < ru; r++) {
+			final String doc = in.getString(r, col);
+			int n = 0;
+			if(doc != null) {
+				feats = ensureCapacity(feats, doc.length());
+				n = hashNgrams(doc, prefix, feats);
+			}
+			out.append(r - rl, feats, n);
+		}
+		return out;
+	}
+
+	/**
+	 * Ensures a feature buffer that fits all n-grams of a document of the given length.
+	 * 
+	 * @param feats The current buffer, or null
+	 * @param len   The length of the document
+	 * @return The given buffer if large enough, otherwise a new buffer
+	 */
+	public int[] ensureCapacity(int[] feats, int len) {
+		if(feats == null)
+			feats = new int[64];
+		// upper bound of n-grams: one word per two characters, times the number of n-gram lengths
+		final long bound = ((long) len / 2 + 1) * (_maxGram - _minGram + 1);
+		if(bound <= feats.length)
+			return feats;
+		return new int[(int) Math.min(Integer.MAX_VALUE - 8, Math.max(bound, 2L * feats.length))];
+	}
+
+	/**
+	 * Scans the characters of the document, hashes its word n-grams into feature indexes, and returns the number of
+	 * n-grams.
+	 */
+	private int hashNgrams(String doc, long[] prefix, int[] feats) {
+		final int len = doc.length();
+		final int ring = prefix.length;
+		prefix[0] = 0;
+		int numWords = 0;
+		int n = 0;
+		int i = 0;
+		while(i < len) {
+			// skip separators
+			while(i < len && isSeparator(doc.charAt(i)))
+				i++;
+			if(i >= len)
+				break;
+			// hash the word (FNV-1a) without creating a substring
+			final int start = i;
+			while(i < len && !isSeparator(doc.charAt(i)))
+				i++;
+			final long h = hashWord(doc, start, i);
+			// rolling prefix hash: P_t = P_(t-1) * BASE + h_t
+			final long p = prefix[numWords % ring] * BASE + h;
+			numWords++;
+			prefix[numWords % ring] = p;
+			// n-gram over words (t-n, t]: P_t - P_(t-n) * BASE^n
+			final int maxN = Math.min(_maxGram, numWords);
+			for(int g = _minGram; g <= maxN; g++)
+				feats[n++] = toFeature(p - prefix[(numWords - g) % ring] * _pow[g], g);
+		}
+		// sort the feature indexes to run-length count them into the sorted CSR row
+		Arrays.sort(feats, 0, n);
+		return n;
+	}
+
+	private int toFeature(long h, int g) {
+		// mix in the n-gram length and finalize (murmur3 fmix64) before the modulo
+		h ^= g * 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return (int) ((h >>> 1) % _numFeatures);
+	}
+
+	/**
+	 * Scans the words of the document and looks up their ids in the given token index, see
+	 * {@link #createIndex(Map)}. Words without id are skipped.
+	 * 
+	 * @param doc   The document
+	 * @param index The index of the token dictionary
+	 * @param ids   The output buffer, see {@link #ensureCapacity(int[], int)}
+	 * @return The number of found ids, written in ascending order to the buffer
+	 */
+	public int getTokenIds(String doc, TokenIndex index, int[] ids) {
+		final int len = doc.length();
+		int n = 0;
+		int i = 0;
+		while(i < len) {
+			while(i < len && isSeparator(doc.charAt(i)))
+				i++;
+			if(i >= len)
+				break;
+			final int start = i;
+			while(i < len && !isSeparator(doc.charAt(i)))
+				i++;
+			final int id = index.get(hashWord(doc, start, i), doc, start, i, _caseSensitive);
+			if(id > 0)
+				ids[n++] = id;
+		}
+		// sort the ids to run-length count them into the sorted output row
+		Arrays.sort(ids, 0, n);
+		return n;
+	}
+
+	/**
+	 * Creates an index of the given token dictionary by the word hashes of this tokenizer. The tokens are expected in
+	 * the normalized (e.g., lower) case of this tokenizer.
+	 * 
+	 * @param dict The token dictionary with ids starting at 1
+	 * @return The token index
+	 */
+	public TokenIndex createIndex(Map<?, Integer> dict) {
+		final TokenIndex index = new TokenIndex(dict.size());
+		for(Map.Entry<?, Integer> e : dict.entrySet()) {
+			final String token = e.getKey().toString();
+			index.put(hashWord(token, 0, token.length()), token, e.getValue());
+		}
+		return index;
+	}
+
+	/** FNV-1a hash of the (case normalized) characters of doc[start, end). */
+	private long hashWord(String doc, int start, int end) {
+		long h = FNV_OFFSET;
+		for(int i = start; i < end; i++) {
+			char c = doc.charAt(i);
+			h = (h ^ (_caseSensitive ? c : Character.toLowerCase(c))) * FNV_PRIME;
+		}
+		return h;
+	}
+
+	private boolean isSeparator(char c) {
+		return _letters ? !Character.isLetter(c) : isWhitespace(c);
+	}
+
+	/** Separators of the default whitespace regex {@code \s} of the split tokenizer. */
+	private static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == '\u000B';
+	}
+
+	/**
+	 * Open addressing index of a token dictionary by word hash. Hits are verified against the dictionary token, so
+	 * the looked up ids are exact even for colliding hashes.
+	 */
+	public static class TokenIndex {
+		private final long[] _hashes;
+		private final String[] _tokens;
+		private final int[] _ids;
+		private final int _mask;
+
+		private TokenIndex(int size) {
+			// power of two capacity of at least twice the number of tokens
+			final int cap = Integer.highestOneBit(Math.max(2, 2 * size) - 1) << 1;
+			_hashes = new long[cap];
+			_tokens = new String[cap];
+			_ids = new int[cap];
+			_mask = cap - 1;
+		}
+
+		private void put(long h, String token, int id) {
+			int ix = slot(h);
+			while(_tokens[ix] != null)
+				ix = (ix + 1) & _mask;
+			_hashes[ix] = h;
+			_tokens[ix] = token;
+			_ids[ix] = id;
+		}
+
+		private int get(long h, String doc, int start, int end, boolean caseSensitive) {
+			for(int ix = slot(h); _tokens[ix] != null; ix = (ix + 1) & _mask)
+				if(_hashes[ix] == h && matches(_tokens[ix], doc, start, end, caseSensitive))
+					return _ids[ix];
+			return 0;
+		}
+
+		private int slot(long h) {
+			return (int) (h ^ (h >>> 32)) & _mask;
+		}
+
+		private static boolean matches(String token, String doc, int start, int end, boolean caseSensitive) {
+			if(token.length() != end - start)
+				return false;
+			for(int j = 0; j < token.length(); j++) {
+				final char c = doc.charAt(start + j);
+				if(token.charAt(j) != (caseSensitive ? c : Character.toLowerCase(c)))
+					return false;
+			}
+			return true;
+		}
+	}
+
+	/** Row-range local CSR arrays, concatenated into the final output. */
+	private static class Block {
+		private final int[] rowNnz;
+		private int[] indexes;
+		private double[] values;
+		private int size;
+
+		private Block(int nRow) {
+			rowNnz = new int[nRow];
+			indexes = new int[Math.max(16, nRow)];
+			values = new double[indexes.length];
+		}
+
+		/** Appends the run-length counts of the sorted feature indexes as one row. */
+		private void append(int r, int[] feats, int n) {
+			if(size + n > indexes.length) {
+				int cap = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(size + n, 2L * indexes.length));
+				indexes = Arrays.copyOf(indexes, cap);
+				values = Arrays.copyOf(values, cap);
+			}
+			final int start = size;
+			for(int i = 0; i < n; i++) {
+				if(size > start && indexes[size - 1] == feats[i])
+					values[size - 1]++;
+				else {
+					indexes[size] = feats[i];
+					values[size++] = 1;
+				}
+			}
+			rowNnz[r] = size - start;
+		}
+	}
+}
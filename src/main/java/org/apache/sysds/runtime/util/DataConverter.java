@@ -289,8 +289,9 @@ public class DataConverter {
 				// row vector
 				SparseBlock sb = mb.getSparseBlock();
 				int[] tmp = sb.indexes(0);
-				return (tmp.length == sb.size(0)) ? tmp :
-					Arrays.copyOfRange(tmp, 0, sb.size(0));
+				int apos = sb.pos(0);
+				return (apos == 0 && tmp.length == sb.size(0)) ? tmp :
+					Arrays.copyOfRange(tmp, apos, apos + sb.size(0));
 			}
 			else {
 				// column vector
@@ -288,6 +288,34 @@ public class HDFSTool
 		return ret;
 	}
 	
+	/**
+	 * Returns the latest modification time of a file or directory (including
+	 * all files in the directory, e.g., multi-part outputs).
+	 *
+	 * @param fname file name
+	 * @return modification time in milliseconds, or -1 if not existing
+	 */
+	public static long getModificationTime(String fname) {
+		if( fname == null || fname.trim().isEmpty() )
+			return -1;
+		try {
+			Path path = new Path(fname);
+			FileSystem fs = IOUtilFunctions.getFileSystem(path);
+			if( !fs.exists(path) )
+				return -1;
+			FileStatus stat = fs.getFileStatus(path);
+			long ret = stat.getModificationTime();
+			if( stat.isDirectory() )
+				for( FileStatus child : fs.listStatus(path) )
+					ret = Math.max(ret, child.getModificationTime());
+			return ret;
+		}
+		catch(Exception ex) {
+			LOG.error("Failed to obtain modification time of "+fname+".", ex);
+			return -1;
+		}
+	}
+
 	private static BufferedReader setupInputFile(String filename) throws IOException {
 		Path path = new Path(filename);
 		FileSystem fs = IOUtilFunctions.getFileSystem(path);
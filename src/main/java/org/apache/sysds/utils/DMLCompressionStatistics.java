@@ -19,121 +19,99 @@
 
 package org.apache.sysds.utils;
 
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
 public class DMLCompressionStatistics {
 
-	private static double Phase0 = 0.0;
-	private static double Phase1 = 0.0;
-	private static double Phase2 = 0.0;
-	private static double Phase3 = 0.0;
-	private static double Phase4 = 0.0;
-	private static double Phase5 = 0.0;
+	private static final DoubleAdder[] Phases = new DoubleAdder[] {new DoubleAdder(), new DoubleAdder(),
+		new DoubleAdder(), new DoubleAdder(), new DoubleAdder(), new DoubleAdder()};
 
-	private static int DecompressSTCount = 0;
-	private static double DecompressST = 0.0;
-	private static int DecompressMTCount = 0;
-	private static double DecompressMT = 0.0;
+	private static final LongAdder DecompressSTCount = new LongAdder();
+	private static final DoubleAdder DecompressST = new DoubleAdder();
+	private static final LongAdder DecompressMTCount = new LongAdder();
+	private static final DoubleAdder DecompressMT = new DoubleAdder();
 
-	private static int DecompressToSTCount = 0;
-	private static double DecompressToST = 0.0;
-	private static int DecompressToMTCount = 0;
-	private static double DecompressToMT = 0.0;
+	private static final LongAdder DecompressToSTCount = new LongAdder();
+	private static final DoubleAdder DecompressToST = new DoubleAdder();
+	private static final LongAdder DecompressToMTCount = new LongAdder();
+	private static final DoubleAdder DecompressToMT = new DoubleAdder();
 
-	private static int DecompressSparkCount = 0;
-	private static int DecompressCacheCount = 0;
+	private static final LongAdder DecompressSparkCount = new LongAdder();
+	private static final LongAdder DecompressCacheCount = new LongAdder();
 
 	public static void reset() {
-		Phase0 = 0.0;
-		Phase1 = 0.0;
-		Phase2 = 0.0;
-		Phase3 = 0.0;
-		Phase4 = 0.0;
-		Phase5 = 0.0;
-		DecompressSTCount = 0;
-		DecompressST = 0.0;
-		DecompressMTCount = 0;
-		DecompressMT = 0.0;
-		DecompressToSTCount = 0;
-		DecompressToST = 0.0;
-		DecompressToMTCount = 0;
-		DecompressToMT = 0.0;
-		DecompressSparkCount = 0;
-		DecompressCacheCount = 0;
+		for(DoubleAdder phase : Phases)
+			phase.reset();
+		DecompressSTCount.reset();
+		DecompressST.reset();
+		DecompressMTCount.reset();
+		DecompressMT.reset();
+		DecompressToSTCount.reset();
+		DecompressToST.reset();
+		DecompressToMTCount.reset();
+		DecompressToMT.reset();
+		DecompressSparkCount.reset();
+		DecompressCacheCount.reset();
 	}
 
 	public static boolean haveCompressed() {
-		return Phase0 > 0;
+		return Phases[0].sum() > 0;
 	}
 
 	public static void addCompressionTime(double time, int phase) {
-		switch(phase) {
-			case 0:
-				Phase0 += time;
-				break;
-			case 1:
-				Phase1 += time;
-				break;
-			case 2:
-				Phase2 += time;
-				break;
-			case 3:
-				Phase3 += time;
-				break;
-			case 4:
-				Phase4 += time;
-				break;
-			case 5:
-				Phase5 += time;
-				break;
-		}
+		if(phase >= 0 && phase < Phases.length)
+			Phases[phase].add(time);
 	}
 
 	public static void addDecompressTime(double time, int threads) {
 		if(threads == 1) {
-			DecompressSTCount++;
-			DecompressST += time;
+			DecompressSTCount.increment();
+			DecompressST.add(time);
 		}
 		else {
-			DecompressMTCount++;
-			DecompressMT += time;
+			DecompressMTCount.increment();
+			DecompressMT.add(time);
 		}
 	}
 
 	public static void addDecompressToBlockTime(double time, int threads) {
 		if(threads == 1) {
-			DecompressToSTCount++;
-			DecompressToST += time;
+			DecompressToSTCount.increment();
+			DecompressToST.add(time);
 		}
 		else {
-			DecompressToMTCount++;
-			DecompressToMT += time;
+			DecompressToMTCount.increment();
+			DecompressToMT.add(time);
 		}
 	}
 
 	public static void addDecompressSparkCount() {
-		DecompressSTCount++;
+		DecompressSTCount.increment();
 	}
 
 	public static void addDecompressCacheCount() {
-		DecompressCacheCount++;
+		DecompressCacheCount.increment();
 	}
 
 	public static int getDecompressionCount() {
-		return DecompressMTCount + DecompressSTCount + DecompressSparkCount + DecompressCacheCount + DecompressToSTCount +
-			DecompressToMTCount;
+		return (int) (DecompressMTCount.sum() + DecompressSTCount.sum() + DecompressSparkCount.sum() +
+			DecompressCacheCount.sum() + DecompressToSTCount.sum() + DecompressToMTCount.sum());
 	}
 
 	public static void display(StringBuilder sb) {
 		if(haveCompressed()) { // If compression have been used
-			sb.append(String.format("CLA Compression Phases :\t%.3f/%.3f/%.3f/%.3f/%.3f/%.3f\n", Phase0 / 1000,
-				Phase1 / 1000, Phase2 / 1000, Phase3 / 1000, Phase4 / 1000, Phase5 / 1000));
+			sb.append(String.format("CLA Compression Phases :\t%.3f/%.3f/%.3f/%.3f/%.3f/%.3f\n", Phases[0].sum() / 1000,
+				Phases[1].sum() / 1000, Phases[2].sum() / 1000, Phases[3].sum() / 1000, Phases[4].sum() / 1000,
+				Phases[5].sum() / 1000));
 			sb.append(String.format("Decompression with allocation (Single, Multi, Spark, Cache) : %d/%d/%d/%d\n",
-				DecompressSTCount, DecompressMTCount, DecompressSparkCount, DecompressCacheCount));
+				DecompressSTCount.sum(), DecompressMTCount.sum(), DecompressSparkCount.sum(), DecompressCacheCount.sum()));
 			sb.append(String.format("Decompression with allocation Time (Single , Multi)         : %.3f/%.3f sec.\n",
-				DecompressST / 1000, DecompressMT / 1000));
+				DecompressST.sum() / 1000, DecompressMT.sum() / 1000));
 			sb.append(String.format("Decompression to block (Single, Multi)                      : %d/%d\n",
-				DecompressToSTCount, DecompressToMTCount));
+				DecompressToSTCount.sum(), DecompressToMTCount.sum()));
 			sb.append(String.format("Decompression to block Time (Single, Multi)                 : %.3f/%.3f sec.\n",
-				DecompressToST / 1000, DecompressToMT / 1000));
+				DecompressToST.sum() / 1000, DecompressToMT.sum() / 1000));
 		}
 	}
 }
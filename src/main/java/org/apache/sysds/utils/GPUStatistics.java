@@ -33,7 +33,7 @@ import java.util.concurrent.atomic.LongAdder;
  * Printed as part of {@link Statistics}.
  */
 public class GPUStatistics {
-	private static int iNoOfExecutedGPUInst = 0;
+	private static final LongAdder iNoOfExecutedGPUInst = new LongAdder();
 	
 	public static long cudaInitTime = 0;
 	public static LongAdder cudaLibrariesInitTime = new LongAdder();
@@ -132,16 +132,17 @@ public class GPUStatistics {
 	}
 
 
-	public static synchronized void setNoOfExecutedGPUInst(int numJobs) {
-		iNoOfExecutedGPUInst = numJobs;
+	public static void setNoOfExecutedGPUInst(int numJobs) {
+		iNoOfExecutedGPUInst.reset();
+		iNoOfExecutedGPUInst.add(numJobs);
 	}
 
-	public static synchronized void incrementNoOfExecutedGPUInst() {
-		iNoOfExecutedGPUInst ++;
+	public static void incrementNoOfExecutedGPUInst() {
+		iNoOfExecutedGPUInst.increment();
 	}
 
-	public static synchronized int getNoOfExecutedGPUInst() {
-		return iNoOfExecutedGPUInst;
+	public static int getNoOfExecutedGPUInst() {
+		return iNoOfExecutedGPUInst.intValue();
 	}
 
 	/**
@@ -40,6 +40,7 @@ import org.apache.sysds.runtime.lineage.LineageCacheStatistics;
 import org.apache.sysds.runtime.lineage.LineageItem;
 import org.apache.sysds.runtime.lineage.LineageItemUtils;
 import org.apache.sysds.utils.stats.CodegenStatistics;
+import org.apache.sysds.utils.stats.ExecutionProfiler;
 import org.apache.sysds.utils.stats.NGramBuilder;
 import org.apache.sysds.utils.stats.NativeStatistics;
 import org.apache.sysds.utils.stats.ParForStatistics;
@@ -51,12 +52,14 @@ import org.apache.sysds.utils.stats.TransformStatistics;
 import java.lang.management.CompilationMXBean;
 import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
 import java.text.DecimalFormat;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -64,7 +67,10 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.DoubleAccumulator;
 import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAccumulator;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 
@@ -78,6 +84,24 @@ public class Statistics
 		private final LongAdder count = new LongAdder();
 	}
 
+	private static class InstStatsBuffer {
+		private final long epoch;
+		//weak reference to the owning thread, to fold buffers of terminated threads
+		private final WeakReference<Thread> owner;
+		//single writer (owning thread), concurrent readers on merge
+		private final ConcurrentHashMap<String, InstStats> stats = new ConcurrentHashMap<>();
+
+		private InstStatsBuffer(long epoch) {
+			this.epoch = epoch;
+			this.owner = new WeakReference<>(Thread.currentThread());
+		}
+
+		private boolean isOwnerAlive() {
+			Thread t = owner.get();
+			return t != null && t.isAlive();
+		}
+	}
+
 	public static class NGramStats {
 
 		public final long n;
@@ -184,8 +208,13 @@ public class Statistics
 	private static long execStartTime = 0;
 	private static long execEndTime = 0;
 	
-	//heavy hitter counts and times 
-	private static final ConcurrentHashMap<String,InstStats> _instStats = new ConcurrentHashMap<>();
+	//heavy hitter counts and times, maintained in per-thread buffers (w/o contention
+	//on shared entries across parfor workers) and merged on read; buffers of terminated
+	//threads are folded into a shared aggregate on merge (guarded by the class lock)
+	private static final ConcurrentLinkedQueue<InstStatsBuffer> _instStatsBuffers = new ConcurrentLinkedQueue<>();
+	private static final HashMap<String, InstStats> _instStatsFolded = new HashMap<>();
+	private static final ThreadLocal<InstStatsBuffer> _instStatsLocal = new ThreadLocal<>();
+	private static volatile long _instStatsEpoch = 0;
 	private static final ConcurrentHashMap<String, NGramBuilder<String, NGramStats>[]> _instStatsNGram = new ConcurrentHashMap<>();
 	private static final ConcurrentHashMap<Long, Entry<String, LineageItem>> _instStatsLineageTracker = new ConcurrentHashMap<>();
 	private static final ConcurrentHashMap<LineageItem, LineageNGramExtension> _lineageExtensions = new ConcurrentHashMap<>();
@@ -196,17 +225,17 @@ public class Statistics
 
 	// number and size of pinned objects in scope
 	private static final DoubleAdder sizeofPinnedObjects = new DoubleAdder();
-	private static long maxNumPinnedObjects = 0;
-	private static double maxSizeofPinnedObjects = 0;
+	private static final LongAccumulator maxNumPinnedObjects = new LongAccumulator(Long::max, 0);
+	private static final DoubleAccumulator maxSizeofPinnedObjects = new DoubleAccumulator(Double::max, 0);
 
 	// Maps to keep track of CP memory objects for JMLC (e.g. in memory matrices and frames)
 	private static final ConcurrentHashMap<String,Double> _cpMemObjs = new ConcurrentHashMap<>();
 	private static final ConcurrentHashMap<Integer,Double> _currCPMemObjs = new ConcurrentHashMap<>();
 
 	//JVM stats (low frequency updates)
-	private static long jitCompileTime = 0; //in milli sec
-	private static long jvmGCTime = 0; //in milli sec
-	private static long jvmGCCount = 0; //count
+	private static final LongAdder jitCompileTime = new LongAdder(); //in milli sec
+	private static final LongAdder jvmGCTime = new LongAdder(); //in milli sec
+	private static final LongAdder jvmGCCount = new LongAdder(); //count
 
 	//Function recompile stats 
 	private static final LongAdder funRecompileTime = new LongAdder(); //in nano sec
@@ -216,9 +245,10 @@ public class Statistics
 	private static final LongAdder lTotalLix = new LongAdder();
 	private static final LongAdder lTotalLixUIP = new LongAdder();
 
-	public static long recomputeNNZTime = 0;
-	public static long examSparsityTime = 0;
-	public static long allocateDoubleArrTime = 0;
+	//matrix block times (in nano sec)
+	private static final LongAdder recomputeNNZTime = new LongAdder();
+	private static final LongAdder examSparsityTime = new LongAdder();
+	private static final LongAdder allocateDoubleArrTime = new LongAdder();
 
 	public static boolean allowWorkerStatistics = true;
 
@@ -280,16 +310,16 @@ public class Statistics
 			GPUStatistics.setNoOfExecutedGPUInst(0);
 	}
 	
-	public static synchronized void incrementJITCompileTime( long time ) {
-		jitCompileTime += time;
+	public static void incrementJITCompileTime( long time ) {
+		jitCompileTime.add(time);
 	}
 	
-	public static synchronized void incrementJVMgcTime( long time ) {
-		jvmGCTime += time;
+	public static void incrementJVMgcTime( long time ) {
+		jvmGCTime.add(time);
 	}
 	
-	public static synchronized void incrementJVMgcCount( long delta ) {
-		jvmGCCount += delta;
+	public static void incrementJVMgcCount( long delta ) {
+		jvmGCCount.add(delta);
 	}
 
 	public static void incrementFunRecompileTime( long delta ) {
@@ -300,6 +330,18 @@ public class Statistics
 		funRecompiles.increment();
 	}
 
+	public static void incrementRecomputeNNZTime( long delta ) {
+		recomputeNNZTime.add(delta);
+	}
+
+	public static void incrementExamSparsityTime( long delta ) {
+		examSparsityTime.add(delta);
+	}
+
+	public static void incrementAllocateDoubleArrTime( long delta ) {
+		allocateDoubleArrTime.add(delta);
+	}
+
 	public static void startCompileTimer() {
 		if( DMLScript.STATISTICS )
 			compileStartTime = System.nanoTime();
@@ -355,6 +397,10 @@ public class Statistics
 		lTotalLix.reset();
 		lTotalLixUIP.reset();
 		lTotalUIPVar.reset();
+
+		recomputeNNZTime.reset();
+		examSparsityTime.reset();
+		allocateDoubleArrTime.reset();
 		
 		CacheStatistics.reset();
 		LineageCacheStatistics.reset();
@@ -372,23 +418,31 @@ public class Statistics
 
 		_instStatsNGram.clear();
 		_instStatsLineageTracker.clear();
-		_instStats.clear();
 	}
 
 	public static void resetJITCompileTime(){
-		jitCompileTime = -1 * getJITCompileTime();
+		long tmp = getJITCompileTime();
+		jitCompileTime.reset();
+		jitCompileTime.add(-tmp);
 	}
 	
 	public static void resetJVMgcTime(){
-		jvmGCTime = -1 * getJVMgcTime();
+		long tmp = getJVMgcTime();
+		jvmGCTime.reset();
+		jvmGCTime.add(-tmp);
 	}
 	
 	public static void resetJVMgcCount(){
-		jvmGCTime = -1 * getJVMgcCount();
+		long tmp = getJVMgcCount();
+		jvmGCCount.reset();
+		jvmGCCount.add(-tmp);
 	}
 
-	public static void resetCPHeavyHitters(){
-		_instStats.clear();
+	public static synchronized void resetCPHeavyHitters(){
+		//invalidate all thread-local buffers (re-registered on next update)
+		_instStatsEpoch++;
+		_instStatsBuffers.clear();
+		_instStatsFolded.clear();
 	}
 
 	public static String getCPHeavyHitterCode( Instruction inst )
@@ -425,10 +479,8 @@ public class Statistics
 	 * objects and total size yet seen
 	 */
 	private static void maintainMemMaxStats() {
-		if (maxSizeofPinnedObjects < sizeofPinnedObjects.doubleValue())
-			maxSizeofPinnedObjects = sizeofPinnedObjects.doubleValue();
-		if (maxNumPinnedObjects < _currCPMemObjs.size())
-			maxNumPinnedObjects = _currCPMemObjs.size();
+		maxSizeofPinnedObjects.accumulate(sizeofPinnedObjects.doubleValue());
+		maxNumPinnedObjects.accumulate(_currCPMemObjs.size());
 	}
 
 	/**
@@ -462,19 +514,70 @@ public class Statistics
 	 * @param timeNanos time in nano seconds
 	 */
 	public static void maintainCPHeavyHitters( String instName, long timeNanos ) {
-		//maintain instruction entry (w/ robustness for concurrent updates)
-		InstStats tmp = _instStats.get(instName);
-		if( tmp == null ) {
-			InstStats tmp0 = new InstStats();
-			InstStats tmp1 = _instStats.putIfAbsent(instName, tmp0);
-			tmp = (tmp1 != null) ? tmp1 : tmp0;
-		}
-		
-		//thread-local maintenance of instruction stats
+		//maintain instruction entry in thread-local buffer (uncontended updates)
+		InstStats tmp = getLocalInstStats(instName);
 		tmp.time.add(timeNanos);
 		tmp.count.increment();
 	}
 
+	private static InstStats getLocalInstStats( String instName ) {
+		InstStatsBuffer buff = _instStatsLocal.get();
+		long epoch = _instStatsEpoch;
+		if( buff == null || buff.epoch != epoch ) {
+			buff = new InstStatsBuffer(epoch);
+			_instStatsLocal.set(buff);
+			_instStatsBuffers.add(buff);
+		}
+		InstStats tmp = buff.stats.get(instName);
+		if( tmp == null ) {
+			tmp = new InstStats();
+			buff.stats.put(instName, tmp);
+		}
+		return tmp;
+	}
+
+	/**
+	 * Merges the thread-local heavy hitter buffers of all threads, after folding
+	 * the buffers of terminated threads into the shared aggregate.
+	 * 
+	 * @return map of instruction names and aggregated stats
+	 */
+	private static synchronized HashMap<String, InstStats> getMergedInstStats() {
+		foldInstStatsBuffers();
+		HashMap<String, InstStats> ret = new HashMap<>();
+		addInstStats(ret, _instStatsFolded);
+		for( InstStatsBuffer buff : _instStatsBuffers )
+			addInstStats(ret, buff.stats);
+		return ret;
+	}
+
+	/**
+	 * Folds the buffers of terminated threads (no further updates) into the shared
+	 * aggregate and drops stale buffers of previous epochs, which bounds the number
+	 * of buffers by the number of live threads. Caller must hold the class lock.
+	 */
+	private static void foldInstStatsBuffers() {
+		long epoch = _instStatsEpoch;
+		Iterator<InstStatsBuffer> iter = _instStatsBuffers.iterator();
+		while( iter.hasNext() ) {
+			InstStatsBuffer buff = iter.next();
+			if( buff.epoch != epoch )
+				iter.remove();
+			else if( !buff.isOwnerAlive() ) {
+				addInstStats(_instStatsFolded, buff.stats);
+				iter.remove();
+			}
+		}
+	}
+
+	private static void addInstStats(Map<String, InstStats> ret, Map<String, InstStats> stats) {
+		for( Entry<String, InstStats> e : stats.entrySet() ) {
+			InstStats tmp = ret.computeIfAbsent(e.getKey(), k -> new InstStats());
+			tmp.time.add(e.getValue().time.longValue());
+			tmp.count.add(e.getValue().count.longValue());
+		}
+	}
+
 	public static void prepareNGramInst(Entry<String, LineageItem> li) {
 		if (li == null)
 			_instStatsLineageTracker.remove(Thread.currentThread().getId());
@@ -487,21 +590,21 @@ public class Statistics
 		return item == null ? Optional.empty() : Optional.of(item);
 	}
 
-	public static synchronized void clearNGramRecording() {
+	public static void clearNGramRecording() {
 		NGramBuilder<String, NGramStats>[] bl = _instStatsNGram.get(Thread.currentThread().getName());
 		for (NGramBuilder<String, NGramStats> b : bl)
 			b.clearCurrentRecording();
 	}
 
-	public static synchronized void extendLineageItem(LineageItem li, LineageNGramExtension ext) {
+	public static void extendLineageItem(LineageItem li, LineageNGramExtension ext) {
 		_lineageExtensions.put(li, ext);
 	}
 
-	public static synchronized LineageNGramExtension getExtendedLineage(LineageItem li) {
+	public static LineageNGramExtension getExtendedLineage(LineageItem li) {
 		return _lineageExtensions.get(li);
 	}
 	
-	public static synchronized void maintainNGramsFromLineage(Instruction tmp, ExecutionContext ec, long t0) {
+	public static void maintainNGramsFromLineage(Instruction tmp, ExecutionContext ec, long t0) {
 		final long nanoTime = System.nanoTime() - t0;
 		if (DMLScript.STATISTICS_NGRAMS_USE_LINEAGE) {
 			Statistics.getCurrentLineageItem().ifPresent(li -> {
@@ -527,7 +630,7 @@ public class Statistics
 	}
 
 	@SuppressWarnings("unchecked")
-	public static synchronized void maintainNGramsFromLineage(LineageItem li) {
+	public static void maintainNGramsFromLineage(LineageItem li) {
 		NGramBuilder<String, NGramStats>[] tmp = _instStatsNGram.computeIfAbsent(Thread.currentThread().getName(), k -> {
 			NGramBuilder<String, NGramStats>[] threadEntry = new NGramBuilder[DMLScript.STATISTICS_NGRAM_SIZES.length];
 			for (int i = 0; i < threadEntry.length; i++) {
@@ -788,24 +891,30 @@ public class Statistics
 	}
 	
 	public static void maintainCPFuncCallStats(String instName) {
-		InstStats tmp = _instStats.get(instName);
-		if (tmp != null)  //tmp should never be null
-			tmp.count.decrement();
+		//decrement in local buffer (merged count remains correct)
+		getLocalInstStats(instName).count.decrement();
 	}
 
 	public static Set<String> getCPHeavyHitterOpCodes() {
-		return _instStats.keySet();
+		return getMergedInstStats().keySet();
 	}
 	
-	public static long getCPHeavyHitterCount(String opcode) {
-		InstStats tmp = _instStats.get(opcode);
-		return (tmp != null) ? tmp.count.longValue() : 0;
+	public static synchronized long getCPHeavyHitterCount(String opcode) {
+		foldInstStatsBuffers();
+		InstStats folded = _instStatsFolded.get(opcode);
+		long ret = (folded != null) ? folded.count.longValue() : 0;
+		for( InstStatsBuffer buff : _instStatsBuffers ) {
+			InstStats tmp = buff.stats.get(opcode);
+			ret += (tmp != null) ? tmp.count.longValue() : 0;
+		}
+		return ret;
 	}
 
 	public static HashMap<String, Pair<Long, Double>> getHeavyHittersHashMap() {
 		HashMap<String, Pair<Long, Double>> heavyHitters = new HashMap<>();
-		for(String opcode : _instStats.keySet()) {
-			InstStats val = _instStats.get(opcode);
+		HashMap<String, InstStats> instStats = getMergedInstStats();
+		for(String opcode : instStats.keySet()) {
+			InstStats val = instStats.get(opcode);
 			long count = val.count.longValue();
 			double time = val.time.longValue() / 1000000000d; // in sec
 			heavyHitters.put(opcode, new ImmutablePair<>(Long.valueOf(count), Double.valueOf(time)));
@@ -825,11 +934,12 @@ public class Statistics
 	 */
 	@SuppressWarnings("unchecked")
 	public static String getHeavyHitters(int num) {
-		if (num <= 0 || _instStats.size() <= 0)
+		HashMap<String, InstStats> instStats = getMergedInstStats();
+		if (num <= 0 || instStats.size() <= 0)
 			return "-";
 
 		// get top k via sort
-		Entry<String, InstStats>[] tmp = _instStats.entrySet().toArray(Entry[]::new);
+		Entry<String, InstStats>[] tmp = instStats.entrySet().toArray(Entry[]::new);
 		Arrays.sort(tmp, new Comparator<Entry<String, InstStats>>() {
 			@Override
 			public int compare(Entry<String, InstStats> e1, Entry<String, InstStats> e2) {
@@ -957,7 +1067,7 @@ public class Statistics
 		CompilationMXBean cmx = ManagementFactory.getCompilationMXBean();
 		if( cmx.isCompilationTimeMonitoringSupported() ) {
 			ret = cmx.getTotalCompilationTime();
-			ret += jitCompileTime; //add from remote processes
+			ret += jitCompileTime.longValue(); //add from remote processes
 		}
 		return ret;
 	}
@@ -970,7 +1080,7 @@ public class Statistics
 		for( GarbageCollectorMXBean gcx : gcxs )
 			ret += gcx.getCollectionTime();
 		if( ret>0 )
-			ret += jvmGCTime;
+			ret += jvmGCTime.longValue();
 		
 		return ret;
 	}
@@ -983,7 +1093,7 @@ public class Statistics
 		for( GarbageCollectorMXBean gcx : gcxs )
 			ret += gcx.getCollectionCount();
 		if( ret>0 )
-			ret += jvmGCCount;
+			ret += jvmGCCount.longValue();
 		
 		return ret;
 	}
@@ -996,9 +1106,9 @@ public class Statistics
 		return funRecompiles.longValue();
 	}
 
-	public static long getNumPinnedObjects() { return maxNumPinnedObjects; }
+	public static long getNumPinnedObjects() { return maxNumPinnedObjects.get(); }
 
-	public static double getSizeofPinnedObjects() { return maxSizeofPinnedObjects; }
+	public static double getSizeofPinnedObjects() { return maxSizeofPinnedObjects.get(); }
 
 	/**
 	 * Returns statistics of the DML program that was recently completed as a string
@@ -1050,9 +1160,12 @@ public class Statistics
 			if(NativeHelper.CURRENT_NATIVE_BLAS_STATE == NativeHelper.NativeBlasState.SUCCESSFULLY_LOADED_NATIVE_BLAS_AND_IN_USE)
 				sb.append(NativeStatistics.displayStatistics());
 
-			if(recomputeNNZTime != 0 || examSparsityTime != 0 || allocateDoubleArrTime != 0) {
-				sb.append("MatrixBlock times (recomputeNNZ/examSparsity/allocateDoubleArr):\t" + String.format("%.3f", recomputeNNZTime*1e-9) + "/" +
-						String.format("%.3f", examSparsityTime*1e-9) + "/" + String.format("%.3f", allocateDoubleArrTime*1e-9)  + ".\n");
+			long nnzTime = recomputeNNZTime.longValue();
+			long sparsityTime = examSparsityTime.longValue();
+			long allocTime = allocateDoubleArrTime.longValue();
+			if(nnzTime != 0 || sparsityTime != 0 || allocTime != 0) {
+				sb.append("MatrixBlock times (recomputeNNZ/examSparsity/allocateDoubleArr):\t" + String.format("%.3f", nnzTime*1e-9) + "/" +
+						String.format("%.3f", sparsityTime*1e-9) + "/" + String.format("%.3f", allocTime*1e-9)  + ".\n");
 			}
 
 			sb.append("Cache hits (Mem/Li/WB/FS/HDFS):\t" + CacheStatistics.displayHits() + ".\n");
@@ -1079,10 +1192,18 @@ public class Statistics
 					sb.append("LinCache Spark (Col/Loc/Dist): \t" + LineageCacheStatistics.displaySparkHits() + ".\n");
 					sb.append("LinCache Spark (Per/Unper/Del):\t" + LineageCacheStatistics.displaySparkPersist() + ".\n");
 				}
+				if (LineageCacheStatistics.ifStoreStats())
+					sb.append("LinCache store (Hit/Wr/Del): \t" + LineageCacheStatistics.displayStoreStats() + ".\n");
+				if (LineageCacheStatistics.ifCompressStats()) {
+					sb.append("LinCache compr (Cmp/Dcmp/Fail):\t" + LineageCacheStatistics.displayCompressStats() + ".\n");
+					sb.append("LinCache compr time (Cmp/Dcmp):\t" + LineageCacheStatistics.displayCompressTime() + " sec.\n");
+				}
 				sb.append("LinCache writes (Mem/FS/Del): \t" + LineageCacheStatistics.displayWtrites() + ".\n");
 				sb.append("LinCache FStimes (Rd/Wr): \t" + LineageCacheStatistics.displayFSTime() + " sec.\n");
 				sb.append("LinCache Computetime (S/M/P): \t" + LineageCacheStatistics.displayComputeTime() + " sec.\n");
 				sb.append("LinCache Rewrites:    \t\t" + LineageCacheStatistics.displayRewrites() + ".\n");
+				sb.append("LinCache probes (LF/Lck/PH): \t" + LineageCacheStatistics.displayContention() + ".\n");
+				sb.append("LinCache waits (Lck/PH): \t" + LineageCacheStatistics.displayContentionTime() + " sec.\n");
 			}
 
 			if( ConfigurationManager.isCodegenEnabled() )
@@ -1119,6 +1240,9 @@ public class Statistics
 			}
 		}
 
+		if (DMLScript.PROFILE)
+			sb.append("Heavy hitter DML lines:\n" + ExecutionProfiler.displayHeavyHitterLines(maxHeavyHitters));
+
 		if(DMLScript.FED_STATISTICS) {
 			sb.append("\n");
 			sb.append(FederatedStatistics.displayStatistics(DMLScript.FED_STATISTICS_COUNT));
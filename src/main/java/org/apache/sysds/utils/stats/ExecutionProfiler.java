@@ -0,0 +1,345 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.utils.stats;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.controlprogram.caching.CacheableData;
+import org.apache.sysds.runtime.controlprogram.context.ExecutionContext;
+import org.apache.sysds.runtime.instructions.Instruction;
+import org.apache.sysds.runtime.instructions.cp.CPOperand;
+import org.apache.sysds.runtime.instructions.cp.ComputationCPInstruction;
+import org.apache.sysds.runtime.instructions.cp.Data;
+import org.apache.sysds.runtime.instructions.fed.ComputationFEDInstruction;
+import org.apache.sysds.runtime.instructions.spark.ComputationSPInstruction;
+import org.apache.sysds.runtime.meta.DataCharacteristics;
+
+/**
+ * Instrumenting execution profiler for DML programs (enabled via -profile). It records a span per executed
+ * instruction with its DML source line, the function call stack, the executing thread, and the size of the
+ * output, and aggregates self times per call stack and per source line. The profile is exported as collapsed
+ * stacks (input of flame graph tools) and as Chrome trace events (chrome://tracing, Perfetto).
+ */
+public class ExecutionProfiler {
+	/** Maximum number of retained trace events (aggregates are maintained beyond this limit) */
+	public static final int MAX_TRACE_EVENTS = 1 << 20;
+
+	private static final ConcurrentLinkedQueue<ThreadState> _threads = new ConcurrentLinkedQueue<>();
+	private static final Map<String, LongAdder> _stacks = new ConcurrentHashMap<>();
+	private static final Map<String, LineStats> _lines = new ConcurrentHashMap<>();
+	private static final AtomicLong _numEvents = new AtomicLong();
+	private static final LongAdder _droppedEvents = new LongAdder();
+	private static final ThreadLocal<ThreadState> _state = new ThreadLocal<>();
+	private static volatile long _epoch = 0;
+	private static volatile long _tbase = System.nanoTime();
+
+	public static synchronized void reset() {
+		_epoch++;
+		_threads.clear();
+		_stacks.clear();
+		_lines.clear();
+		_numEvents.set(0);
+		_droppedEvents.reset();
+		_tbase = System.nanoTime();
+	}
+
+	/**
+	 * Pushes a function frame onto the call stack of the current thread.
+	 * 
+	 * @param fkey function key (namespace::name)
+	 */
+	public static void enterFunction(String fkey) {
+		ThreadState state = getState();
+		Frame parent = state.stack.get(state.stack.size() - 1);
+		state.stack.add(new Frame(fkey, parent.prefix + ";" + sanitize(fkey), System.nanoTime()));
+	}
+
+	/**
+	 * Pops the top function frame from the call stack of the current thread, and records its span. The elapsed
+	 * time is excluded from the self time of the calling instruction.
+	 */
+	public static void exitFunction() {
+		ThreadState state = getState();
+		if(state.stack.size() <= 1)
+			return; // profiler was reset within the function
+		long t1 = System.nanoTime();
+		Frame frame = state.stack.remove(state.stack.size() - 1);
+		state.stack.get(state.stack.size() - 1).nested += t1 - frame.start;
+		addSpan(state, new Span(frame.name, "function", frame.start, t1, -1, null, null));
+	}
+
+	/**
+	 * Records the execution of a single instruction.
+	 * 
+	 * @param inst executed instruction
+	 * @param ec   execution context (for obtaining the output size)
+	 * @param t0   start time in nanoseconds
+	 * @param t1   end time in nanoseconds
+	 */
+	public static void recordInstruction(Instruction inst, ExecutionContext ec, long t0, long t1) {
+		ThreadState state = getState();
+		Frame top = state.stack.get(state.stack.size() - 1);
+		long self = Math.max(t1 - t0 - top.nested, 0);
+		top.nested = 0;
+		String opcode = inst.getOpcode();
+		int line = inst.getBeginLine();
+
+		// aggregate self time per call stack and source line
+		_stacks.computeIfAbsent(top.prefix + ";" + sanitize(opcode) + " (line " + line + ")",
+			k -> new LongAdder()).add(self);
+		String fname = inst.getFilename();
+		_lines.computeIfAbsent((fname != null ? fname + ":" : "line ") + line, k -> new LineStats())
+			.add(opcode, self);
+
+		addSpan(state, new Span(opcode, "instruction", t0, t1, line,
+			state.stack.size() > 1 ? top.name : null, getOutputSize(inst, ec)));
+	}
+
+	public static long getNumEvents() {
+		return Math.min(_numEvents.get(), MAX_TRACE_EVENTS);
+	}
+
+	public static long getNumDroppedEvents() {
+		return _droppedEvents.longValue();
+	}
+
+	/**
+	 * Writes the recorded profile to the files &lt;prefix&gt;.folded (collapsed stacks of self times in
+	 * microseconds) and &lt;prefix&gt;.trace.json (Chrome trace events).
+	 * 
+	 * @param prefix output file prefix on the local file system
+	 */
+	public static void writeProfile(String prefix) {
+		try {
+			Path parent = Paths.get(prefix).toAbsolutePath().getParent();
+			if(parent != null)
+				Files.createDirectories(parent);
+			writeCollapsedStacks(prefix + ".folded");
+			writeChromeTrace(prefix + ".trace.json");
+		}
+		catch(IOException ex) {
+			throw new DMLRuntimeException("Failed to write execution profile: " + prefix, ex);
+		}
+	}
+
+	public static void writeCollapsedStacks(String fname) throws IOException {
+		try(BufferedWriter out = Files.newBufferedWriter(Paths.get(fname), StandardCharsets.UTF_8)) {
+			for(Entry<String, LongAdder> e : _stacks.entrySet()) {
+				long us = e.getValue().longValue() / 1000;
+				if(us > 0)
+					out.write(e.getKey() + " " + us + "\n");
+			}
+		}
+	}
+
+	public static void writeChromeTrace(String fname) throws IOException {
+		try(BufferedWriter out = Files.newBufferedWriter(Paths.get(fname), StandardCharsets.UTF_8)) {
+			StringBuilder sb = new StringBuilder();
+			out.write("{\"traceEvents\":[");
+			boolean first = true;
+			for(ThreadState state : _threads) {
+				sb.setLength(0);
+				sb.append(first ? "\n" : ",\n");
+				sb.append("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":").append(state.tid);
+				sb.append(",\"args\":{\"name\":\"").append(escape(state.tname)).append("\"}}");
+				out.write(sb.toString());
+				first = false;
+				for(Span span : state.spans) {
+					sb.setLength(0);
+					sb.append(",\n{\"name\":\"").append(escape(span.name));
+					sb.append("\",\"cat\":\"").append(span.cat).append("\",\"ph\":\"X\",\"ts\":");
+					appendMicros(sb, span.t0 - _tbase);
+					sb.append(",\"dur\":");
+					appendMicros(sb, span.t1 - span.t0);
+					sb.append(",\"pid\":1,\"tid\":").append(state.tid).append(",\"args\":{");
+					if(span.line >= 0)
+						sb.append("\"line\":").append(span.line);
+					if(span.func != null)
+						sb.append(span.line >= 0 ? "," : "").append("\"function\":\"").append(escape(span.func)).append("\"");
+					if(span.size != null)
+						sb.append(span.line >= 0 || span.func != null ? "," : "")
+							.append("\"output\":\"").append(span.size).append("\"");
+					sb.append("}}");
+					out.write(sb.toString());
+				}
+			}
+			out.write("\n],\"displayTimeUnit\":\"ms\"}\n");
+		}
+	}
+
+	/**
+	 * Returns the source lines with the largest aggregated self times.
+	 * 
+	 * @param maxLines maximum number of lines
+	 * @return formatted heavy hitter lines
+	 */
+	public static String displayHeavyHitterLines(int maxLines) {
+		ArrayList<Entry<String, LineStats>> tmp = new ArrayList<>(_lines.entrySet());
+		tmp.sort(Comparator.comparingLong((Entry<String, LineStats> e) -> e.getValue().time.longValue()).reversed());
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%3s  %-40s  %10s  %10s  %s\n", "#", "Line", "Time(s)", "Count", "Top instruction"));
+		for(int i = 0; i < Math.min(maxLines, tmp.size()); i++) {
+			LineStats ls = tmp.get(i).getValue();
+			sb.append(String.format("%3d  %-40s  %10.3f  %10d  %s\n", i + 1, tmp.get(i).getKey(),
+				ls.time.longValue() * 1e-9, ls.count.longValue(), ls.getTopOpcode()));
+		}
+		if(getNumDroppedEvents() > 0)
+			sb.append("Profiler trace events dropped:\t" + getNumDroppedEvents() + ".\n");
+		return sb.toString();
+	}
+
+	private static ThreadState getState() {
+		ThreadState state = _state.get();
+		if(state == null || state.epoch != _epoch) {
+			state = new ThreadState(Thread.currentThread(), _epoch);
+			_state.set(state);
+			_threads.add(state);
+		}
+		return state;
+	}
+
+	private static void addSpan(ThreadState state, Span span) {
+		if(_numEvents.incrementAndGet() <= MAX_TRACE_EVENTS)
+			state.spans.add(span);
+		else
+			_droppedEvents.increment();
+	}
+
+	private static String getOutputSize(Instruction inst, ExecutionContext ec) {
+		CPOperand out = (inst instanceof ComputationCPInstruction) ? ((ComputationCPInstruction) inst).getOutput() :
+			(inst instanceof ComputationSPInstruction) ? ((ComputationSPInstruction) inst).output :
+			(inst instanceof ComputationFEDInstruction) ? ((ComputationFEDInstruction) inst).output : null;
+		if(out == null || ec == null || !out.isMatrix() && !out.isFrame() && !out.isTensor())
+			return null;
+		Data dat = ec.getVariable(out.getName());
+		if(!(dat instanceof CacheableData))
+			return null;
+		DataCharacteristics dc = ((CacheableData<?>) dat).getDataCharacteristics();
+		return dc.getRows() + "x" + dc.getCols() + (dc.nnzKnown() ? ", nnz=" + dc.getNonZeros() : "");
+	}
+
+	private static void appendMicros(StringBuilder sb, long nanos) {
+		long frac = nanos % 1000;
+		sb.append(nanos / 1000).append('.');
+		if(frac < 100)
+			sb.append(frac < 10 ? "00" : "0");
+		sb.append(frac);
+	}
+
+	private static String sanitize(String name) {
+		return name.replace(';', ':');
+	}
+
+	private static String escape(String str) {
+		StringBuilder sb = new StringBuilder(str.length());
+		for(int i = 0; i < str.length(); i++) {
+			char c = str.charAt(i);
+			if(c == '"' || c == '\\')
+				sb.append('\\').append(c);
+			else if(c < 0x20)
+				sb.append(String.format("\\u%04x", (int) c));
+			else
+				sb.append(c);
+		}
+		return sb.toString();
+	}
+
+	private static class ThreadState {
+		private final long tid;
+		private final String tname;
+		private final long epoch;
+		private final ArrayList<Frame> stack = new ArrayList<>();
+		private final ArrayList<Span> spans = new ArrayList<>();
+
+		private ThreadState(Thread thread, long epoch) {
+			this.tid = thread.getId();
+			this.tname = thread.getName();
+			this.epoch = epoch;
+			// root frame per thread (e.g., main, parfor workers)
+			String root = sanitize(tname);
+			stack.add(new Frame(root, root, System.nanoTime()));
+		}
+	}
+
+	private static class Frame {
+		private final String name;
+		private final String prefix;
+		private final long start;
+		private long nested; // time in nested functions
+
+		private Frame(String name, String prefix, long start) {
+			this.name = name;
+			this.prefix = prefix;
+			this.start = start;
+		}
+	}
+
+	private static class Span {
+		private final String name;
+		private final String cat;
+		private final long t0;
+		private final long t1;
+		private final int line;
+		private final String func;
+		private final String size;
+
+		private Span(String name, String cat, long t0, long t1, int line, String func, String size) {
+			this.name = name;
+			this.cat = cat;
+			this.t0 = t0;
+			this.t1 = t1;
+			this.line = line;
+			this.func = func;
+			this.size = size;
+		}
+	}
+
+	private static class LineStats {
+		private final LongAdder time = new LongAdder();
+		private final LongAdder count = new LongAdder();
+		private final Map<String, LongAdder> opcodes = new ConcurrentHashMap<>();
+
+		private void add(String opcode, long nanos) {
+			time.add(nanos);
+			count.increment();
+			opcodes.computeIfAbsent(opcode, k -> new LongAdder()).add(nanos);
+		}
+
+		private String getTopOpcode() {
+			return opcodes.entrySet().stream()
+				.max(Comparator.comparingLong(e -> e.getValue().longValue()))
+				.map(Entry::getKey).orElse("");
+		}
+	}
+}
@@ -20,6 +20,7 @@
 package org.apache.sysds.utils.stats;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.util.StringTokenizer;
 
 import org.apache.hadoop.fs.FileSystem;
@@ -141,6 +142,26 @@ public class InfrastructureAnalyzer
 		_localPar = localPar;
 	}
 
+	/**
+	 * Gets the maximum direct (off-heap) memory [in bytes] of the current JVM,
+	 * i.e., -XX:MaxDirectMemorySize or the maximum heap size if not specified.
+	 * 
+	 * @return maximum direct memory of the current JVM
+	 */
+	public static long getLocalMaxDirectMemory() {
+		long ret = -1;
+		try {
+			for( String arg : ManagementFactory.getRuntimeMXBean().getInputArguments() )
+				if( arg.startsWith("-XX:MaxDirectMemorySize=") )
+					ret = UtilFunctions.parseMemorySize(arg.substring(24));
+		}
+		catch(Exception ex) {
+			//if anything breaks during parsing, fall back to the JVM default
+			ret = -1;
+		}
+		return (ret > 0) ? ret : Runtime.getRuntime().maxMemory();
+	}
+
 	public static double getLocalMaxMemoryFraction() {
 		//since parfor modifies _localJVMMaxMem, some internal primitives
 		//need access to the current fraction of total local memory
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.utils.stats;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe, fixed-size latency histogram with log-linear buckets (16 linear sub-buckets per power of two, i.e., a
+ * relative error below 6.25%). Recording is lock-free and allocation-free, which makes it usable on hot serving paths
+ * such as repeated JMLC script executions.
+ */
+public class LatencyHistogram {
+	private static final int SUB_BITS = 4;
+	private static final int SUB = 1 << SUB_BITS;
+	private static final int NUM_BUCKETS = (64 - SUB_BITS) * SUB;
+
+	private final AtomicLongArray _counts = new AtomicLongArray(NUM_BUCKETS);
+	private final LongAdder _count = new LongAdder();
+	private final LongAdder _sum = new LongAdder();
+	private final LongAccumulator _max = new LongAccumulator(Math::max, 0);
+
+	/**
+	 * Record a single latency.
+	 * 
+	 * @param nanos The latency in nanoseconds, negative values are recorded as zero
+	 */
+	public void record(long nanos) {
+		final long v = Math.max(nanos, 0);
+		_counts.incrementAndGet(getBucket(v));
+		_count.increment();
+		_sum.add(v);
+		_max.accumulate(v);
+	}
+
+	/**
+	 * Record the latency since the given start time obtained via {@link System#nanoTime()}.
+	 * 
+	 * @param t0 The start time in nanoseconds
+	 */
+	public void recordSince(long t0) {
+		record(System.nanoTime() - t0);
+	}
+
+	public long getCount() {
+		return _count.sum();
+	}
+
+	public long getMax() {
+		return _max.get();
+	}
+
+	public double getMean() {
+		final long n = _count.sum();
+		return n == 0 ? 0 : (double) _sum.sum() / n;
+	}
+
+	/**
+	 * Get the latency at the given percentile, reported as the upper bound of the containing bucket (capped by the
+	 * maximum observed latency).
+	 * 
+	 * @param p The percentile in [0, 100]
+	 * @return The latency in nanoseconds, or 0 if nothing was recorded
+	 */
+	public long getPercentile(double p) {
+		if(p < 0 || p > 100)
+			throw new IllegalArgumentException("Invalid percentile: " + p);
+		long total = 0;
+		final long[] counts = new long[NUM_BUCKETS];
+		for(int i = 0; i < NUM_BUCKETS; i++)
+			total += counts[i] = _counts.get(i);
+		if(total == 0)
+			return 0;
+		final long target = Math.max(1, (long) Math.ceil(p / 100 * total));
+		long cum = 0;
+		for(int i = 0; i < NUM_BUCKETS; i++) {
+			cum += counts[i];
+			if(cum >= target)
+				return Math.min(getBucketUpper(i), getMax());
+		}
+		return getMax();
+	}
+
+	public void reset() {
+		for(int i = 0; i < NUM_BUCKETS; i++)
+			_counts.set(i, 0);
+		_count.reset();
+		_sum.reset();
+		_max.reset();
+	}
+
+	protected static int getBucket(long v) {
+		if(v < SUB)
+			return (int) v;
+		final int exp = 63 - Long.numberOfLeadingZeros(v);
+		final int sub = (int) (v >>> (exp - SUB_BITS)) & (SUB - 1);
+		return (exp - SUB_BITS + 1) * SUB + sub;
+	}
+
+	protected static long getBucketUpper(int i) {
+		if(i < SUB)
+			return i;
+		final int shift = i / SUB - 1;
+		final long lower = (long) (SUB + i % SUB) << shift;
+		return lower + (1L << shift) - 1;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("count=%d, mean=%.3f ms, p50=%.3f ms, p90=%.3f ms, p99=%.3f ms, max=%.3f ms", getCount(),
+			getMean() / 1e6, getPercentile(50) / 1e6, getPercentile(90) / 1e6, getPercentile(99) / 1e6, getMax() / 1e6);
+	}
+}
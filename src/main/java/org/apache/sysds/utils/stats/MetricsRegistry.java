@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.utils.stats;
+
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.sysds.runtime.controlprogram.caching.CacheStatistics;
+import org.apache.sysds.runtime.controlprogram.caching.LazyWriteBuffer;
+import org.apache.sysds.runtime.controlprogram.federated.FederatedStatistics;
+import org.apache.sysds.runtime.lineage.LineageCacheEviction;
+import org.apache.sysds.runtime.lineage.LineageCacheStatistics;
+import org.apache.sysds.utils.Statistics;
+
+/**
+ * Pluggable registry of metrics collectors, rendered in the OpenMetrics text format (e.g., for scraping by
+ * Prometheus via {@link MetricsServer}). The default collectors expose the runtime statistics (execution,
+ * buffer pool, lineage cache, federated I/O, and per-opcode latencies); long-running processes such as JMLC
+ * servers can register additional collectors, e.g., for latency histograms of their request paths.
+ */
+public class MetricsRegistry {
+	private static final Log LOG = LogFactory.getLog(MetricsRegistry.class.getName());
+
+	public static final String PREFIX = "systemds_";
+	public static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+	public interface MetricsCollector {
+		/**
+		 * Appends the metric families of this collector to the given writer.
+		 * 
+		 * @param out metrics writer
+		 */
+		void collect(MetricsWriter out);
+	}
+
+	private static final Map<String, MetricsCollector> _collectors = new ConcurrentSkipListMap<>();
+
+	static {
+		registerDefaults();
+	}
+
+	/**
+	 * Registers (or replaces) a named metrics collector.
+	 * 
+	 * @param name      unique collector name
+	 * @param collector metrics collector
+	 */
+	public static void register(String name, MetricsCollector collector) {
+		_collectors.put(name, collector);
+	}
+
+	public static void unregister(String name) {
+		_collectors.remove(name);
+	}
+
+	/**
+	 * Collects all registered metrics in the OpenMetrics text format. Each collector renders into its own writer,
+	 * which is only appended on success, so failing collectors are skipped entirely (without partial metric
+	 * families) in order to not break the entire scrape.
+	 * 
+	 * @return metrics exposition text (terminated by # EOF)
+	 */
+	public static String scrape() {
+		MetricsWriter out = new MetricsWriter();
+		for(Entry<String, MetricsCollector> e : _collectors.entrySet()) {
+			try {
+				MetricsWriter tmp = new MetricsWriter();
+				e.getValue().collect(tmp);
+				out.append(tmp);
+			}
+			catch(Exception ex) {
+				LOG.warn("Failed to collect metrics: " + e.getKey(), ex);
+			}
+		}
+		return out.finish();
+	}
+
+	public static void registerDefaults() {
+		register("jvm", out -> {
+			Runtime rt = Runtime.getRuntime();
+			out.gauge("jvm_heap_used_bytes", "Used JVM heap memory.", rt.totalMemory() - rt.freeMemory());
+			out.gauge("jvm_heap_max_bytes", "Maximum JVM heap memory.", rt.maxMemory());
+			out.counter("jvm_gc_collections", "Number of JVM garbage collections.", Statistics.getJVMgcCount());
+			out.counter("jvm_gc_seconds", "Time spent in JVM garbage collection.", Statistics.getJVMgcTime() / 1e3);
+		});
+		register("execution", out -> {
+			out.counter("spark_instructions_executed", "Number of executed Spark instructions.",
+				Statistics.getNoOfExecutedSPInst());
+			out.counter("function_recompiles", "Number of function recompilations.", Statistics.getFunRecompiles());
+		});
+		register("bufferpool", out -> {
+			out.gauge("bufferpool_write_buffer_used_bytes", "Occupied size of the buffer pool write buffer.",
+				LazyWriteBuffer.getWriteBufferSize());
+			out.gauge("bufferpool_write_buffer_limit_bytes", "Size limit of the buffer pool write buffer.",
+				LazyWriteBuffer.getWriteBufferLimit());
+			out.gauge("bufferpool_write_buffer_objects", "Number of objects in the buffer pool write buffer.",
+				LazyWriteBuffer.getQueueSize());
+			out.family("bufferpool_hits", "counter", "Buffer pool acquires by tier.");
+			out.sample("bufferpool_hits_total", "tier", "mem", CacheStatistics.getMemHits());
+			out.sample("bufferpool_hits_total", "tier", "lineage", CacheStatistics.getLinHits());
+			out.sample("bufferpool_hits_total", "tier", "write_buffer", CacheStatistics.getFSBuffHits());
+			out.sample("bufferpool_hits_total", "tier", "fs", CacheStatistics.getFSHits());
+			out.sample("bufferpool_hits_total", "tier", "hdfs", CacheStatistics.getHDFSHits());
+			out.family("bufferpool_writes", "counter", "Buffer pool evictions and exports by target.");
+			out.sample("bufferpool_writes_total", "target", "lineage", CacheStatistics.getLinWrites());
+			out.sample("bufferpool_writes_total", "target", "write_buffer", CacheStatistics.getFSBuffWrites());
+			out.sample("bufferpool_writes_total", "target", "fs", CacheStatistics.getFSWrites());
+			out.sample("bufferpool_writes_total", "target", "hdfs", CacheStatistics.getHDFSWrites());
+		});
+		register("lineage", out -> {
+			long limit = LineageCacheEviction.getCacheLimit();
+			out.gauge("lineage_cache_used_bytes", "Occupied size of the lineage cache.",
+				limit - LineageCacheEviction.getAvailableSpace());
+			out.gauge("lineage_cache_limit_bytes", "Size limit of the lineage cache.", limit);
+			out.family("lineage_cache_hits", "counter", "Lineage cache hits by tier.");
+			out.sample("lineage_cache_hits_total", "tier", "mem", LineageCacheStatistics.getMemHits());
+			out.sample("lineage_cache_hits_total", "tier", "fs", LineageCacheStatistics.getFSHits());
+			out.sample("lineage_cache_hits_total", "tier", "del", LineageCacheStatistics.getDelHits());
+			out.counter("lineage_cache_writes", "Lineage cache writes (in-memory).",
+				LineageCacheStatistics.getMemWrites());
+			out.counter("lineage_cache_spills", "Lineage cache entries spilled to disk.",
+				LineageCacheStatistics.getFSWrites());
+			out.counter("lineage_cache_evictions", "Lineage cache entries evicted from memory.",
+				LineageCacheStatistics.getMemDeletes());
+		});
+		register("federated", out -> {
+			out.family("federated_bytes", "counter", "Federated network traffic.");
+			out.sample("federated_bytes_total", "direction", "coordinator_received",
+				FederatedStatistics.getServerBytesReceived());
+			out.sample("federated_bytes_total", "direction", "coordinator_sent",
+				FederatedStatistics.getServerBytesSent());
+			out.sample("federated_bytes_total", "direction", "worker_received",
+				FederatedStatistics.getWorkerBytesReceived());
+			out.sample("federated_bytes_total", "direction", "worker_sent", FederatedStatistics.getWorkerBytesSent());
+			out.counter("federated_lookup_table_gets", "Federated worker lookup table accesses.",
+				FederatedStatistics.getFedLookupTableGetCount());
+			out.gauge("federated_lookup_table_entries", "Federated worker lookup table entries.",
+				FederatedStatistics.getFedLookupTableEntryCount());
+		});
+		register("instructions", out -> {
+			Map<String, Pair<Long, Double>> hh = Statistics.getHeavyHittersHashMap();
+			if(hh.isEmpty())
+				return;
+			out.family("instruction_executions", "counter", "Number of executed instructions by opcode.");
+			for(Entry<String, Pair<Long, Double>> e : hh.entrySet())
+				out.sample("instruction_executions_total", "opcode", e.getKey(), e.getValue().getKey());
+			out.family("instruction_seconds", "counter", "Accumulated execution time of instructions by opcode.");
+			for(Entry<String, Pair<Long, Double>> e : hh.entrySet())
+				out.sample("instruction_seconds_total", "opcode", e.getKey(), e.getValue().getValue());
+		});
+	}
+
+	/**
+	 * Writer of metric families and samples in the OpenMetrics text format. All metric names are prefixed with
+	 * {@link MetricsRegistry#PREFIX}, and counter samples are expected to carry the _total suffix.
+	 */
+	public static class MetricsWriter {
+		private final StringBuilder _sb = new StringBuilder();
+
+		public void counter(String name, String help, double value) {
+			family(name, "counter", help);
+			sample(name + "_total", value);
+		}
+
+		public void gauge(String name, String help, double value) {
+			family(name, "gauge", help);
+			sample(name, value);
+		}
+
+		/**
+		 * Writes a summary of the given latency histogram in seconds (p50, p90, p99 quantiles, count, and sum).
+		 * 
+		 * @param name metric family name
+		 * @param help description
+		 * @param hist latency histogram (in nanoseconds)
+		 */
+		public void summary(String name, String help, LatencyHistogram hist) {
+			family(name, "summary", help);
+			for(double q : new double[] {0.5, 0.9, 0.99})
+				sample(name, "quantile", String.valueOf(q), hist.getPercentile(q * 100) * 1e-9);
+			long count = hist.getCount();
+			sample(name + "_count", count);
+			sample(name + "_sum", hist.getMean() * count * 1e-9);
+		}
+
+		public void family(String name, String type, String help) {
+			_sb.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+			_sb.append("# HELP ").append(PREFIX).append(name).append(' ').append(escape(help)).append('\n');
+		}
+
+		public void sample(String name, double value) {
+			_sb.append(PREFIX).append(name).append(' ');
+			appendValue(value);
+		}
+
+		public void sample(String name, String label, String labelValue, double value) {
+			_sb.append(PREFIX).append(name).append('{').append(label).append("=\"");
+			_sb.append(escape(labelValue)).append("\"} ");
+			appendValue(value);
+		}
+
+		private void appendValue(double value) {
+			if(value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15)
+				_sb.append((long) value);
+			else
+				_sb.append(value);
+			_sb.append('\n');
+		}
+
+		private void append(MetricsWriter other) {
+			_sb.append(other._sb);
+		}
+
+		private String finish() {
+			return _sb.append("# EOF\n").toString();
+		}
+
+		private static String escape(String str) {
+			return str.replace("\\", "\\\\").replace("\n", "\\n").replace("\"", "\\\"");
+		}
+	}
+}
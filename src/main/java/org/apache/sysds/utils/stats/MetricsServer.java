@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.utils.stats;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.sysds.api.DMLScript;
+import org.apache.sysds.runtime.DMLRuntimeException;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.CharsetUtil;
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+/**
+ * Lightweight HTTP endpoint serving the metrics of the {@link MetricsRegistry} in the OpenMetrics text format
+ * under GET /metrics. The server runs on a single daemon event loop thread and hence does not prevent the JVM
+ * from shutting down. It is started via the -metrics command line option (federated workers, Python gateway,
+ * and script execution), or programmatically for embedded JMLC servers. By default, the endpoint only binds to
+ * the loopback interface; other interfaces need to be configured explicitly (e.g., via -metricsHost).
+ */
+public class MetricsServer {
+	private static final Log LOG = LogFactory.getLog(MetricsServer.class.getName());
+	public static final String PATH = "/metrics";
+
+	private static MetricsServer _server = null;
+
+	private final EventLoopGroup _group;
+	private final Channel _channel;
+
+	private MetricsServer(String host, int port) {
+		_group = new NioEventLoopGroup(1, new DefaultThreadFactory("metrics", true));
+		try {
+			ServerBootstrap server = new ServerBootstrap();
+			server.group(_group).channel(NioServerSocketChannel.class)
+				.childHandler(new ChannelInitializer<Channel>() {
+					@Override
+					protected void initChannel(Channel ch) {
+						ch.pipeline().addLast(new HttpServerCodec());
+						ch.pipeline().addLast(new HttpObjectAggregator(64 * 1024));
+						ch.pipeline().addLast(new MetricsHandler());
+					}
+				});
+			InetSocketAddress addr = (host != null) ? new InetSocketAddress(host, port) :
+				new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+			_channel = server.bind(addr).sync().channel();
+		}
+		catch(Exception ex) {
+			_group.shutdownGracefully();
+			throw new DMLRuntimeException("Failed to start metrics endpoint on "
+				+ ((host != null) ? host : "loopback") + ":" + port, ex);
+		}
+	}
+
+	/**
+	 * Starts the process-wide metrics endpoint on the loopback interface, if not already running.
+	 * 
+	 * @param port port to listen on (0 for an ephemeral port)
+	 * @return the running metrics server
+	 */
+	public static MetricsServer start(int port) {
+		return start(null, port);
+	}
+
+	/**
+	 * Starts the process-wide metrics endpoint, if not already running, and enables the collection of statistics
+	 * (otherwise, most exported counters would not be maintained).
+	 * 
+	 * @param host bind address (e.g., 0.0.0.0 for all interfaces), loopback if null
+	 * @param port port to listen on (0 for an ephemeral port)
+	 * @return the running metrics server
+	 */
+	public static synchronized MetricsServer start(String host, int port) {
+		DMLScript.STATISTICS = true;
+		if(_server == null) {
+			_server = new MetricsServer(host, port);
+			LOG.info("Started metrics endpoint at " + _server._channel.localAddress() + PATH);
+		}
+		else if(port != 0 && port != _server.getPort())
+			LOG.warn("Metrics endpoint already running at port " + _server.getPort() + ", ignoring port " + port);
+		return _server;
+	}
+
+	/**
+	 * Stops the process-wide metrics endpoint, if running.
+	 */
+	public static synchronized void stop() {
+		if(_server != null) {
+			_server._channel.close().syncUninterruptibly();
+			_server._group.shutdownGracefully();
+			_server = null;
+		}
+	}
+
+	public int getPort() {
+		return ((InetSocketAddress) _channel.localAddress()).getPort();
+	}
+
+	public InetAddress getAddress() {
+		return ((InetSocketAddress) _channel.localAddress()).getAddress();
+	}
+
+	private static class MetricsHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
+		@Override
+		protected void channelRead0(ChannelHandlerContext ctx, FullHttpRequest request) {
+			String path = request.uri().split("\\?", 2)[0];
+			FullHttpResponse response;
+			if(!HttpMethod.GET.equals(request.method()))
+				response = createResponse(HttpResponseStatus.METHOD_NOT_ALLOWED, "text/plain", "GET only\n");
+			else if(!PATH.equals(path))
+				response = createResponse(HttpResponseStatus.NOT_FOUND, "text/plain", "Not found: " + path + "\n");
+			else
+				response = createResponse(HttpResponseStatus.OK, MetricsRegistry.CONTENT_TYPE, MetricsRegistry.scrape());
+			ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+		}
+
+		@Override
+		public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+			LOG.warn("Failed to serve metrics request", cause);
+			ctx.close();
+		}
+
+		private static FullHttpResponse createResponse(HttpResponseStatus status, String contentType, String body) {
+			FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status,
+				Unpooled.copiedBuffer(body, CharsetUtil.UTF_8));
+			response.headers().set(HttpHeaderNames.CONTENT_TYPE, contentType);
+			response.headers().set(HttpHeaderNames.CONTENT_LENGTH, response.content().readableBytes());
+			return response;
+		}
+	}
+}
@@ -30,19 +30,19 @@ public class ParForStatistics {
 	private static final LongAdder initTime = new LongAdder(); //in milli sec
 	private static final LongAdder mergeTime = new LongAdder(); //in milli sec
 
-	public static synchronized void incrementOptimCount(){
+	public static void incrementOptimCount(){
 		optCount.increment();
 	}
 
-	public static synchronized void incrementOptimTime( long time ) {
+	public static void incrementOptimTime( long time ) {
 		optTime.add(time);
 	}
 
-	public static synchronized void incrementInitTime( long time ) {
+	public static void incrementInitTime( long time ) {
 		initTime.add(time);
 	}
 
-	public static synchronized void incrementMergeTime( long time ) {
+	public static void incrementMergeTime( long time ) {
 		mergeTime.add(time);
 	}
 
@@ -40,6 +40,8 @@ public class ParamServStatistics {
 	private static final LongAdder fedGradientWeightingTime = new LongAdder();
 	private static final LongAdder fedCommunicationTime = new LongAdder();
 	private static final LongAdder fedNetworkTime = new LongAdder(); // measures exactly how long it takes netty to send & receive data
+	private static final LongAdder fedRawBytes = new LongAdder(); // dense size of compressed gradients and models
+	private static final LongAdder fedSentBytes = new LongAdder(); // payload size after compression
 	// Homomorphic encryption specifics (time is in milli sec)
 	private static final LongAdder heEncryption = new LongAdder(); // SEALClient::encrypt
 	private static final LongAdder heAccumulation = new LongAdder(); // SEALServer::accumulateCiphertexts
@@ -132,6 +134,19 @@ public class ParamServStatistics {
 		fedCommunicationTime.add(t);
 	}
 
+	public static void accFedCompression(long rawBytes, long sentBytes) {
+		fedRawBytes.add(rawBytes);
+		fedSentBytes.add(sentBytes);
+	}
+
+	public static long getFedRawBytes() {
+		return fedRawBytes.longValue();
+	}
+
+	public static long getFedSentBytes() {
+		return fedSentBytes.longValue();
+	}
+
 	public static void accHEEncryptionTime(long t) {
 		heEncryption.add(t);
 	}
@@ -164,6 +179,8 @@ public class ParamServStatistics {
 		fedGradientWeightingTime.reset();
 		fedCommunicationTime.reset();
 		fedNetworkTime.reset();
+		fedRawBytes.reset();
+		fedSentBytes.reset();
 		heEncryption.reset();
 		heAccumulation.reset();
 		hePartialDecryption.reset();
@@ -202,6 +219,10 @@ public class ParamServStatistics {
 		sb.append(String.format("PS fed comm time (cum):\t\t%.3f secs.\n", fedCommunicationTime.doubleValue() / 1000));
 		sb.append(String.format("PS fed worker comp time (cum):\t%.3f secs.\n", fedWorkerComputingTime.doubleValue() / 1000));
 		sb.append(String.format("PS fed grad. weigh. time (cum):\t%.3f secs.\n", fedGradientWeightingTime.doubleValue() / 1000));
+		if(fedRawBytes.longValue() > 0)
+			sb.append(String.format("PS fed compressed traffic:\t%.3f/%.3f MB (%.1fx).\n",
+				fedSentBytes.doubleValue() / 1048576, fedRawBytes.doubleValue() / 1048576,
+				fedRawBytes.doubleValue() / Math.max(fedSentBytes.longValue(), 1)));
 		return sb.toString();
 	}
 
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.compress;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.apache.sysds.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysds.runtime.compress.DMLCompressionException;
+import org.apache.sysds.runtime.compress.StreamingCompressor;
+import org.apache.sysds.runtime.compress.colgroup.AColGroup;
+import org.apache.sysds.runtime.compress.colgroup.ColGroupDDC;
+import org.apache.sysds.runtime.compress.colgroup.ColGroupUncompressed;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Test;
+
+public class StreamingCompressorTest {
+
+	@Test
+	public void streamDDC() {
+		MatrixBlock mb = TestUtils.ceil(TestUtils.generateTestMatrixBlock(1000, 5, 0, 4, 1.0, 7));
+		compareStreamed(mb, 100, 200);
+	}
+
+	@Test
+	public void streamNewValuesAfterSample() {
+		MatrixBlock mb = TestUtils.ceil(TestUtils.generateTestMatrixBlock(1000, 3, 0, 4, 1.0, 13));
+		// values only present after the sample
+		for(int i = 800; i < 1000; i++)
+			mb.set(i, 1, 10 + i % 7);
+		compareStreamed(mb, 100, 300);
+	}
+
+	@Test
+	public void streamUnevenLastBlock() {
+		MatrixBlock mb = TestUtils.ceil(TestUtils.generateTestMatrixBlock(1050, 4, 0, 10, 1.0, 3));
+		compareStreamed(mb, 100, 200);
+	}
+
+	@Test
+	public void streamSparse() {
+		MatrixBlock mb = TestUtils.round(TestUtils.generateTestMatrixBlock(2000, 20, 1, 3, 0.05, 21));
+		compareStreamed(mb, 250, 500);
+	}
+
+	@Test
+	public void streamIncompressible() {
+		MatrixBlock mb = TestUtils.generateTestMatrixBlock(500, 4, 0, 100, 1.0, 5);
+		compareStreamed(mb, 100, 100);
+	}
+
+	@Test
+	public void streamSmallerThanSample() {
+		MatrixBlock mb = TestUtils.ceil(TestUtils.generateTestMatrixBlock(300, 4, 0, 3, 1.0, 5));
+		compareStreamed(mb, 100, 1000);
+	}
+
+	@Test
+	public void streamSchemeChangeReencoded() {
+		// constant in the sample, thus the first row blocks are constant and the later DDC groups
+		MatrixBlock mb = TestUtils.ceil(TestUtils.generateTestMatrixBlock(1000, 1, 0, 4, 1.0, 17));
+		for(int i = 0; i < 300; i++)
+			mb.set(i, 0, 5);
+		MatrixBlock ret = compareStreamed(mb, 100, 200);
+		assertTrue(((CompressedMatrixBlock) ret).getColGroups().get(0) instanceof ColGroupDDC);
+	}
+
+	@Test
+	public void streamEmptyRowBlocksSparse() {
+		MatrixBlock mb = TestUtils.round(TestUtils.generateTestMatrixBlock(2000, 20, 1, 3, 0.05, 23));
+		for(int i = 500; i < 1000; i++)
+			for(int j = 0; j < 20; j++)
+				mb.set(i, j, 0);
+		MatrixBlock ret = compareStreamed(mb, 250, 500);
+		for(AColGroup g : ((CompressedMatrixBlock) ret).getColGroups())
+			if(g instanceof ColGroupUncompressed)
+				assertTrue(((ColGroupUncompressed) g).getData().isInSparseFormat());
+	}
+
+	@Test(expected = DMLCompressionException.class)
+	public void invalidBlockAfterLast() {
+		StreamingCompressor sc = new StreamingCompressor(3, 10, 1);
+		sc.append(new MatrixBlock(10, 3, 1.0));
+		sc.append(new MatrixBlock(5, 3, 1.0));
+		sc.append(new MatrixBlock(10, 3, 1.0));
+	}
+
+	@Test(expected = DMLCompressionException.class)
+	public void invalidNumberOfColumns() {
+		StreamingCompressor sc = new StreamingCompressor(3, 10, 1);
+		sc.append(new MatrixBlock(10, 4, 1.0));
+	}
+
+	private static MatrixBlock compareStreamed(MatrixBlock mb, int blen, int sampleRows) {
+		try {
+			final int nRow = mb.getNumRows();
+			StreamingCompressor sc = new StreamingCompressor(mb.getNumColumns(), sampleRows, 1);
+			for(int rl = 0; rl < nRow; rl += blen)
+				sc.append(mb.slice(rl, Math.min(nRow, rl + blen) - 1));
+
+			MatrixBlock ret = sc.finish();
+			assertEquals(nRow, ret.getNumRows());
+			assertEquals(mb.getNumColumns(), ret.getNumColumns());
+			if(nRow > sampleRows)
+				assertTrue(ret instanceof CompressedMatrixBlock);
+			TestUtils.compareMatricesBitAvgDistance(mb, ret, 0, 0, "Streamed compression not equivalent");
+			return ret;
+		}
+		catch(Exception e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+			return null;
+		}
+	}
+}
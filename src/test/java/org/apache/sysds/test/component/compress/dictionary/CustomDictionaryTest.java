@@ -44,6 +44,7 @@ import org.apache.sysds.runtime.compress.colgroup.dictionary.IdentityDictionaryS
 import org.apache.sysds.runtime.compress.colgroup.dictionary.MatrixBlockDictionary;
 import org.apache.sysds.runtime.compress.colgroup.dictionary.PlaceHolderDict;
 import org.apache.sysds.runtime.compress.colgroup.dictionary.QDictionary;
+import org.apache.sysds.runtime.compress.colgroup.dictionary.QShortDictionary;
 import org.apache.sysds.runtime.compress.colgroup.indexes.ColIndexFactory;
 import org.apache.sysds.runtime.compress.utils.DblArray;
 import org.apache.sysds.runtime.compress.utils.DblArrayCountHashMap;
@@ -609,6 +610,20 @@ public class CustomDictionaryTest {
 		assertNotNull(QDictionary.create(new byte[] {0, 0, 0}, 2.3, 1, false));
 	}
 
+	@Test
+	public void sliceQuantized() {
+		IDictionary a = QDictionary.create(new byte[] {1, 2, 3, 4, 5, 6}, 0.5, 3, true);
+		IDictionary as = a.sliceOutColumnRange(1, 3, 3);
+		assertEquals(2, as.getMBDict().getMatrixBlock().getNumColumns());
+		assertArrayEquals(new double[] {1, 1.5, 2.5, 3}, as.getValues(), 0.0);
+
+		IDictionary b = QShortDictionary.create(new short[] {1000, 2, 3, 4000, 5, 6}, 0.5, 3, true);
+		IDictionary bs = b.sliceOutColumnRange(0, 1, 3);
+		assertEquals(1, bs.getMBDict().getMatrixBlock().getNumColumns());
+		assertArrayEquals(new double[] {500, 2000}, bs.getValues(), 0.0);
+		assertTrue(bs.equals(Dictionary.create(new double[] {500, 2000})));
+	}
+
 	@Test
 	public void notEqualsSlice() {
 
@@ -48,6 +48,7 @@ import org.apache.sysds.runtime.compress.colgroup.dictionary.IDictionary;
 import org.apache.sysds.runtime.compress.colgroup.dictionary.IdentityDictionary;
 import org.apache.sysds.runtime.compress.colgroup.dictionary.MatrixBlockDictionary;
 import org.apache.sysds.runtime.compress.colgroup.dictionary.QDictionary;
+import org.apache.sysds.runtime.compress.colgroup.dictionary.QShortDictionary;
 import org.apache.sysds.runtime.compress.colgroup.indexes.ArrayIndex;
 import org.apache.sysds.runtime.compress.colgroup.indexes.ColIndexFactory;
 import org.apache.sysds.runtime.compress.colgroup.indexes.IColIndex;
@@ -109,6 +110,8 @@ public class DictionaryTests {
 			addQDict(tests, new byte[] {2, 4, 6, 8}, 2.0, 1);
 			addQDict(tests, new byte[] {44, 44, 110, 12, 32, 14, 25, 2}, 2.0, 2);
 			addQDict(tests, new byte[] {44, 44, 0, 12, 32, 0, 25, 2}, 2.0, 2);
+			addQShortDict(tests, new short[] {2, 4, 6, 8}, 0.5, 1);
+			addQShortDict(tests, new short[] {4400, -44, 11000, 12, 32, 0, 25, 32000}, 0.001, 2);
 
 			addSparse(tests, -10, 10, 10, 100, 0.1, 321);
 			addSparse(tests, -10, 10, 2, 100, 0.04, 321);
@@ -314,6 +317,11 @@ public class DictionaryTests {
 		tests.add(new Object[] {qd, qd.getMBDict(i), is.length / i, i});
 	}
 
+	private static void addQShortDict(List<Object[]> tests, short[] is, double d, int i) {
+		ADictionary qd = QShortDictionary.create(is, d, i, true);
+		tests.add(new Object[] {qd, qd.getMBDict(i), is.length / i, i});
+	}
+
 	private static void addSparse(List<Object[]> tests, double min, double max, int rows, int cols, double sparsity,
 		int seed) {
 
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.compress.lib;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.sysds.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysds.runtime.compress.CompressedMatrixBlockFactory;
+import org.apache.sysds.runtime.compress.CompressionSettingsBuilder;
+import org.apache.sysds.runtime.compress.CompressionStatistics;
+import org.apache.sysds.runtime.compress.colgroup.ADictBasedColGroup;
+import org.apache.sysds.runtime.compress.colgroup.AColGroup;
+import org.apache.sysds.runtime.compress.colgroup.ColGroupDDC;
+import org.apache.sysds.runtime.compress.colgroup.dictionary.Dictionary;
+import org.apache.sysds.runtime.compress.colgroup.dictionary.QShortDictionary;
+import org.apache.sysds.runtime.compress.colgroup.indexes.ColIndexFactory;
+import org.apache.sysds.runtime.compress.colgroup.mapping.MapToFactory;
+import org.apache.sysds.runtime.compress.lib.CLALibLossy;
+import org.apache.sysds.runtime.compress.workload.WTreeRoot;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.junit.Test;
+
+public class CLALibLossyTest {
+
+	@Test
+	public void quantizeAndMergeDDC() {
+		final int nRow = 1000;
+		final double[] vals = new double[200];
+		for(int i = 0; i < 100; i++) {
+			vals[2 * i] = i;
+			vals[2 * i + 1] = i + 1e-9;
+		}
+		final int[] map = new int[nRow];
+		for(int i = 0; i < nRow; i++)
+			map[i] = i % vals.length;
+		AColGroup g = ColGroupDDC.create(ColIndexFactory.create(1), Dictionary.create(vals),
+			MapToFactory.create(map, vals.length), null);
+
+		List<AColGroup> groups = new ArrayList<>();
+		groups.add(g);
+		CompressionStatistics stats = new CompressionStatistics();
+		CLALibLossy.quantize(groups, 1e-4, 1, stats);
+
+		assertEquals(1, stats.lossyGroups);
+		assertTrue(stats.lossyMaxRelativeError <= 1e-4);
+		AColGroup q = groups.get(0);
+		assertTrue(q instanceof ColGroupDDC);
+		assertTrue(((ADictBasedColGroup) q).getDictionary() instanceof QShortDictionary);
+		assertEquals(100, q.getNumValues());
+		assertTrue(q.estimateInMemorySize() < g.estimateInMemorySize());
+		compare(g, q, nRow, 1e-4 * 99);
+	}
+
+	@Test
+	public void notQuantizedIfErrorTooLarge() {
+		final double[] vals = new double[256];
+		for(int i = 0; i < vals.length; i++)
+			vals[i] = i * Math.PI * 1e5 + 1.0 / (i + 1);
+		final int[] map = new int[1000];
+		for(int i = 0; i < map.length; i++)
+			map[i] = i % vals.length;
+		AColGroup g = ColGroupDDC.create(ColIndexFactory.create(1), Dictionary.create(vals),
+			MapToFactory.create(map, vals.length), null);
+
+		List<AColGroup> groups = new ArrayList<>();
+		groups.add(g);
+		CompressionStatistics stats = new CompressionStatistics();
+		CLALibLossy.quantize(groups, 1e-12, 1, stats);
+		assertEquals(0, stats.lossyGroups);
+		assertTrue(groups.get(0) == g);
+	}
+
+	@Test
+	public void lossyCompressionEndToEnd() {
+		final int nRow = 5000;
+		final int nCol = 4;
+		final Random r = new Random(42);
+		final double[][] distinct = new double[nCol][50];
+		for(int c = 0; c < nCol; c++)
+			for(int i = 0; i < distinct[c].length; i++)
+				distinct[c][i] = r.nextDouble() * 1000;
+		final MatrixBlock mb = new MatrixBlock(nRow, nCol, false);
+		mb.allocateDenseBlock();
+		for(int i = 0; i < nRow; i++)
+			for(int c = 0; c < nCol; c++)
+				mb.set(i, c, distinct[c][r.nextInt(distinct[c].length)]);
+		mb.recomputeNonZeros();
+
+		final double bound = 1e-4;
+		CompressionSettingsBuilder csb = new CompressionSettingsBuilder().setLossy(true).setLossyErrorBound(bound);
+		Pair<MatrixBlock, CompressionStatistics> p = CompressedMatrixBlockFactory.compress(mb, 1, csb,
+			(WTreeRoot) null);
+		CompressionStatistics stats = p.getRight();
+		assertTrue(p.getLeft() instanceof CompressedMatrixBlock);
+		assertTrue(stats.lossyGroups > 0);
+		assertTrue(stats.lossyMaxRelativeError <= bound);
+
+		MatrixBlock ret = ((CompressedMatrixBlock) p.getLeft()).decompress();
+		for(int i = 0; i < nRow; i++)
+			for(int c = 0; c < nCol; c++)
+				assertEquals(mb.get(i, c), ret.get(i, c), bound * 1000);
+
+		CompressionSettingsBuilder exact = new CompressionSettingsBuilder().setLossy(false);
+		MatrixBlock lossless = CompressedMatrixBlockFactory.compress(mb, 1, exact, (WTreeRoot) null).getLeft();
+		assertTrue(p.getLeft().getInMemorySize() < lossless.getInMemorySize());
+	}
+
+	@Test(expected = Exception.class)
+	public void invalidBound() {
+		new CompressionSettingsBuilder().setLossyErrorBound(-1);
+	}
+
+	private static void compare(AColGroup exp, AColGroup act, int nRow, double tol) {
+		MatrixBlock a = new MatrixBlock(nRow, 1, false);
+		a.allocateDenseBlock();
+		exp.decompressToDenseBlock(a.getDenseBlock(), 0, nRow);
+		MatrixBlock b = new MatrixBlock(nRow, 1, false);
+		b.allocateDenseBlock();
+		act.decompressToDenseBlock(b.getDenseBlock(), 0, nRow);
+		for(int i = 0; i < nRow; i++)
+			assertEquals(a.get(i, 0), b.get(i, 0), tol);
+	}
+}
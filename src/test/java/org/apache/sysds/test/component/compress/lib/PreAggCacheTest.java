@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.compress.lib;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.sysds.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysds.runtime.compress.colgroup.AColGroup;
+import org.apache.sysds.runtime.compress.colgroup.ColGroupConst;
+import org.apache.sysds.runtime.compress.colgroup.ColGroupUncompressed;
+import org.apache.sysds.runtime.compress.colgroup.indexes.ColIndexFactory;
+import org.apache.sysds.runtime.compress.lib.CLALibLeftMultBy;
+import org.apache.sysds.runtime.compress.lib.CLALibRightMultBy;
+import org.apache.sysds.runtime.compress.lib.PreAggCache;
+import org.apache.sysds.runtime.matrix.data.LibMatrixMult;
+import org.apache.sysds.runtime.matrix.data.LibMatrixReorg;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Test;
+
+public class PreAggCacheTest {
+
+	@Test
+	public void leftMultReusesCache() {
+		CompressedMatrixBlock cmb = create(100, 4);
+		MatrixBlock mb = cmb.getUncompressed();
+		PreAggCache first = null;
+		for(int i = 0; i < 3; i++) {
+			MatrixBlock v = TestUtils.generateTestMatrixBlock(2, 100, -1, 1, 1.0, i);
+			MatrixBlock exp = LibMatrixMult.matrixMult(v, mb);
+			MatrixBlock ret = CLALibLeftMultBy.leftMultByMatrix(cmb, v, null, 1);
+			TestUtils.compareMatricesBitAvgDistance(exp, ret, 10, 10, "Iteration " + i);
+			assertNotNull(cmb.getPreAggCache());
+			if(first == null)
+				first = cmb.getPreAggCache();
+			assertSame(first, cmb.getPreAggCache());
+		}
+	}
+
+	@Test
+	public void leftMultParallelReusesCache() {
+		CompressedMatrixBlock cmb = create(1000, 10);
+		MatrixBlock mb = cmb.getUncompressed();
+		for(int i = 0; i < 3; i++) {
+			MatrixBlock v = TestUtils.generateTestMatrixBlock(1000, 1, -1, 1, 1.0, i);
+			MatrixBlock vt = LibMatrixReorg.transpose(v);
+			MatrixBlock exp = LibMatrixMult.matrixMult(vt, mb);
+			MatrixBlock ret = CLALibLeftMultBy.leftMultByMatrix(cmb, vt, null, 4);
+			TestUtils.compareMatricesBitAvgDistance(exp, ret, 10, 10, "Iteration " + i);
+		}
+	}
+
+	@Test
+	public void rightMultReusesCache() {
+		CompressedMatrixBlock cmb = create(100, 4);
+		MatrixBlock mb = cmb.getUncompressed();
+		PreAggCache first = null;
+		for(int i = 0; i < 3; i++) {
+			MatrixBlock v = TestUtils.generateTestMatrixBlock(4, 1, -1, 1, 1.0, i);
+			MatrixBlock exp = LibMatrixMult.matrixMult(mb, v);
+			MatrixBlock ret = CLALibRightMultBy.rightMultByMatrix(cmb, v, null, 1);
+			TestUtils.compareMatricesBitAvgDistance(exp, ret, 10, 10, "Iteration " + i);
+			if(first == null)
+				first = cmb.getPreAggCache();
+			assertSame(first, cmb.getPreAggCache());
+		}
+	}
+
+	@Test
+	public void invalidatedOnNewColumnGroups() {
+		CompressedMatrixBlock cmb = create(100, 4);
+		MatrixBlock v = TestUtils.generateTestMatrixBlock(1, 100, -1, 1, 1.0, 3);
+		CLALibLeftMultBy.leftMultByMatrix(cmb, v, null, 1);
+		PreAggCache first = cmb.getPreAggCache();
+		assertNotNull(first);
+
+		CompressedMatrixBlock other = create(100, 4);
+		cmb.allocateColGroupList(new ArrayList<>(other.getColGroups()));
+		MatrixBlock exp = LibMatrixMult.matrixMult(v, other.getUncompressed());
+		MatrixBlock ret = CLALibLeftMultBy.leftMultByMatrix(cmb, v, null, 1);
+		TestUtils.compareMatricesBitAvgDistance(exp, ret, 10, 10, "After changed groups");
+		assertNotSame(first, cmb.getPreAggCache());
+	}
+
+	@Test
+	public void invalidatedOnReplacedGroup() {
+		CompressedMatrixBlock cmb = create(100, 4);
+		PreAggCache first = PreAggCache.get(cmb);
+		cmb.getColGroups().set(0, ColGroupConst.create(ColIndexFactory.create(1), 7.0));
+		assertNotSame(first, PreAggCache.get(cmb));
+	}
+
+	private static CompressedMatrixBlock create(int nRow, int nCol) {
+		MatrixBlock unc = TestUtils.generateTestMatrixBlock(nRow, nCol - 1, -3, 3, 1.0, nRow * nCol);
+		List<AColGroup> groups = new ArrayList<>();
+		groups.add(ColGroupConst.create(ColIndexFactory.create(1), 2.5));
+		groups.add(ColGroupUncompressed.create(unc, ColIndexFactory.create(1, nCol)));
+		return new CompressedMatrixBlock(nRow, nCol, -1, false, groups);
+	}
+}
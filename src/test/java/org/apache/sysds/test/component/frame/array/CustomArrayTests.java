@@ -1228,6 +1228,91 @@ public class CustomArrayTests {
 		}
 	}
 
+	@Test
+	public void DDCAppendDDC() {
+		Array<String> a = ArrayFactory.create(FrameArrayTests.generateRandomStringNUniqueLength(100, 32, 4, 20));
+		Array<String> b = ArrayFactory.create(FrameArrayTests.generateRandomStringNUniqueLength(100, 33, 5, 20));
+		Array<String> ddca = DDCArray.compressToDDC(a);
+		Array<String> ddcb = DDCArray.compressToDDC(b);
+		assertTrue(ddca instanceof DDCArray);
+		assertTrue(ddcb instanceof DDCArray);
+		Array<String> r = ddca.append(ddcb);
+		assertTrue(r instanceof DDCArray);
+		assertEquals(200, r.size());
+		for(int i = 0; i < 100; i++) {
+			assertEquals(a.get(i), r.get(i));
+			assertEquals(b.get(i), r.get(i + 100));
+		}
+	}
+
+	@Test
+	public void DDCAppendUncompressed() {
+		Array<String> a = ArrayFactory.create(FrameArrayTests.generateRandomStringNUniqueLength(100, 32, 4, 20));
+		Array<String> b = ArrayFactory.create(FrameArrayTests.generateRandomStringNUniqueLength(50, 33, 3, 20));
+		Array<String> r = DDCArray.compressToDDC(a).append(b);
+		assertEquals(150, r.size());
+		for(int i = 0; i < 100; i++)
+			assertEquals(a.get(i), r.get(i));
+		for(int i = 0; i < 50; i++)
+			assertEquals(b.get(i), r.get(i + 100));
+	}
+
+	@Test
+	public void DDCAppendUniqueUncompressed() {
+		Array<String> a = ArrayFactory.create(FrameArrayTests.generateRandomStringNUniqueLength(100, 32, 4, 20));
+		String[] u = new String[200];
+		for(int i = 0; i < u.length; i++)
+			u[i] = "v" + i;
+		Array<String> b = ArrayFactory.create(u);
+		Array<String> r = DDCArray.compressToDDC(a).append(b);
+		assertFalse(r instanceof DDCArray);
+		assertEquals(300, r.size());
+		for(int i = 0; i < 100; i++)
+			assertEquals(a.get(i), r.get(i));
+		for(int i = 0; i < u.length; i++)
+			assertEquals(u[i], r.get(i + 100));
+	}
+
+	@Test
+	public void appendUniqueUncompressedDDC() {
+		String[] u = new String[200];
+		for(int i = 0; i < u.length; i++)
+			u[i] = "v" + i;
+		Array<String> a = ArrayFactory.create(u);
+		Array<String> b = ArrayFactory.create(FrameArrayTests.generateRandomStringNUniqueLength(100, 32, 4, 20));
+		Array<String> r = ArrayFactory.append(a, DDCArray.compressToDDC(b));
+		assertFalse(r instanceof DDCArray);
+		assertEquals(300, r.size());
+		for(int i = 0; i < u.length; i++)
+			assertEquals(u[i], r.get(i));
+		for(int i = 0; i < 100; i++)
+			assertEquals(b.get(i), r.get(i + u.length));
+	}
+
+	@Test
+	public void appendLowCardinalityUncompressedDDC() {
+		Array<String> a = ArrayFactory.create(FrameArrayTests.generateRandomStringNUniqueLength(100, 31, 3, 20));
+		Array<String> b = ArrayFactory.create(FrameArrayTests.generateRandomStringNUniqueLength(100, 32, 4, 20));
+		Array<String> r = ArrayFactory.append(a, DDCArray.compressToDDC(b));
+		assertTrue(r instanceof DDCArray);
+		assertEquals(200, r.size());
+		for(int i = 0; i < 100; i++) {
+			assertEquals(a.get(i), r.get(i));
+			assertEquals(b.get(i), r.get(i + 100));
+		}
+	}
+
+	@Test
+	public void DDCSelectStaysCompressed() {
+		Array<String> a = ArrayFactory.create(FrameArrayTests.generateRandomStringNUniqueLength(100, 32, 4, 20));
+		Array<String> ddc = DDCArray.compressToDDC(a);
+		int[] idx = new int[] {3, 1, 99, 50, 50};
+		Array<String> r = ddc.select(idx);
+		assertTrue(r instanceof DDCArray);
+		for(int i = 0; i < idx.length; i++)
+			assertEquals(a.get(idx[i]), r.get(i));
+	}
+
 	@Test
 	public void DDCCompressMemSize() {
 		try {
@@ -28,6 +28,9 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Random;
 
+import org.apache.sysds.runtime.frame.data.columns.HashIntegerArray;
+import org.apache.sysds.runtime.frame.data.columns.HashMapLongToInt;
+import org.apache.sysds.runtime.frame.data.columns.HashMapStringToInt;
 import org.apache.sysds.runtime.frame.data.columns.HashMapToInt;
 import org.junit.Test;
 
@@ -173,4 +176,84 @@ public class HashMapToIntTest {
 			assertEquals(i*3222,(int)m.putIfAbsent(i * 321, i * 3222));
 		}
 	}
+
+	@Test
+	public void stringKeys() {
+		HashMapStringToInt m = new HashMapStringToInt(4);
+		Map<Object, Integer> m2 = new HashMap<>();
+		Random r = new Random(13);
+		for(int i = 0; i < 10000; i++) {
+			String k = "k" + r.nextInt(3000) + (i % 5 == 0 ? "\u00e9\u20ac" : "");
+			Integer e = m2.putIfAbsent(k, i);
+			assertEquals(e == null ? -1 : e, m.putIfAbsentI(k, i));
+		}
+		assertEquals(m2, m);
+		assertEquals(m, m2);
+		assertEquals(-1, m.getI("k"));
+		assertEquals(-1, m.getI("k1\u00e9"));
+	}
+
+	@Test
+	public void stringKeysChunkGrowth() {
+		HashMapStringToInt m = new HashMapStringToInt(16);
+		long keyBytes = 0;
+		for(int i = 0; i < 500; i++) {
+			String k = "key" + i;
+			keyBytes += k.length();
+			m.putIfAbsentI(k, i);
+		}
+		// spills past the first chunk, but chunks grow geometrically
+		assertTrue(keyBytes > 1024);
+		assertTrue(m.getAllocatedKeyBytes() >= keyBytes);
+		assertTrue(m.getAllocatedKeyBytes() < 4 * keyBytes);
+
+		// oversized keys get a dedicated chunk
+		StringBuilder sb = new StringBuilder();
+		for(int i = 0; i < 10000; i++)
+			sb.append('a');
+		long before = m.getAllocatedKeyBytes();
+		m.putIfAbsentI(sb.toString(), 500);
+		assertEquals(before + 10000, m.getAllocatedKeyBytes());
+		assertEquals(500, m.getI(sb.toString()));
+		assertEquals(499, m.getI("key499"));
+	}
+
+	@Test
+	public void stringKeysEmptyAndNull() {
+		HashMapStringToInt m = new HashMapStringToInt(4);
+		m.put("", 1);
+		m.put(null, 2);
+		m.put(3, 3);
+		assertEquals(3, m.size());
+		assertEquals(Integer.valueOf(1), m.get(""));
+		assertEquals(Integer.valueOf(2), m.get(null));
+		assertEquals(Integer.valueOf(3), m.get("3"));
+		m.clear();
+		assertTrue(m.isEmpty());
+		assertFalse(m.containsKey(""));
+	}
+
+	@Test
+	public void longKeys() {
+		HashMapLongToInt m = new HashMapLongToInt(4, false);
+		for(long i = -500; i < 500; i++)
+			assertEquals(-1, m.putIfAbsentI(i * 1000003L, (int) i + 500));
+		for(long i = -500; i < 500; i++) {
+			assertEquals((int) i + 500, m.getI(i * 1000003L));
+			assertEquals(Integer.valueOf((int) i + 500), m.get(Long.valueOf(i * 1000003L)));
+		}
+		assertEquals(1000, m.entrySet().size());
+		assertEquals(-1, m.getI("1"));
+	}
+
+	@Test
+	public void hashIntegerArrayRecodeMap() {
+		HashIntegerArray a = new HashIntegerArray(new int[] {5, 7, 5, -3, 7, 11});
+		Map<Object, Integer> m = a.getRecodeMap();
+		assertTrue(m instanceof HashMapLongToInt);
+		assertEquals(4, m.size());
+		assertEquals(Integer.valueOf(1), m.get(Integer.valueOf(5)));
+		for(Entry<Object, Integer> e : m.entrySet())
+			assertTrue(e.getKey() instanceof Integer);
+	}
 }
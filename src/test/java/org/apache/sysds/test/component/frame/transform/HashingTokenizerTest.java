@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.frame.transform;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.frame.data.FrameBlock;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.transform.encode.ColumnEncoderBagOfWords;
+import org.apache.sysds.runtime.transform.encode.EncoderFactory;
+import org.apache.sysds.runtime.transform.encode.MultiColumnEncoder;
+import org.apache.sysds.runtime.transform.tokenize.HashingTokenizer;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Test;
+
+public class HashingTokenizerTest {
+
+	private static FrameBlock docs(String... docs) {
+		FrameBlock fb = new FrameBlock(new ValueType[] {ValueType.STRING});
+		for(String d : docs)
+			fb.appendRow(new Object[] {d});
+		return fb;
+	}
+
+	@Test
+	public void testUnigramCounts() {
+		MatrixBlock out = new HashingTokenizer(1, 1, 1 << 20, false).tokenize(docs("a b a", "B  b\tc", null, ""), 1);
+		assertEquals(4, out.getNumRows());
+		assertEquals(1 << 20, out.getNumColumns());
+		assertEquals(3, rowSum(out, 0), 0);
+		assertEquals(3, rowSum(out, 1), 0);
+		assertEquals(0, rowSum(out, 2), 0);
+		assertEquals(0, rowSum(out, 3), 0);
+		// two distinct terms per document, and case-insensitive 'b' maps to the same feature
+		assertEquals(4, out.getNonZeros());
+		assertEquals(2, out.getSparseBlock().size(0));
+		assertTrue(sameFeature(out, 0, 1, 2));
+	}
+
+	@Test
+	public void testNgramsPositionIndependent() {
+		MatrixBlock out = new HashingTokenizer(2, 3, 1 << 20, true).tokenize(docs("x y z", "w x y z", "x y"), 1);
+		// 'x y' occurs in all documents, 'x y z' in the first two
+		assertEquals(3, rowSum(out, 0), 0);
+		assertEquals(5, rowSum(out, 1), 0);
+		assertEquals(1, rowSum(out, 2), 0);
+		int xy = out.getSparseBlock().indexes(2)[out.getSparseBlock().pos(2)];
+		assertEquals(1, out.get(0, xy), 0);
+		assertEquals(1, out.get(1, xy), 0);
+	}
+
+	@Test
+	public void testParallel() {
+		String[] d = new String[1000];
+		for(int i = 0; i < d.length; i++)
+			d[i] = "w" + (i % 17) + " T" + (i % 13) + "\n z" + (i % 7);
+		FrameBlock in = docs(d);
+		HashingTokenizer t = new HashingTokenizer(1, 2, 1024, false);
+		MatrixBlock single = t.tokenize(in, 1, 1);
+		MatrixBlock parallel = t.tokenize(in, 1, 4);
+		assertEquals(5 * in.getNumRows(), single.sum(), 0);
+		TestUtils.compareMatrices(single, parallel, 0, "parallel tokenize differs");
+	}
+
+	@Test
+	public void testLetterTokensMatchRegexSplit() {
+		String[] docs = new String[] {"", "   ", "abc", " Abc  dEF ", "a1b2c3", "don't stop-me now!", "\tx\ny\r\nz ",
+			"\u00c4pfel und Birnen, \u00e9clair.", "\u03b1\u03b2\u03b3 \u0394\u0395\u0396 42", "--lead and trail--", "UPPER lower MiXeD"};
+		for(String d : docs) {
+			for(boolean caseSensitive : new boolean[] {true, false}) {
+				String[] expected = Arrays.stream(regexSplit(d, caseSensitive)).filter(t -> !t.isEmpty())
+					.toArray(String[]::new);
+				assertArrayEquals(d, expected, ColumnEncoderBagOfWords.tokenize(d, caseSensitive, "\\s+"));
+			}
+		}
+	}
+
+	@Test
+	public void testLetterTokenIds() {
+		HashingTokenizer t = new HashingTokenizer(1, 1, 1, false, true);
+		Map<Object, Integer> dict = new HashMap<>();
+		dict.put("apple", 1);
+		dict.put("banana", 2);
+		dict.put("cherry", 3);
+		HashingTokenizer.TokenIndex index = t.createIndex(dict);
+		String doc = "Cherry,apple;unknown APPLE 7banana apples";
+		int[] ids = t.ensureCapacity(null, doc.length());
+		int n = t.getTokenIds(doc, index, ids);
+		assertArrayEquals(new int[] {1, 1, 2, 3}, Arrays.copyOf(ids, n));
+	}
+
+	@Test
+	public void testBagOfWordsEncoderOutput() {
+		String[] words = new String[] {"Apple", "banana", "cherry", "date", "Elder", "fig", "grape"};
+		FrameBlock in = new FrameBlock(new ValueType[] {ValueType.STRING});
+		for(int i = 0; i < 300; i++) {
+			String d = i % 11 == 0 ? null : words[i % 7] + ", " + words[(i * 3) % 7] + "!" + words[(i / 7) % 7] +
+				" 12 " + words[i % 7].toUpperCase();
+			in.appendRow(new Object[] {d});
+		}
+		MultiColumnEncoder encoder = EncoderFactory.createEncoder("{ids:true, bag_of_words:[1]}",
+			in.getColumnNames(), 1, null);
+		MatrixBlock out = encoder.encode(in);
+		Map<Object, Integer> dict = encoder.getColumnEncoder(1, ColumnEncoderBagOfWords.class).getTokenDictionary();
+		assertEquals(words.length, dict.size());
+
+		// reference counts of the regex split tokens
+		MatrixBlock expected = new MatrixBlock(in.getNumRows(), dict.size(), false);
+		for(int i = 0; i < in.getNumRows(); i++) {
+			String d = in.getString(i, 0);
+			if(d != null)
+				for(String token : regexSplit(d, false))
+					if(!token.isEmpty())
+						expected.set(i, dict.get(token) - 1, expected.get(i, dict.get(token) - 1) + 1);
+		}
+		TestUtils.compareMatrices(expected, out, 0, "bag of words output differs from regex tokenization");
+		TestUtils.compareMatrices(expected, encoder.apply(in), 0, "bag of words apply differs from regex tokenization");
+	}
+
+	@Test(expected = DMLRuntimeException.class)
+	public void testInvalidRange() {
+		new HashingTokenizer(2, 1, 10, false);
+	}
+
+	/** The tokenization of the bag-of-words encoder before the single pass letter scan. */
+	private static String[] regexSplit(String doc, boolean caseSensitive) {
+		StringBuilder sb = new StringBuilder();
+		for(char c : doc.toCharArray())
+			sb.append(Character.isLetter(c) ? (caseSensitive ? c : Character.toLowerCase(c)) : ' ');
+		return sb.toString().split("\\s+");
+	}
+
+	private static double rowSum(MatrixBlock out, int r) {
+		return out.slice(r, r).sum();
+	}
+
+	private static boolean sameFeature(MatrixBlock out, int r1, int r2, double v) {
+		for(int j = 0; j < out.getNumColumns(); j++)
+			if(out.get(r1, j) != 0 && out.get(r2, j) == v)
+				return true;
+		return false;
+	}
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.frame.transform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.runtime.frame.data.FrameBlock;
+import org.apache.sysds.runtime.frame.data.columns.Array;
+import org.apache.sysds.runtime.frame.data.columns.ArrayFactory;
+import org.apache.sysds.runtime.frame.data.columns.DDCArray;
+import org.apache.sysds.runtime.frame.data.lib.FrameLibApplySchema;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.transform.encode.EncoderFactory;
+import org.apache.sysds.runtime.transform.encode.MultiColumnEncoder;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Test;
+
+/**
+ * Transform encode, apply and schema application on frames with DDC compressed columns must give the same result as
+ * on the uncompressed frame.
+ */
+public class TransformCompressedFrameTest {
+
+	private static final int nRow = 2000;
+
+	private final FrameBlock plain;
+	private final FrameBlock ddc;
+
+	public TransformCompressedFrameTest() {
+		final Random r = new Random(1423);
+		final String[] s = new String[nRow];
+		final int[] n = new int[nRow];
+		final double[] d = new double[nRow];
+		for(int i = 0; i < nRow; i++) {
+			s[i] = "" + (r.nextInt(6) + 1);
+			n[i] = r.nextInt(9) * 3;
+			d[i] = r.nextDouble();
+		}
+		plain = new FrameBlock(new Array<?>[] {ArrayFactory.create(s), ArrayFactory.create(n), ArrayFactory.create(d)});
+		ddc = new FrameBlock(new Array<?>[] {DDCArray.compressToDDC(ArrayFactory.create(s)),
+			DDCArray.compressToDDC(ArrayFactory.create(n)), ArrayFactory.create(d)});
+		assertTrue(ddc.getColumn(0) instanceof DDCArray);
+		assertTrue(ddc.getColumn(1) instanceof DDCArray);
+	}
+
+	@Test
+	public void testRecodeSingleThread() {
+		test("{ids:true, recode:[1,2]}", 1);
+	}
+
+	@Test
+	public void testRecodeMultiThread() {
+		test("{ids:true, recode:[1,2]}", 4);
+	}
+
+	@Test
+	public void testDummycodeSingleThread() {
+		test("{ids:true, recode:[1], dummycode:[1,2]}", 1);
+	}
+
+	@Test
+	public void testDummycodeMultiThread() {
+		test("{ids:true, recode:[1], dummycode:[1,2]}", 4);
+	}
+
+	@Test
+	public void testBinSingleThread() {
+		test("{ids:true, bin:[{id:2, method:equi-width, numbins:4}], dummycode:[2]}", 1);
+	}
+
+	@Test
+	public void testBinMultiThread() {
+		test("{ids:true, bin:[{id:2, method:equi-width, numbins:4}], dummycode:[2]}", 4);
+	}
+
+	@Test
+	public void testApplySchemaSingleThread() {
+		testApplySchema(1);
+	}
+
+	@Test
+	public void testApplySchemaMultiThread() {
+		testApplySchema(4);
+	}
+
+	private void test(String spec, int k) {
+		final MultiColumnEncoder ep = EncoderFactory.createEncoder(spec, plain.getColumnNames(), plain.getNumColumns(),
+			null);
+		final MatrixBlock expected = ep.encode(plain, k);
+		final MultiColumnEncoder ec = EncoderFactory.createEncoder(spec, ddc.getColumnNames(), ddc.getNumColumns(),
+			null);
+		final MatrixBlock encoded = ec.encode(ddc, k);
+		TestUtils.compareMatrices(expected, encoded, 0, "Encode of DDC columns differ");
+
+		// apply the encoders build on the other representation
+		TestUtils.compareMatrices(expected, ep.apply(ddc, k), 0, "Apply to DDC columns differ");
+		TestUtils.compareMatrices(expected, ec.apply(plain, k), 0, "Apply of DDC encoder differs");
+	}
+
+	private void testApplySchema(int k) {
+		final ValueType[] schema = new ValueType[] {ValueType.INT32, ValueType.FP64, ValueType.FP64};
+		final FrameBlock expected = FrameLibApplySchema.applySchema(plain, schema, k);
+		final FrameBlock ret = FrameLibApplySchema.applySchema(ddc, schema, k);
+		for(int c = 0; c < 2; c++) {
+			assertTrue(ret.getColumn(c) instanceof DDCArray);
+			assertEquals(schema[c], ret.getColumn(c).getValueType());
+		}
+		TestUtils.compareFrames(expected, ret, true);
+	}
+}
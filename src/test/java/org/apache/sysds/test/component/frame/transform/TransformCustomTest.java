@@ -19,18 +19,24 @@
 
 package org.apache.sysds.test.component.frame.transform;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.List;
 
-import org.apache.commons.lang3.NotImplementedException;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysds.runtime.compress.colgroup.AColGroup;
+import org.apache.sysds.runtime.compress.colgroup.ColGroupUncompressed;
 import org.apache.sysds.runtime.frame.data.FrameBlock;
 import org.apache.sysds.runtime.matrix.data.MatrixBlock;
 import org.apache.sysds.runtime.transform.encode.ColumnEncoder;
+import org.apache.sysds.runtime.transform.encode.ColumnEncoderBagOfWords;
 import org.apache.sysds.runtime.transform.encode.ColumnEncoderComposite;
 import org.apache.sysds.runtime.transform.encode.ColumnEncoderDummycode;
 import org.apache.sysds.runtime.transform.encode.ColumnEncoderPassThrough;
@@ -80,7 +86,42 @@ public class TransformCustomTest {
 		test("{ids:true, bin:[{id:1, method:equi-height, numbins:10}]}");
 	}
 
-	@Test(expected = NotImplementedException.class)
+	@Test
+	public void testBagOfWordsCompressed() {
+		FrameBlock text = new FrameBlock(new ValueType[] {ValueType.STRING, ValueType.INT32});
+		String[] words = new String[] {"apple", "Banana", "cherry", "date", "elder", "fig"};
+		for(int i = 0; i < 100; i++) {
+			String row = i % 7 == 0 ? null : words[i % 6] + " " + words[(i * 3) % 6] + " " + words[(i / 5) % 6];
+			text.appendRow(new Object[] {row, i % 5});
+		}
+		testCompressed(text, "{ids:true, bag_of_words:[1]}");
+		testCompressed(text, "{ids:true, bag_of_words:[1], dummycode:[2]}");
+
+		// the bag of words columns are a single sparse uncompressed group of one column per token
+		MultiColumnEncoder encoder = EncoderFactory.createEncoder("{ids:true, bag_of_words:[1]}",
+			text.getColumnNames(), text.getNumColumns(), null);
+		CompressedMatrixBlock cmb = (CompressedMatrixBlock) encoder.encode(text, 1, true);
+		int domain = encoder.getColumnEncoder(1, ColumnEncoderBagOfWords.class).getDomainSize();
+		assertEquals(6, domain);
+		assertEquals(domain + 1, cmb.getNumColumns());
+		AColGroup bow = null;
+		for(AColGroup g : cmb.getColGroups())
+			if(g.getColIndices().contains(0))
+				bow = g;
+		assertTrue(bow instanceof ColGroupUncompressed);
+		assertEquals(domain, bow.getNumCols());
+		MatrixBlock bowData = ((ColGroupUncompressed) bow).getData();
+		assertTrue(bowData.isInSparseFormat());
+		// three tokens per non-null row, counted per distinct token
+		for(int i = 0; i < text.getNumRows(); i++) {
+			double sum = 0;
+			for(int j = 0; j < domain; j++)
+				sum += bowData.get(i, j);
+			assertEquals(i % 7 == 0 ? 0 : 3, sum, 0);
+		}
+	}
+
+	@Test
 	public void testInvalidEncodeCompressed() throws Exception {
 		List<ColumnEncoderComposite> columnEncoders = new ArrayList<>();
 		List<ColumnEncoder> encoders = new ArrayList<>();
@@ -90,7 +131,23 @@ public class TransformCustomTest {
 		encoders.add(new ColumnEncoderDummycode());
 		columnEncoders.add(new ColumnEncoderComposite(encoders));
 		MultiColumnEncoder enc = new MultiColumnEncoder(columnEncoders);
-		CompressedEncode.encode(enc, data, 1);
+		try {
+			CompressedEncode.encode(enc, data, 1);
+			fail("Expected unsupported encoder sequence");
+		}
+		catch(DMLRuntimeException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("Unsupported encoder sequence"));
+		}
+	}
+
+	private static void testCompressed(FrameBlock in, String spec) {
+		MultiColumnEncoder encoder = EncoderFactory.createEncoder(spec, in.getColumnNames(), in.getNumColumns(), null);
+		MatrixBlock out = encoder.encode(in, 1, false);
+		MultiColumnEncoder encoderCompressed = EncoderFactory.createEncoder(spec, in.getColumnNames(),
+			in.getNumColumns(), null);
+		MatrixBlock outCompressed = encoderCompressed.encode(in, 1, true);
+		assertTrue(outCompressed instanceof CompressedMatrixBlock);
+		TestUtils.compareMatrices(out, outCompressed, 0, "Not Equal after compressed encode");
 	}
 
 	public void test(String spec) {
@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.frame.transform;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.runtime.data.SparseBlockCSR;
+import org.apache.sysds.runtime.data.SparseBlockMCSR;
+import org.apache.sysds.runtime.data.SparseRowVector;
+import org.apache.sysds.runtime.frame.data.FrameBlock;
+import org.apache.sysds.runtime.frame.data.columns.Array;
+import org.apache.sysds.runtime.frame.data.columns.ArrayFactory;
+import org.apache.sysds.runtime.frame.data.columns.DDCArray;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.transform.encode.ColumnEncoderComposite;
+import org.apache.sysds.runtime.transform.encode.EncoderFactory;
+import org.apache.sysds.runtime.transform.encode.MultiColumnEncoder;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Test;
+
+/**
+ * Tests the fused code and dummycode apply of single columns into preallocated dense, CSR, and MCSR (two-pass
+ * fallback) outputs against the one-hot encoding of the codes of the code-producing encoder.
+ */
+public class TransformFusedDummycodeTest {
+	private static final int ROWS = 200;
+	private static final String[] WORDS = new String[] {"a", "b", "c", "d", "e", "f", "g"};
+
+	private enum OutType {
+		DENSE, CSR, MCSR
+	}
+
+	private final FrameBlock strTrain;
+	private final FrameBlock strTest;
+	private final FrameBlock numTrain;
+	private final FrameBlock numTest;
+
+	public TransformFusedDummycodeTest() {
+		String[] train = new String[ROWS];
+		String[] test = new String[ROWS];
+		double[] ntrain = new double[ROWS];
+		double[] ntest = new double[ROWS];
+		for(int i = 0; i < ROWS; i++) {
+			train[i] = WORDS[(i * 3) % WORDS.length];
+			// missing and unseen values in the applied frame
+			test[i] = i % 11 == 0 ? null : i % 13 == 0 ? "unseen" : WORDS[(i * 5) % WORDS.length];
+			ntrain[i] = i % 17;
+			ntest[i] = i % 9 == 0 ? Double.NaN : (i * 7) % 23 - 3;
+		}
+		strTrain = new FrameBlock(new Array<?>[] {ArrayFactory.create(train)});
+		strTest = new FrameBlock(new Array<?>[] {ArrayFactory.create(test)});
+		numTrain = new FrameBlock(new Array<?>[] {ArrayFactory.create(ntrain)});
+		numTest = new FrameBlock(new Array<?>[] {ArrayFactory.create(ntest)});
+	}
+
+	@Test
+	public void testRecodeDense() {
+		testRecode(strTrain, OutType.DENSE);
+	}
+
+	@Test
+	public void testRecodeCSR() {
+		testRecode(strTrain, OutType.CSR);
+	}
+
+	@Test
+	public void testRecodeMCSR() {
+		testRecode(strTrain, OutType.MCSR);
+	}
+
+	@Test
+	public void testRecodeUnseenDense() {
+		testRecode(strTest, OutType.DENSE);
+	}
+
+	@Test
+	public void testRecodeUnseenCSR() {
+		testRecode(strTest, OutType.CSR);
+	}
+
+	@Test
+	public void testRecodeUnseenMCSR() {
+		testRecode(strTest, OutType.MCSR);
+	}
+
+	@Test
+	public void testRecodeDDCDense() {
+		testRecode(compress(strTrain), OutType.DENSE);
+	}
+
+	@Test
+	public void testRecodeDDCCSR() {
+		testRecode(compress(strTrain), OutType.CSR);
+	}
+
+	@Test
+	public void testRecodeDDCUnseenDense() {
+		testRecode(compress(getNonNull(strTest)), OutType.DENSE);
+	}
+
+	@Test
+	public void testRecodeDDCUnseenCSR() {
+		testRecode(compress(getNonNull(strTest)), OutType.CSR);
+	}
+
+	@Test
+	public void testBinDense() {
+		testBin(numTest, OutType.DENSE);
+	}
+
+	@Test
+	public void testBinCSR() {
+		testBin(numTest, OutType.CSR);
+	}
+
+	@Test
+	public void testBinMCSR() {
+		testBin(numTest, OutType.MCSR);
+	}
+
+	@Test
+	public void testHashDense() {
+		test(strTrain, strTrain, "{ids:true, hash:[1], K:5, dummycode:[1]}", "{ids:true, hash:[1], K:5}",
+			OutType.DENSE);
+	}
+
+	@Test
+	public void testHashCSR() {
+		test(strTrain, strTrain, "{ids:true, hash:[1], K:5, dummycode:[1]}", "{ids:true, hash:[1], K:5}",
+			OutType.CSR);
+	}
+
+	private void testRecode(FrameBlock in, OutType type) {
+		test(strTrain, in, "{ids:true, recode:[1], dummycode:[1]}", "{ids:true, recode:[1]}", type);
+	}
+
+	private void testBin(FrameBlock in, OutType type) {
+		test(numTrain, in, "{ids:true, bin:[{id:1, method:equi-width, numbins:4}], dummycode:[1]}",
+			"{ids:true, bin:[{id:1, method:equi-width, numbins:4}]}", type);
+	}
+
+	private static void test(FrameBlock train, FrameBlock in, String spec, String codeSpec, OutType type) {
+		try {
+			MultiColumnEncoder encoder = EncoderFactory.createEncoder(spec, train.getColumnNames(), 1, null);
+			encoder.encode(train);
+			MultiColumnEncoder codeEncoder = EncoderFactory.createEncoder(codeSpec, train.getColumnNames(), 1, null);
+			codeEncoder.encode(train);
+			MatrixBlock expected = oneHot(codeEncoder.apply(in), encoder.getNumOutCols());
+
+			// apply a single partition and several row partitions of different size
+			ColumnEncoderComposite enc = encoder.getColumnEncoders().get(0);
+			MatrixBlock out = allocate(type, in.getNumRows(), encoder.getNumOutCols());
+			enc.apply(in, out, 0, 0, -1);
+			compare(expected, out);
+			out = allocate(type, in.getNumRows(), encoder.getNumOutCols());
+			for(int[] p : new int[][] {{0, 5}, {5, 70}, {75, 125}})
+				enc.apply(in, out, 0, p[0], p[1]);
+			compare(expected, out);
+		}
+		catch(Exception e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+
+	private static MatrixBlock oneHot(MatrixBlock codes, int nCol) {
+		MatrixBlock ret = new MatrixBlock(codes.getNumRows(), nCol, false);
+		for(int i = 0; i < codes.getNumRows(); i++) {
+			double code = codes.get(i, 0);
+			if(!Double.isNaN(code))
+				ret.set(i, (int) code - 1, 1);
+		}
+		return ret;
+	}
+
+	private static MatrixBlock allocate(OutType type, int nRow, int nCol) {
+		if(type == OutType.DENSE) {
+			MatrixBlock ret = new MatrixBlock(nRow, nCol, false);
+			ret.allocateDenseBlock();
+			return ret;
+		}
+		MatrixBlock ret = new MatrixBlock(nRow, nCol, true);
+		if(type == OutType.CSR) {
+			// one preallocated entry per row, as in the output preprocessing of the transform apply
+			int[] rptr = new int[nRow + 1];
+			for(int i = 0; i < nRow; i++)
+				rptr[i + 1] = rptr[i] + 1;
+			ret.setSparseBlock(new SparseBlockCSR(rptr, new int[nRow], new double[nRow], nRow));
+		}
+		else {
+			SparseBlockMCSR sb = new SparseBlockMCSR(nRow);
+			for(int i = 0; i < nRow; i++) {
+				sb.allocate(i, 1);
+				((SparseRowVector) sb.get(i)).setSize(1);
+			}
+			ret.setSparseBlock(sb);
+		}
+		return ret;
+	}
+
+	private static void compare(MatrixBlock expected, MatrixBlock out) {
+		out.recomputeNonZeros();
+		TestUtils.compareMatrices(expected, out, 0, "Not equal after fused apply");
+	}
+
+	private static FrameBlock compress(FrameBlock in) {
+		Array<?> c = DDCArray.compressToDDC(in.getColumn(0));
+		assertTrue(c instanceof DDCArray);
+		return new FrameBlock(new Array<?>[] {c});
+	}
+
+	private static FrameBlock getNonNull(FrameBlock in) {
+		String[] ret = new String[in.getNumRows()];
+		for(int i = 0; i < ret.length; i++)
+			ret[i] = in.get(i, 0) == null ? "missing" : in.get(i, 0).toString();
+		return new FrameBlock(new Array<?>[] {ArrayFactory.create(ret)});
+	}
+}
@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.test.component.frame.transform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.runtime.frame.data.FrameBlock;
+import org.apache.sysds.runtime.instructions.ooc.SubscribableTaskQueue;
+import org.apache.sysds.runtime.instructions.spark.data.IndexedMatrixValue;
+import org.apache.sysds.runtime.io.FileFormatPropertiesCSV;
+import org.apache.sysds.runtime.io.FrameReaderTextCSV;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.transform.encode.EncoderFactory;
+import org.apache.sysds.runtime.transform.encode.MultiColumnEncoder;
+import org.apache.sysds.runtime.transform.encode.StreamingEncode;
+import org.apache.sysds.runtime.transform.encode.StreamingEncode.ChunkSource;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Test;
+
+public class TransformStreamingTest {
+
+	private static final FrameBlock data = TestUtils.generateRandomFrameBlock(1234, //
+		new ValueType[] {ValueType.UINT4, ValueType.UINT8, ValueType.FP32, ValueType.STRING}, 231, 0.1);
+
+	@Test
+	public void testRecode() {
+		test("{recode:[C1, C2, C4]}", 100, 64);
+	}
+
+	@Test
+	public void testDummyCode() {
+		test("{dummycode:[C1, C2, C4]}", 100, 64);
+	}
+
+	@Test
+	public void testDummyCodeSmallBlocks() {
+		test("{dummycode:[C1, C2, C4]}", 7, 5);
+	}
+
+	@Test
+	public void testBin() {
+		test("{ids:true, bin:[{id:1, method:equi-width, numbins:4},{id:3, method:equi-width, numbins:10}]}", 300, 1000);
+	}
+
+	@Test
+	public void testBinApprox() {
+		// same sketch updates as in-memory build, thus identical bins
+		test("{ids:true, bin:[{id:3, method:equi-height-approx, numbins:10, eps:0.01}], dummycode:[3]}", 100, 64);
+	}
+
+	@Test
+	public void testBinToDummy() {
+		test("{ids:true, bin:[{id:3, method:equi-width, numbins:10}], dummycode:[1,3]}", 33, 33);
+	}
+
+	@Test
+	public void testHashToDummy() {
+		test("{ids:true, hash:[1,2], K:10, dummycode:[1]}", 50, 16);
+	}
+
+	@Test
+	public void testImputeMean() {
+		test("{ids:true, impute:[{id:3, method:global_mean}], recode:[4]}", 100, 64);
+	}
+
+	@Test
+	public void testSingleChunk() {
+		test("{recode:[C1, C2, C4]}", 2000, 1000);
+	}
+
+	@Test(expected = Exception.class)
+	public void testEquiHeightNotSupported() {
+		MultiColumnEncoder enc = EncoderFactory.createEncoder(
+			"{ids:true, bin:[{id:3, method:equi-height, numbins:10}]}", data.getColumnNames(), data.getNumColumns(),
+			null);
+		StreamingEncode.build(enc, chunks(data, 100));
+	}
+
+	@Test
+	public void testCSVChunks() {
+		try {
+			File f = File.createTempFile("streamingEncode", ".csv");
+			f.deleteOnExit();
+			try(FileWriter w = new FileWriter(f)) {
+				w.write("a,b,c\n");
+				for(int i = 0; i < 1000; i++)
+					w.write((i % 7) + ",v" + (i % 13) + "," + (i * 0.5) + "\n");
+			}
+			FileFormatPropertiesCSV props = new FileFormatPropertiesCSV(true, ",", false);
+			FrameReaderTextCSV reader = new FrameReaderTextCSV(props);
+			ValueType[] schema = new ValueType[] {ValueType.STRING};
+			FrameBlock full = reader.readFrameFromHDFS(f.getAbsolutePath(), schema, new String[0], -1, -1);
+
+			List<FrameBlock> chunks = new ArrayList<>();
+			reader.readFrameChunksFromHDFS(f.getAbsolutePath(), schema, new String[0], -1, -1, 128, chunks::add);
+			assertEquals(8, chunks.size());
+			int row = 0;
+			for(FrameBlock c : chunks) {
+				assertTrue(c.getNumRows() <= 128);
+				assertEquals("a", c.getColumnName(0));
+				TestUtils.compareFrames(full.slice(row, row + c.getNumRows() - 1), c, false);
+				row += c.getNumRows();
+			}
+			assertEquals(full.getNumRows(), row);
+
+			// streaming encode over the chunked csv reader matches in-memory encode
+			String spec = "{ids:true, recode:[1,2], bin:[{id:3, method:equi-width, numbins:5}], dummycode:[2]}";
+			MatrixBlock expected = EncoderFactory.createEncoder(spec, full.getColumnNames(), full.getNumColumns(), null)
+				.encode(full);
+			MultiColumnEncoder enc = EncoderFactory.createEncoder(spec, full.getColumnNames(), full.getNumColumns(), null);
+			MatrixBlock actual = encodeStreaming(enc,
+				StreamingEncode.fromReader(reader, f.getAbsolutePath(), schema, new String[0], -1, -1, 100), 100);
+			TestUtils.compareMatrices(expected, actual, 0, "Not equal after streaming encode");
+		}
+		catch(Exception e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+
+	public void test(String spec, int chunkSize, int blen) {
+		try {
+			MultiColumnEncoder encNormal = EncoderFactory.createEncoder(spec, data.getColumnNames(),
+				data.getNumColumns(), null);
+			MatrixBlock expected = encNormal.encode(data);
+			FrameBlock expectedMeta = encNormal.getMetaData(null);
+
+			MultiColumnEncoder encStreaming = EncoderFactory.createEncoder(spec, data.getColumnNames(),
+				data.getNumColumns(), null);
+			MatrixBlock actual = encodeStreaming(encStreaming, chunks(data, chunkSize), blen);
+			TestUtils.compareMatrices(expected, actual, 1e-10, "Not equal after streaming encode");
+
+			// streamed metadata can be used for regular transformapply
+			FrameBlock meta = encStreaming.getMetaData(null);
+			assertEquals(expectedMeta.getNumRows(), meta.getNumRows());
+			MultiColumnEncoder encApply = EncoderFactory.createEncoder(spec, data.getColumnNames(),
+				data.getNumColumns(), meta);
+			TestUtils.compareMatrices(expected, encApply.apply(data), 1e-10, "Not equal after apply with meta");
+		}
+		catch(Exception e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+
+	private static MatrixBlock encodeStreaming(MultiColumnEncoder enc, ChunkSource src, int blen) {
+		SubscribableTaskQueue<IndexedMatrixValue> out = new SubscribableTaskQueue<>();
+		StreamingEncode.encode(enc, src, blen, out);
+
+		// reassemble the output blocks
+		List<IndexedMatrixValue> blocks = new ArrayList<>();
+		long nrow = 0, ncol = 0;
+		IndexedMatrixValue tmp;
+		while((tmp = out.dequeue()) != null) {
+			blocks.add(tmp);
+			MatrixBlock mb = (MatrixBlock) tmp.getValue();
+			assertTrue(mb.getNumRows() <= blen && mb.getNumColumns() <= blen);
+			nrow = Math.max(nrow, (tmp.getIndexes().getRowIndex() - 1) * blen + mb.getNumRows());
+			ncol = Math.max(ncol, (tmp.getIndexes().getColumnIndex() - 1) * blen + mb.getNumColumns());
+		}
+		MatrixBlock ret = new MatrixBlock((int) nrow, (int) ncol, false);
+		ret.allocateDenseBlock();
+		for(IndexedMatrixValue b : blocks) {
+			int rl = (int) (b.getIndexes().getRowIndex() - 1) * blen;
+			int cl = (int) (b.getIndexes().getColumnIndex() - 1) * blen;
+			MatrixBlock mb = (MatrixBlock) b.getValue();
+			ret.copy(rl, rl + mb.getNumRows() - 1, cl, cl + mb.getNumColumns() - 1, mb, false);
+		}
+		ret.recomputeNonZeros();
+		return ret;
+	}
+
+	private static ChunkSource chunks(FrameBlock in, int chunkSize) {
+		return c -> {
+			for(int i = 0; i < in.getNumRows(); i += chunkSize)
+				c.accept(in.slice(i, Math.min(i + chunkSize, in.getNumRows()) - 1));
+		};
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysds.test.component.matrix;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.matrix.data.sketch.quantileapprox.KLLSketch;
+import org.junit.Test;
+
+public class KLLSketchTest {
+
+	@Test
+	public void testEmpty() {
+		KLLSketch s = KLLSketch.create(0.01, 7);
+		assertTrue(s.isEmpty());
+		assertTrue(Double.isNaN(s.getQuantile(0.5)));
+		assertTrue(Double.isNaN(s.getMin()));
+	}
+
+	@Test
+	public void testSmallExact() {
+		// below capacity all items are retained, quantiles are exact
+		KLLSketch s = KLLSketch.create(0.01, 7);
+		for(int i = 10; i >= 1; i--)
+			s.update(i);
+		s.update(Double.NaN);
+		assertEquals(10, s.getN());
+		double[] q = s.getQuantiles(new double[] {0, 0.1, 0.5, 0.9, 1});
+		assertEquals(1, q[0], 0);
+		assertEquals(1, q[1], 0);
+		assertEquals(5, q[2], 0);
+		assertEquals(9, q[3], 0);
+		assertEquals(10, q[4], 0);
+		assertEquals(0.5, s.getRank(5), 0);
+	}
+
+	@Test
+	public void testErrorBound() {
+		double[] data = generate(500000, 3);
+		KLLSketch s = KLLSketch.create(0.01, 7);
+		for(double v : data)
+			s.update(v);
+		assertTrue(s.size() < 5000);
+		checkRankError(s, data, 0.01);
+	}
+
+	@Test
+	public void testMerge() {
+		double[] data = generate(300000, 4);
+		KLLSketch[] parts = new KLLSketch[7];
+		for(int p = 0; p < parts.length; p++)
+			parts[p] = KLLSketch.create(0.01, p);
+		for(int i = 0; i < data.length; i++)
+			parts[i * parts.length / data.length].update(data[i]);
+		KLLSketch s = parts[0];
+		for(int p = 1; p < parts.length; p++)
+			s.merge(parts[p]);
+		assertEquals(data.length, s.getN());
+		checkRankError(s, data, 0.01);
+	}
+
+	@Test
+	public void testInvalidError() {
+		assertThrows(DMLRuntimeException.class, () -> KLLSketch.create(0, 7));
+		assertThrows(DMLRuntimeException.class, () -> KLLSketch.create(1.5, 7));
+	}
+
+	private static double[] generate(int n, int seed) {
+		Random r = new Random(seed);
+		double[] data = new double[n];
+		for(int i = 0; i < n; i++)
+			data[i] = (i % 3 == 0) ? r.nextGaussian() * 10 + 50 : r.nextDouble() * 100;
+		return data;
+	}
+
+	private static void checkRankError(KLLSketch s, double[] data, double eps) {
+		double[] sorted = data.clone();
+		Arrays.sort(sorted);
+		assertEquals(sorted[0], s.getMin(), 0);
+		assertEquals(sorted[sorted.length - 1], s.getMax(), 0);
+		double[] qs = new double[101];
+		for(int i = 0; i < qs.length; i++)
+			qs[i] = i / 100.0;
+		double[] est = s.getQuantiles(qs);
+		for(int i = 0; i < qs.length; i++) {
+			int pos = Arrays.binarySearch(sorted, est[i]);
+			double rank = (double) (pos >= 0 ? pos : -pos - 1) / sorted.length;
+			assertTrue("rank error at q=" + qs[i] + ": " + rank, Math.abs(rank - qs[i]) <= eps);
+		}
+	}
+}
@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.matrix;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.apache.sysds.common.Types;
+import org.apache.sysds.runtime.data.SparseBlock;
+import org.apache.sysds.runtime.data.SparseBlockCSR;
+import org.apache.sysds.runtime.data.SparseBlockDCSR;
+import org.apache.sysds.runtime.data.SparseBlockMCSR;
+import org.apache.sysds.runtime.functionobjects.Multiply;
+import org.apache.sysds.runtime.functionobjects.Plus;
+import org.apache.sysds.runtime.functionobjects.ReduceAll;
+import org.apache.sysds.runtime.matrix.data.LibMatrixCountDistinct;
+import org.apache.sysds.runtime.matrix.data.LibMatrixReorg;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.matrix.operators.BinaryOperator;
+import org.apache.sysds.runtime.matrix.operators.CountDistinctOperator;
+import org.apache.sysds.runtime.matrix.operators.CountDistinctOperatorTypes;
+import org.apache.sysds.test.TestUtils;
+import org.apache.sysds.utils.Hash.HashType;
+import org.junit.Test;
+
+public class SliceRowsViewTest {
+	private static final int rows = 100;
+	private static final int cols = 13;
+
+	@Test
+	public void testDensePrefix() {
+		MatrixBlock a = TestUtils.generateTestMatrixBlock(rows, cols, -1, 1, 1.0, 7);
+		MatrixBlock b = a.sliceRowsView(0, 31);
+		assertSame(a.getDenseBlockValues(), b.getDenseBlockValues());
+		compare(a.slice(0, 31), b);
+	}
+
+	@Test
+	public void testDenseOffset() {
+		MatrixBlock a = TestUtils.generateTestMatrixBlock(rows, cols, -1, 1, 1.0, 7);
+		for(int rl : new int[] {1, 32, 70, rows - 1})
+			compare(a.slice(rl, rows - 1), a.sliceRowsView(rl, rows - 1));
+		compare(a.slice(32, 63), a.sliceRowsView(32, 63));
+		compare(a.slice(45, 45), a.sliceRowsView(45, 45));
+	}
+
+	@Test
+	public void testFullRange() {
+		MatrixBlock a = TestUtils.generateTestMatrixBlock(rows, cols, -1, 1, 1.0, 7);
+		assertSame(a, a.sliceRowsView(0, rows - 1));
+	}
+
+	@Test
+	public void testSparseMCSR() {
+		MatrixBlock a = TestUtils.generateTestMatrixBlock(rows, cols, -1, 1, 0.1, 7);
+		a.setSparseBlock(new SparseBlockMCSR(a.getSparseBlock()));
+		MatrixBlock b = a.sliceRowsView(40, 79);
+		assertSame(a.getSparseBlock().get(45), b.getSparseBlock().get(5));
+		compare(a.slice(40, 79), b);
+	}
+
+	@Test
+	public void testSparseCSR() {
+		MatrixBlock a = generateCSR(0.1);
+		for(int rl : new int[] {0, 17, 50}) {
+			MatrixBlock b = a.sliceRowsView(rl, rl + 29);
+			SparseBlock sb = b.getSparseBlock();
+			if(rl == 0)
+				assertSame(a.getSparseBlock().values(0), sb.values(0));
+			assertEquals(0, sb.pos(0));
+			assertEquals(a.slice(rl, rl + 29).getNonZeros(), sb.size());
+			compare(a.slice(rl, rl + 29), b);
+		}
+	}
+
+	@Test
+	public void testTransposeCSRView() {
+		MatrixBlock a = generateCSR(0.1);
+		for(int[] r : new int[][] {{0, 29}, {17, 46}, {50, rows - 1}, {61, 61}}) {
+			MatrixBlock b = a.sliceRowsView(r[0], r[1]);
+			compare(LibMatrixReorg.transpose(a.slice(r[0], r[1])), LibMatrixReorg.transpose(b));
+			compare(LibMatrixReorg.transpose(a.slice(r[0], r[1]), 4), LibMatrixReorg.transpose(b, 4));
+		}
+	}
+
+	@Test
+	public void testTransposeDenseView() {
+		MatrixBlock a = TestUtils.generateTestMatrixBlock(rows, cols, -1, 1, 1.0, 7);
+		for(int[] r : new int[][] {{0, 29}, {17, 46}, {61, 61}}) {
+			MatrixBlock b = a.sliceRowsView(r[0], r[1]);
+			compare(LibMatrixReorg.transpose(a.slice(r[0], r[1])), LibMatrixReorg.transpose(b));
+		}
+	}
+
+	@Test
+	public void testCountDistinctCSRView() {
+		MatrixBlock a = TestUtils.round(TestUtils.generateTestMatrixBlock(rows, cols, 1, 20, 0.3, 7));
+		a.examSparsity();
+		a.setSparseBlock(new SparseBlockCSR(a.getSparseBlock()));
+		for(CountDistinctOperatorTypes type : new CountDistinctOperatorTypes[] {CountDistinctOperatorTypes.COUNT,
+			CountDistinctOperatorTypes.KMV}) {
+			CountDistinctOperator op = new CountDistinctOperator(type, Types.Direction.RowCol,
+				ReduceAll.getReduceAllFnObject(), HashType.LinearHash);
+			for(int[] r : new int[][] {{0, 29}, {17, 46}, {50, rows - 1}, {61, 61}}) {
+				MatrixBlock expected = LibMatrixCountDistinct.estimateDistinctValues(a.slice(r[0], r[1]), op);
+				MatrixBlock actual = LibMatrixCountDistinct.estimateDistinctValues(a.sliceRowsView(r[0], r[1]), op);
+				assertEquals(type.toString(), expected.get(0, 0), actual.get(0, 0), 0);
+			}
+		}
+	}
+
+	@Test
+	public void testBinaryMatrixRowVectorCSRView() {
+		MatrixBlock a = generateCSR(0.3);
+		MatrixBlock m1 = TestUtils.generateTestMatrixBlock(rows, cols, -1, 1, 0.2, 3);
+		BinaryOperator op = new BinaryOperator(Multiply.getMultiplyFnObject());
+		for(int r = 1; r < rows; r += 7) {
+			MatrixBlock v = a.sliceRowsView(r, r);
+			compare(m1.binaryOperations(op, a.slice(r, r), null), m1.binaryOperations(op, v, null));
+		}
+	}
+
+	@Test
+	public void testBinaryElementwiseCSRView() {
+		MatrixBlock a = generateCSR(0.1);
+		MatrixBlock m1 = TestUtils.generateTestMatrixBlock(30, cols, -1, 1, 0.2, 3);
+		for(BinaryOperator op : new BinaryOperator[] {new BinaryOperator(Multiply.getMultiplyFnObject()),
+			new BinaryOperator(Plus.getPlusFnObject())}) {
+			for(int rl : new int[] {0, 17, 70}) {
+				MatrixBlock b = a.sliceRowsView(rl, rl + 29);
+				compare(m1.binaryOperations(op, a.slice(rl, rl + 29), null), m1.binaryOperations(op, b, null));
+				compare(a.slice(rl, rl + 29).binaryOperations(op, m1, null), b.binaryOperations(op, m1, null));
+			}
+		}
+	}
+
+	@Test
+	public void testRemoveEmptyRowsCSRView() {
+		MatrixBlock a = generateCSR(0.05);
+		for(int[] r : new int[][] {{0, 29}, {17, 46}, {50, rows - 1}}) {
+			MatrixBlock b = a.sliceRowsView(r[0], r[1]);
+			MatrixBlock expected = a.slice(r[0], r[1]).removeEmptyOperations(new MatrixBlock(), true, true, null);
+			compare(expected, b.removeEmptyOperations(new MatrixBlock(), true, true, null));
+			compare(a.slice(r[0], r[1]).removeEmptyOperations(new MatrixBlock(), false, true, null),
+				b.removeEmptyOperations(new MatrixBlock(), false, true, null));
+		}
+	}
+
+	@Test
+	public void testDCSRFromCSRView() {
+		MatrixBlock a = generateCSR(0.1);
+		for(int[] r : new int[][] {{0, 29}, {17, 46}, {50, rows - 1}, {61, 61}}) {
+			MatrixBlock expected = a.slice(r[0], r[1]);
+			SparseBlockDCSR sb = new SparseBlockDCSR(a.sliceRowsView(r[0], r[1]).getSparseBlock());
+			assertEquals(expected.getNonZeros(), sb.size());
+			for(int i = 0; i < expected.getNumRows(); i++)
+				for(int j = 0; j < cols; j++)
+					assertEquals(expected.get(i, j), sb.get(i, j), 0);
+		}
+	}
+
+	private static MatrixBlock generateCSR(double sparsity) {
+		MatrixBlock a = TestUtils.generateTestMatrixBlock(rows, cols, -1, 1, sparsity, 7);
+		a.setSparseBlock(new SparseBlockCSR(a.getSparseBlock()));
+		return a;
+	}
+
+	private static void compare(MatrixBlock expected, MatrixBlock actual) {
+		assertEquals(expected.getNumRows(), actual.getNumRows());
+		assertEquals(expected.getNonZeros(), actual.getNonZeros());
+		TestUtils.compareMatricesBitAvgDistance(expected, actual, 0, 0);
+	}
+}
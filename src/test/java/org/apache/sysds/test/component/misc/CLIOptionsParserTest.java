@@ -128,6 +128,50 @@ public class CLIOptionsParserTest {
 		Assert.assertEquals(true, o.stats);
 	}
 
+	@Test
+	public void testProfile() throws Exception {
+		String cl = "systemds -f test.dml -profile";
+		String[] args = cl.split(" ");
+		DMLOptions o = DMLOptions.parseCLArguments(args);
+		Assert.assertEquals(true, o.profile);
+		Assert.assertEquals("systemds-profile", o.profileOutput);
+	}
+
+	@Test
+	public void testProfileOutput() throws Exception {
+		String cl = "systemds -f test.dml -profile /tmp/myprofile";
+		String[] args = cl.split(" ");
+		DMLOptions o = DMLOptions.parseCLArguments(args);
+		Assert.assertEquals(true, o.profile);
+		Assert.assertEquals("/tmp/myprofile", o.profileOutput);
+	}
+
+	@Test
+	public void testMetrics() throws Exception {
+		String cl = "systemds -w 1234 -metrics 9400";
+		String[] args = cl.split(" ");
+		DMLOptions o = DMLOptions.parseCLArguments(args);
+		Assert.assertEquals(9400, o.metricsPort);
+		Assert.assertNull(o.metricsHost);
+		Assert.assertEquals(true, o.fedWorker);
+	}
+
+	@Test
+	public void testMetricsHost() throws Exception {
+		String cl = "systemds -w 1234 -metrics 9400 -metricsHost 0.0.0.0";
+		String[] args = cl.split(" ");
+		DMLOptions o = DMLOptions.parseCLArguments(args);
+		Assert.assertEquals(9400, o.metricsPort);
+		Assert.assertEquals("0.0.0.0", o.metricsHost);
+	}
+
+	@Test(expected = ParseException.class)
+	public void testBadMetrics() throws Exception {
+		String cl = "systemds -f test.dml -metrics port";
+		String[] args = cl.split(" ");
+		DMLOptions.parseCLArguments(args);
+	}
+
 	@Test
 	public void testLineage() throws Exception {
 		String cl = "systemds -f test.dml -lineage";
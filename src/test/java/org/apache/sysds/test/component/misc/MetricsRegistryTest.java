@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.misc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.sysds.api.DMLScript;
+import org.apache.sysds.utils.Statistics;
+import org.apache.sysds.utils.stats.LatencyHistogram;
+import org.apache.sysds.utils.stats.MetricsRegistry;
+import org.apache.sysds.utils.stats.MetricsServer;
+import org.junit.After;
+import org.junit.Test;
+
+public class MetricsRegistryTest {
+
+	private final boolean _statistics = DMLScript.STATISTICS;
+
+	@After
+	public void tearDown() {
+		MetricsRegistry.unregister("test");
+		Statistics.resetCPHeavyHitters();
+		MetricsServer.stop();
+		DMLScript.STATISTICS = _statistics;
+	}
+
+	@Test
+	public void testDefaultMetrics() {
+		Statistics.resetCPHeavyHitters();
+		Statistics.maintainCPHeavyHitters("ba+*", 1500000000L);
+		Statistics.maintainCPHeavyHitters("ba+*", 500000000L);
+		String ret = MetricsRegistry.scrape();
+		assertTrue(ret.endsWith("# EOF\n"));
+		assertTrue(ret.contains("# TYPE systemds_jvm_heap_used_bytes gauge\n"));
+		assertTrue(ret.contains("# TYPE systemds_bufferpool_hits counter\n"));
+		assertTrue(ret.contains("systemds_bufferpool_hits_total{tier=\"mem\"} "));
+		assertTrue(ret.contains("systemds_lineage_cache_evictions_total "));
+		assertTrue(ret.contains("systemds_federated_bytes_total{direction=\"worker_sent\"} "));
+		assertTrue(ret.contains("systemds_instruction_executions_total{opcode=\"ba+*\"} 2\n"));
+		assertTrue(ret.contains("systemds_instruction_seconds_total{opcode=\"ba+*\"} 2\n"));
+	}
+
+	@Test
+	public void testCustomCollector() {
+		LatencyHistogram hist = new LatencyHistogram();
+		for(int i = 1; i <= 100; i++)
+			hist.record(i * 1000000L);
+		MetricsRegistry.register("test", out -> {
+			out.counter("test_requests", "Test \"requests\".", 7);
+			out.gauge("test_ratio", "Test ratio.", 0.25);
+			out.summary("test_latency_seconds", "Test latency.", hist);
+			out.family("test_labeled", "gauge", "Labeled gauge.");
+			out.sample("test_labeled", "name", "a\"b\\c", 1);
+		});
+		String ret = MetricsRegistry.scrape();
+		assertTrue(ret.contains("# HELP systemds_test_requests Test \\\"requests\\\".\n"));
+		assertTrue(ret.contains("systemds_test_requests_total 7\n"));
+		assertTrue(ret.contains("systemds_test_ratio 0.25\n"));
+		assertTrue(ret.contains("systemds_test_latency_seconds{quantile=\"0.5\"} "));
+		assertTrue(ret.contains("systemds_test_latency_seconds_count 100\n"));
+		assertTrue(ret.contains("systemds_test_labeled{name=\"a\\\"b\\\\c\"} 1\n"));
+
+		MetricsRegistry.unregister("test");
+		assertFalse(MetricsRegistry.scrape().contains("systemds_test_requests"));
+	}
+
+	@Test
+	public void testFailingCollector() {
+		MetricsRegistry.register("test", out -> {
+			out.counter("test_partial", "Partially written metric.", 1);
+			throw new RuntimeException("failing collector");
+		});
+		String ret = MetricsRegistry.scrape();
+		assertTrue(ret.contains("systemds_jvm_heap_max_bytes "));
+		assertFalse(ret.contains("systemds_test_partial"));
+		assertTrue(ret.endsWith("# EOF\n"));
+	}
+
+	@Test
+	public void testHttpEndpoint() throws Exception {
+		MetricsRegistry.register("test", out -> out.counter("test_requests", "Test requests.", 3));
+		DMLScript.STATISTICS = false;
+		MetricsServer server = MetricsServer.start(0);
+		int port = server.getPort();
+		assertTrue(DMLScript.STATISTICS);
+		assertTrue(server.getAddress().isLoopbackAddress());
+
+		String host = InetAddress.getLoopbackAddress().getHostAddress();
+		HttpURLConnection conn = (HttpURLConnection) new URL("http", host, port, "/metrics").openConnection();
+		assertEquals(200, conn.getResponseCode());
+		assertTrue(conn.getContentType().startsWith("application/openmetrics-text"));
+		try(InputStream in = conn.getInputStream()) {
+			String ret = IOUtils.toString(in, StandardCharsets.UTF_8);
+			assertTrue(ret.contains("systemds_test_requests_total 3\n"));
+			assertTrue(ret.endsWith("# EOF\n"));
+		}
+
+		conn = (HttpURLConnection) new URL("http", host, port, "/other").openConnection();
+		assertEquals(404, conn.getResponseCode());
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.misc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.sysds.runtime.util.CommonThreadPool;
+import org.apache.sysds.utils.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StatisticsTest {
+	private static final int k = 8;
+	private static final int n = 10000;
+
+	@Before
+	public void setUp() {
+		Statistics.resetCPHeavyHitters();
+	}
+
+	@After
+	public void tearDown() {
+		Statistics.resetCPHeavyHitters();
+	}
+
+	@Test
+	public void testConcurrentHeavyHitters() throws Exception {
+		ExecutorService pool = CommonThreadPool.get(k);
+		try {
+			List<Future<?>> tasks = new ArrayList<>();
+			for(int i = 0; i < k; i++) {
+				final int pos = i;
+				tasks.add(pool.submit(() -> {
+					for(int j = 0; j < n; j++) {
+						Statistics.maintainCPHeavyHitters("ba+*", 2);
+						Statistics.maintainCPHeavyHitters("op" + pos, 1);
+					}
+				}));
+			}
+			for(Future<?> f : tasks)
+				f.get();
+		}
+		finally {
+			pool.shutdown();
+		}
+
+		assertEquals((long) k * n, Statistics.getCPHeavyHitterCount("ba+*"));
+		assertEquals(n, Statistics.getCPHeavyHitterCount("op3"));
+		assertEquals(k + 1, Statistics.getCPHeavyHitterOpCodes().size());
+		assertEquals(2e-9 * k * n, Statistics.getHeavyHittersHashMap().get("ba+*").getValue(), 1e-12);
+		assertTrue(Statistics.getHeavyHitters(3).contains("ba+*"));
+	}
+
+	@Test
+	public void testTerminatedThreadHeavyHitters() throws Exception {
+		Statistics.maintainCPHeavyHitters("ba+*", 2);
+		for(int i = 0; i < k; i++) {
+			Thread t = new Thread(() -> {
+				for(int j = 0; j < n; j++)
+					Statistics.maintainCPHeavyHitters("ba+*", 2);
+			});
+			t.start();
+			t.join();
+			//folding the buffers of terminated threads must not drop or double count
+			assertEquals((long) (i + 1) * n + 1, Statistics.getCPHeavyHitterCount("ba+*"));
+		}
+		assertEquals((long) k * n + 1, Statistics.getCPHeavyHitterCount("ba+*"));
+		assertEquals(2e-9 * (k * n + 1), Statistics.getHeavyHittersHashMap().get("ba+*").getValue(), 1e-12);
+
+		Statistics.resetCPHeavyHitters();
+		assertEquals(0, Statistics.getCPHeavyHitterCount("ba+*"));
+	}
+
+	@Test
+	public void testFuncCallStatsAndReset() {
+		Statistics.maintainCPHeavyHitters("fcall", 5);
+		Statistics.maintainCPHeavyHitters("fcall", 5);
+		Statistics.maintainCPFuncCallStats("fcall");
+		assertEquals(1, Statistics.getCPHeavyHitterCount("fcall"));
+
+		Statistics.resetCPHeavyHitters();
+		assertEquals(0, Statistics.getCPHeavyHitterCount("fcall"));
+		assertTrue(Statistics.getCPHeavyHitterOpCodes().isEmpty());
+		Statistics.maintainCPHeavyHitters("fcall", 5);
+		assertEquals(1, Statistics.getCPHeavyHitterCount("fcall"));
+	}
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.paramserv;
+
+import java.util.Arrays;
+
+import org.apache.sysds.parser.Statement;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysds.runtime.controlprogram.context.ExecutionContext;
+import org.apache.sysds.runtime.controlprogram.context.ExecutionContextFactory;
+import org.apache.sysds.runtime.controlprogram.paramserv.GradientCompression;
+import org.apache.sysds.runtime.controlprogram.paramserv.GradientCompression.CompressedList;
+import org.apache.sysds.runtime.controlprogram.paramserv.GradientCompression.Type;
+import org.apache.sysds.runtime.controlprogram.paramserv.ParamservUtils;
+import org.apache.sysds.runtime.instructions.cp.Data;
+import org.apache.sysds.runtime.instructions.cp.ListObject;
+import org.apache.sysds.runtime.instructions.cp.StringObject;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GradientCompressionTest {
+
+	@Test
+	public void testTopK() {
+		MatrixBlock g = TestUtils.generateTestMatrixBlock(10, 20, -1, 1, 1.0, 7);
+		ExecutionContext ec = ExecutionContextFactory.createContext();
+		CompressedList cl = new GradientCompression(Type.TOPK, 0.25, false).compressGradients(ec, toList(g));
+		MatrixBlock ret = getBlock(GradientCompression.decompress(cl), 0);
+		Assert.assertEquals(50, ret.getNonZeros());
+		// all kept entries are at least as large as all dropped entries
+		double minKept = Double.MAX_VALUE, maxDropped = 0;
+		for(int i = 0; i < 10; i++)
+			for(int j = 0; j < 20; j++) {
+				if(ret.get(i, j) != 0) {
+					Assert.assertEquals(g.get(i, j), ret.get(i, j), 1e-6);
+					minKept = Math.min(minKept, Math.abs(g.get(i, j)));
+				}
+				else
+					maxDropped = Math.max(maxDropped, Math.abs(g.get(i, j)));
+			}
+		Assert.assertTrue(minKept >= maxDropped);
+		Assert.assertTrue(cl.getCompressedSize() < cl.getRawSize() / 2);
+	}
+
+	@Test
+	public void testTopKErrorFeedback() {
+		MatrixBlock g = TestUtils.generateTestMatrixBlock(8, 8, -1, 1, 1.0, 3);
+		ExecutionContext ec = ExecutionContextFactory.createContext();
+		GradientCompression compression = new GradientCompression(Type.TOPK, 0.05, false);
+		double[] sum = new double[64];
+		int rounds = 10;
+		for(int t = 0; t < rounds; t++) {
+			MatrixBlock ret = getBlock(GradientCompression.decompress(compression.compressGradients(ec, toList(g))), 0);
+			for(int i = 0; i < 64; i++)
+				sum[i] += ret.get(i / 8, i % 8);
+		}
+		// nothing is lost: shipped updates plus residual equal the accumulated gradients
+		MatrixBlock res = getBlock((ListObject) ec.getVariable(Statement.PS_FED_RESIDUAL), 0);
+		for(int i = 0; i < 64; i++)
+			Assert.assertEquals(rounds * g.get(i / 8, i % 8), sum[i] + res.get(i / 8, i % 8), 1e-5);
+	}
+
+	@Test
+	public void testQuant8() {
+		MatrixBlock g = TestUtils.generateTestMatrixBlock(50, 40, -2, 3, 1.0, 11);
+		ExecutionContext ec = ExecutionContextFactory.createContext();
+		CompressedList cl = new GradientCompression(Type.QUANT8, 1, false).compressGradients(ec, toList(g));
+		MatrixBlock ret = getBlock(GradientCompression.decompress(cl), 0);
+		double scale = (g.max() - g.min()) / 255;
+		for(int i = 0; i < 50; i++)
+			for(int j = 0; j < 40; j++)
+				Assert.assertEquals(g.get(i, j), ret.get(i, j), scale + 1e-12);
+		Assert.assertTrue(cl.getCompressedSize() < cl.getRawSize() / 7);
+	}
+
+	@Test
+	public void testModelDeltaExact() {
+		MatrixBlock m0 = TestUtils.generateTestMatrixBlock(30, 10, -1, 1, 1.0, 5);
+		MatrixBlock m1 = new MatrixBlock(m0);
+		m1.set(3, 4, 7);
+		m1.set(17, 0, -2);
+		ExecutionContext ec = ExecutionContextFactory.createContext();
+		GradientCompression compression = new GradientCompression(Type.NONE, 1, true);
+		GradientCompression.setModelBase(ec, toList(m0));
+		double[][] mirror = GradientCompression.createMirror(toList(m0));
+		CompressedList delta = compression.encodeModelDelta(toList(m1), mirror);
+		Assert.assertTrue(delta.getCompressedSize() < delta.getRawSize() / 10);
+		MatrixBlock ret = getBlock(GradientCompression.applyModelDelta(ec, delta), 0);
+		TestUtils.compareMatrices(m1, ret, 0, "model delta");
+		Assert.assertArrayEquals(m1.getDenseBlockValues(), mirror[0], 0);
+	}
+
+	@Test
+	public void testModelDeltaQuantizedNoDrift() {
+		ExecutionContext ec = ExecutionContextFactory.createContext();
+		GradientCompression compression = new GradientCompression(Type.QUANT8, 1, true);
+		MatrixBlock m = TestUtils.generateTestMatrixBlock(10, 10, -1, 1, 1.0, 1);
+		GradientCompression.setModelBase(ec, toList(m));
+		double[][] mirror = GradientCompression.createMirror(toList(m));
+		for(int t = 0; t < 5; t++) {
+			MatrixBlock upd = TestUtils.generateTestMatrixBlock(10, 10, -0.1, 0.1, 1.0, 100 + t);
+			m = new MatrixBlock(m);
+			for(int i = 0; i < 100; i++)
+				m.set(i / 10, i % 10, m.get(i / 10, i % 10) + upd.get(i / 10, i % 10));
+			MatrixBlock ret = getBlock(GradientCompression.applyModelDelta(ec,
+				compression.encodeModelDelta(toList(m), mirror)), 0);
+			// the worker model matches the mirror and stays within one quantization step of the global model
+			Assert.assertArrayEquals(mirror[0], ret.getDenseBlockValues(), 1e-12);
+			for(int i = 0; i < 100; i++)
+				Assert.assertEquals(m.get(i / 10, i % 10), ret.get(i / 10, i % 10), 0.2 / 255 * 2);
+		}
+	}
+
+	@Test(expected = DMLRuntimeException.class)
+	public void testInvalidCompression() {
+		ListObject hyperparams = new ListObject(Arrays.asList((Data) new StringObject("zip")),
+			Arrays.asList(GradientCompression.COMPRESSION));
+		GradientCompression.create(hyperparams);
+	}
+
+	@Test
+	public void testCreateFromHyperParams() {
+		ListObject hyperparams = new ListObject(Arrays.asList((Data) new StringObject("topk")),
+			Arrays.asList(GradientCompression.COMPRESSION));
+		GradientCompression compression = GradientCompression.create(hyperparams);
+		Assert.assertEquals(Type.TOPK, compression.getType());
+		Assert.assertFalse(compression.isDeltaModel());
+		Assert.assertFalse(GradientCompression.create(null).isCompressGradients());
+	}
+
+	private static ListObject toList(MatrixBlock mb) {
+		return new ListObject(Arrays.asList((Data) ParamservUtils.newMatrixObject(new MatrixBlock(mb))));
+	}
+
+	private static MatrixBlock getBlock(ListObject lo, int i) {
+		return ((MatrixObject) lo.getData(i)).acquireReadAndRelease();
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.paramserv;
+
+import java.util.Arrays;
+
+import org.apache.sysds.parser.Statement.PSOptimizerType;
+import org.apache.sysds.runtime.controlprogram.paramserv.PSOptimizer;
+import org.apache.sysds.runtime.instructions.cp.Data;
+import org.apache.sysds.runtime.instructions.cp.DoubleObject;
+import org.apache.sysds.runtime.instructions.cp.ListObject;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PSOptimizerTest {
+	private static final double lr = 0.1;
+	private static final double mu = 0.8;
+
+	@Test
+	public void testSGD() {
+		MatrixBlock W = TestUtils.generateTestMatrixBlock(10, 5, -1, 1, 1.0, 3);
+		MatrixBlock dW = TestUtils.generateTestMatrixBlock(10, 5, -1, 1, 1.0, 4);
+		MatrixBlock ret = PSOptimizer.create(PSOptimizerType.SGD, getHyperParams()).update(W, dW);
+		for(int i = 0; i < 10; i++)
+			for(int j = 0; j < 5; j++)
+				Assert.assertEquals(W.get(i, j) - lr * dW.get(i, j), ret.get(i, j), 1e-12);
+	}
+
+	@Test
+	public void testSGDSparseGradient() {
+		MatrixBlock W = TestUtils.generateTestMatrixBlock(20, 30, -1, 1, 1.0, 3);
+		MatrixBlock dW = TestUtils.generateTestMatrixBlock(20, 30, -1, 1, 0.05, 4);
+		Assert.assertTrue(dW.isInSparseFormat());
+		MatrixBlock ret = PSOptimizer.create(PSOptimizerType.SGD, getHyperParams()).update(W, dW);
+		for(int i = 0; i < 20; i++)
+			for(int j = 0; j < 30; j++)
+				Assert.assertEquals(W.get(i, j) - lr * dW.get(i, j), ret.get(i, j), 1e-12);
+	}
+
+	@Test
+	public void testInputNotModified() {
+		MatrixBlock W = TestUtils.generateTestMatrixBlock(10, 5, -1, 1, 1.0, 3);
+		MatrixBlock W2 = new MatrixBlock(W);
+		MatrixBlock dW = TestUtils.generateTestMatrixBlock(10, 5, -1, 1, 1.0, 4);
+		PSOptimizer.create(PSOptimizerType.ADAM, getHyperParams()).update(W, dW);
+		TestUtils.compareMatricesBitAvgDistance(W2, W, 0, 0, "weights modified in place");
+	}
+
+	@Test
+	public void testMomentum() {
+		double[] w = new double[] {1, 2, 3};
+		double[] g = new double[] {0.5, -1, 2};
+		double[] v = new double[3];
+		PSOptimizer opt = PSOptimizer.create(PSOptimizerType.MOMENTUM, getHyperParams());
+		MatrixBlock W = new MatrixBlock(1, 3, w.clone());
+		MatrixBlock dW = new MatrixBlock(1, 3, g);
+		for(int t = 0; t < 3; t++) {
+			W = opt.update(W, dW);
+			for(int i = 0; i < 3; i++) {
+				v[i] = mu * v[i] - lr * g[i];
+				w[i] += v[i];
+				Assert.assertEquals(w[i], W.get(0, i), 1e-12);
+			}
+		}
+	}
+
+	@Test
+	public void testAdam() {
+		double b1 = 0.9, b2 = 0.999, eps = 1e-8;
+		double[] w = new double[] {1, 2, 3};
+		double[] g = new double[] {0.5, -1, 2};
+		double[] m = new double[3];
+		double[] v = new double[3];
+		PSOptimizer opt = PSOptimizer.create(PSOptimizerType.ADAM, getHyperParams());
+		MatrixBlock W = new MatrixBlock(1, 3, w.clone());
+		MatrixBlock dW = new MatrixBlock(1, 3, g);
+		for(int t = 1; t <= 3; t++) {
+			W = opt.update(W, dW);
+			double lrt = lr * Math.sqrt(1 - Math.pow(b2, t)) / (1 - Math.pow(b1, t));
+			for(int i = 0; i < 3; i++) {
+				m[i] = b1 * m[i] + (1 - b1) * g[i];
+				v[i] = b2 * v[i] + (1 - b2) * g[i] * g[i];
+				w[i] -= lrt * m[i] / (Math.sqrt(v[i]) + eps);
+				Assert.assertEquals(w[i], W.get(0, i), 1e-12);
+			}
+		}
+	}
+
+	@Test(expected = Exception.class)
+	public void testInvalidShape() {
+		PSOptimizer.create(PSOptimizerType.SGD, null).update(new MatrixBlock(2, 2, 1.0), new MatrixBlock(2, 3, 1.0));
+	}
+
+	private static ListObject getHyperParams() {
+		return new ListObject(Arrays.asList(new Data[] {new DoubleObject(lr), new DoubleObject(mu)}),
+			Arrays.asList("lr", "mu"));
+	}
+}
@@ -22,20 +22,29 @@ package org.apache.sysds.test.functions.caching;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
 import org.apache.sysds.common.Warnings;
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.conf.DMLConfig;
 import org.apache.sysds.runtime.controlprogram.caching.ByteBuffer;
 import org.apache.sysds.runtime.controlprogram.caching.CacheBlockFactory;
 import org.apache.sysds.runtime.controlprogram.caching.CacheDataInput;
 import org.apache.sysds.runtime.controlprogram.caching.CacheDataOutput;
+import org.apache.sysds.runtime.controlprogram.caching.LazyWriteBuffer;
+import org.apache.sysds.runtime.controlprogram.caching.OffHeapByteBuffer;
+import org.apache.sysds.runtime.controlprogram.caching.OffHeapPagePool;
 import org.apache.sysds.runtime.controlprogram.caching.PageCache;
 import org.apache.sysds.runtime.data.TensorBlock;
 import org.apache.sysds.runtime.frame.data.FrameBlock;
 import org.apache.sysds.runtime.matrix.data.MatrixBlock;
 import org.apache.sysds.runtime.util.CommonThreadPool;
+import org.apache.sysds.runtime.util.DataConverter;
+import org.apache.sysds.runtime.util.LocalFileUtils;
 import org.apache.sysds.test.AutomatedTestBase;
 import org.apache.sysds.test.TestUtils;
 
@@ -64,6 +73,89 @@ public class KeyBufferPoolComponents extends AutomatedTestBase
 		testBufferSerialization(100, 100, 0.007);
 	}
 	
+	@Test
+	public void testOffHeapBufferDense() {
+		testOffHeapSerialization(300, 100, 0.7);
+	}
+	
+	@Test
+	public void testOffHeapBufferSparse() {
+		testOffHeapSerialization(300, 100, 0.07);
+	}
+	
+	@Test
+	public void testOffHeapBufferFrame() {
+		try {
+			MatrixBlock mb = MatrixBlock.randOperations(500, 20, 0.7);
+			FrameBlock fb = DataConverter.convertToFrameBlock(mb);
+			OffHeapPagePool pool = new OffHeapPagePool(8*OffHeapPagePool.PAGE_SIZE);
+			OffHeapByteBuffer buff = new OffHeapByteBuffer(
+				fb.getExactSerializedSize(), pool, pool.allocate(fb.getExactSerializedSize()));
+			buff.serializeBlock(fb);
+			FrameBlock fb2 = (FrameBlock) buff.deserializeBlock();
+			TestUtils.compareFrames(fb, fb2, true);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+	
+	@Test
+	public void testOffHeapPagePool() {
+		OffHeapPagePool pool = new OffHeapPagePool(4*OffHeapPagePool.PAGE_SIZE);
+		int[] p1 = pool.allocate(3*OffHeapPagePool.PAGE_SIZE-7);
+		Assert.assertEquals(3, p1.length);
+		Assert.assertNull(pool.allocate(2*OffHeapPagePool.PAGE_SIZE));
+		pool.free(p1);
+		Assert.assertEquals(0, pool.getUsedSize());
+		int[] p2 = pool.allocate(4*OffHeapPagePool.PAGE_SIZE);
+		Assert.assertEquals(4, p2.length);
+		Assert.assertEquals(pool.getCapacity(), pool.getUsedSize());
+		pool.clear();
+	}
+	
+	@Test
+	public void testOffHeapWriteBufferSpill() {
+		File dir = null;
+		try {
+			//off-heap write buffer of 1MB, i.e., 16 pages
+			DMLConfig conf = new DMLConfig();
+			conf.setTextValue(DMLConfig.OFFHEAP_BUFFER_LIMIT, "1");
+			ConfigurationManager.setLocalConfig(conf);
+			LazyWriteBuffer.init();
+			Assert.assertTrue(LazyWriteBuffer.isOffHeap());
+			dir = Files.createTempDirectory("offheap").toFile();
+			
+			//write blocks of two pages each, which requires asynchronous spills
+			int n = 20;
+			MatrixBlock[] mbs = new MatrixBlock[n];
+			for( int i=0; i<n; i++ ) {
+				mbs[i] = MatrixBlock.randOperations(100, 100, 1.0, -1, 1, "uniform", i);
+				LazyWriteBuffer.writeBlock(dir.getPath()+"/b"+i, mbs[i]);
+			}
+			//pending spills are accounted, so the buffer is not drained
+			Assert.assertTrue(LazyWriteBuffer.getQueueSize() >= 4);
+			
+			//read from off-heap pages, pending spills, or local files
+			for( int i=0; i<n; i++ ) {
+				MatrixBlock mb = (MatrixBlock) LazyWriteBuffer.readBlock(dir.getPath()+"/b"+i, true);
+				TestUtils.compareMatrices(mbs[i], mb, 1e-14);
+			}
+			for( int i=0; i<n; i++ )
+				LazyWriteBuffer.deleteBlock(dir.getPath()+"/b"+i);
+			Assert.assertEquals(0, LazyWriteBuffer.getWriteBufferSize());
+		}
+		catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		finally {
+			LazyWriteBuffer.cleanup();
+			ConfigurationManager.clearLocalConfigs();
+			LazyWriteBuffer.init();
+			if( dir != null )
+				LocalFileUtils.deleteFileIfExists(dir.getPath());
+		}
+	}
+	
 	@Test
 	public void testCacheBlockFactory() {
 		Assert.assertEquals(new MatrixBlock(), CacheBlockFactory.newInstance(0));
@@ -117,6 +209,35 @@ public class KeyBufferPoolComponents extends AutomatedTestBase
 		}
 	}
 	
+	private void testOffHeapSerialization(int rows, int cols, double sparsity) {
+		File tmp = null;
+		try {
+			//serialize block across multiple off-heap pages
+			MatrixBlock mb = MatrixBlock.randOperations(rows, cols, sparsity);
+			long size = mb.getExactSizeOnDisk();
+			OffHeapPagePool pool = new OffHeapPagePool(size + 2*OffHeapPagePool.PAGE_SIZE);
+			OffHeapByteBuffer buff = new OffHeapByteBuffer(size, pool, pool.allocate(size));
+			buff.serializeBlock(mb);
+			MatrixBlock mb2 = (MatrixBlock) buff.deserializeBlock();
+			TestUtils.compareMatrices(mb, mb2, 1e-14);
+			
+			//spill to local file and release the pages
+			tmp = File.createTempFile("offheap", ".bin");
+			buff.evictBuffer(tmp.getPath());
+			buff.freeMemory();
+			Assert.assertNull(buff.deserializeBlock());
+			Assert.assertEquals(0, pool.getUsedSize());
+			MatrixBlock mb3 = (MatrixBlock) LocalFileUtils.readCacheBlockFromLocal(tmp.getPath(), true);
+			TestUtils.compareMatrices(mb, mb3, 1e-14);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		finally {
+			if( tmp != null )
+				tmp.delete();
+		}
+	}
+	
 	private void testBufferSerialization(int rows, int cols, double sparsity) {
 		try {
 			MatrixBlock mb = MatrixBlock.randOperations(rows, cols, sparsity);
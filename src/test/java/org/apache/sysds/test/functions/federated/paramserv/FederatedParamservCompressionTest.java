@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.functions.federated.paramserv;
+
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+
+import org.apache.sysds.common.Types.ExecMode;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.matrix.data.MatrixValue.CellIndex;
+import org.apache.sysds.test.AutomatedTestBase;
+import org.apache.sysds.test.TestConfiguration;
+import org.apache.sysds.test.TestUtils;
+import org.apache.sysds.utils.stats.ParamServStatistics;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+@RunWith(value = Parameterized.class)
+@net.jcip.annotations.NotThreadSafe
+public class FederatedParamservCompressionTest extends AutomatedTestBase {
+	private final static String TEST_DIR = "functions/federated/paramserv/";
+	private final static String TEST_NAME = "FederatedParamservCompressionTest";
+	private final static String TEST_CLASS_DIR = TEST_DIR + FederatedParamservCompressionTest.class.getSimpleName() + "/";
+
+	private final static int numFederatedWorkers = 2;
+	private final static int dataSetSize = 100;
+	private final static int batchSize = 10;
+	private final static int epochs = 4;
+	private final static double eta = 0.01;
+	private final static int seed = 200;
+
+	private final String _compression;
+	private final double _topkRatio;
+	private final boolean _deltaModel;
+
+	@Parameterized.Parameters
+	public static Collection<Object[]> parameters() {
+		return Arrays.asList(new Object[][] {
+			// compression, top-k ratio, delta model
+			{"topk",	0.1,	false},
+			{"quant8",	0.01,	false},
+			{"quant8",	0.01,	true},
+		});
+	}
+
+	public FederatedParamservCompressionTest(String compression, double topkRatio, boolean deltaModel) {
+		_compression = compression;
+		_topkRatio = topkRatio;
+		_deltaModel = deltaModel;
+	}
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] {"L"}));
+	}
+
+	@Test
+	public void federatedParamservCompressionSingleNode() {
+		federatedParamservCompression(ExecMode.SINGLE_NODE);
+	}
+
+	private void federatedParamservCompression(ExecMode mode) {
+		getAndLoadTestConfiguration(TEST_NAME);
+		String HOME = SCRIPT_DIR + TEST_DIR;
+		setOutputBuffering(true);
+
+		ExecMode platformOld = setExecMode(mode);
+		List<Integer> ports = new ArrayList<>();
+		List<Thread> threads = new ArrayList<>();
+		try {
+			for(int i = 0; i < numFederatedWorkers; i++) {
+				int port = getRandomAvailablePort();
+				threads.add(startLocalFedWorkerThread(port, FED_WORKER_WAIT_S));
+				ports.add(port);
+				if(threads.get(i).isInterrupted() || !threads.get(i).isAlive())
+					throw new DMLRuntimeException("Federated worker thread dead or interrupted! Port " + port);
+			}
+
+			double[][] features = ParamServTestUtils.generateFeatures("TwoNN", dataSetSize, 1, 28, 28);
+			double[][] labels = ParamServTestUtils.generateLabels("TwoNN", dataSetSize, 10, 28 * 28, features);
+			double[][] ranges = generateBalancedFederatedRowRanges(numFederatedWorkers, features.length);
+			rowFederateLocallyAndWriteInputMatrixWithMTD("X", features, numFederatedWorkers, ports, ranges);
+			rowFederateLocallyAndWriteInputMatrixWithMTD("y", labels, numFederatedWorkers, ports, ranges);
+			writeInputMatrixWithMTD("X_local", features, false);
+			writeInputMatrixWithMTD("y_local", labels, false);
+
+			Thread.sleep(FED_WORKER_WAIT);
+			if(threads.stream().anyMatch(t -> !t.isAlive()))
+				throw new DMLRuntimeException("Federated worker thread interrupted!");
+
+			fullDMLScriptName = HOME + TEST_NAME + ".dml";
+			programArgs = new String[] {"-stats", "-nvargs", "features=" + input("X"), "labels=" + input("y"),
+				"features_local=" + input("X_local"), "labels_local=" + input("y_local"), "epochs=" + epochs,
+				"batch_size=" + batchSize, "eta=" + eta, "compression=" + _compression, "topk_ratio=" + _topkRatio,
+				"delta_model=" + (_deltaModel ? "TRUE" : "FALSE"), "seed=" + seed, "out=" + output("L")};
+			String log = runTest(null).toString();
+
+			// the training still converges with lossy gradients (and model deltas)
+			HashMap<CellIndex, Double> L = readDMLMatrixFromOutputDir("L");
+			double lossInit = L.get(new CellIndex(1, 1));
+			double lossTrained = L.get(new CellIndex(2, 1));
+			Assert.assertTrue("Loss did not decrease: " + lossInit + " -> " + lossTrained + "\n" + log,
+				lossTrained < lossInit);
+
+			// and ships fewer bytes than the dense gradients and models
+			long raw = ParamServStatistics.getFedRawBytes();
+			long sent = ParamServStatistics.getFedSentBytes();
+			Assert.assertTrue("No compressed traffic reported", raw > 0);
+			Assert.assertTrue("Compressed traffic not reduced: " + sent + " of " + raw, sent < raw);
+		}
+		catch(InterruptedException e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+		finally {
+			for(Thread thread : threads)
+				TestUtils.shutdownThreads(thread);
+			resetExecMode(platformOld);
+		}
+	}
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.functions.jmlc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.sysds.api.DMLException;
+import org.apache.sysds.api.jmlc.Connection;
+import org.apache.sysds.api.jmlc.PreparedScript;
+import org.apache.sysds.api.jmlc.PreparedScriptBatcher;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.test.AutomatedTestBase;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class JMLCBatchedScoringTest extends AutomatedTestBase
+{
+	private static final String SCRIPT =
+		  "X = read(\"./tmp/X\", data_type=\"matrix\");"
+		+ "W = read(\"./tmp/W\", data_type=\"matrix\");"
+		+ "Y = 1 / (1 + exp(-(X %*% W)));"
+		+ "write(Y, './tmp/Y');";
+	
+	private static final int cols = 10;
+	private static final int ncls = 3;
+	
+	@Override
+	public void setUp() {
+		//do nothing
+	}
+	
+	@Test
+	public void testBatchedScoringSingle() {
+		runBatchedScoring(1, 16, 100);
+	}
+	
+	@Test
+	public void testBatchedScoringMany() {
+		runBatchedScoring(200, 32, 2000);
+	}
+	
+	@Test
+	public void testBatchedScoringLargeDelay() {
+		runBatchedScoring(50, 64, 50000);
+	}
+	
+	@Test(expected = DMLException.class)
+	public void testBatchedScoringInvalidRow() {
+		try( Connection conn = new Connection() ) {
+			PreparedScript ps = conn.prepareScript(SCRIPT, new String[]{"X", "W"}, new String[]{"Y"});
+			ps.setMatrix("W", getWeights(), true);
+			try( PreparedScriptBatcher b = conn.prepareBatcher(ps, "X", "Y", cols, 8, 100) ) {
+				b.score(new double[cols + 1]);
+			}
+		}
+	}
+	
+	@Test(expected = DMLException.class)
+	public void testBatchedScoringSubmitAfterClose() {
+		try( Connection conn = new Connection() ) {
+			PreparedScript ps = conn.prepareScript(SCRIPT, new String[]{"X", "W"}, new String[]{"Y"});
+			ps.setMatrix("W", getWeights(), true);
+			PreparedScriptBatcher b = conn.prepareBatcher(ps, "X", "Y", cols, 8, 100);
+			b.close();
+			b.submit(getRow(0));
+		}
+	}
+	
+	@Test
+	public void testBatchedScoringFailedBatch() {
+		try( Connection conn = new Connection() ) {
+			PreparedScript ps = conn.prepareScript(SCRIPT, new String[]{"X", "W"}, new String[]{"Y"});
+			// mismatching weights, every batch fails in the matrix multiplication
+			ps.setMatrix("W", new MatrixBlock(cols + 1, ncls, 1.0), true);
+			try( PreparedScriptBatcher b = conn.prepareBatcher(ps, "X", "Y", cols, 8, 100) ) {
+				List<CompletableFuture<double[]>> rets = new ArrayList<>();
+				for(int i = 0; i < 20; i++)
+					rets.add(b.submit(getRow(i)));
+				for(CompletableFuture<double[]> f : rets) {
+					Assert.assertTrue(f.handle((r, e) -> e != null).join());
+				}
+				Assert.assertEquals(0, b.getNumRows());
+			}
+		}
+	}
+	
+	private static void runBatchedScoring(int nreq, int maxBatch, long delay) {
+		try( Connection conn = new Connection() ) {
+			PreparedScript ps = conn.prepareScript(SCRIPT, new String[]{"X", "W"}, new String[]{"Y"});
+			MatrixBlock W = getWeights();
+			ps.setMatrix("W", W, true);
+			try( PreparedScriptBatcher b = conn.prepareBatcher(ps, "X", "Y", cols, maxBatch, delay) ) {
+				List<CompletableFuture<double[]>> rets = new ArrayList<>();
+				for(int i = 0; i < nreq; i++)
+					rets.add(b.submit(getRow(i)));
+				for(int i = 0; i < nreq; i++)
+					Assert.assertArrayEquals(getExpected(getRow(i), W), rets.get(i).join(), 1e-10);
+				Assert.assertEquals(nreq, b.getNumRows());
+				Assert.assertEquals(nreq, b.getLatencyHistogram().getCount());
+				Assert.assertTrue(b.getNumBatches() >= (nreq + maxBatch - 1) / maxBatch);
+				Assert.assertTrue(b.getNumBatches() <= nreq);
+			}
+		}
+	}
+	
+	private static MatrixBlock getWeights() {
+		MatrixBlock w = new MatrixBlock(cols, ncls, false);
+		w.allocateDenseBlock();
+		for(int i = 0; i < cols; i++)
+			for(int j = 0; j < ncls; j++)
+				w.set(i, j, (i - j) * 0.1);
+		w.recomputeNonZeros();
+		return w;
+	}
+	
+	private static double[] getRow(int seed) {
+		double[] x = new double[cols];
+		for(int i = 0; i < cols; i++)
+			x[i] = ((seed * 31 + i * 7) % 13) / 13.0;
+		return x;
+	}
+	
+	private static double[] getExpected(double[] x, MatrixBlock W) {
+		double[] y = new double[ncls];
+		for(int j = 0; j < ncls; j++) {
+			double s = 0;
+			for(int i = 0; i < cols; i++)
+				s += x[i] * W.get(i, j);
+			y[j] = 1 / (1 + Math.exp(-s));
+		}
+		return y;
+	}
+}
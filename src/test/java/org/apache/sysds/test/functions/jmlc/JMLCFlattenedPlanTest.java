@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.functions.jmlc;
+
+import org.apache.sysds.api.jmlc.Connection;
+import org.apache.sysds.api.jmlc.PreparedScript;
+import org.apache.sysds.test.AutomatedTestBase;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class JMLCFlattenedPlanTest extends AutomatedTestBase
+{
+	private static final String SCRIPT1 =
+		  "X = read(\"./tmp/X\", data_type=\"matrix\");"
+		+ "W = read(\"./tmp/W\", data_type=\"matrix\");"
+		+ "s = read(\"./tmp/s\", data_type=\"scalar\", value_type=\"double\");"
+		+ "Y = (X %*% W) * s + 1;"
+		+ "write(Y, './tmp/Y');";
+	
+	private static final String SCRIPT2 =
+		  "X = read(\"./tmp/X\", data_type=\"matrix\");"
+		+ "W = read(\"./tmp/W\", data_type=\"matrix\");"
+		+ "s = read(\"./tmp/s\", data_type=\"scalar\", value_type=\"double\");"
+		+ "Y = X %*% W;"
+		+ "if( s > 1 ) { Y = Y * s; }"
+		+ "Y = Y + 1;"
+		+ "write(Y, './tmp/Y');";
+	
+	@Override
+	public void setUp() {
+		//do nothing
+	}
+	
+	@Test
+	public void testFlattenedStraightLine() {
+		runFlattenedTest(SCRIPT1, true);
+	}
+	
+	@Test
+	public void testFlattenedControlFlow() {
+		runFlattenedTest(SCRIPT2, false);
+	}
+	
+	private static void runFlattenedTest(String script, boolean flat) {
+		try( Connection conn = new Connection() ) {
+			String[] in = new String[]{"X", "W", "s"};
+			String[] out = new String[]{"Y"};
+			PreparedScript ps1 = conn.prepareScript(script, in, out);
+			PreparedScript ps2 = conn.prepareScript(script, in, out);
+			ps2.enableFlattenedPlan(true);
+			double[][] W = TestUtils.generateTestMatrix(10, 3, -1, 1, 1.0, 7);
+			ps1.setMatrix("W", W, true);
+			ps2.setMatrix("W", W, true);
+			
+			//repeated calls with changing shapes and scalars
+			int[] rows = new int[]{1, 1, 5, 5, 1};
+			for(int i = 0; i < rows.length; i++) {
+				double[][] X = TestUtils.generateTestMatrix(rows[i], 10, -1, 1, 1.0, i);
+				ps1.setMatrix("X", X);
+				ps1.setScalar("s", i + 0.5);
+				ps2.setMatrix("X", X);
+				ps2.setScalar("s", i + 0.5);
+				double[][] Y1 = ps1.executeScript().getMatrix("Y");
+				double[][] Y2 = ps2.executeScript().getMatrix("Y");
+				TestUtils.compareMatrices(Y1, Y2, rows[i], 3, 1e-10);
+				Assert.assertEquals(flat, ps2.hasFlattenedPlan());
+			}
+		}
+	}
+}
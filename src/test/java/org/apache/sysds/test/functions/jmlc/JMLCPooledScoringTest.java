@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.functions.jmlc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.sysds.api.jmlc.Connection;
+import org.apache.sysds.api.jmlc.PreparedScript;
+import org.apache.sysds.api.jmlc.PreparedScriptPool;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.test.AutomatedTestBase;
+import org.apache.sysds.utils.stats.LatencyHistogram;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class JMLCPooledScoringTest extends AutomatedTestBase
+{
+	private static final String SCRIPT =
+		  "X = read(\"./tmp/X\", data_type=\"matrix\");"
+		+ "W = read(\"./tmp/W\", data_type=\"matrix\");"
+		+ "out = sum(X %*% W);"
+		+ "write(out, './tmp/out');";
+	
+	private static final int cols = 8;
+	
+	@Override
+	public void setUp() {
+		//do nothing
+	}
+	
+	@Test
+	public void testZeroCopyInput() {
+		try( Connection conn = new Connection() ) {
+			PreparedScript ps = conn.prepareScript(SCRIPT, new String[]{"X", "W"}, new String[]{"out"});
+			ps.setMatrix("W", getWeights(), false);
+			double[] x = getRow(3);
+			ps.setMatrix("X", x, 1, cols, false);
+			Assert.assertEquals(getExpected(3), ps.executeScript().getDouble("out"), 1e-10);
+		}
+	}
+	
+	@Test(expected = Exception.class)
+	public void testZeroCopyInputInvalidLength() {
+		try( Connection conn = new Connection() ) {
+			PreparedScript ps = conn.prepareScript(SCRIPT, new String[]{"X", "W"}, new String[]{"out"});
+			ps.setMatrix("X", new double[cols - 1], 1, cols, false);
+		}
+	}
+	
+	@Test
+	public void testPooledRepeatedExecution() {
+		try( Connection conn = new Connection() ) {
+			PreparedScript ps = conn.prepareScript(SCRIPT, new String[]{"X", "W"}, new String[]{"out"});
+			ps.setMatrix("W", getWeights(), true);
+			PreparedScriptPool pool = new PreparedScriptPool(ps, 2);
+			for(int i = 0; i < 20; i++) {
+				final double[] x = getRow(i);
+				double ret = pool.execute(p -> p.setMatrix("X", x, 1, cols, false)).getDouble("out");
+				Assert.assertEquals(getExpected(i), ret, 1e-10);
+			}
+			LatencyHistogram h = pool.getLatencyHistogram();
+			Assert.assertEquals(20, h.getCount());
+			Assert.assertTrue(h.getPercentile(50) <= h.getPercentile(99));
+			Assert.assertTrue(h.getPercentile(99) <= h.getMax());
+			Assert.assertEquals(2, pool.getNumIdle());
+		}
+	}
+	
+	@Test
+	public void testPooledConcurrentExecution() throws Exception {
+		ExecutorService exec = Executors.newFixedThreadPool(4);
+		try( Connection conn = new Connection() ) {
+			PreparedScript ps = conn.prepareScript(SCRIPT, new String[]{"X", "W"}, new String[]{"out"});
+			ps.setMatrix("W", getWeights(), true);
+			PreparedScriptPool pool = new PreparedScriptPool(ps, 4);
+			List<Callable<Double>> tasks = new ArrayList<>();
+			for(int i = 0; i < 64; i++) {
+				final double[] x = getRow(i);
+				tasks.add(() -> pool.execute(p -> p.setMatrix("X", x, 1, cols, false)).getDouble("out"));
+			}
+			List<Future<Double>> rets = exec.invokeAll(tasks);
+			for(int i = 0; i < rets.size(); i++)
+				Assert.assertEquals(getExpected(i), rets.get(i).get(), 1e-10);
+			Assert.assertEquals(64, pool.getLatencyHistogram().getCount());
+		}
+		finally {
+			exec.shutdown();
+		}
+	}
+	
+	private static MatrixBlock getWeights() {
+		MatrixBlock w = new MatrixBlock(cols, 1, false);
+		w.allocateDenseBlock();
+		for(int i = 0; i < cols; i++)
+			w.set(i, 0, i + 1);
+		w.recomputeNonZeros();
+		return w;
+	}
+	
+	private static double[] getRow(int seed) {
+		double[] x = new double[cols];
+		for(int i = 0; i < cols; i++)
+			x[i] = seed + i;
+		return x;
+	}
+	
+	private static double getExpected(int seed) {
+		double[] x = getRow(seed);
+		double ret = 0;
+		for(int i = 0; i < cols; i++)
+			ret += x[i] * (i + 1);
+		return ret;
+	}
+}
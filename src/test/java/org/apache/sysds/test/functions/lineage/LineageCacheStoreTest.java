@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.functions.lineage;
+
+import java.io.File;
+import java.util.HashMap;
+
+import org.apache.sysds.hops.OptimizerUtils;
+import org.apache.sysds.hops.recompile.Recompiler;
+import org.apache.sysds.runtime.lineage.Lineage;
+import org.apache.sysds.runtime.lineage.LineageCacheConfig.ReuseCacheType;
+import org.apache.sysds.runtime.lineage.LineageCacheStatistics;
+import org.apache.sysds.runtime.matrix.data.MatrixValue;
+import org.apache.sysds.runtime.util.LocalFileUtils;
+import org.apache.sysds.test.TestConfiguration;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+@net.jcip.annotations.NotThreadSafe
+public class LineageCacheStoreTest extends LineageBase {
+
+	protected static final String TEST_DIR = "functions/lineage/";
+	protected static final String TEST_NAME1 = "LineageCacheStore1";
+
+	protected String TEST_CLASS_DIR = TEST_DIR + LineageCacheStoreTest.class.getSimpleName() + "/";
+	private final static String TEST_CONF = "SystemDS-config-cachestore.xml";
+	private final static File   TEST_CONF_FILE = new File(SCRIPT_DIR + TEST_DIR, TEST_CONF);
+	private final static String STORE_DIR = "target/testTemp/" + TEST_DIR
+		+ LineageCacheStoreTest.class.getSimpleName() + "/store";
+
+	private final static int rows = 4000;
+	private final static int cols = 600;
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME1, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME1));
+	}
+
+	@Test
+	public void testCrossSessionReuse() {
+		runTest(TEST_NAME1);
+	}
+
+	public void runTest(String testname) {
+		boolean old_simplification = OptimizerUtils.ALLOW_ALGEBRAIC_SIMPLIFICATION;
+		boolean old_sum_product = OptimizerUtils.ALLOW_SUM_PRODUCT_REWRITES;
+
+		try {
+			LOG.debug("------------ BEGIN " + testname + "------------");
+			OptimizerUtils.ALLOW_ALGEBRAIC_SIMPLIFICATION = false;
+			OptimizerUtils.ALLOW_SUM_PRODUCT_REWRITES = false;
+
+			getAndLoadTestConfiguration(testname);
+			fullDMLScriptName = getScript();
+			LocalFileUtils.deleteFileIfExists(STORE_DIR);
+			writeInputMatrixWithMTD("X", getRandomMatrix(rows, cols, -1, 1, 1.0, 7), true);
+			programArgs = new String[] {"-stats", "-lineage", ReuseCacheType.REUSE_FULL.name().toLowerCase(),
+				"-args", input("X"), output("R")};
+
+			// First session populates the persistent store
+			Lineage.resetInternalState();
+			runTest(true, EXCEPTION_NOT_EXPECTED, null, -1);
+			HashMap<MatrixValue.CellIndex, Double> R_orig = readDMLMatrixFromOutputDir("R");
+			Assert.assertTrue("No entries written to store", LineageCacheStatistics.getStoreWrites() > 0);
+			Assert.assertEquals(0, LineageCacheStatistics.getStoreHits());
+
+			// Second session with a cold in-memory cache reuses from the store
+			Lineage.resetInternalState();
+			runTest(true, EXCEPTION_NOT_EXPECTED, null, -1);
+			HashMap<MatrixValue.CellIndex, Double> R_reused = readDMLMatrixFromOutputDir("R");
+			Assert.assertTrue("No reuse from store", LineageCacheStatistics.getStoreHits() > 0);
+			TestUtils.compareMatrices(R_orig, R_reused, 1e-10, "Origin", "Reused");
+
+			// Modified input invalidates the stored entries
+			Thread.sleep(1000); //robustness for coarse-grained modification times
+			writeInputMatrixWithMTD("X", getRandomMatrix(rows, cols, -1, 1, 1.0, 8), true);
+			Lineage.resetInternalState();
+			runTest(true, EXCEPTION_NOT_EXPECTED, null, -1);
+			Assert.assertEquals(0, LineageCacheStatistics.getStoreHits());
+		}
+		catch(InterruptedException ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			OptimizerUtils.ALLOW_ALGEBRAIC_SIMPLIFICATION = old_simplification;
+			OptimizerUtils.ALLOW_SUM_PRODUCT_REWRITES = old_sum_product;
+			Recompiler.reinitRecompiler();
+			LocalFileUtils.deleteFileIfExists(STORE_DIR);
+		}
+	}
+
+	/**
+	 * Override default configuration with custom test configuration to ensure
+	 * scratch space and local temporary directory locations are also updated.
+	 */
+	@Override
+	protected File getConfigTemplateFile() {
+		// Instrumentation in this test's output log to show custom configuration file used for template.
+		System.out.println("This test case overrides default configuration with " + TEST_CONF_FILE.getPath());
+		return TEST_CONF_FILE;
+	}
+}
@@ -42,6 +42,8 @@ public class LineageRewriteTest extends AutomatedTestBase {
 	protected static final String TEST_NAME7 = "RewriteTest11";
 	protected static final String TEST_NAME8 = "RewriteTest12";
 	protected static final String TEST_NAME9 = "RewriteTest13";
+	protected static final String TEST_NAME10 = "RewriteTest14";
+	protected static final String TEST_NAME11 = "RewriteTest15";
 	
 	protected String TEST_CLASS_DIR = TEST_DIR + LineageRewriteTest.class.getSimpleName() + "/";
 	
@@ -60,6 +62,8 @@ public class LineageRewriteTest extends AutomatedTestBase {
 		addTestConfiguration(TEST_NAME7, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME7));
 		addTestConfiguration(TEST_NAME8, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME8));
 		addTestConfiguration(TEST_NAME9, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME9));
+		addTestConfiguration(TEST_NAME10, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME10));
+		addTestConfiguration(TEST_NAME11, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME11));
 	}
 	
 	@Test
@@ -108,6 +112,16 @@ public class LineageRewriteTest extends AutomatedTestBase {
 		testRewrite(TEST_NAME9, false, 0);
 	}
 
+	@Test
+	public void testColAggAndTMatMulRbind() {
+		testRewrite(TEST_NAME10, false, 0);
+	}
+
+	@Test
+	public void testAggRowSlice() {
+		testRewrite(TEST_NAME11, false, 0);
+	}
+
 	private void testRewrite(String testname, boolean elementwise, int classes) {
 		try {
 			getAndLoadTestConfiguration(testname);
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.functions.misc;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.apache.sysds.test.AutomatedTestBase;
+import org.apache.sysds.test.TestConfiguration;
+import org.apache.sysds.test.TestUtils;
+import org.apache.wink.json4j.JSONArray;
+import org.apache.wink.json4j.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ExecutionProfilerTest extends AutomatedTestBase
+{
+	private static final String TEST_NAME = "ExecutionProfiler";
+	private static final String TEST_DIR = "functions/misc/";
+	private static final String TEST_CLASS_DIR = TEST_DIR + ExecutionProfilerTest.class.getSimpleName() + "/";
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] {"R"}));
+	}
+
+	@Test
+	public void testProfileExport() throws Exception {
+		getAndLoadTestConfiguration(TEST_NAME);
+		fullDMLScriptName = SCRIPT_DIR + TEST_DIR + TEST_NAME + ".dml";
+		String prefix = output("profile");
+		programArgs = new String[] {"-profile", prefix, "-args", "50", output("R")};
+
+		String out = runTest(true, false, null, -1).toString();
+		Assert.assertTrue(out.contains("Heavy hitter DML lines"));
+
+		// collapsed stacks: thread;function;instruction (line) time
+		String folded = new String(Files.readAllBytes(Paths.get(prefix + ".folded")), StandardCharsets.UTF_8);
+		Assert.assertTrue(folded.contains("::f;ba+* (line 25) "));
+
+		// chrome trace events with line numbers and output sizes
+		String trace = new String(Files.readAllBytes(Paths.get(prefix + ".trace.json")), StandardCharsets.UTF_8);
+		JSONArray events = new JSONObject(trace).getJSONArray("traceEvents");
+		boolean found = false;
+		for(int i = 0; i < events.length(); i++) {
+			JSONObject e = events.getJSONObject(i);
+			if(e.getString("name").equals("ba+*")) {
+				JSONObject args = e.getJSONObject("args");
+				Assert.assertEquals(25, args.getInt("line"));
+				Assert.assertTrue(args.getString("function").endsWith("::f"));
+				Assert.assertEquals("50x50, nnz=2500", args.getString("output"));
+				found = true;
+			}
+		}
+		Assert.assertTrue(found);
+	}
+}
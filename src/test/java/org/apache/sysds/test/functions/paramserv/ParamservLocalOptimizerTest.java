@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.functions.paramserv;
+
+import org.apache.sysds.parser.Statement;
+import org.apache.sysds.test.AutomatedTestBase;
+import org.apache.sysds.test.TestConfiguration;
+import org.junit.Test;
+
+@net.jcip.annotations.NotThreadSafe
+public class ParamservLocalOptimizerTest extends AutomatedTestBase {
+
+	private static final String TEST_NAME = "paramserv-optimizer";
+
+	private static final String TEST_DIR = "functions/paramserv/";
+	private static final String TEST_CLASS_DIR = TEST_DIR + ParamservLocalOptimizerTest.class.getSimpleName() + "/";
+
+	@Override
+	public void setUp() {
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] {}));
+	}
+
+	@Test
+	public void testParamservBSPSGD() {
+		runDMLTest(Statement.PSUpdateType.BSP, Statement.PSOptimizerType.SGD, 0.1);
+	}
+
+	@Test
+	public void testParamservASPSGD() {
+		runDMLTest(Statement.PSUpdateType.ASP, Statement.PSOptimizerType.SGD, 0.1);
+	}
+
+	@Test
+	public void testParamservBSPMomentum() {
+		runDMLTest(Statement.PSUpdateType.BSP, Statement.PSOptimizerType.MOMENTUM, 0.05);
+	}
+
+	@Test
+	public void testParamservASPMomentum() {
+		runDMLTest(Statement.PSUpdateType.ASP, Statement.PSOptimizerType.MOMENTUM, 0.05);
+	}
+
+	@Test
+	public void testParamservBSPAdam() {
+		runDMLTest(Statement.PSUpdateType.BSP, Statement.PSOptimizerType.ADAM, 0.05);
+	}
+
+	@Test
+	public void testParamservASPAdam() {
+		runDMLTest(Statement.PSUpdateType.ASP, Statement.PSOptimizerType.ADAM, 0.05);
+	}
+
+	private void runDMLTest(Statement.PSUpdateType utype, Statement.PSOptimizerType optimizer, double lr) {
+		TestConfiguration config = getTestConfiguration(TEST_NAME);
+		loadTestConfiguration(config);
+		programArgs = new String[] {"-stats", "-nvargs", "epochs=10", "workers=4", "utype=" + utype,
+			"optimizer=" + optimizer, "lr=" + lr};
+		fullDMLScriptName = SCRIPT_DIR + TEST_DIR + TEST_NAME + ".dml";
+		runTest(true, false, null, null, -1);
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.functions.paramserv;
+
+import org.apache.sysds.parser.Statement;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.test.AutomatedTestBase;
+import org.apache.sysds.test.TestConfiguration;
+import org.junit.Test;
+
+@net.jcip.annotations.NotThreadSafe
+public class ParamservLocalPipelineTest extends AutomatedTestBase {
+
+	private static final String TEST_NAME = "paramserv-pipeline";
+
+	private static final String TEST_DIR = "functions/paramserv/";
+	private static final String TEST_CLASS_DIR = TEST_DIR + ParamservLocalPipelineTest.class.getSimpleName() + "/";
+
+	@Override
+	public void setUp() {
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] {}));
+	}
+
+	@Test
+	public void testParamservASPPipelined() {
+		runDMLTest(Statement.PSUpdateType.ASP, true, 1, false);
+	}
+
+	@Test
+	public void testParamservSSP() {
+		runDMLTest(Statement.PSUpdateType.SSP, false, 1, false);
+	}
+
+	@Test
+	public void testParamservSSPStaleness0() {
+		runDMLTest(Statement.PSUpdateType.SSP, false, 0, false);
+	}
+
+	@Test
+	public void testParamservSSPPipelined() {
+		runDMLTest(Statement.PSUpdateType.SSP, true, 2, false);
+	}
+
+	@Test
+	public void testParamservBSPPipelinedUnsupported() {
+		runDMLTest(Statement.PSUpdateType.BSP, true, 1, true);
+	}
+
+	private void runDMLTest(Statement.PSUpdateType utype, boolean pipeline, int staleness, boolean exception) {
+		TestConfiguration config = getTestConfiguration(TEST_NAME);
+		loadTestConfiguration(config);
+		programArgs = new String[] {"-stats", "-nvargs", "epochs=10", "workers=4", "utype=" + utype,
+			"pipeline=" + String.valueOf(pipeline).toUpperCase(), "staleness=" + staleness};
+		fullDMLScriptName = SCRIPT_DIR + TEST_DIR + TEST_NAME + ".dml";
+		runTest(true, exception, exception ? DMLRuntimeException.class : null, -1);
+	}
+}
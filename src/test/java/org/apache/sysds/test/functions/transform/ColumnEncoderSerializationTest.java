@@ -33,6 +33,7 @@ import org.apache.sysds.common.Types;
 import org.apache.sysds.runtime.frame.data.FrameBlock;
 import org.apache.sysds.runtime.transform.encode.ColumnEncoder;
 import org.apache.sysds.runtime.transform.encode.ColumnEncoderBagOfWords;
+import org.apache.sysds.runtime.transform.encode.ColumnEncoderBin;
 import org.apache.sysds.runtime.transform.encode.ColumnEncoderComposite;
 import org.apache.sysds.runtime.transform.encode.EncoderFactory;
 import org.apache.sysds.runtime.transform.encode.MultiColumnEncoder;
@@ -60,7 +61,8 @@ public class ColumnEncoderSerializationTest extends AutomatedTestBase
 		DUMMY,
 		IMPUTE,
 		OMIT,
-		BOW
+		BOW,
+		BIN
 	}
 
 	@Override
@@ -98,6 +100,9 @@ public class ColumnEncoderSerializationTest extends AutomatedTestBase
 	@Test
 	public void testComposite10() { runTransformSerTest(TransformType.BOW, schemaMixed); }
 
+	@Test
+	public void testComposite11() { runTransformSerTest(TransformType.BIN, schemaMixed); }
+
 
 
 
@@ -129,6 +134,9 @@ public class ColumnEncoderSerializationTest extends AutomatedTestBase
 			spec = "{ \"ids\": true, \"omit\": [ 1,2,4,5,6,7,8,9 ], \"recode\": [ 2, 7 ] }";
 		else if (type == TransformType.BOW)
 			spec = "{ \"ids\": true, \"omit\": [ 1,4,5,6,8,9 ], \"bag_of_words\": [ 2, 7 ] }";
+		else if (type == TransformType.BIN)
+			spec = "{ \"ids\": true, \"bin\": [ { \"id\": 2, \"method\": \"equi-height-approx\", " +
+					"\"numbins\": 5, \"eps\": 0.01 }, { \"id\": 6, \"method\": \"equi-width\", \"numbins\": 4 } ] }";
 
 		frame.setSchema(schema);
 		String[] cnames = frame.getColumnNames();
@@ -171,6 +179,12 @@ public class ColumnEncoderSerializationTest extends AutomatedTestBase
 				});
 			}
 		}
+		if(type == TransformType.BIN){
+			List<ColumnEncoderBin> encsIn = encoderIn.getColumnEncoders(ColumnEncoderBin.class);
+			List<ColumnEncoderBin> encsOut = encoderOut.getColumnEncoders(ColumnEncoderBin.class);
+			for (int i = 0; i < encsIn.size(); i++)
+				Assert.assertEquals(encsIn.get(i).getApproxError(), encsOut.get(i).getApproxError(), 0);
+		}
 
 	}
 